@@ -0,0 +1,14 @@
+package com.company.inspection.loadtest;
+
+/**
+ * What a virtual user does in one iteration; an action issues one or more {@link Operation}s
+ */
+public enum Action {
+
+    // Inspector opens the form of a car: questions plus the previous answers
+    OPEN_FORM,
+    // Inspector submits the form they opened
+    SUBMIT_INSPECTION,
+    // Back office pages through the history of a car and opens some of its inspections
+    BROWSE_HISTORY
+}
@@ -0,0 +1,77 @@
+package com.company.inspection.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares the measured stages of a run with a baseline run of the same scenario. An operation
+ * regresses when its throughput drops, or its p95/p99 latency or error rate rises, by more than
+ * the allowed fraction.
+ */
+public class BaselineComparison {
+
+    public record Change(String stage, Operation operation, String metric, double baseline, double current,
+                         boolean regression) {
+
+        public double relativeChange() {
+            return baseline == 0 ? 0 : (current - baseline) / baseline;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-18s %-18s %-12s %12.3f -> %12.3f  %+7.1f%%%s", stage, operation, metric,
+                    baseline, current, relativeChange() * 100, regression ? "  REGRESSION" : "");
+        }
+    }
+
+    private final double maxRegression;
+
+    public BaselineComparison(double maxRegression) {
+        this.maxRegression = maxRegression;
+    }
+
+    public List<Change> compare(LoadReport baseline, LoadReport current) {
+        if (!baseline.scenario().equals(current.scenario())) {
+            throw new IllegalArgumentException("Baseline is a '" + baseline.scenario()
+                    + "' run, cannot compare it with '" + current.scenario() + "'");
+        }
+        List<Change> changes = new ArrayList<>();
+        for (LoadReport.StageReport stage : current.stages()) {
+            LoadReport.StageReport baselineStage = baseline.stage(stage.name());
+            if (!stage.measured() || baselineStage == null) {
+                continue;
+            }
+            for (Map.Entry<Operation, LoadReport.OperationReport> entry : stage.operations().entrySet()) {
+                LoadReport.OperationReport before = baselineStage.operations().get(entry.getKey());
+                if (before != null) {
+                    compare(stage.name(), entry.getKey(), before, entry.getValue(), changes);
+                }
+            }
+        }
+        return changes;
+    }
+
+    private void compare(String stage, Operation operation, LoadReport.OperationReport before,
+                         LoadReport.OperationReport after, List<Change> changes) {
+        changes.add(new Change(stage, operation, "throughput", before.throughputPerSecond(), after.throughputPerSecond(),
+                after.throughputPerSecond() < before.throughputPerSecond() * (1 - maxRegression)));
+        changes.add(new Change(stage, operation, "p95 ms", before.latencyMs().p95(), after.latencyMs().p95(),
+                after.latencyMs().p95() > before.latencyMs().p95() * (1 + maxRegression)));
+        changes.add(new Change(stage, operation, "p99 ms", before.latencyMs().p99(), after.latencyMs().p99(),
+                after.latencyMs().p99() > before.latencyMs().p99() * (1 + maxRegression)));
+
+        double errorRateBefore = errorRate(before);
+        double errorRateAfter = errorRate(after);
+        changes.add(new Change(stage, operation, "error rate", errorRateBefore, errorRateAfter,
+                errorRateAfter > errorRateBefore + maxRegression));
+    }
+
+    private static double errorRate(LoadReport.OperationReport report) {
+        return report.count() == 0 ? 0 : (double) report.errors() / report.count();
+    }
+
+    public static boolean hasRegression(List<Change> changes) {
+        return changes.stream().anyMatch(Change::regression);
+    }
+}
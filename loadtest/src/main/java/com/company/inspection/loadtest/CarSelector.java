@@ -0,0 +1,47 @@
+package com.company.inspection.loadtest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Picks the car a virtual user works on next
+ */
+public interface CarSelector {
+
+    /**
+     * Next car id, or null when the selector is exhausted and the stage should end
+     */
+    String next(Random random);
+
+    /**
+     * Skewed towards the start of the list: a few cars get most of the traffic, like the cars
+     * currently in the workshop, while the rest of the fleet is visited now and then
+     */
+    static CarSelector skewed(List<String> cars) {
+        return random -> {
+            double r = random.nextDouble();
+            return cars.get((int) (cars.size() * r * r * r));
+        };
+    }
+
+    static CarSelector uniform(List<String> cars) {
+        return random -> cars.get(random.nextInt(cars.size()));
+    }
+
+    /**
+     * Every car exactly once in shuffled order, shared by all virtual users, so that no request
+     * can be answered from a cache filled by an earlier one
+     */
+    static CarSelector eachOnce(List<String> cars, long seed) {
+        List<String> shuffled = new ArrayList<>(cars);
+        Collections.shuffle(shuffled, new Random(seed));
+        AtomicInteger position = new AtomicInteger();
+        return random -> {
+            int index = position.getAndIncrement();
+            return index < shuffled.size() ? shuffled.get(index) : null;
+        };
+    }
+}
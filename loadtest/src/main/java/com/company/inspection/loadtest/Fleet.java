@@ -0,0 +1,18 @@
+package com.company.inspection.loadtest;
+
+import java.util.List;
+
+/**
+ * The cars prepared by the setup step (each with inspection history) and the ids of the active questions
+ *
+ * @param seed seed of the run, for selectors that shuffle the fleet
+ */
+public record Fleet(List<String> cars, List<Long> questionIds, long seed) {
+
+    /**
+     * The first cars of the fleet, the working set of the cache-warm runs
+     */
+    public List<String> hotCars(int count) {
+        return cars.subList(0, Math.min(count, cars.size()));
+    }
+}
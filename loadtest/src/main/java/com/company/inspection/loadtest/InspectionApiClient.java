@@ -0,0 +1,164 @@
+package com.company.inspection.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Thin client for the inspection API. Calls never throw: failures are returned as a response
+ * with status 0 and the exception class as error, so they can be counted like HTTP errors.
+ */
+public class InspectionApiClient {
+
+    static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    // Share of submitted answers that report damage (YES answers carry a description and photos)
+    private static final double DAMAGE_RATE = 0.15;
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final Duration requestTimeout;
+
+    public InspectionApiClient(String baseUrl, Duration requestTimeout, ObjectMapper objectMapper) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.requestTimeout = requestTimeout;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(requestTimeout)
+                .build();
+    }
+
+    public record Response(int status, String body, String error, long latencyNanos) {
+
+        public boolean isSuccess() {
+            return status >= 200 && status < 300;
+        }
+
+        /**
+         * Key the response is counted under in the report: the HTTP status or the exception
+         */
+        public String outcome() {
+            return error != null ? error : String.valueOf(status);
+        }
+    }
+
+    public Response openForm(String clientId, String carId) {
+        return get(clientId, "/api/v1/inspections/" + encode(carId) + "/questions");
+    }
+
+    public Response listHistory(String clientId, String carId) {
+        return get(clientId, "/api/v1/inspections/car/" + encode(carId));
+    }
+
+    public Response viewInspection(String clientId, long inspectionId) {
+        return get(clientId, "/api/v1/inspections/" + inspectionId);
+    }
+
+    public Response viewDiff(String clientId, String carId) {
+        return get(clientId, "/api/v1/inspections/car/" + encode(carId) + "/diff");
+    }
+
+    public Response submitInspection(String clientId, String carId, List<Long> questionIds, Random random) {
+        ObjectNode request = objectMapper.createObjectNode();
+        request.put("carId", carId);
+        ArrayNode answers = request.putArray("answers");
+        for (Long questionId : questionIds) {
+            ObjectNode answer = answers.addObject();
+            answer.put("questionId", questionId);
+            if (random.nextDouble() < DAMAGE_RATE) {
+                answer.put("answer", "YES");
+                answer.put("description", "Load test finding on question " + questionId);
+                answer.putArray("photoUrls").add("/photos/loadtest/" + UUID.randomUUID() + ".jpg");
+            } else {
+                answer.put("answer", "NO");
+            }
+        }
+        try {
+            return send(clientId, HttpRequest.newBuilder(uri("/api/v1/inspections"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(request))));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot serialize inspection request", e);
+        }
+    }
+
+    /**
+     * Ids of the inspections in a history response, newest first
+     */
+    public List<Long> inspectionIds(Response history) {
+        List<Long> ids = new ArrayList<>();
+        JsonNode inspections = readTree(history).path("inspections");
+        for (JsonNode inspection : inspections) {
+            ids.add(inspection.path("inspectionId").asLong());
+        }
+        return ids;
+    }
+
+    /**
+     * Ids of the questions in a form response
+     */
+    public List<Long> questionIds(Response form) {
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode question : readTree(form).path("questions")) {
+            ids.add(question.path("id").asLong());
+        }
+        return ids;
+    }
+
+    private JsonNode readTree(Response response) {
+        if (!response.isSuccess()) {
+            return objectMapper.missingNode();
+        }
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            return objectMapper.missingNode();
+        }
+    }
+
+    private Response get(String clientId, String path) {
+        return send(clientId, HttpRequest.newBuilder(uri(path)).GET());
+    }
+
+    private Response send(String clientId, HttpRequest.Builder builder) {
+        HttpRequest request = builder
+                .timeout(requestTimeout)
+                .header("Accept", "application/json")
+                .header(CLIENT_ID_HEADER, clientId)
+                .build();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            return new Response(response.statusCode(), response.body(), null, System.nanoTime() - start);
+        } catch (IOException e) {
+            return new Response(0, null, e.getClass().getSimpleName(), System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Response(0, null, "Interrupted", System.nanoTime() - start);
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+}
@@ -0,0 +1,78 @@
+package com.company.inspection.loadtest;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencies and outcomes of one virtual user. Each user records into its own instance without
+ * synchronization; the recorders of a stage are merged once all users have stopped.
+ */
+public class LatencyRecorder {
+
+    private final Map<Operation, Samples> samples = new EnumMap<>(Operation.class);
+
+    public void record(Operation operation, InspectionApiClient.Response response) {
+        samples.computeIfAbsent(operation, key -> new Samples()).add(response);
+    }
+
+    public void mergeFrom(LatencyRecorder other) {
+        other.samples.forEach((operation, theirs) ->
+                samples.computeIfAbsent(operation, key -> new Samples()).addAll(theirs));
+    }
+
+    public Map<Operation, Samples> getSamples() {
+        return samples;
+    }
+
+    public static class Samples {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+        private final Map<String, Long> outcomes = new TreeMap<>();
+
+        void add(InspectionApiClient.Response response) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = response.latencyNanos();
+            if (!response.isSuccess()) {
+                errors++;
+            }
+            outcomes.merge(response.outcome(), 1L, Long::sum);
+        }
+
+        void addAll(Samples other) {
+            if (count + other.count > latencies.length) {
+                latencies = Arrays.copyOf(latencies, Math.max(latencies.length * 2, count + other.count));
+            }
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            errors += other.errors;
+            other.outcomes.forEach((outcome, n) -> outcomes.merge(outcome, n, Long::sum));
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public Map<String, Long> getOutcomes() {
+            return outcomes;
+        }
+
+        /**
+         * Latencies in nanoseconds, sorted
+         */
+        public long[] sorted() {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.company.inspection.loadtest;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Machine-readable result of a run, written as JSON and read back as the baseline of later runs
+ */
+public record LoadReport(String scenario, String description, String baseUrl, String startedAt, long seed,
+                         int fleetSize, List<StageReport> stages) {
+
+    public StageReport stage(String name) {
+        return stages.stream().filter(stage -> stage.name().equals(name)).findFirst().orElse(null);
+    }
+
+    public record StageReport(String name, boolean measured, int users, double durationSeconds,
+                              long requests, long errors, double throughputPerSecond,
+                              Map<Operation, OperationReport> operations) {
+    }
+
+    public record OperationReport(String endpoint, long count, long errors, double throughputPerSecond,
+                                  Latency latencyMs, Map<String, Long> outcomes) {
+    }
+
+    public record Latency(double mean, double p50, double p90, double p95, double p99, double p999, double max) {
+
+        private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+        /**
+         * Nearest-rank percentiles of sorted latencies in nanoseconds
+         */
+        public static Latency of(long[] sorted) {
+            if (sorted.length == 0) {
+                return new Latency(0, 0, 0, 0, 0, 0, 0);
+            }
+            double sum = 0;
+            for (long latency : sorted) {
+                sum += latency;
+            }
+            return new Latency(
+                    round(sum / sorted.length),
+                    percentile(sorted, 0.50),
+                    percentile(sorted, 0.90),
+                    percentile(sorted, 0.95),
+                    percentile(sorted, 0.99),
+                    percentile(sorted, 0.999),
+                    round(sorted[sorted.length - 1]));
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            int rank = (int) Math.ceil(quantile * sorted.length);
+            return round(sorted[Math.max(0, rank - 1)]);
+        }
+
+        private static double round(double nanos) {
+            return Math.round(nanos / NANOS_PER_MILLI * 1000) / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.company.inspection.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Prepares the fleet and runs the stages of a scenario with closed-loop virtual users: each user
+ * sends its next request only after the previous one completed, so throughput is what the
+ * application sustains at that concurrency and latencies are those seen by a client.
+ */
+public class LoadRunner {
+
+    private static final String SETUP_PROBE_CAR = "LT-PROBE";
+    private static final int SETUP_THREADS = 16;
+    private static final int SETUP_ATTEMPTS = 20;
+    private static final long SETUP_RETRY_MILLIS = 500;
+    // History entries opened per browse action
+    private static final int VIEWS_PER_BROWSE = 2;
+
+    private final InspectionApiClient client;
+    private final long seed;
+
+    public LoadRunner(InspectionApiClient client, long seed) {
+        this.client = client;
+        this.seed = seed;
+    }
+
+    /**
+     * Makes sure every car of the fleet has at least {@code history} inspections. Cars are named
+     * deterministically, so later runs reuse the fleet and only top up what is missing.
+     */
+    public Fleet prepareFleet(int cars, int history, boolean skip) {
+        InspectionApiClient.Response form = client.openForm("loadtest-setup", SETUP_PROBE_CAR);
+        if (!form.isSuccess()) {
+            throw new IllegalStateException("Cannot load the questions (" + form.outcome() + "), is the application up?");
+        }
+        List<Long> questionIds = client.questionIds(form);
+        List<String> fleet = IntStream.range(0, cars).mapToObj(i -> String.format("LT-CAR-%05d", i)).toList();
+        if (skip) {
+            return new Fleet(fleet, questionIds, seed);
+        }
+
+        System.out.printf("Preparing %d cars with %d inspections each%n", cars, history);
+        AtomicInteger created = new AtomicInteger();
+        try (ExecutorService executor = Executors.newFixedThreadPool(SETUP_THREADS)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < fleet.size(); i++) {
+                String carId = fleet.get(i);
+                String clientId = "loadtest-setup-" + (i % SETUP_THREADS);
+                Random random = new Random(seed + i);
+                futures.add(executor.submit(() -> {
+                    InspectionApiClient.Response existing = withRetry(() -> client.listHistory(clientId, carId));
+                    for (int n = client.inspectionIds(existing).size(); n < history; n++) {
+                        withRetry(() -> client.submitInspection(clientId, carId, questionIds, random));
+                        created.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while preparing the fleet", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Preparing the fleet failed: " + e.getCause().getMessage(), e.getCause());
+        }
+        System.out.printf("Created %d inspections%n", created.get());
+        return new Fleet(fleet, questionIds, seed);
+    }
+
+    // Setup is not measured; ride out admission control rejections instead of failing
+    private InspectionApiClient.Response withRetry(Supplier<InspectionApiClient.Response> call) {
+        InspectionApiClient.Response response = null;
+        for (int attempt = 0; attempt < SETUP_ATTEMPTS; attempt++) {
+            response = call.get();
+            if (response.isSuccess()) {
+                return response;
+            }
+            if (response.status() != 429 && response.status() != 503) {
+                break;
+            }
+            sleep(Duration.ofMillis(SETUP_RETRY_MILLIS));
+        }
+        throw new IllegalStateException("Setup request failed with " + response.outcome());
+    }
+
+    public LoadReport.StageReport runStage(int stageIndex, Stage stage, Fleet fleet) {
+        System.out.printf("Stage %s: %d users for %d s%s%n", stage.name(), stage.users(),
+                stage.duration().toSeconds(), stage.measured() ? "" : " (not measured)");
+
+        CarSelector cars = stage.cars().apply(fleet);
+        Action[] actions = weightedActions(stage.mix());
+        List<LatencyRecorder> recorders = new ArrayList<>();
+        long start = System.nanoTime();
+        long deadline = start + stage.duration().toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < stage.users(); user++) {
+                LatencyRecorder recorder = new LatencyRecorder();
+                recorders.add(recorder);
+                String clientId = "loadtest-" + stage.name() + "-" + user;
+                Random random = new Random(seed * 31 + stageIndex * 10_007L + user);
+                executor.submit(() -> runUser(clientId, random, stage, actions, cars, fleet, recorder, deadline));
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        LatencyRecorder merged = new LatencyRecorder();
+        recorders.forEach(merged::mergeFrom);
+        LoadReport.StageReport report = report(stage, merged, elapsedSeconds);
+        System.out.printf("  %d requests, %d errors, %.1f req/s%n", report.requests(), report.errors(),
+                report.throughputPerSecond());
+        return report;
+    }
+
+    private void runUser(String clientId, Random random, Stage stage, Action[] actions, CarSelector cars,
+                         Fleet fleet, LatencyRecorder recorder, long deadline) {
+        while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+            String carId = cars.next(random);
+            if (carId == null) {
+                return;
+            }
+            Action action = actions[random.nextInt(actions.length)];
+            switch (action) {
+                case OPEN_FORM -> recorder.record(Operation.OPEN_FORM, client.openForm(clientId, carId));
+                case SUBMIT_INSPECTION -> recorder.record(Operation.SUBMIT_INSPECTION,
+                        client.submitInspection(clientId, carId, fleet.questionIds(), random));
+                case BROWSE_HISTORY -> browseHistory(clientId, carId, random, recorder);
+            }
+            if (!stage.thinkTime().isZero()) {
+                sleep(stage.thinkTime());
+            }
+        }
+    }
+
+    private void browseHistory(String clientId, String carId, Random random, LatencyRecorder recorder) {
+        InspectionApiClient.Response history = client.listHistory(clientId, carId);
+        recorder.record(Operation.LIST_HISTORY, history);
+        List<Long> inspectionIds = client.inspectionIds(history);
+        for (int i = 0; i < VIEWS_PER_BROWSE && !inspectionIds.isEmpty(); i++) {
+            long inspectionId = inspectionIds.get(random.nextInt(inspectionIds.size()));
+            recorder.record(Operation.VIEW_INSPECTION, client.viewInspection(clientId, inspectionId));
+        }
+        if (inspectionIds.size() >= 2 && random.nextBoolean()) {
+            recorder.record(Operation.VIEW_DIFF, client.viewDiff(clientId, carId));
+        }
+    }
+
+    private static LoadReport.StageReport report(Stage stage, LatencyRecorder recorder, double elapsedSeconds) {
+        Map<Operation, LoadReport.OperationReport> operations = new EnumMap<>(Operation.class);
+        long requests = 0;
+        long errors = 0;
+        for (Map.Entry<Operation, LatencyRecorder.Samples> entry : recorder.getSamples().entrySet()) {
+            LatencyRecorder.Samples samples = entry.getValue();
+            operations.put(entry.getKey(), new LoadReport.OperationReport(
+                    entry.getKey().getEndpoint(),
+                    samples.getCount(),
+                    samples.getErrors(),
+                    perSecond(samples.getCount(), elapsedSeconds),
+                    LoadReport.Latency.of(samples.sorted()),
+                    samples.getOutcomes()));
+            requests += samples.getCount();
+            errors += samples.getErrors();
+        }
+        return new LoadReport.StageReport(stage.name(), stage.measured(), stage.users(),
+                Math.round(elapsedSeconds * 1000) / 1000.0, requests, errors, perSecond(requests, elapsedSeconds),
+                operations);
+    }
+
+    private static double perSecond(long count, double seconds) {
+        return seconds > 0 ? Math.round(count / seconds * 10) / 10.0 : 0;
+    }
+
+    // Expands the weights into a lookup table, so picking an action is a single random index
+    private static Action[] weightedActions(Map<Action, Integer> mix) {
+        List<Action> table = new ArrayList<>();
+        mix.forEach((action, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                table.add(action);
+            }
+        });
+        // Map.of iterates in no fixed order; sort so the same seed replays the same sequence
+        table.sort(null);
+        return table.toArray(Action[]::new);
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
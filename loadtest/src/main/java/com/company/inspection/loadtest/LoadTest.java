@@ -0,0 +1,174 @@
+package com.company.inspection.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line entry point of the load generator.
+ *
+ * <pre>
+ * --scenario NAME         scenario to run (--list shows them)
+ * --base-url URL          application under test (default http://localhost:8080)
+ * --users N               virtual users of the measured stages (default per scenario)
+ * --duration SECONDS      length of the measured stages (default per scenario)
+ * --cars N                size of the prepared fleet (default 1000)
+ * --history N             inspections per car prepared before the run (default 3)
+ * --skip-setup            use the fleet of an earlier run as is
+ * --seed N                seed of all random choices (default 42)
+ * --request-timeout SEC   per-request timeout (default 10)
+ * --output FILE           JSON report (default target/loadtest/SCENARIO-TIMESTAMP.json)
+ * --baseline FILE         report of an earlier run to compare with
+ * --max-regression F      allowed relative regression against the baseline (default 0.10)
+ * </pre>
+ *
+ * Exits with 1 on invalid arguments or a failed setup, and with 2 when the run regressed
+ * against the baseline.
+ */
+public final class LoadTest {
+
+    private static final int EXIT_FAILURE = 1;
+    private static final int EXIT_REGRESSION = 2;
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) {
+        try {
+            System.exit(run(parse(args)));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            System.err.println(e.getMessage());
+            System.exit(EXIT_FAILURE);
+        }
+    }
+
+    private static int run(Map<String, String> options) {
+        if (options.containsKey("list")) {
+            Scenarios.all().forEach(scenario -> System.out.printf("%-18s %s%n", scenario.name(), scenario.description()));
+            return 0;
+        }
+        if (!options.containsKey("scenario")) {
+            throw new IllegalArgumentException("Missing --scenario, use --list to see the available scenarios");
+        }
+        Scenario scenario = Scenarios.get(options.get("scenario"));
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        long seed = longOption(options, "seed", 42);
+        int cars = (int) longOption(options, "cars", 1000);
+        int history = (int) longOption(options, "history", 3);
+        double maxRegression = Double.parseDouble(options.getOrDefault("max-regression", "0.10"));
+        Duration requestTimeout = Duration.ofSeconds(longOption(options, "request-timeout", 10));
+        Path output = Path.of(options.getOrDefault("output", "target/loadtest/" + scenario.name() + "-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json"));
+
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        LoadRunner runner = new LoadRunner(new InspectionApiClient(baseUrl, requestTimeout, objectMapper), seed);
+        String startedAt = OffsetDateTime.now().toString();
+        Fleet fleet = runner.prepareFleet(cars, history, options.containsKey("skip-setup"));
+
+        System.out.printf("Running %s against %s%n", scenario.name(), baseUrl);
+        List<LoadReport.StageReport> stages = new ArrayList<>();
+        List<Stage> plan = scenario.stages();
+        for (int i = 0; i < plan.size(); i++) {
+            Stage stage = plan.get(i);
+            if (stage.measured() && options.containsKey("users")) {
+                stage = stage.withUsers((int) longOption(options, "users", stage.users()));
+            }
+            if (stage.measured() && options.containsKey("duration")) {
+                stage = stage.withDuration(Duration.ofSeconds(longOption(options, "duration", 0)));
+            }
+            stages.add(runner.runStage(i, stage, fleet));
+        }
+
+        LoadReport report = new LoadReport(scenario.name(), scenario.description(), baseUrl, startedAt, seed,
+                fleet.cars().size(), stages);
+        write(objectMapper, report, output);
+        printSummary(report);
+
+        if (!options.containsKey("baseline")) {
+            return 0;
+        }
+        LoadReport baseline = read(objectMapper, Path.of(options.get("baseline")));
+        List<BaselineComparison.Change> changes = new BaselineComparison(maxRegression).compare(baseline, report);
+        System.out.println();
+        System.out.println("Compared with " + options.get("baseline") + " (started " + baseline.startedAt() + ")");
+        changes.forEach(System.out::println);
+        if (BaselineComparison.hasRegression(changes)) {
+            System.out.printf("Regressed by more than %.0f%% against the baseline%n", maxRegression * 100);
+            return EXIT_REGRESSION;
+        }
+        return 0;
+    }
+
+    private static void printSummary(LoadReport report) {
+        System.out.println();
+        System.out.printf("%-18s %-18s %9s %7s %9s %9s %9s %9s %9s%n",
+                "stage", "operation", "count", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (LoadReport.StageReport stage : report.stages()) {
+            stage.operations().forEach((operation, result) -> System.out.printf(
+                    "%-18s %-18s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    stage.name() + (stage.measured() ? "" : "*"), operation, result.count(), result.errors(),
+                    result.throughputPerSecond(), result.latencyMs().p50(), result.latencyMs().p95(),
+                    result.latencyMs().p99(), result.latencyMs().max()));
+        }
+    }
+
+    private static void write(ObjectMapper objectMapper, LoadReport report, Path output) {
+        try {
+            Path parent = output.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            objectMapper.writeValue(output.toFile(), report);
+            System.out.println("Report written to " + output);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot write report to " + output + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static LoadReport read(ObjectMapper objectMapper, Path baseline) {
+        try {
+            return objectMapper.readValue(baseline.toFile(), LoadReport.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read baseline " + baseline + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument '" + args[i] + "'");
+            }
+            String name = args[i].substring(2);
+            if (name.equals("list") || name.equals("skip-setup")) {
+                options.put(name, "true");
+            } else if (i + 1 < args.length) {
+                options.put(name, args[++i]);
+            } else {
+                throw new IllegalArgumentException("Missing value for --" + name);
+            }
+        }
+        return options;
+    }
+
+    private static long longOption(Map<String, String> options, String name, long defaultValue) {
+        String value = options.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + name + " must be a number, got '" + value + "'");
+        }
+    }
+}
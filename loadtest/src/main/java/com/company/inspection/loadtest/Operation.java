@@ -0,0 +1,23 @@
+package com.company.inspection.loadtest;
+
+/**
+ * A single API call, the unit latencies and throughput are reported for
+ */
+public enum Operation {
+
+    OPEN_FORM("GET /api/v1/inspections/{carId}/questions"),
+    SUBMIT_INSPECTION("POST /api/v1/inspections"),
+    LIST_HISTORY("GET /api/v1/inspections/car/{carId}"),
+    VIEW_INSPECTION("GET /api/v1/inspections/{inspectionId}"),
+    VIEW_DIFF("GET /api/v1/inspections/car/{carId}/diff");
+
+    private final String endpoint;
+
+    Operation(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+}
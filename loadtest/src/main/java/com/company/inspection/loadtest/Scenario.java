@@ -0,0 +1,6 @@
+package com.company.inspection.loadtest;
+
+import java.util.List;
+
+public record Scenario(String name, String description, List<Stage> stages) {
+}
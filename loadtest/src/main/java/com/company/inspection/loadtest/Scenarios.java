@@ -0,0 +1,83 @@
+package com.company.inspection.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The scenario suite. Mixes and user counts follow the traffic of a working day: inspectors open
+ * forms far more often than they submit them, most submissions arrive in the last minutes of a
+ * shift, and the back office browses histories in between.
+ */
+public final class Scenarios {
+
+    private static final int HOT_CARS = 100;
+
+    private static final Map<Action, Integer> READ_MIX = Map.of(
+            Action.OPEN_FORM, 70,
+            Action.BROWSE_HISTORY, 20,
+            Action.SUBMIT_INSPECTION, 10);
+
+    private static final Map<String, Scenario> SCENARIOS = new LinkedHashMap<>();
+
+    static {
+        register(new Scenario("read-mix",
+                "Read-heavy working-day mix of form opens, history browsing and some submissions",
+                List.of(
+                        new Stage("warmup", false, 16, Duration.ofSeconds(15), Duration.ofMillis(50),
+                                READ_MIX, fleet -> CarSelector.skewed(fleet.cars())),
+                        new Stage("steady", true, 32, Duration.ofSeconds(60), Duration.ofMillis(50),
+                                READ_MIX, fleet -> CarSelector.skewed(fleet.cars())))));
+
+        register(new Scenario("shift-end-burst",
+                "Normal traffic followed by every inspector submitting at the end of the shift",
+                List.of(
+                        new Stage("before-shift-end", true, 16, Duration.ofSeconds(30), Duration.ofMillis(50),
+                                READ_MIX, fleet -> CarSelector.skewed(fleet.cars())),
+                        new Stage("burst", true, 64, Duration.ofSeconds(60), Duration.ZERO,
+                                Map.of(Action.SUBMIT_INSPECTION, 80, Action.OPEN_FORM, 20),
+                                fleet -> CarSelector.uniform(fleet.cars())))));
+
+        register(new Scenario("history-browsing",
+                "Back office paging through car histories and opening individual inspections",
+                List.of(
+                        new Stage("warmup", false, 8, Duration.ofSeconds(10), Duration.ofMillis(100),
+                                Map.of(Action.BROWSE_HISTORY, 1), fleet -> CarSelector.uniform(fleet.cars())),
+                        new Stage("browsing", true, 32, Duration.ofSeconds(60), Duration.ofMillis(100),
+                                Map.of(Action.BROWSE_HISTORY, 1), fleet -> CarSelector.uniform(fleet.cars())))));
+
+        register(new Scenario("cache-cold",
+                "Form opens that each hit a different car once; run right after an application restart",
+                List.of(
+                        new Stage("cold", true, 32, Duration.ofSeconds(120), Duration.ZERO,
+                                Map.of(Action.OPEN_FORM, 1), fleet -> CarSelector.eachOnce(fleet.cars(), fleet.seed())))));
+
+        register(new Scenario("cache-warm",
+                "Form opens over a small working set after it has been loaded into the caches",
+                List.of(
+                        new Stage("warmup", false, 16, Duration.ofSeconds(20), Duration.ZERO,
+                                Map.of(Action.OPEN_FORM, 1), fleet -> CarSelector.uniform(fleet.hotCars(HOT_CARS))),
+                        new Stage("warm", true, 32, Duration.ofSeconds(60), Duration.ZERO,
+                                Map.of(Action.OPEN_FORM, 1), fleet -> CarSelector.uniform(fleet.hotCars(HOT_CARS))))));
+    }
+
+    private Scenarios() {
+    }
+
+    private static void register(Scenario scenario) {
+        SCENARIOS.put(scenario.name(), scenario);
+    }
+
+    public static Scenario get(String name) {
+        Scenario scenario = SCENARIOS.get(name);
+        if (scenario == null) {
+            throw new IllegalArgumentException("Unknown scenario '" + name + "', available: " + SCENARIOS.keySet());
+        }
+        return scenario;
+    }
+
+    public static Iterable<Scenario> all() {
+        return SCENARIOS.values();
+    }
+}
@@ -0,0 +1,23 @@
+package com.company.inspection.loadtest;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A phase of a scenario: a fixed number of closed-loop virtual users repeating weighted actions
+ * for a duration. Stages that are not measured (warm-up) run but are left out of the comparison.
+ *
+ * @param cars builds the car selector from the seeded fleet when the stage starts
+ */
+public record Stage(String name, boolean measured, int users, Duration duration, Duration thinkTime,
+                    Map<Action, Integer> mix, Function<Fleet, CarSelector> cars) {
+
+    public Stage withUsers(int users) {
+        return new Stage(name, measured, users, duration, thinkTime, mix, cars);
+    }
+
+    public Stage withDuration(Duration duration) {
+        return new Stage(name, measured, users, duration, thinkTime, mix, cars);
+    }
+}
@@ -0,0 +1,26 @@
+#!/bin/bash
+# Write throughput of POST /api/v1/inspections with random car ids.
+# Run once against a single database and once with the 'sharded' profile to compare:
+#   ./scripts/shard-write-benchmark.sh [requests] [concurrency]
+
+BASE_URL="${BASE_URL:-http://localhost:8080}"
+REQUESTS="${1:-5000}"
+CONCURRENCY="${2:-32}"
+
+post_inspection() {
+  curl -s -o /dev/null -w "%{http_code}\n" -X POST "$BASE_URL/api/v1/inspections" \
+    -H "Content-Type: application/json" \
+    -H "X-Client-Id: benchmark-$((RANDOM % 64))" \
+    -d "{\"carId\":\"BENCH-$1-$RANDOM\",\"answers\":[{\"questionId\":1,\"answer\":\"NO\"},{\"questionId\":2,\"answer\":\"NO\"},{\"questionId\":3,\"answer\":\"NO\"}]}"
+}
+export -f post_inspection
+export BASE_URL
+
+echo "Posting $REQUESTS inspections with concurrency $CONCURRENCY to $BASE_URL"
+START=$(date +%s.%N)
+RESULTS=$(seq "$REQUESTS" | xargs -P "$CONCURRENCY" -I{} bash -c 'post_inspection {}')
+END=$(date +%s.%N)
+
+SECONDS_TAKEN=$(echo "$END - $START" | bc)
+echo "$RESULTS" | sort | uniq -c | sed 's/^/  HTTP /'
+echo "Throughput: $(echo "scale=1; $REQUESTS / $SECONDS_TAKEN" | bc) inspections/s"
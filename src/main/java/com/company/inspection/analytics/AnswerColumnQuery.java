@@ -0,0 +1,33 @@
+package com.company.inspection.analytics;
+
+import java.util.BitSet;
+
+/**
+ * Filter and grouping of a column store query. Days are epoch days, both bounds inclusive.
+ *
+ * @param questionIds questions to include, or null for all
+ * @param answer      {@link AnswerColumnStore#YES} or {@link AnswerColumnStore#NO}, or null for both
+ */
+public record AnswerColumnQuery(GroupBy groupBy, BitSet questionIds, int fromDay, int toDay, Byte answer) {
+
+    public enum GroupBy {
+        NONE,
+        QUESTION,
+        DAY,
+        QUESTION_AND_DAY
+    }
+
+    boolean matches(int questionId, byte rowAnswer) {
+        return (answer == null || answer == rowAnswer) && (questionIds == null || questionIds.get(questionId));
+    }
+
+    // Group key of a row: question id in the high half, epoch day in the low half, ungrouped parts zero
+    long groupKey(int questionId, int epochDay) {
+        return switch (groupBy) {
+            case NONE -> 0L;
+            case QUESTION -> (long) questionId << 32;
+            case DAY -> epochDay & 0xFFFFFFFFL;
+            case QUESTION_AND_DAY -> ((long) questionId << 32) | (epochDay & 0xFFFFFFFFL);
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package com.company.inspection.analytics;
+
+import java.util.List;
+
+/**
+ * Groups of a column store query, ordered by question id and day. Fields that are not part of
+ * the grouping are null.
+ */
+public record AnswerColumnResult(List<Group> groups, long rowsScanned, long rowsMatched) {
+
+    public record Group(Integer questionId, Integer epochDay, long yesCount, long noCount, long inspectionCount) {
+    }
+}
@@ -0,0 +1,53 @@
+package com.company.inspection.analytics;
+
+/**
+ * A fixed-capacity block of answer rows stored column by column. Rows are only ever appended
+ * by the store's single writer; the size is published last, so a reader that reads the size
+ * first sees every row below it fully written.
+ */
+final class AnswerColumnSegment {
+
+    final int[] questionIds;
+    final long[] inspectionIds;
+    final byte[] answers;
+    final int[] epochDays;
+
+    // Day range of the rows written so far, for skipping whole segments
+    private int minDay = Integer.MAX_VALUE;
+    private int maxDay = Integer.MIN_VALUE;
+    private volatile int size;
+
+    AnswerColumnSegment(int capacity) {
+        this.questionIds = new int[capacity];
+        this.inspectionIds = new long[capacity];
+        this.answers = new byte[capacity];
+        this.epochDays = new int[capacity];
+    }
+
+    boolean isFull() {
+        return size == questionIds.length;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int minDay() {
+        return minDay;
+    }
+
+    int maxDay() {
+        return maxDay;
+    }
+
+    void append(int questionId, long inspectionId, byte answer, int epochDay) {
+        int row = size;
+        questionIds[row] = questionId;
+        inspectionIds[row] = inspectionId;
+        answers[row] = answer;
+        epochDays[row] = epochDay;
+        minDay = Math.min(minDay, epochDay);
+        maxDay = Math.max(maxDay, epochDay);
+        size = row + 1;
+    }
+}
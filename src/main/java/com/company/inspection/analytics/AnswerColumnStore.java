@@ -0,0 +1,263 @@
+package com.company.inspection.analytics;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Recent inspection answers held in memory as primitive columns (question id, inspection id,
+ * answer, epoch day), split into fixed-size segments. Queries scan the segments in parallel
+ * on a dedicated fork/join pool and never touch the database.
+ *
+ * <p>There is a single writer at a time (appends are synchronized); queries take a snapshot
+ * of the segment list and of each segment's size, so they never see half-written rows and do
+ * not block appends. Rows of one inspection must be appended together; an inspection that is
+ * already held is not appended again. A full reload is streamed into a {@link Loader} and
+ * swapped in at once, so queries keep answering from the old rows meanwhile.
+ */
+@Component
+public class AnswerColumnStore implements DisposableBean {
+
+    public static final byte NO = 0;
+    public static final byte YES = 1;
+
+    private final int segmentRows;
+    private final ForkJoinPool pool;
+
+    // Replaced, never modified, so a query can iterate it without locking
+    private volatile List<AnswerColumnSegment> segments = List.of();
+
+    // Inspections whose rows are held, guarded by this
+    private Set<Long> inspectionIds = new HashSet<>();
+
+    public AnswerColumnStore(@Value("${inspection.analytics.segment-rows:65536}") int segmentRows,
+                             @Value("${inspection.analytics.parallelism:0}") int parallelism) {
+        if (segmentRows <= 0)
+            throw new IllegalArgumentException("Analytics segment rows must be positive");
+        this.segmentRows = segmentRows;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Append all answers of one inspection at once, so they stay next to each other; false when
+     * the inspection is already held
+     */
+    public synchronized boolean appendInspection(long inspectionId, int epochDay, int[] questionIds, byte[] answers) {
+        if (!inspectionIds.add(inspectionId)) {
+            return false;
+        }
+        List<AnswerColumnSegment> extended = appendRows(segments, segmentRows, inspectionId, epochDay, questionIds, answers);
+        if (extended != null) {
+            segments = extended;
+        }
+        return true;
+    }
+
+    /**
+     * Drop the rows of the given inspections; returns the rows dropped. Segments are rewritten
+     * without them, so this is meant for the occasional inspection archived inside the window.
+     */
+    public synchronized long removeInspections(Collection<Long> ids) {
+        Set<Long> removed = new HashSet<>();
+        for (Long id : ids) {
+            if (inspectionIds.remove(id)) {
+                removed.add(id);
+            }
+        }
+        if (removed.isEmpty()) {
+            return 0;
+        }
+
+        List<AnswerColumnSegment> rewritten = new ArrayList<>(segments.size());
+        AnswerColumnSegment tail = null;
+        long dropped = 0;
+        for (AnswerColumnSegment segment : segments) {
+            int size = segment.size();
+            for (int row = 0; row < size; row++) {
+                if (removed.contains(segment.inspectionIds[row])) {
+                    dropped++;
+                    continue;
+                }
+                if (tail == null || tail.isFull()) {
+                    tail = new AnswerColumnSegment(segmentRows);
+                    rewritten.add(tail);
+                }
+                tail.append(segment.questionIds[row], segment.inspectionIds[row], segment.answers[row], segment.epochDays[row]);
+            }
+        }
+        segments = List.copyOf(rewritten);
+        return dropped;
+    }
+
+    /**
+     * Start a full reload; rows appended to the loader become visible with {@link #install}
+     */
+    public Loader newLoader() {
+        return new Loader(segmentRows);
+    }
+
+    // Replace all rows with the loaded ones
+    public synchronized void install(Loader loader) {
+        segments = List.copyOf(loader.segments);
+        inspectionIds = loader.inspectionIds;
+    }
+
+    /**
+     * Drop the full segments whose rows are all older than the given epoch day; returns the rows dropped
+     */
+    public synchronized long evictBefore(int epochDay) {
+        List<AnswerColumnSegment> kept = new ArrayList<>(segments.size());
+        long evicted = 0;
+        for (AnswerColumnSegment segment : segments) {
+            if (segment.maxDay() < epochDay && segment.isFull()) {
+                evicted += segment.size();
+                for (long inspectionId : segment.inspectionIds) {
+                    inspectionIds.remove(inspectionId);
+                }
+            } else {
+                kept.add(segment);
+            }
+        }
+        segments = List.copyOf(kept);
+        return evicted;
+    }
+
+    public long rowCount() {
+        return segments.stream().mapToLong(AnswerColumnSegment::size).sum();
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    public AnswerColumnResult query(AnswerColumnQuery query) {
+        List<AnswerColumnSegment> snapshot = segments;
+        if (snapshot.isEmpty()) {
+            return new AnswerColumnResult(List.of(), 0, 0);
+        }
+        int[] sizes = new int[snapshot.size()];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = snapshot.get(i).size();
+        }
+
+        GroupCounters counters = pool.invoke(new ScanTask(query, snapshot, sizes, 0, snapshot.size()));
+        return new AnswerColumnResult(counters.toGroups(query.groupBy()), counters.rowsScanned, counters.rowsMatched);
+    }
+
+    // Fills the tail segment in place; returns the longer segment list when segments were added, else null
+    private static List<AnswerColumnSegment> appendRows(List<AnswerColumnSegment> current, int segmentRows,
+                                                        long inspectionId, int epochDay, int[] questionIds, byte[] answers) {
+        List<AnswerColumnSegment> extended = null;
+        AnswerColumnSegment tail = current.isEmpty() ? null : current.get(current.size() - 1);
+        for (int i = 0; i < questionIds.length; i++) {
+            if (tail == null || tail.isFull()) {
+                tail = new AnswerColumnSegment(segmentRows);
+                if (extended == null) {
+                    extended = new ArrayList<>(current);
+                }
+                extended.add(tail);
+            }
+            tail.append(questionIds[i], inspectionId, answers[i], epochDay);
+        }
+        return extended != null ? List.copyOf(extended) : null;
+    }
+
+    /**
+     * Rows of a full reload, not visible to queries until installed. Used by one thread.
+     */
+    public static final class Loader {
+
+        private final int segmentRows;
+        private final List<AnswerColumnSegment> segments = new ArrayList<>();
+        private final Set<Long> inspectionIds = new HashSet<>();
+
+        private Loader(int segmentRows) {
+            this.segmentRows = segmentRows;
+        }
+
+        // Rows of one inspection must follow each other
+        public void append(int questionId, long inspectionId, byte answer, int epochDay) {
+            AnswerColumnSegment tail = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            if (tail == null || tail.isFull()) {
+                tail = new AnswerColumnSegment(segmentRows);
+                segments.add(tail);
+            }
+            tail.append(questionId, inspectionId, answer, epochDay);
+            inspectionIds.add(inspectionId);
+        }
+
+        public long rowCount() {
+            return segments.stream().mapToLong(AnswerColumnSegment::size).sum();
+        }
+    }
+
+    /**
+     * Scans a range of segments, splitting it in halves down to single segments. Partial results
+     * are merged left to right, which keeps the inspection counts exact.
+     */
+    private static final class ScanTask extends RecursiveTask<GroupCounters> {
+
+        private final AnswerColumnQuery query;
+        private final List<AnswerColumnSegment> segments;
+        private final int[] sizes;
+        private final int from;
+        private final int to;
+
+        ScanTask(AnswerColumnQuery query, List<AnswerColumnSegment> segments, int[] sizes, int from, int to) {
+            this.query = query;
+            this.segments = segments;
+            this.sizes = sizes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected GroupCounters compute() {
+            if (to - from == 1) {
+                return scan(segments.get(from), sizes[from]);
+            }
+            int middle = (from + to) >>> 1;
+            ScanTask left = new ScanTask(query, segments, sizes, from, middle);
+            ScanTask right = new ScanTask(query, segments, sizes, middle, to);
+            left.fork();
+            GroupCounters rightCounters = right.compute();
+            return left.join().merge(rightCounters);
+        }
+
+        private GroupCounters scan(AnswerColumnSegment segment, int size) {
+            GroupCounters counters = new GroupCounters();
+            if (size == 0 || segment.maxDay() < query.fromDay() || segment.minDay() > query.toDay()) {
+                return counters;
+            }
+            counters.rowsScanned = size;
+
+            int[] questionIds = segment.questionIds;
+            long[] inspectionIds = segment.inspectionIds;
+            byte[] answers = segment.answers;
+            int[] epochDays = segment.epochDays;
+            int fromDay = query.fromDay();
+            int toDay = query.toDay();
+            for (int row = 0; row < size; row++) {
+                int day = epochDays[row];
+                if (day < fromDay || day > toDay || !query.matches(questionIds[row], answers[row])) {
+                    continue;
+                }
+                counters.add(query.groupKey(questionIds[row], day), inspectionIds[row], answers[row] == YES);
+            }
+            return counters;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,149 @@
+package com.company.inspection.analytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Counters per group key in an open-addressing table of primitive arrays, so counting a row
+ * allocates nothing. Rows of one inspection are stored next to each other, which means the
+ * inspections of a group can be counted by counting changes of the inspection id; an
+ * inspection cut in two by a slice boundary is recognised when the slices are merged in order.
+ */
+final class GroupCounters {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private boolean[] used = new boolean[INITIAL_CAPACITY];
+    private long[] yes = new long[INITIAL_CAPACITY];
+    private long[] no = new long[INITIAL_CAPACITY];
+    private long[] inspections = new long[INITIAL_CAPACITY];
+    private long[] firstInspection = new long[INITIAL_CAPACITY];
+    private long[] lastInspection = new long[INITIAL_CAPACITY];
+    private int groups;
+
+    long rowsScanned;
+    long rowsMatched;
+
+    void add(long key, long inspectionId, boolean yesAnswer) {
+        int slot = slotFor(key);
+        if (yesAnswer) {
+            yes[slot]++;
+        } else {
+            no[slot]++;
+        }
+        if (inspections[slot] == 0) {
+            firstInspection[slot] = inspectionId;
+            inspections[slot] = 1;
+        } else if (lastInspection[slot] != inspectionId) {
+            inspections[slot]++;
+        }
+        lastInspection[slot] = inspectionId;
+        rowsMatched++;
+    }
+
+    /**
+     * Add the counters of the rows that directly follow the rows of this instance
+     */
+    GroupCounters merge(GroupCounters next) {
+        for (int other = 0; other < next.keys.length; other++) {
+            if (!next.used[other]) {
+                continue;
+            }
+            int slot = slotFor(next.keys[other]);
+            yes[slot] += next.yes[other];
+            no[slot] += next.no[other];
+            if (inspections[slot] == 0) {
+                firstInspection[slot] = next.firstInspection[other];
+                inspections[slot] = next.inspections[other];
+            } else {
+                boolean continued = lastInspection[slot] == next.firstInspection[other];
+                inspections[slot] += next.inspections[other] - (continued ? 1 : 0);
+            }
+            lastInspection[slot] = next.lastInspection[other];
+        }
+        rowsScanned += next.rowsScanned;
+        rowsMatched += next.rowsMatched;
+        return this;
+    }
+
+    List<AnswerColumnResult.Group> toGroups(AnswerColumnQuery.GroupBy groupBy) {
+        long[] sortedKeys = new long[groups];
+        int index = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (used[slot]) {
+                sortedKeys[index++] = keys[slot];
+            }
+        }
+        Arrays.sort(sortedKeys);
+
+        boolean byQuestion = groupBy == AnswerColumnQuery.GroupBy.QUESTION || groupBy == AnswerColumnQuery.GroupBy.QUESTION_AND_DAY;
+        boolean byDay = groupBy == AnswerColumnQuery.GroupBy.DAY || groupBy == AnswerColumnQuery.GroupBy.QUESTION_AND_DAY;
+        List<AnswerColumnResult.Group> result = new ArrayList<>(groups);
+        for (long key : sortedKeys) {
+            int slot = slotFor(key);
+            result.add(new AnswerColumnResult.Group(
+                    byQuestion ? (int) (key >>> 32) : null,
+                    byDay ? (int) key : null,
+                    yes[slot], no[slot], inspections[slot]));
+        }
+        return result;
+    }
+
+    // Slot of the key, claimed if the key is new
+    private int slotFor(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if ((groups + 1) * 2 > keys.length) {
+            grow();
+            return slotFor(key);
+        }
+        used[slot] = true;
+        keys[slot] = key;
+        groups++;
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        boolean[] oldUsed = used;
+        long[] oldYes = yes;
+        long[] oldNo = no;
+        long[] oldInspections = inspections;
+        long[] oldFirst = firstInspection;
+        long[] oldLast = lastInspection;
+
+        int capacity = oldKeys.length * 2;
+        keys = new long[capacity];
+        used = new boolean[capacity];
+        yes = new long[capacity];
+        no = new long[capacity];
+        inspections = new long[capacity];
+        firstInspection = new long[capacity];
+        lastInspection = new long[capacity];
+        groups = 0;
+
+        for (int old = 0; old < oldKeys.length; old++) {
+            if (oldUsed[old]) {
+                int slot = slotFor(oldKeys[old]);
+                yes[slot] = oldYes[old];
+                no[slot] = oldNo[old];
+                inspections[slot] = oldInspections[old];
+                firstInspection[slot] = oldFirst[old];
+                lastInspection[slot] = oldLast[old];
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,47 @@
+package com.company.inspection.bitmap;
+
+import java.util.Arrays;
+
+/**
+ * A set of question bit positions ({@code Question.bitPosition}) packed into 64-bit words, as
+ * stored in the {@code answered_bits} and {@code yes_bits} columns of an inspection. Position
+ * {@code p} is bit {@code p % 64} of word {@code p / 64}; trailing zero words are not stored.
+ */
+public final class AnswerBitmap {
+
+    public static final int BITS_PER_WORD = Long.SIZE;
+
+    private long[] words = new long[1];
+
+    public void set(int position) {
+        if (position < 0)
+            throw new IllegalArgumentException("Bit position cannot be negative: " + position);
+
+        int word = wordIndex(position);
+        if (word >= words.length) {
+            words = Arrays.copyOf(words, Math.max(word + 1, words.length * 2));
+        }
+        words[word] |= mask(position);
+    }
+
+    public long[] toWords() {
+        int length = words.length;
+        while (length > 0 && words[length - 1] == 0) {
+            length--;
+        }
+        return Arrays.copyOf(words, length);
+    }
+
+    public static int wordIndex(int position) {
+        return position / BITS_PER_WORD;
+    }
+
+    public static long mask(int position) {
+        return 1L << (position % BITS_PER_WORD);
+    }
+
+    public static boolean isSet(long[] words, int position) {
+        int word = wordIndex(position);
+        return words != null && word < words.length && (words[word] & mask(position)) != 0;
+    }
+}
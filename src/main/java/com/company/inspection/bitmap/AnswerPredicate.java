@@ -0,0 +1,48 @@
+package com.company.inspection.bitmap;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Boolean condition over the answers of one inspection, e.g. {@code YES(3) AND NOT ANSWERED(7)}.
+ * Parsed by {@link AnswerPredicateParser} and turned into bitwise SQL by {@link AnswerPredicateCompiler}.
+ */
+public sealed interface AnswerPredicate {
+
+    enum Kind {
+        // The question was answered YES
+        YES,
+        // The question was answered NO
+        NO,
+        // The question was answered at all
+        ANSWERED
+    }
+
+    record Atom(Kind kind, long questionId) implements AnswerPredicate {
+        @Override
+        public String toString() {
+            return kind + "(" + questionId + ")";
+        }
+    }
+
+    record And(List<AnswerPredicate> operands) implements AnswerPredicate {
+        @Override
+        public String toString() {
+            return operands.stream().map(AnswerPredicate::toString).collect(Collectors.joining(" AND ", "(", ")"));
+        }
+    }
+
+    record Or(List<AnswerPredicate> operands) implements AnswerPredicate {
+        @Override
+        public String toString() {
+            return operands.stream().map(AnswerPredicate::toString).collect(Collectors.joining(" OR ", "(", ")"));
+        }
+    }
+
+    record Not(AnswerPredicate operand) implements AnswerPredicate {
+        @Override
+        public String toString() {
+            return "NOT " + operand;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.company.inspection.bitmap;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns an {@link AnswerPredicate} into a SQL condition on the bitmap columns of an inspection
+ * (alias {@code i}), so it is evaluated with a few bitwise operations per row instead of joins
+ * over the answer rows. Conditions of the same kind on questions in the same 64-bit word are
+ * merged into one mask: {@code YES(3) AND YES(7)} becomes {@code (yes_bits[1] & m) = m}.
+ *
+ * <p>Masks are bound as parameters named {@code mask0}, {@code mask1}, ...
+ */
+public class AnswerPredicateCompiler {
+
+    private final Map<Long, Integer> bitPositions;
+    private final MapSqlParameterSource params;
+    private int nextMask;
+
+    /**
+     * @param bitPositions bit position of every question id, including inactive questions
+     */
+    public AnswerPredicateCompiler(Map<Long, Integer> bitPositions, MapSqlParameterSource params) {
+        this.bitPositions = bitPositions;
+        this.params = params;
+    }
+
+    public String compile(AnswerPredicate predicate) {
+        return switch (predicate) {
+            case AnswerPredicate.Atom atom -> compileGroup(List.of(atom), true);
+            case AnswerPredicate.And and -> compileJunction(and.operands(), true);
+            case AnswerPredicate.Or or -> compileJunction(or.operands(), false);
+            case AnswerPredicate.Not not -> "NOT " + compile(not.operand());
+        };
+    }
+
+    private record WordKey(AnswerPredicate.Kind kind, int word) {
+    }
+
+    private String compileJunction(List<AnswerPredicate> operands, boolean all) {
+        Map<WordKey, List<AnswerPredicate.Atom>> atomsByWord = new LinkedHashMap<>();
+        List<String> conditions = new ArrayList<>();
+        for (AnswerPredicate operand : operands) {
+            if (operand instanceof AnswerPredicate.Atom atom) {
+                atomsByWord.computeIfAbsent(new WordKey(atom.kind(), AnswerBitmap.wordIndex(bitPosition(atom))),
+                        key -> new ArrayList<>()).add(atom);
+            } else {
+                conditions.add(compile(operand));
+            }
+        }
+        List<String> merged = new ArrayList<>();
+        atomsByWord.values().forEach(atoms -> merged.add(compileGroup(atoms, all)));
+        merged.addAll(conditions);
+        return merged.size() == 1 ? merged.get(0) : "(" + String.join(all ? " AND " : " OR ", merged) + ")";
+    }
+
+    // Atoms of one kind and word: all of their bits set (AND) or any of them (OR)
+    private String compileGroup(List<AnswerPredicate.Atom> atoms, boolean all) {
+        long mask = 0;
+        for (AnswerPredicate.Atom atom : atoms) {
+            mask |= AnswerBitmap.mask(bitPosition(atom));
+        }
+        AnswerPredicate.Atom first = atoms.get(0);
+        String word = wordExpression(first.kind(), AnswerBitmap.wordIndex(bitPosition(first)));
+        String maskParam = "mask" + nextMask++;
+        params.addValue(maskParam, mask);
+        return all && atoms.size() > 1
+                ? "(" + word + " & :" + maskParam + ") = :" + maskParam
+                : "(" + word + " & :" + maskParam + ") <> 0";
+    }
+
+    // SQL arrays are 1-based; words past the end of the stored array are zero
+    private static String wordExpression(AnswerPredicate.Kind kind, int word) {
+        String answered = "COALESCE(i.answered_bits[" + (word + 1) + "], 0)";
+        String yes = "COALESCE(i.yes_bits[" + (word + 1) + "], 0)";
+        return switch (kind) {
+            case YES -> yes;
+            case ANSWERED -> answered;
+            case NO -> "(" + answered + " & ~" + yes + ")";
+        };
+    }
+
+    private int bitPosition(AnswerPredicate.Atom atom) {
+        Integer position = bitPositions.get(atom.questionId());
+        if (position == null)
+            throw new IllegalArgumentException("Unknown question id in predicate: " + atom.questionId());
+        return position;
+    }
+}
@@ -0,0 +1,138 @@
+package com.company.inspection.bitmap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Parses predicates such as {@code YES(3) AND (NO(7) OR NOT ANSWERED(9))}. Keywords are case
+ * insensitive, NOT binds tighter than AND, and AND tighter than OR. Numbers are question ids.
+ */
+public final class AnswerPredicateParser {
+
+    static final int MAX_ATOMS = 256;
+
+    private final String text;
+    private int position;
+    private int atoms;
+
+    private AnswerPredicateParser(String text) {
+        this.text = text;
+    }
+
+    public static AnswerPredicate parse(String text) {
+        if (text == null || text.isBlank())
+            throw new IllegalArgumentException("Predicate cannot be empty");
+
+        AnswerPredicateParser parser = new AnswerPredicateParser(text);
+        AnswerPredicate predicate = parser.parseOr();
+        parser.skipWhitespace();
+        if (parser.position < text.length())
+            throw parser.error("Unexpected '" + text.charAt(parser.position) + "'");
+        return predicate;
+    }
+
+    private AnswerPredicate parseOr() {
+        List<AnswerPredicate> operands = new ArrayList<>();
+        operands.add(parseAnd());
+        while (acceptKeyword("OR")) {
+            operands.add(parseAnd());
+        }
+        return operands.size() == 1 ? operands.get(0) : new AnswerPredicate.Or(List.copyOf(operands));
+    }
+
+    private AnswerPredicate parseAnd() {
+        List<AnswerPredicate> operands = new ArrayList<>();
+        operands.add(parseUnary());
+        while (acceptKeyword("AND")) {
+            operands.add(parseUnary());
+        }
+        return operands.size() == 1 ? operands.get(0) : new AnswerPredicate.And(List.copyOf(operands));
+    }
+
+    private AnswerPredicate parseUnary() {
+        if (acceptKeyword("NOT")) {
+            return new AnswerPredicate.Not(parseUnary());
+        }
+        if (accept('(')) {
+            AnswerPredicate inner = parseOr();
+            expect(')');
+            return inner;
+        }
+        return parseAtom();
+    }
+
+    private AnswerPredicate parseAtom() {
+        skipWhitespace();
+        int start = position;
+        String word = readWord();
+        AnswerPredicate.Kind kind;
+        try {
+            kind = AnswerPredicate.Kind.valueOf(word.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            position = start;
+            throw error("Expected YES(id), NO(id), ANSWERED(id), NOT or '('");
+        }
+        if (++atoms > MAX_ATOMS)
+            throw error("Predicate cannot have more than " + MAX_ATOMS + " conditions");
+
+        expect('(');
+        skipWhitespace();
+        int numberStart = position;
+        while (position < text.length() && Character.isDigit(text.charAt(position))) {
+            position++;
+        }
+        if (numberStart == position)
+            throw error("Expected a question id");
+        long questionId;
+        try {
+            questionId = Long.parseLong(text.substring(numberStart, position));
+        } catch (NumberFormatException e) {
+            throw error("Question id is too large");
+        }
+        expect(')');
+        return new AnswerPredicate.Atom(kind, questionId);
+    }
+
+    private boolean acceptKeyword(String keyword) {
+        skipWhitespace();
+        int start = position;
+        if (readWord().equalsIgnoreCase(keyword)) {
+            return true;
+        }
+        position = start;
+        return false;
+    }
+
+    private String readWord() {
+        int start = position;
+        while (position < text.length() && Character.isLetter(text.charAt(position))) {
+            position++;
+        }
+        return text.substring(start, position);
+    }
+
+    private boolean accept(char c) {
+        skipWhitespace();
+        if (position < text.length() && text.charAt(position) == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        if (!accept(c))
+            throw error("Expected '" + c + "'");
+    }
+
+    private void skipWhitespace() {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + position + " of predicate '" + text + "'");
+    }
+}
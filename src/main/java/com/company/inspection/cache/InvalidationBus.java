@@ -0,0 +1,175 @@
+package com.company.inspection.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Cross-instance cache invalidation over Postgres NOTIFY.
+ *
+ * <p>{@link #publish} issues {@code pg_notify} inside the caller's transaction, so Postgres
+ * delivers the message to every listening instance only if and when that transaction commits
+ * (and drops duplicates within it). The publishing instance evicts its own caches right after
+ * commit without waiting for the round trip; the {@link PostgresInvalidationListener} of every
+ * instance then dispatches the same message again, which is harmless since eviction is idempotent.
+ * The transaction id used as the message version is read once per transaction, and
+ * {@link #publishAll} sends the ids of a batch in one message.
+ */
+@Component
+@Slf4j
+public class InvalidationBus {
+
+    // NOTIFY payloads are limited to 8000 bytes; leaves room for the type and version
+    private static final int MAX_BULK_KEYS_LENGTH = 7900;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<InvalidationHandler> handlers;
+    private final Counter published;
+    private final Counter received;
+
+    @Value("${inspection.invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${inspection.invalidation.channel:inspection_invalidation}")
+    private String channel;
+
+    // Handlers are looked up lazily: services that cache are handlers and publishers at the same time
+    public InvalidationBus(JdbcTemplate jdbcTemplate, ObjectProvider<InvalidationHandler> handlers,
+                           MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.handlers = handlers;
+        this.published = Counter.builder("inspection.invalidation.published").register(meterRegistry);
+        this.received = Counter.builder("inspection.invalidation.received").register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * Invalidate the given entry on all instances once the current transaction commits
+     */
+    public void publish(InvalidationType type, Object key) {
+        send(new InvalidationMessage(type, String.valueOf(key), version()));
+    }
+
+    /**
+     * Invalidate many entries of a type with numeric keys; sends as few messages as the
+     * NOTIFY payload limit allows
+     */
+    public void publishAll(InvalidationType type, Collection<? extends Number> ids) {
+        if (!type.hasNumericKeys())
+            throw new IllegalArgumentException(type + " keys cannot be sent in bulk");
+        if (ids.isEmpty()) {
+            return;
+        }
+        long version = version();
+        StringBuilder keys = new StringBuilder();
+        for (Number id : ids) {
+            String key = id.toString();
+            if (!keys.isEmpty() && keys.length() + 1 + key.length() > MAX_BULK_KEYS_LENGTH) {
+                send(new InvalidationMessage(type, keys.toString(), version));
+                keys.setLength(0);
+            }
+            if (!keys.isEmpty()) {
+                keys.append(',');
+            }
+            keys.append(key);
+        }
+        send(new InvalidationMessage(type, keys.toString(), version));
+    }
+
+    // Id of the current Postgres transaction, read once per Spring transaction
+    private long version() {
+        if (!enabled) {
+            return 0;
+        }
+        boolean cacheable = TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive();
+        if (cacheable) {
+            // Synchronizations are suspended with their transaction, so an inner transaction reads its own id
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                if (synchronization instanceof TransactionVersion transactionVersion) {
+                    return transactionVersion.txid();
+                }
+            }
+        }
+
+        Long txid = jdbcTemplate.queryForObject("SELECT txid_current()", Long.class);
+        long version = txid != null ? txid : 0;
+        if (cacheable) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionVersion(version));
+        }
+        return version;
+    }
+
+    // Carries the transaction id for the rest of the transaction
+    private record TransactionVersion(long txid) implements TransactionSynchronization {
+    }
+
+    private void send(InvalidationMessage message) {
+        boolean inTransaction = TransactionSynchronizationManager.isActualTransactionActive();
+        if (enabled) {
+            // Outside a transaction this is sent immediately (auto-commit)
+            jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel, message.encode());
+            published.increment();
+        }
+
+        if (inTransaction && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(message);
+                }
+            });
+        } else {
+            dispatch(message);
+        }
+    }
+
+    // Message received from Postgres (including the ones this instance published)
+    void onNotification(String payload) {
+        received.increment();
+        try {
+            dispatch(InvalidationMessage.parse(payload));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring invalidation message '{}': {}", payload, e.getMessage());
+        }
+    }
+
+    void dispatch(InvalidationMessage message) {
+        log.debug("Invalidating {}", message.encode());
+        if (message.type() == InvalidationType.ALL) {
+            evictAll();
+            return;
+        }
+        List<InvalidationMessage> messages = message.split();
+        handlers.orderedStream().forEach(handler -> {
+            for (InvalidationMessage single : messages) {
+                try {
+                    handler.onInvalidation(single);
+                } catch (RuntimeException e) {
+                    log.error("Invalidation handler {} failed for {}", handler.getClass().getSimpleName(), single.encode(), e);
+                }
+            }
+        });
+    }
+
+    void evictAll() {
+        log.info("Evicting all local caches");
+        handlers.orderedStream().forEach(InvalidationHandler::evictAll);
+    }
+}
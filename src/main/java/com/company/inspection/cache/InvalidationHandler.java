@@ -0,0 +1,14 @@
+package com.company.inspection.cache;
+
+/**
+ * A local cache that can be invalidated through the {@link InvalidationBus}.
+ */
+public interface InvalidationHandler {
+
+    void onInvalidation(InvalidationMessage message);
+
+    /**
+     * Called when messages may have been missed (listener reconnected) or an ALL message arrived
+     */
+    void evictAll();
+}
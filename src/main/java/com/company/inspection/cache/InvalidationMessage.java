@@ -0,0 +1,39 @@
+package com.company.inspection.cache;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact invalidation message, encoded as {@code TYPE:key:version}. The version is the id of
+ * the Postgres transaction that made the change (0 when published without Postgres). Types with
+ * numeric keys may carry several ids as {@code TYPE:id,id,id:version}.
+ */
+public record InvalidationMessage(InvalidationType type, String key, long version) {
+
+    // One message per key, so handlers only ever see single keys
+    public List<InvalidationMessage> split() {
+        if (!type.hasNumericKeys() || key.indexOf(',') < 0) {
+            return List.of(this);
+        }
+        return Arrays.stream(key.split(","))
+                .map(single -> new InvalidationMessage(type, single, version))
+                .toList();
+    }
+
+    public String encode() {
+        return type.name() + ":" + key + ":" + version;
+    }
+
+    // Keys may contain ':' themselves, so split on the first and the last separator only
+    public static InvalidationMessage parse(String payload) {
+        int first = payload.indexOf(':');
+        int last = payload.lastIndexOf(':');
+        if (first < 0 || last <= first) {
+            throw new IllegalArgumentException("Malformed invalidation message: " + payload);
+        }
+        return new InvalidationMessage(
+                InvalidationType.valueOf(payload.substring(0, first)),
+                payload.substring(first + 1, last),
+                Long.parseLong(payload.substring(last + 1)));
+    }
+}
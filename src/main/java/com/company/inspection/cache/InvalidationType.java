@@ -0,0 +1,23 @@
+package com.company.inspection.cache;
+
+/**
+ * What an invalidation message refers to; the key format depends on the type.
+ */
+public enum InvalidationType {
+    QUESTION(true),     // key = question id
+    INSPECTION(true),   // key = inspection id
+    CAR(false),         // key = car id (per-car state such as the latest inspection)
+    PHOTO(true),        // key = photo id (metadata filled in by the photo processing workers)
+    ALL(false);         // key ignored, drop every cache (e.g. after partitions were detached)
+
+    private final boolean numericKeys;
+
+    InvalidationType(boolean numericKeys) {
+        this.numericKeys = numericKeys;
+    }
+
+    // Numeric keys can be sent several to a message, separated by commas
+    public boolean hasNumericKeys() {
+        return numericKeys;
+    }
+}
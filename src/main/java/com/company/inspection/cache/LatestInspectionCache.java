@@ -0,0 +1,64 @@
+package com.company.inspection.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Id of the latest completed inspection per car (bounded, least recently used entries are
+ * dropped). Saves the latest-inspection query when a form is opened; the inspection itself is
+ * then served by the second-level cache. Invalidated by CAR messages when a car gets a new one.
+ */
+@Component
+public class LatestInspectionCache implements InvalidationHandler {
+
+    private final Map<String, Long> inspectionIdByCar;
+    private long generation;
+
+    public LatestInspectionCache(@Value("${inspection.invalidation.latest-inspection-cache-size:10000}") int maxSize) {
+        this.inspectionIdByCar = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public synchronized Long get(String carId) {
+        return inspectionIdByCar.get(carId);
+    }
+
+    /**
+     * Token to pass to {@link #put} for a value about to be loaded from the database
+     */
+    public synchronized long beginLoad() {
+        return generation;
+    }
+
+    // Ignored when an invalidation arrived since beginLoad(), the loaded value may already be stale
+    public synchronized void put(String carId, Long inspectionId, long loadToken) {
+        if (generation == loadToken) {
+            inspectionIdByCar.put(carId, inspectionId);
+        }
+    }
+
+    public synchronized void remove(String carId) {
+        generation++;
+        inspectionIdByCar.remove(carId);
+    }
+
+    @Override
+    public void onInvalidation(InvalidationMessage message) {
+        if (message.type() == InvalidationType.CAR) {
+            remove(message.key());
+        }
+    }
+
+    @Override
+    public synchronized void evictAll() {
+        generation++;
+        inspectionIdByCar.clear();
+    }
+}
@@ -0,0 +1,112 @@
+package com.company.inspection.cache;
+
+import com.company.inspection.datasource.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Listens on the invalidation channel over a dedicated connection (not borrowed from a pool,
+ * since it is held for the lifetime of the instance) and hands every notification to the
+ * {@link InvalidationBus}. After a reconnect all local caches are dropped, because messages
+ * sent while disconnected are lost. With sharding there is one listener per shard, since a
+ * notification is only delivered by the database whose transaction sent it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PostgresInvalidationListener implements SmartLifecycle {
+
+    private final InvalidationBus invalidationBus;
+    private final DataSourceProperties dataSourceProperties;
+    private final ShardRouter shardRouter;
+
+    @Value("${inspection.invalidation.poll-timeout-ms:500}")
+    private int pollTimeoutMs;
+
+    @Value("${inspection.invalidation.reconnect-delay-ms:5000}")
+    private long reconnectDelayMs;
+
+    private volatile boolean running;
+    private final List<Thread> listenerThreads = new ArrayList<>();
+
+    @Override
+    public void start() {
+        if (!invalidationBus.isEnabled()) {
+            log.info("Cross-instance cache invalidation is disabled");
+            return;
+        }
+        running = true;
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            String url = shardRouter.getShardUrls().get(shard);
+            Thread listenerThread = new Thread(() -> listen(url), "invalidation-listener-" + shard);
+            listenerThread.setDaemon(true);
+            listenerThread.start();
+            listenerThreads.add(listenerThread);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        listenerThreads.forEach(Thread::interrupt);
+        listenerThreads.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen(String url) {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url,
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + invalidationBus.getChannel());
+                }
+                log.info("Listening for cache invalidations on channel {} of {}", invalidationBus.getChannel(), url);
+                if (reconnect) {
+                    invalidationBus.evictAll();
+                }
+                reconnect = true;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            invalidationBus.onNotification(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Invalidation listener connection to {} failed, retrying in {} ms: {}", url, reconnectDelayMs, e.getMessage());
+                reconnect = true;
+                try {
+                    Thread.sleep(reconnectDelayMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.company.inspection.cache;
+
+import com.company.inspection.repository.QuestionnaireVersionJdbcRepository.QuestionnaireVersion;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * Questionnaire versions and the id of the current one. A version never changes, so it is kept
+ * until it falls out of the small LRU; only the current version id is dropped when any question
+ * changes on any instance. Version questions are detached entities and must be treated as read-only.
+ */
+@Component
+@Slf4j
+public class QuestionCatalogCache implements InvalidationHandler {
+
+    private static final int MAX_VERSIONS = 32;
+
+    private final Map<Long, QuestionnaireVersion> versions = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, QuestionnaireVersion> eldest) {
+            return size() > MAX_VERSIONS;
+        }
+    };
+
+    private Long currentVersionId;
+    private long generation;
+
+    public long getCurrentVersionId(LongSupplier loader) {
+        long loadGeneration;
+        synchronized (this) {
+            if (currentVersionId != null) {
+                return currentVersionId;
+            }
+            loadGeneration = generation;
+        }
+
+        long loaded = loader.getAsLong();
+
+        synchronized (this) {
+            // Do not keep an id that was loaded while an invalidation came in
+            if (generation == loadGeneration) {
+                currentVersionId = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    // The same instance is handed out for a version as long as it stays cached
+    public Optional<QuestionnaireVersion> getVersion(long versionId, LongFunction<Optional<QuestionnaireVersion>> loader) {
+        synchronized (this) {
+            QuestionnaireVersion cached = versions.get(versionId);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+        }
+
+        Optional<QuestionnaireVersion> loaded = loader.apply(versionId);
+        if (loaded.isEmpty()) {
+            return loaded;
+        }
+        synchronized (this) {
+            QuestionnaireVersion existing = versions.putIfAbsent(versionId, loaded.get());
+            return Optional.of(existing != null ? existing : loaded.get());
+        }
+    }
+
+    public synchronized void invalidate() {
+        generation++;
+        currentVersionId = null;
+    }
+
+    @Override
+    public void onInvalidation(InvalidationMessage message) {
+        if (message.type() == InvalidationType.QUESTION) {
+            log.debug("Current questionnaire version invalidated by question {}", message.key());
+            invalidate();
+        }
+    }
+
+    // Cached versions are immutable and stay valid
+    @Override
+    public void evictAll() {
+        invalidate();
+    }
+}
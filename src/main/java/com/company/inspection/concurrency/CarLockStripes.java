@@ -0,0 +1,44 @@
+package com.company.inspection.concurrency;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed set of locks shared by all cars: a car always maps to the same stripe, so
+ * submissions for one car on this instance run one at a time while different cars rarely
+ * wait for each other. Memory stays constant however many cars are seen. Fair locks, so
+ * waiting submissions for a car are served in arrival order.
+ */
+public class CarLockStripes {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public CarLockStripes(int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+        int size = Integer.highestOneBit(stripeCount);
+        if (size < stripeCount) {
+            size <<= 1;
+        }
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock(true);
+        }
+        this.mask = size - 1;
+    }
+
+    public ReentrantLock lockFor(String carId) {
+        return stripes[stripeOf(carId)];
+    }
+
+    int stripeOf(String carId) {
+        int hash = carId.hashCode();
+        // Spread the high bits, String hashes of similar ids differ mostly in the low ones
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+}
@@ -0,0 +1,10 @@
+package com.company.inspection.concurrency;
+
+/**
+ * What happens to a submission for a car while another submission for the same car is in
+ * progress (inspection.submission.conflict-policy).
+ */
+public enum ConflictPolicy {
+    SERIALIZE,  // Wait for the car's lock; both submissions are stored
+    REJECT      // Fail at once with 409; the client reloads the questions and submits again
+}
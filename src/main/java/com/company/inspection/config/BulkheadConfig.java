@@ -0,0 +1,48 @@
+package com.company.inspection.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Executor bulkhead for batch traffic. Streaming responses (exports) run on a small bounded
+ * executor instead of the shared application executor; when it is full further exports are
+ * rejected with 503 rather than queueing behind or in front of interactive work.
+ * Ordered last so its async executor wins over the Boot default.
+ */
+@Configuration
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class BulkheadConfig implements WebMvcConfigurer {
+
+    @Value("${inspection.executors.batch.core-size:2}")
+    private int coreSize;
+
+    @Value("${inspection.executors.batch.max-size:4}")
+    private int maxSize;
+
+    @Value("${inspection.executors.batch.queue-capacity:8}")
+    private int queueCapacity;
+
+    @Bean
+    public ThreadPoolTaskExecutor batchTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("batch-");
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        // Goes through the container, so this is the initialized singleton
+        configurer.setTaskExecutor(batchTaskExecutor());
+    }
+}
@@ -0,0 +1,181 @@
+package com.company.inspection.config;
+
+import com.company.inspection.datasource.ShardRouter;
+import com.company.inspection.datasource.ShardRoutingDataSource;
+import com.company.inspection.datasource.ShardSchemaInitializer;
+import com.company.inspection.datasource.TrafficClass;
+import com.company.inspection.datasource.TrafficRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * One Hikari pool per traffic class behind a single routing DataSource, so a slow export or a
+ * burst of inspection submissions can only exhaust its own pool. Pool sizes and connection
+ * timeouts come from inspection.datasource.pools.{read,write,batch}.*; connection settings from
+ * spring.datasource.*, and the other Hikari settings (max-lifetime, data-source-properties, ...)
+ * from spring.datasource.hikari.*, applied to every pool.
+ *
+ * <p>With inspection.sharding.urls set, every shard gets the same set of pools and a
+ * {@link ShardRoutingDataSource} picks the shard before the traffic class is resolved.
+ * Shard 0 is spring.datasource.url itself and keeps the un-suffixed pool names.
+ */
+@Configuration
+@Slf4j
+public class DataSourceConfig {
+
+    public static final String POOL_NAME_PREFIX = "inspection-";
+
+    @Bean
+    public ShardRouter shardRouter(DataSourceProperties properties,
+                                   @Value("${inspection.sharding.urls:}") String[] shardUrls,
+                                   @Value("${inspection.sharding.virtual-nodes:128}") int virtualNodes) {
+        List<String> urls = Arrays.stream(shardUrls).map(String::trim).filter(url -> !url.isEmpty()).toList();
+        if (urls.isEmpty()) {
+            return new ShardRouter(List.of(properties.determineUrl()), virtualNodes);
+        }
+        if (!urls.get(0).equals(properties.determineUrl())) {
+            throw new IllegalStateException("The first entry of inspection.sharding.urls must be spring.datasource.url");
+        }
+        log.info("Sharding inspections over {} databases", urls.size());
+        return new ShardRouter(urls, virtualNodes);
+    }
+
+    @Bean
+    public HikariDataSource readDataSource(DataSourceProperties properties, Environment environment) {
+        return createPool(properties, environment, 0, properties.determineUrl(), TrafficClass.READ);
+    }
+
+    @Bean
+    public HikariDataSource writeDataSource(DataSourceProperties properties, Environment environment) {
+        return createPool(properties, environment, 0, properties.determineUrl(), TrafficClass.WRITE);
+    }
+
+    @Bean
+    public HikariDataSource batchDataSource(DataSourceProperties properties, Environment environment) {
+        return createPool(properties, environment, 0, properties.determineUrl(), TrafficClass.BATCH);
+    }
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(ShardRouter shardRouter,
+                                                         DataSourceProperties properties,
+                                                         Environment environment,
+                                                         ObjectProvider<MeterRegistry> meterRegistry,
+                                                         @Qualifier("readDataSource") DataSource readDataSource,
+                                                         @Qualifier("writeDataSource") DataSource writeDataSource,
+                                                         @Qualifier("batchDataSource") DataSource batchDataSource,
+                                                         @Value("${inspection.sharding.initialize-schema:false}") boolean initializeSchema) {
+        ShardRoutingDataSource shardRoutingDataSource = new ShardRoutingDataSource();
+        Map<Object, Object> shards = new HashMap<>();
+        shards.put(0, trafficRouter(readDataSource, writeDataSource, batchDataSource));
+
+        // Pools of the other shards are not beans, so Spring Boot does not bind their metrics
+        for (int shard = 1; shard < shardRouter.getShardCount(); shard++) {
+            String url = shardRouter.getShardUrls().get(shard);
+            Map<TrafficClass, HikariDataSource> pools = new HashMap<>();
+            for (TrafficClass trafficClass : TrafficClass.values()) {
+                HikariDataSource pool = createPool(properties, environment, shard, url, trafficClass);
+                meterRegistry.ifAvailable(registry -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+                shardRoutingDataSource.addOwnedPool(pool);
+                pools.put(trafficClass, pool);
+            }
+            shards.put(shard, trafficRouter(pools.get(TrafficClass.READ), pools.get(TrafficClass.WRITE), pools.get(TrafficClass.BATCH)));
+        }
+
+        shardRoutingDataSource.setTargetDataSources(shards);
+        shardRoutingDataSource.setDefaultTargetDataSource(shards.get(0));
+        shardRoutingDataSource.afterPropertiesSet();
+
+        if (shardRouter.isSharded()) {
+            new ShardSchemaInitializer(shardRoutingDataSource, shardRouter).initialize(initializeSchema);
+        }
+        return shardRoutingDataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        // Defaults given explicitly so the proxy does not borrow a connection at startup to find them
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+        dataSource.setTargetDataSource(shardRoutingDataSource);
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        dataSource.afterPropertiesSet();
+        return dataSource;
+    }
+
+    private TrafficRoutingDataSource trafficRouter(DataSource readDataSource, DataSource writeDataSource,
+                                                   DataSource batchDataSource) {
+        TrafficRoutingDataSource routingDataSource = new TrafficRoutingDataSource();
+        routingDataSource.setTargetDataSources(Map.of(
+                TrafficClass.READ, readDataSource,
+                TrafficClass.WRITE, writeDataSource,
+                TrafficClass.BATCH, batchDataSource));
+        routingDataSource.setDefaultTargetDataSource(writeDataSource);
+        routingDataSource.afterPropertiesSet();
+        return routingDataSource;
+    }
+
+    public static String poolName(int shard, TrafficClass trafficClass) {
+        String shardPart = shard == 0 ? "" : "shard" + shard + "-";
+        return POOL_NAME_PREFIX + shardPart + trafficClass.name().toLowerCase(Locale.ROOT);
+    }
+
+    public static boolean isPoolOf(String poolName, TrafficClass trafficClass) {
+        return poolName != null && poolName.startsWith(POOL_NAME_PREFIX)
+                && poolName.endsWith("-" + trafficClass.name().toLowerCase(Locale.ROOT));
+    }
+
+    private HikariDataSource createPool(DataSourceProperties properties, Environment environment,
+                                        int shard, String url, TrafficClass trafficClass) {
+        String prefix = "inspection.datasource.pools." + trafficClass.name().toLowerCase(Locale.ROOT) + ".";
+
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).url(url).build();
+        // Bound like Spring Boot binds its own pool; the url, name, size and timeout below win
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setJdbcUrl(url);
+        pool.setPoolName(poolName(shard, trafficClass));
+        pool.setMaximumPoolSize(environment.getProperty(prefix + "maximum-pool-size", Integer.class, defaultMaxSize(trafficClass)));
+        pool.setMinimumIdle(environment.getProperty(prefix + "minimum-idle", Integer.class, Math.min(2, pool.getMaximumPoolSize())));
+        pool.setConnectionTimeout(environment.getProperty(prefix + "connection-timeout-ms", Long.class, defaultConnectionTimeoutMs(trafficClass)));
+
+        log.info("Configured {} pool with up to {} connections", pool.getPoolName(), pool.getMaximumPoolSize());
+        return pool;
+    }
+
+    private static int defaultMaxSize(TrafficClass trafficClass) {
+        return switch (trafficClass) {
+            case READ -> 10;
+            case WRITE -> 6;
+            case BATCH -> 3;
+        };
+    }
+
+    private static long defaultConnectionTimeoutMs(TrafficClass trafficClass) {
+        return switch (trafficClass) {
+            case READ -> 2_000;
+            case WRITE -> 5_000;
+            case BATCH -> 60_000;
+        };
+    }
+}
@@ -0,0 +1,108 @@
+package com.company.inspection.config;
+
+import com.company.inspection.tracing.AdaptiveSampleRate;
+import com.company.inspection.tracing.TailSamplingSpanProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.exporter.otlp.http.trace.OtlpHttpSpanExporter;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process OpenTelemetry pipeline for the {@code @WithSpan} methods: every span is recorded,
+ * the {@link TailSamplingSpanProcessor} decides per finished trace, and kept spans are exported
+ * over OTLP by a batch processor whose queue is bounded (spans beyond it are dropped, never
+ * blocking a request). Run without the OpenTelemetry java agent, which would trace twice.
+ */
+@Configuration
+@Slf4j
+public class TracingConfig {
+
+    @Value("${inspection.tracing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${spring.application.name:inspection}")
+    private String serviceName;
+
+    @Value("${management.otlp.tracing.endpoint:http://localhost:4318/v1/traces}")
+    private String endpoint;
+
+    @Value("${inspection.tracing.slow-threshold-ms:500}")
+    private long slowThresholdMs;
+
+    @Value("${inspection.tracing.healthy-traces-per-second:5}")
+    private double healthyTracesPerSecond;
+
+    @Value("${inspection.tracing.min-healthy-probability:0.001}")
+    private double minHealthyProbability;
+
+    @Value("${inspection.tracing.max-buffered-traces:10000}")
+    private int maxBufferedTraces;
+
+    @Value("${inspection.tracing.max-trace-age-ms:30000}")
+    private long maxTraceAgeMs;
+
+    @Value("${inspection.tracing.export.max-queue-size:2048}")
+    private int maxQueueSize;
+
+    @Value("${inspection.tracing.export.max-batch-size:512}")
+    private int maxBatchSize;
+
+    @Value("${inspection.tracing.export.schedule-delay-ms:5000}")
+    private long scheduleDelayMs;
+
+    // Closed with the context, which flushes the kept spans still queued
+    @Bean
+    public OpenTelemetry openTelemetry(MeterRegistry meterRegistry) {
+        if (!enabled) {
+            log.info("Tracing is disabled");
+            return OpenTelemetry.noop();
+        }
+
+        BatchSpanProcessor exportProcessor = BatchSpanProcessor.builder(OtlpHttpSpanExporter.builder()
+                        .setEndpoint(endpoint)
+                        .build())
+                .setMaxQueueSize(maxQueueSize)
+                .setMaxExportBatchSize(maxBatchSize)
+                .setScheduleDelay(Duration.ofMillis(scheduleDelayMs))
+                .build();
+
+        TailSamplingSpanProcessor tailSampling = new TailSamplingSpanProcessor(exportProcessor,
+                TimeUnit.MILLISECONDS.toNanos(slowThresholdMs), maxBufferedTraces,
+                TimeUnit.MILLISECONDS.toNanos(maxTraceAgeMs),
+                new AdaptiveSampleRate(healthyTracesPerSecond, minHealthyProbability, TimeUnit.SECONDS.toNanos(1)),
+                meterRegistry);
+
+        SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+                .setResource(Resource.getDefault().merge(
+                        Resource.create(Attributes.of(AttributeKey.stringKey("service.name"), serviceName))))
+                // Sampling happens at the tail, so the head records everything
+                .setSampler(Sampler.alwaysOn())
+                .addSpanProcessor(tailSampling)
+                .build();
+
+        log.info("Tracing to {}: errors and traces over {} ms always kept, ~{} healthy traces per second",
+                endpoint, slowThresholdMs, healthyTracesPerSecond);
+        return OpenTelemetrySdk.builder()
+                .setTracerProvider(tracerProvider)
+                .build();
+    }
+
+    @Bean
+    public Tracer tracer(OpenTelemetry openTelemetry) {
+        return openTelemetry.getTracer("com.company.inspection");
+    }
+}
@@ -0,0 +1,39 @@
+package com.company.inspection.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Binary CBOR ("application/cbor") as an alternative wire format for mobile clients.
+ * The converter is appended after the JSON converter, so JSON stays the default for
+ * clients that send no Accept header or accept any media type; tablets opt in with "Accept: application/cbor"
+ * and may post CreateInspectionRequest bodies as "Content-Type: application/cbor".
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WireFormatConfig implements WebMvcConfigurer {
+
+    private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Replace Spring's default CBOR converter with one that shares the application's Jackson settings
+        converters.removeIf(MappingJackson2CborHttpMessageConverter.class::isInstance);
+        converters.add(new MappingJackson2CborHttpMessageConverter(cborObjectMapper(objectMapperBuilder)));
+    }
+
+    static ObjectMapper cborObjectMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.createXmlMapper(false)
+                .indentOutput(false)
+                .factory(new CBORFactory())
+                .build();
+    }
+}
@@ -0,0 +1,64 @@
+package com.company.inspection.controller;
+
+import com.company.inspection.dto.response.AnswerAnalyticsResponse;
+import com.company.inspection.service.AnswerAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/internal/analytics")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Internal Analytics", description = "Ad-hoc answer analytics over an in-memory column store of recent answers")
+public class AnswerAnalyticsController {
+
+    private final AnswerAnalyticsService answerAnalyticsService;
+
+    /**
+     * Count answers of the in-memory window, filtered and grouped by question and/or day
+     */
+    @GetMapping("/answers")
+    @Operation(summary = "Aggregate recent answers",
+            description = "Served from memory; only covers the last inspection.analytics.window-days days")
+    @ApiResponse(responseCode = "200", description = "Aggregates computed successfully")
+    public ResponseEntity<AnswerAnalyticsResponse> aggregateAnswers(
+            @Parameter(description = "Grouping: none, question, day or question_and_day", example = "question")
+            @RequestParam(value = "groupBy", required = false) String groupBy,
+            @Parameter(description = "Question IDs to include (default all)", example = "1")
+            @RequestParam(value = "questionId", required = false) List<Long> questionIds,
+            @Parameter(description = "First day (inclusive, default start of the window)", example = "2024-01-01")
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day (inclusive, default today)", example = "2024-01-31")
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Only YES or only NO answers", example = "YES")
+            @RequestParam(value = "answer", required = false) String answer) {
+
+        log.info("GET /api/v1/internal/analytics/answers - Aggregating answers by {}", groupBy);
+
+        try {
+            AnswerAnalyticsResponse response = answerAnalyticsService.query(groupBy, questionIds, from, to, answer);
+
+            log.info("Aggregated {} of {} scanned answers into {} groups in {} ms", response.getRowsMatched(),
+                    response.getRowsScanned(), response.getGroups().size(), response.getElapsedMs());
+
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid analytics query: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("Error aggregating answers", e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.company.inspection.controller;
+
+import com.company.inspection.dto.request.AnswerSearchRequest;
+import com.company.inspection.dto.response.AnswerSearchResponse;
+import com.company.inspection.service.AnswerSearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/v1/answers")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+@Tag(name = "Answer Search", description = "Full-text search over inspection answer descriptions")
+public class AnswerSearchController {
+
+    private final AnswerSearchService answerSearchService;
+
+    /**
+     * Search damage descriptions across all inspections, paginated by keyset (answer id)
+     */
+    @GetMapping("/search")
+    @Operation(summary = "Search answer descriptions")
+    @ApiResponse(responseCode = "200", description = "Search results retrieved successfully")
+    public ResponseEntity<AnswerSearchResponse> searchAnswers(
+            @Parameter(description = "Search text", example = "scratch on rear bumper")
+            @RequestParam("q") String query,
+            @Parameter(description = "Car ID", example = "CAR-12345")
+            @RequestParam(value = "carId", required = false) String carId,
+            @Parameter(description = "Question ID", example = "1")
+            @RequestParam(value = "questionId", required = false) Long questionId,
+            @Parameter(description = "Inspection date from (inclusive)", example = "2024-01-01T00:00:00")
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Inspection date to (exclusive)", example = "2024-02-01T00:00:00")
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Cursor returned by the previous page")
+            @RequestParam(value = "cursor", required = false) Long cursor,
+            @Parameter(description = "Page size (max 100)", example = "20")
+            @RequestParam(value = "size", required = false) Integer size) {
+
+        log.info("GET /api/v1/answers/search - Searching answers for '{}'", query);
+
+        AnswerSearchRequest request = AnswerSearchRequest.builder()
+                .query(query)
+                .carId(carId)
+                .questionId(questionId)
+                .from(from)
+                .to(to)
+                .cursor(cursor)
+                .size(size)
+                .build();
+
+        try {
+            AnswerSearchResponse response = answerSearchService.search(request);
+
+            log.info("Found {} answers for '{}', next cursor: {}",
+                    response.getResults().size(), query, response.getNextCursor());
+
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid answer search request: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("Error searching answers for '{}'", query, e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.company.inspection.controller;
+
+import com.company.inspection.dto.request.FleetAnswerQueryRequest;
+import com.company.inspection.dto.response.FleetAnswerQueryResponse;
+import com.company.inspection.service.FleetAnswerQueryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/v1/fleet")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+@Tag(name = "Fleet Answer Query", description = "Boolean queries over the answers of all inspections")
+public class FleetAnswerQueryController {
+
+    private final FleetAnswerQueryService fleetAnswerQueryService;
+
+    /**
+     * Find inspections whose answers match a predicate, paginated by keyset (inspection id)
+     */
+    @GetMapping("/answers")
+    @Operation(summary = "Query inspections by answer predicate",
+            description = "Predicate atoms are YES(id), NO(id) and ANSWERED(id), combined with AND, OR, NOT and parentheses")
+    @ApiResponse(responseCode = "200", description = "Matching inspections retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid predicate or unknown question id")
+    public ResponseEntity<FleetAnswerQueryResponse> queryAnswers(
+            @Parameter(description = "Answer predicate", example = "YES(1) AND NOT YES(3)")
+            @RequestParam("predicate") String predicate,
+            @Parameter(description = "Only the latest completed inspection of each car", example = "true")
+            @RequestParam(value = "latestOnly", defaultValue = "false") boolean latestOnly,
+            @Parameter(description = "Inspection date from (inclusive)", example = "2024-01-01T00:00:00")
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Inspection date to (exclusive)", example = "2024-02-01T00:00:00")
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Cursor returned by the previous page")
+            @RequestParam(value = "cursor", required = false) Long cursor,
+            @Parameter(description = "Page size (max 1000)", example = "100")
+            @RequestParam(value = "size", required = false) Integer size) {
+
+        log.info("GET /api/v1/fleet/answers - Querying inspections matching '{}'", predicate);
+
+        FleetAnswerQueryRequest request = FleetAnswerQueryRequest.builder()
+                .predicate(predicate)
+                .latestOnly(latestOnly)
+                .from(from)
+                .to(to)
+                .cursor(cursor)
+                .size(size)
+                .build();
+
+        try {
+            FleetAnswerQueryResponse response = fleetAnswerQueryService.query(request);
+
+            log.info("Found {} inspections matching '{}', next cursor: {}",
+                    response.getResults().size(), predicate, response.getNextCursor());
+
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid fleet answer query: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("Error querying inspections matching '{}'", predicate, e);
+            throw e;
+        }
+    }
+}
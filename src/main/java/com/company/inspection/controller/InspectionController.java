@@ -3,6 +3,7 @@ package com.company.inspection.controller;
 import com.company.inspection.dto.request.CreateInspectionRequest;
 import com.company.inspection.dto.response.InspectionResponse;
 import com.company.inspection.service.InspectionService;
+import com.company.inspection.service.InspectionSubmissionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -23,6 +24,7 @@ import org.springframework.web.bind.annotation.*;
 public class InspectionController {
 
     private final InspectionService inspectionService;
+    private final InspectionSubmissionService inspectionSubmissionService;
 
     /**
      * READ METHOD: Get inspection questions with previous data for a car
@@ -56,6 +58,7 @@ public class InspectionController {
     @PostMapping
     @Operation(summary = "Create a new inspection")
     @ApiResponse(responseCode = "201", description = "Inspection created successfully")
+    @ApiResponse(responseCode = "409", description = "Another submission for the car is in progress, or the previous inspection is outdated")
     public ResponseEntity<InspectionResponse> createInspection(
             @Parameter(description = "Inspection request data")
             @Valid @RequestBody CreateInspectionRequest request) {
@@ -64,7 +67,7 @@ public class InspectionController {
                 request.getCarId(), request.getAnswers().size());
 
         try {
-            InspectionResponse response = inspectionService.createInspection(request);
+            InspectionResponse response = inspectionSubmissionService.submit(request);
 
             log.info("Successfully created inspection with id: {} for car: {}",
                     response.getInspectionId(), request.getCarId());
@@ -126,12 +129,12 @@ public class InspectionController {
         log.info("GET /api/v1/inspections/car/{} - Getting inspection history", carId);
 
         try {
-            var inspections = inspectionService.getInspectionsByCarId(carId);
+            var inspections = inspectionService.getInspectionHistory(carId);
 
-            // Simple response with basic info
+            // Simple response with basic info; archived inspections are merged in transparently
             var response = inspections.stream()
                     .map(inspection -> java.util.Map.of(
-                            "inspectionId", inspection.getId(),
+                            "inspectionId", inspection.getInspectionId(),
                             "status", inspection.getStatus(),
                             "inspectionDate", inspection.getInspectionDate(),
                             "createdAt", inspection.getCreatedAt()
@@ -151,19 +154,4 @@ public class InspectionController {
             throw e;
         }
     }
-
-    /**
-     * Health check endpoint
-     */
-    @GetMapping("/health")
-    @Operation(summary = "Health check")
-    @ApiResponse(responseCode = "200", description = "Service is healthy")
-    public ResponseEntity<Object> healthCheck() {
-        var response = java.util.Map.of(
-                "status", "UP",
-                "service", "Inspection Service",
-                "timestamp", java.time.LocalDateTime.now()
-        );
-        return ResponseEntity.ok(response);
-    }
-}
\ No newline at end of file
+}
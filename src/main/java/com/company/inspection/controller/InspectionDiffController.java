@@ -0,0 +1,50 @@
+package com.company.inspection.controller;
+
+import com.company.inspection.dto.response.InspectionDiffResponse;
+import com.company.inspection.service.InspectionDiffService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/inspections")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Inspection Diff", description = "Per-question changes between inspections of a car")
+public class InspectionDiffController {
+
+    private final InspectionDiffService inspectionDiffService;
+
+    /**
+     * Diff two inspections of a car, or the latest two completed ones when no ids are given
+     */
+    @GetMapping("/car/{carId}/diff")
+    @Operation(summary = "Get per-question diff between two inspections of a car")
+    @ApiResponse(responseCode = "200", description = "Diff computed successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid inspection pair")
+    @ApiResponse(responseCode = "404", description = "Inspection not found")
+    public ResponseEntity<InspectionDiffResponse> getInspectionDiff(
+            @Parameter(description = "Car ID", example = "CAR001")
+            @PathVariable String carId,
+            @Parameter(description = "Earlier inspection ID (defaults to the previous completed inspection)", example = "1")
+            @RequestParam(value = "from", required = false) Long fromInspectionId,
+            @Parameter(description = "Later inspection ID (defaults to the latest completed inspection)", example = "3")
+            @RequestParam(value = "to", required = false) Long toInspectionId) {
+
+        log.info("GET /api/v1/inspections/car/{}/diff - Diffing inspections {} -> {}", carId, fromInspectionId, toInspectionId);
+
+        if (fromInspectionId == null && toInspectionId == null) {
+            return ResponseEntity.ok(inspectionDiffService.diffLatest(carId));
+        }
+        if (fromInspectionId == null || toInspectionId == null) {
+            throw new IllegalArgumentException("Both 'from' and 'to' inspection ids are required, or neither");
+        }
+
+        return ResponseEntity.ok(inspectionDiffService.diff(carId, fromInspectionId, toInspectionId));
+    }
+}
@@ -0,0 +1,67 @@
+package com.company.inspection.controller;
+
+import com.company.inspection.service.InspectionExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+@RestController
+@RequestMapping("/api/v1/exports")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Inspection Export", description = "Bulk export of inspections with answers and photo URLs")
+public class InspectionExportController {
+
+    private static final DateTimeFormatter FILE_NAME_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final InspectionExportService inspectionExportService;
+
+    /**
+     * Stream all inspections of a date range as NDJSON (one inspection per line) or CSV (one answer per line).
+     * Archived inspections and those of detached partitions are not included
+     */
+    @GetMapping("/inspections")
+    @Operation(summary = "Export inspections by date range",
+            description = "Covers the inspections still in the database; archived inspections and those of detached "
+                    + "partitions are not included")
+    @ApiResponse(responseCode = "200", description = "Export streamed successfully")
+    public ResponseEntity<StreamingResponseBody> exportInspections(
+            @Parameter(description = "Inspection date from (inclusive)", example = "2024-01-01T00:00:00")
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Inspection date to (exclusive)", example = "2024-04-01T00:00:00")
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Export format: ndjson or csv", example = "ndjson")
+            @RequestParam(value = "format", defaultValue = "ndjson") String format) {
+
+        log.info("GET /api/v1/exports/inspections - Exporting inspections from {} to {} as {}", from, to, format);
+
+        // Validate before the response is committed so errors still render as JSON
+        InspectionExportService.ExportFormat exportFormat = InspectionExportService.ExportFormat.fromString(format);
+        inspectionExportService.validateRange(from, to);
+
+        String fileName = "inspections-" + from.format(FILE_NAME_DATE) + "-" + to.format(FILE_NAME_DATE)
+                + "." + exportFormat.getFileExtension();
+
+        StreamingResponseBody body = outputStream -> {
+            long count = inspectionExportService.export(from, to, exportFormat, outputStream);
+            log.info("Streamed {} inspections to {}", count, fileName);
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+}
@@ -0,0 +1,126 @@
+package com.company.inspection.controller;
+
+import com.company.inspection.dto.request.UpdateInspectionScheduleRequest;
+import com.company.inspection.dto.response.CarInspectionScheduleResponse;
+import com.company.inspection.dto.response.DueInspectionsResponse;
+import com.company.inspection.service.CarInspectionScheduleService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/schedules")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+@Tag(name = "Inspection Schedules", description = "Per-car inspection intervals and due dates")
+public class InspectionScheduleController {
+
+    private final CarInspectionScheduleService carInspectionScheduleService;
+
+    /**
+     * Cars overdue for inspection, most overdue first, paginated by keyset
+     */
+    @GetMapping("/overdue")
+    @Operation(summary = "Get cars overdue for inspection")
+    @ApiResponse(responseCode = "200", description = "Overdue cars retrieved successfully")
+    public ResponseEntity<DueInspectionsResponse> getOverdue(
+            @Parameter(description = "Cursor returned by the previous page")
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @Parameter(description = "Page size (max 1000)", example = "100")
+            @RequestParam(value = "size", required = false) Integer size) {
+
+        log.info("GET /api/v1/schedules/overdue - Getting overdue cars");
+
+        try {
+            DueInspectionsResponse response = carInspectionScheduleService.findOverdue(cursor, size);
+            log.info("Found {} overdue cars, next cursor: {}", response.getCars().size(), response.getNextCursor());
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid overdue request: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("Error getting overdue cars", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Cars that become due within the next hours, soonest first, paginated by keyset
+     */
+    @GetMapping("/due")
+    @Operation(summary = "Get cars due for inspection soon")
+    @ApiResponse(responseCode = "200", description = "Due cars retrieved successfully")
+    public ResponseEntity<DueInspectionsResponse> getDueWithin(
+            @Parameter(description = "Look-ahead in hours", example = "24")
+            @RequestParam(value = "withinHours", defaultValue = "24") int withinHours,
+            @Parameter(description = "Cursor returned by the previous page")
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @Parameter(description = "Page size (max 1000)", example = "100")
+            @RequestParam(value = "size", required = false) Integer size) {
+
+        log.info("GET /api/v1/schedules/due - Getting cars due within {} hours", withinHours);
+
+        try {
+            DueInspectionsResponse response = carInspectionScheduleService.findDueWithin(withinHours, cursor, size);
+            log.info("Found {} cars due within {} hours, next cursor: {}",
+                    response.getCars().size(), withinHours, response.getNextCursor());
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid due request: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("Error getting cars due within {} hours", withinHours, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Inspection interval and next due date of a car
+     */
+    @GetMapping("/{carId}")
+    @Operation(summary = "Get inspection schedule of a car")
+    @ApiResponse(responseCode = "200", description = "Schedule retrieved successfully")
+    @ApiResponse(responseCode = "404", description = "Car has no schedule")
+    public ResponseEntity<CarInspectionScheduleResponse> getSchedule(
+            @Parameter(description = "Car ID", example = "CAR-12345")
+            @PathVariable("carId") String carId) {
+
+        log.info("GET /api/v1/schedules/{} - Getting inspection schedule", carId);
+        return ResponseEntity.ok(carInspectionScheduleService.getSchedule(carId));
+    }
+
+    /**
+     * Set the inspection interval of a car
+     */
+    @PutMapping("/{carId}")
+    @Operation(summary = "Set inspection interval of a car")
+    @ApiResponse(responseCode = "200", description = "Schedule updated successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid interval")
+    public ResponseEntity<CarInspectionScheduleResponse> updateSchedule(
+            @Parameter(description = "Car ID", example = "CAR-12345")
+            @PathVariable("carId") String carId,
+            @Valid @RequestBody UpdateInspectionScheduleRequest request) {
+
+        log.info("PUT /api/v1/schedules/{} - Setting inspection interval to {} days", carId, request.getIntervalDays());
+
+        try {
+            return ResponseEntity.ok(carInspectionScheduleService.updateInterval(carId, request.getIntervalDays()));
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid schedule update for car {}: {}", carId, e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("Error updating inspection schedule of car {}", carId, e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.company.inspection.controller;
+
+import com.company.inspection.dto.response.PhotoGcStatusResponse;
+import com.company.inspection.service.AnswerBitmapBackfillService;
+import com.company.inspection.service.CarInspectionScheduleService;
+import com.company.inspection.service.PhotoGarbageCollectionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/maintenance")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Maintenance", description = "Background maintenance jobs")
+public class MaintenanceController {
+
+    private final PhotoGarbageCollectionService photoGarbageCollectionService;
+    private final AnswerBitmapBackfillService answerBitmapBackfillService;
+    private final CarInspectionScheduleService carInspectionScheduleService;
+
+    /**
+     * Progress and checkpoint of the photo garbage collector
+     */
+    @GetMapping("/photo-gc")
+    @Operation(summary = "Get photo garbage collection status")
+    @ApiResponse(responseCode = "200", description = "Status retrieved successfully")
+    public ResponseEntity<PhotoGcStatusResponse> getPhotoGcStatus() {
+        log.info("GET /api/v1/maintenance/photo-gc - Getting photo garbage collection status");
+        return ResponseEntity.ok(photoGarbageCollectionService.getStatus());
+    }
+
+    /**
+     * Run one time-bounded slice of the photo garbage collector now, resuming from its checkpoint
+     */
+    @PostMapping("/photo-gc/run")
+    @Operation(summary = "Run photo garbage collection")
+    @ApiResponse(responseCode = "200", description = "Run finished")
+    public ResponseEntity<PhotoGcStatusResponse> runPhotoGc() {
+        log.info("POST /api/v1/maintenance/photo-gc/run - Running photo garbage collection");
+        return ResponseEntity.ok(photoGarbageCollectionService.collectGarbage());
+    }
+
+    /**
+     * Encode the answer bitmaps of inspections stored before bitmaps existed
+     */
+    @PostMapping("/answer-bitmaps/backfill")
+    @Operation(summary = "Backfill inspection answer bitmaps")
+    @ApiResponse(responseCode = "200", description = "Backfill finished")
+    public ResponseEntity<Map<String, Long>> backfillAnswerBitmaps() {
+        log.info("POST /api/v1/maintenance/answer-bitmaps/backfill - Backfilling answer bitmaps");
+        return ResponseEntity.ok(Map.of("encodedInspections", answerBitmapBackfillService.backfill()));
+    }
+
+    /**
+     * Create or advance the inspection schedules of all cars from their latest completed inspection
+     */
+    @PostMapping("/schedules/backfill")
+    @Operation(summary = "Backfill car inspection schedules")
+    @ApiResponse(responseCode = "200", description = "Backfill finished")
+    public ResponseEntity<Map<String, Long>> backfillSchedules() {
+        log.info("POST /api/v1/maintenance/schedules/backfill - Backfilling inspection schedules");
+        return ResponseEntity.ok(Map.of("changedSchedules", carInspectionScheduleService.backfill()));
+    }
+}
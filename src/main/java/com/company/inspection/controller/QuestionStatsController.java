@@ -0,0 +1,70 @@
+package com.company.inspection.controller;
+
+import com.company.inspection.dto.response.QuestionStatsResponse;
+import com.company.inspection.service.QuestionStatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/v1/stats/questions")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+@Tag(name = "Question Statistics", description = "Per-question daily answer rollups for fleet analytics")
+public class QuestionStatsController {
+
+    private final QuestionStatsService questionStatsService;
+
+    /**
+     * Get the daily YES/NO trend of a question over a date range
+     */
+    @GetMapping("/{questionId}/daily")
+    @Operation(summary = "Get daily answer trend of a question")
+    @ApiResponse(responseCode = "200", description = "Daily statistics retrieved successfully")
+    public ResponseEntity<QuestionStatsResponse> getDailyTrend(
+            @Parameter(description = "Question ID", example = "1")
+            @PathVariable("questionId") Long questionId,
+            @Parameter(description = "First day (inclusive)", example = "2024-01-01")
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day (inclusive)", example = "2024-01-31")
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        log.info("GET /api/v1/stats/questions/{}/daily - Getting daily trend from {} to {}", questionId, from, to);
+
+        QuestionStatsResponse response = questionStatsService.getDailyTrend(questionId, from, to);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Rebuild the rollup for historical days from the answer tables
+     */
+    @PostMapping("/backfill")
+    @Operation(summary = "Backfill daily question statistics for past days")
+    @ApiResponse(responseCode = "200", description = "Statistics rebuilt")
+    public ResponseEntity<Object> backfill(
+            @Parameter(description = "First day (inclusive)", example = "2024-01-01")
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day (inclusive), must be before today", example = "2024-01-31")
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        log.info("POST /api/v1/stats/questions/backfill - Rebuilding stats from {} to {}", from, to);
+
+        int days = questionStatsService.backfill(from, to);
+
+        var response = java.util.Map.of(
+                "from", from,
+                "to", to,
+                "rebuiltDays", days
+        );
+        return ResponseEntity.ok(response);
+    }
+}
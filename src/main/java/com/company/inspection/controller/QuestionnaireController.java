@@ -0,0 +1,78 @@
+package com.company.inspection.controller;
+
+import com.company.inspection.dto.response.QuestionnaireResponse;
+import com.company.inspection.service.QuestionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api/v1/questionnaires")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+@Tag(name = "Questionnaires", description = "Immutable versions of the question catalog")
+public class QuestionnaireController {
+
+    // A version never changes, so clients and proxies may keep it for good
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    private final QuestionService questionService;
+
+    /**
+     * The current questionnaire version; revalidated on every use since it changes with any question edit
+     */
+    @GetMapping("/current")
+    @Operation(summary = "Get the current questionnaire version")
+    @ApiResponse(responseCode = "200", description = "Questionnaire retrieved successfully")
+    public ResponseEntity<QuestionnaireResponse> getCurrentQuestionnaire() {
+
+        log.info("GET /api/v1/questionnaires/current - Getting current questionnaire");
+
+        try {
+            QuestionnaireResponse response = questionService.toResponse(questionService.getCurrentQuestionnaire());
+            log.info("Current questionnaire version: {} with {} questions",
+                    response.getVersionId(), response.getQuestions().size());
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .body(response);
+
+        } catch (Exception e) {
+            log.error("Error getting current questionnaire", e);
+            throw e;
+        }
+    }
+
+    /**
+     * One questionnaire version, cacheable indefinitely
+     */
+    @GetMapping("/{versionId}")
+    @Operation(summary = "Get a questionnaire version")
+    @ApiResponse(responseCode = "200", description = "Questionnaire retrieved successfully")
+    @ApiResponse(responseCode = "404", description = "Questionnaire version not found")
+    public ResponseEntity<QuestionnaireResponse> getQuestionnaire(
+            @Parameter(description = "Questionnaire version ID", example = "1")
+            @PathVariable("versionId") Long versionId) {
+
+        log.info("GET /api/v1/questionnaires/{} - Getting questionnaire version", versionId);
+
+        try {
+            QuestionnaireResponse response = questionService.toResponse(questionService.getQuestionnaire(versionId));
+            return ResponseEntity.ok()
+                    .cacheControl(IMMUTABLE)
+                    .body(response);
+
+        } catch (Exception e) {
+            log.error("Error getting questionnaire version: {}", versionId, e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.company.inspection.dataset;
+
+import com.company.inspection.bitmap.AnswerBitmap;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+/**
+ * The rows generated for one shard as CSV, loaded with one COPY per table in a single transaction.
+ * Ids come from blocks reserved up front, so answers and photos can reference their parents
+ * without reading anything back. The answer bitmaps of an inspection are only known once its
+ * answers are generated, so its row is completed when the next inspection starts.
+ */
+class CopyBatch implements SyntheticFleet.RowSink {
+
+    static final String COPY_INSPECTIONS =
+            "COPY inspections (id, car_id, inspection_date, status, completed, created_at, answered_bits, yes_bits) " +
+            "FROM STDIN WITH (FORMAT csv)";
+    // description_tsv is generated by Postgres
+    static final String COPY_ANSWERS =
+            "COPY inspection_answers (id, inspection_id, inspection_date, question_id, answer, description, created_at) " +
+            "FROM STDIN WITH (FORMAT csv)";
+    // Synthetic photos have no files behind them, so the photo processing workers leave them alone
+    static final String COPY_PHOTOS =
+            "COPY inspection_photos (id, answer_id, inspection_date, photo_url, is_new, uploaded_at, processing_status) " +
+            "FROM STDIN WITH (FORMAT csv)";
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final IdBlocks ids;
+    private final Map<Long, Integer> bitPositions;
+    private final StringBuilder inspections = new StringBuilder();
+    private final StringBuilder answers = new StringBuilder();
+    private final StringBuilder photos = new StringBuilder();
+    private long inspectionCount;
+    private long answerCount;
+    private long photoCount;
+
+    // Inspection whose row still lacks the bitmap columns
+    private long openInspectionId;
+    private String openInspectionDate;
+    private AnswerBitmap answeredBits;
+    private AnswerBitmap yesBits;
+
+    CopyBatch(IdBlocks ids, Map<Long, Integer> bitPositions) {
+        this.ids = ids;
+        this.bitPositions = bitPositions;
+    }
+
+    @Override
+    public long inspection(String carId, LocalDateTime inspectionDate, boolean completed) {
+        closeInspection();
+        long id = ids.nextInspectionId();
+        String timestamp = inspectionDate.format(TIMESTAMP_FORMAT);
+        inspections.append(id).append(',').append(quote(carId)).append(',').append(timestamp).append(',')
+                .append(completed ? "COMPLETED" : "IN_PROGRESS").append(',').append(completed).append(',')
+                .append(timestamp);
+        inspectionCount++;
+        openInspectionId = id;
+        openInspectionDate = timestamp;
+        answeredBits = new AnswerBitmap();
+        yesBits = new AnswerBitmap();
+        return id;
+    }
+
+    @Override
+    public long answer(long inspectionId, long questionId, boolean yes, String description, LocalDateTime createdAt) {
+        if (inspectionId != openInspectionId)
+            throw new IllegalStateException("Answers must follow their inspection, got one for " + inspectionId);
+
+        int position = bitPositions.get(questionId);
+        answeredBits.set(position);
+        if (yes) {
+            yesBits.set(position);
+        }
+        long id = ids.nextAnswerId();
+        answers.append(id).append(',').append(inspectionId).append(',').append(openInspectionDate).append(',')
+                .append(questionId).append(',').append(yes ? "YES" : "NO").append(',');
+        if (description != null) {
+            answers.append(quote(description));
+        }
+        answers.append(',').append(createdAt.format(TIMESTAMP_FORMAT)).append('\n');
+        answerCount++;
+        return id;
+    }
+
+    @Override
+    public void photo(long answerId, String photoUrl, boolean isNew, LocalDateTime uploadedAt) {
+        photos.append(ids.nextPhotoId()).append(',').append(answerId).append(',').append(openInspectionDate).append(',')
+                .append(quote(photoUrl)).append(',')
+                .append(isNew).append(',').append(uploadedAt.format(TIMESTAMP_FORMAT)).append(",SKIPPED\n");
+        photoCount++;
+    }
+
+    boolean isEmpty() {
+        return inspectionCount == 0;
+    }
+
+    long getInspectionCount() {
+        return inspectionCount;
+    }
+
+    long getAnswerCount() {
+        return answerCount;
+    }
+
+    long getPhotoCount() {
+        return photoCount;
+    }
+
+    /**
+     * Load all rows in one transaction on the given connection
+     */
+    void copyTo(Connection connection) throws SQLException, IOException {
+        closeInspection();
+        CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        connection.setAutoCommit(false);
+        try {
+            copyManager.copyIn(COPY_INSPECTIONS, new StringReader(inspections.toString()));
+            copyManager.copyIn(COPY_ANSWERS, new StringReader(answers.toString()));
+            if (photoCount > 0) {
+                copyManager.copyIn(COPY_PHOTOS, new StringReader(photos.toString()));
+            }
+            connection.commit();
+        } catch (SQLException | IOException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        }
+    }
+
+    private void closeInspection() {
+        if (answeredBits == null) {
+            return;
+        }
+        inspections.append(',').append(arrayLiteral(answeredBits.toWords()))
+                .append(',').append(arrayLiteral(yesBits.toWords())).append('\n');
+        answeredBits = null;
+        yesBits = null;
+    }
+
+    // Postgres array literal, quoted because it contains commas
+    static String arrayLiteral(long[] words) {
+        StringBuilder literal = new StringBuilder("\"{");
+        for (int i = 0; i < words.length; i++) {
+            if (i > 0) {
+                literal.append(',');
+            }
+            literal.append(words[i]);
+        }
+        return literal.append("}\"").toString();
+    }
+
+    // CSV quoting: NULL is the empty unquoted value, so strings are always quoted
+    static String quote(String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,259 @@
+package com.company.inspection.dataset;
+
+import com.company.inspection.cache.InvalidationBus;
+import com.company.inspection.cache.InvalidationType;
+import com.company.inspection.datasource.ShardRouter;
+import com.company.inspection.datasource.ShardRoutingDataSource;
+import com.company.inspection.entity.Question;
+import com.company.inspection.repository.QuestionRepository;
+import com.company.inspection.service.CarInspectionScheduleService;
+import com.company.inspection.service.PartitionMaintenanceService;
+import com.company.inspection.service.QuestionStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk-loads a synthetic fleet ({@link SyntheticFleet}) with Postgres COPY. Cars are cut into
+ * chunks that parallel writer threads generate and load, one transaction per chunk and shard, over
+ * dedicated connections so the application pools are left alone. Partitions for the whole history
+ * are created up front, and the daily question statistics are rebuilt once everything is loaded.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DatasetGenerator {
+
+    private static final int ID_BLOCK_SIZE = 10_000;
+
+    private final ShardRouter shardRouter;
+    private final ShardRoutingDataSource shardRoutingDataSource;
+    private final DataSourceProperties dataSourceProperties;
+    private final QuestionRepository questionRepository;
+    private final PartitionMaintenanceService partitionMaintenanceService;
+    private final QuestionStatsService questionStatsService;
+    private final CarInspectionScheduleService carInspectionScheduleService;
+    private final InvalidationBus invalidationBus;
+
+    @Value("${inspection.dataset.cars:1000000}")
+    private int cars;
+
+    @Value("${inspection.dataset.car-prefix:DS-}")
+    private String carPrefix;
+
+    @Value("${inspection.dataset.inspections-per-car:10}")
+    private double inspectionsPerCar;
+
+    @Value("${inspection.dataset.months:36}")
+    private int months;
+
+    // Empty = today
+    @Value("${inspection.dataset.until:}")
+    private String until;
+
+    @Value("${inspection.dataset.seed:42}")
+    private long seed;
+
+    @Value("${inspection.dataset.incomplete-rate:0.01}")
+    private double incompleteRate;
+
+    @Value("${inspection.dataset.repair-rate:0.5}")
+    private double repairRate;
+
+    @Value("${inspection.dataset.writer-threads:4}")
+    private int writerThreads;
+
+    @Value("${inspection.dataset.batch-cars:500}")
+    private int batchCars;
+
+    @Value("${inspection.dataset.backfill-stats:true}")
+    private boolean backfillStats;
+
+    @Value("${inspection.photos.base-url:/photos/}")
+    private String photoBaseUrl;
+
+    @Value("${inspection.stats.max-range-days:1830}")
+    private int maxStatsRangeDays;
+
+    public void generate() {
+        LocalDate untilDate = until.isBlank() ? LocalDate.now() : LocalDate.parse(until);
+        LocalDate fromDate = untilDate.minusMonths(months);
+        // Weekend inspections of the first days are moved back to the Friday before the window
+        LocalDate firstDay = fromDate.minusDays(2);
+        if (cars <= 0 || months <= 0 || writerThreads <= 0 || batchCars <= 0)
+            throw new IllegalArgumentException("Dataset cars, months, writer threads and batch size must be positive");
+        if (firstDay.plusDays(maxStatsRangeDays).isBefore(untilDate))
+            throw new IllegalArgumentException("Dataset history cannot be longer than " + maxStatsRangeDays + " days");
+
+        List<Question> questions = questionRepository.findByIsActiveTrueOrderByOrderIndex();
+        List<Long> questionIds = questions.stream()
+                .map(Question::getId)
+                .toList();
+        Map<Long, Integer> bitPositions = questions.stream()
+                .collect(Collectors.toMap(Question::getId, Question::getBitPosition));
+        SyntheticFleet fleet = new SyntheticFleet(new SyntheticFleet.Settings(seed, carPrefix, inspectionsPerCar,
+                months, untilDate, incompleteRate, repairRate, photoBaseUrl), questionIds);
+        log.info("Generating {} cars with ~{} inspections each over {} months ({} questions, seed {}) on {} shard(s)",
+                cars, inspectionsPerCar, months, questionIds.size(), seed, shardRouter.getShardCount());
+
+        partitionMaintenanceService.createPartitions(YearMonth.from(firstDay), YearMonth.from(untilDate));
+
+        Progress progress = load(fleet, bitPositions);
+        log.info("Loaded {} cars: {} inspections, {} answers, {} photos in {} s", cars, progress.inspections.get(),
+                progress.answers.get(), progress.photos.get(), progress.elapsedSeconds());
+
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            new JdbcTemplate(shardRoutingDataSource.shardDataSource(shard))
+                    .execute("ANALYZE inspections, inspection_answers, inspection_photos");
+        }
+        carInspectionScheduleService.backfill();
+        if (backfillStats) {
+            LocalDate lastDay = (untilDate.isBefore(LocalDate.now()) ? untilDate : LocalDate.now()).minusDays(1);
+            questionStatsService.backfill(firstDay, lastDay);
+        }
+        // Running instances may hold "no inspection yet" for some of the generated cars
+        invalidationBus.publish(InvalidationType.ALL, "dataset");
+    }
+
+    private Progress load(SyntheticFleet fleet, Map<Long, Integer> bitPositions) {
+        int chunks = (cars + batchCars - 1) / batchCars;
+        AtomicInteger nextChunk = new AtomicInteger();
+        Progress progress = new Progress(chunks);
+        IdReservations reservations = new IdReservations(shardRoutingDataSource);
+
+        ExecutorService executor = Executors.newFixedThreadPool(writerThreads);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int i = 0; i < writerThreads; i++) {
+                writers.add(executor.submit(() -> {
+                    try (ChunkWriter writer = new ChunkWriter(fleet, reservations, bitPositions)) {
+                        for (int chunk = nextChunk.getAndIncrement(); chunk < chunks; chunk = nextChunk.getAndIncrement()) {
+                            writer.write(chunk, progress);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Dataset generation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Dataset generation failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return progress;
+    }
+
+    /**
+     * Generates chunks of cars and loads them, holding one connection and one set of id blocks per shard
+     */
+    private class ChunkWriter implements AutoCloseable {
+
+        private final SyntheticFleet fleet;
+        private final Map<Long, Integer> bitPositions;
+        private final Connection[] connections = new Connection[shardRouter.getShardCount()];
+        private final IdBlocks[] idBlocks = new IdBlocks[shardRouter.getShardCount()];
+
+        ChunkWriter(SyntheticFleet fleet, IdReservations reservations, Map<Long, Integer> bitPositions) {
+            this.fleet = fleet;
+            this.bitPositions = bitPositions;
+            for (int shard = 0; shard < idBlocks.length; shard++) {
+                idBlocks[shard] = new IdBlocks(reservations, shard, ID_BLOCK_SIZE);
+            }
+        }
+
+        void write(int chunk, Progress progress) throws SQLException, IOException {
+            CopyBatch[] batches = new CopyBatch[idBlocks.length];
+            for (int shard = 0; shard < batches.length; shard++) {
+                batches[shard] = new CopyBatch(idBlocks[shard], bitPositions);
+            }
+            int from = chunk * batchCars;
+            int to = Math.min(cars, from + batchCars);
+            for (int carIndex = from; carIndex < to; carIndex++) {
+                fleet.generateCar(carIndex, batches[shardRouter.shardForCar(fleet.carId(carIndex))]);
+            }
+
+            for (int shard = 0; shard < batches.length; shard++) {
+                if (!batches[shard].isEmpty()) {
+                    batches[shard].copyTo(connection(shard));
+                }
+            }
+            progress.chunkLoaded(batches);
+        }
+
+        private Connection connection(int shard) throws SQLException {
+            if (connections[shard] == null) {
+                connections[shard] = DriverManager.getConnection(shardRouter.getShardUrls().get(shard),
+                        dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+            }
+            return connections[shard];
+        }
+
+        @Override
+        public void close() throws SQLException {
+            for (Connection connection : connections) {
+                if (connection != null) {
+                    connection.close();
+                }
+            }
+        }
+    }
+
+    private static class Progress {
+
+        private static final int LOG_EVERY_PERCENT = 5;
+
+        private final int chunks;
+        private final long startNanos = System.nanoTime();
+        private final AtomicInteger loadedChunks = new AtomicInteger();
+        private final AtomicLong inspections = new AtomicLong();
+        private final AtomicLong answers = new AtomicLong();
+        private final AtomicLong photos = new AtomicLong();
+
+        Progress(int chunks) {
+            this.chunks = chunks;
+        }
+
+        void chunkLoaded(CopyBatch[] batches) {
+            for (CopyBatch batch : batches) {
+                inspections.addAndGet(batch.getInspectionCount());
+                answers.addAndGet(batch.getAnswerCount());
+                photos.addAndGet(batch.getPhotoCount());
+            }
+            int loaded = loadedChunks.incrementAndGet();
+            if (loaded * 100L / chunks / LOG_EVERY_PERCENT != (loaded - 1) * 100L / chunks / LOG_EVERY_PERCENT) {
+                long elapsed = Math.max(1, elapsedSeconds());
+                log.info("Dataset {}% loaded: {} inspections, {} answers ({} answers/s)",
+                        loaded * 100L / chunks, inspections.get(), answers.get(), answers.get() / elapsed);
+            }
+        }
+
+        long elapsedSeconds() {
+            return (System.nanoTime() - startNanos) / 1_000_000_000L;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.company.inspection.dataset;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the {@link DatasetGenerator} once the application has started (profile {@code dataset})
+ * and shuts the application down when it is done
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DatasetRunner implements ApplicationRunner {
+
+    private final DatasetGenerator datasetGenerator;
+    private final ConfigurableApplicationContext applicationContext;
+
+    @Value("${inspection.dataset.enabled:false}")
+    private boolean enabled;
+
+    @Value("${inspection.dataset.exit-when-done:true}")
+    private boolean exitWhenDone;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        int exitCode = 0;
+        try {
+            datasetGenerator.generate();
+        } catch (RuntimeException e) {
+            log.error("Dataset generation failed", e);
+            exitCode = 1;
+        }
+        if (exitWhenDone) {
+            int code = exitCode;
+            System.exit(SpringApplication.exit(applicationContext, () -> code));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.company.inspection.dataset;
+
+/**
+ * The id blocks a writer thread currently draws from on one shard; refilled from
+ * {@link IdReservations} when used up.
+ */
+class IdBlocks {
+
+    private final IdReservations reservations;
+    private final int shard;
+    private final int blockSize;
+    private final Cursor inspections = new Cursor("inspections");
+    private final Cursor answers = new Cursor("inspection_answers");
+    private final Cursor photos = new Cursor("inspection_photos");
+
+    IdBlocks(IdReservations reservations, int shard, int blockSize) {
+        this.reservations = reservations;
+        this.shard = shard;
+        this.blockSize = blockSize;
+    }
+
+    long nextInspectionId() {
+        return inspections.next();
+    }
+
+    long nextAnswerId() {
+        return answers.next();
+    }
+
+    long nextPhotoId() {
+        return photos.next();
+    }
+
+    private class Cursor {
+
+        private final String table;
+        private IdReservations.Block block;
+        private int used;
+
+        Cursor(String table) {
+            this.table = table;
+        }
+
+        long next() {
+            if (block == null || used == block.size()) {
+                block = reservations.reserve(shard, table, blockSize);
+                used = 0;
+            }
+            return block.first() + used++ * block.increment();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.company.inspection.dataset;
+
+import com.company.inspection.datasource.ShardRoutingDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hands out blocks of ids from the serial sequences of a shard. COPY cannot return generated keys,
+ * so the generator assigns ids itself: a block is reserved by moving the sequence past it, and
+ * its ids follow the sequence increment (which encodes the shard when sharding is on).
+ *
+ * <p>Reservations are serialized within this process only; nothing else should insert into the
+ * same database while the generator runs.
+ */
+class IdReservations {
+
+    record Block(long first, long increment, int size) {
+    }
+
+    private record SequenceKey(int shard, String table) {
+    }
+
+    private record Sequence(String name, long increment) {
+    }
+
+    private final ShardRoutingDataSource dataSource;
+    private final Map<SequenceKey, Sequence> sequences = new HashMap<>();
+
+    IdReservations(ShardRoutingDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    synchronized Block reserve(int shard, String table, int size) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource.shardDataSource(shard));
+        Sequence sequence = sequences.computeIfAbsent(new SequenceKey(shard, table), key -> lookup(jdbcTemplate, key));
+        Long first = jdbcTemplate.queryForObject("SELECT nextval(?::regclass)", Long.class, sequence.name());
+        jdbcTemplate.queryForObject("SELECT setval(?::regclass, ?)", Long.class,
+                sequence.name(), first + (size - 1) * sequence.increment());
+        return new Block(first, sequence.increment(), size);
+    }
+
+    private static Sequence lookup(JdbcTemplate jdbcTemplate, SequenceKey key) {
+        String name = jdbcTemplate.queryForObject("SELECT pg_get_serial_sequence(?, 'id')", String.class, key.table());
+        if (name == null) {
+            throw new IllegalStateException("Table " + key.table() + " on shard " + key.shard() + " has no id sequence");
+        }
+        Long increment = jdbcTemplate.queryForObject(
+                "SELECT increment_by FROM pg_sequences " +
+                "WHERE format('%I.%I', schemaname, sequencename)::regclass = ?::regclass", Long.class, name);
+        return new Sequence(name, increment != null ? increment : 1);
+    }
+}
@@ -0,0 +1,165 @@
+package com.company.inspection.dataset;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic model of a fleet and its inspection history. Every car draws from its own random
+ * stream derived from the seed and the car index, so a car always gets the same history no matter
+ * which writer thread generates it or in which order.
+ *
+ * <p>The distributions follow what the inspection data looks like in practice: most cars have a
+ * handful of inspections and a few have very many, inspections happen in working hours on working
+ * days, damage is rare and depends on the question and on the car, and a finding usually shows up
+ * again in later inspections until it is repaired (same description, previous photos).
+ */
+public class SyntheticFleet {
+
+    private static final int MAX_INSPECTIONS_PER_CAR = 250;
+    private static final int MAX_PHOTOS = 3;
+
+    private static final String[] DAMAGES = {"scratch", "dent", "crack", "rust", "chipped paint", "leak", "wear", "tear"};
+    private static final String[] POSITIONS = {"front", "rear", "left", "right", "front left", "front right",
+            "rear left", "rear right"};
+    private static final String[] PARTS = {"bumper", "door", "fender", "hood", "windshield", "tyre", "mirror",
+            "tail light", "headlight", "seat", "roof", "wheel arch"};
+    private static final String[] SEVERITIES = {"", "", "", ", minor", ", needs repair", ", customer informed"};
+
+    /**
+     * Receives the generated rows and returns the ids it assigned to them
+     */
+    public interface RowSink {
+
+        long inspection(String carId, LocalDateTime inspectionDate, boolean completed);
+
+        long answer(long inspectionId, long questionId, boolean yes, String description, LocalDateTime createdAt);
+
+        void photo(long answerId, String photoUrl, boolean isNew, LocalDateTime uploadedAt);
+    }
+
+    /**
+     * @param inspectionsPerCar mean number of inspections per car
+     * @param months            length of the history, ending at {@code until}
+     * @param incompleteRate    share of cars whose latest inspection is still in progress
+     * @param repairRate        chance that a finding is repaired before the next inspection
+     */
+    public record Settings(long seed, String carPrefix, double inspectionsPerCar, int months, LocalDate until,
+                           double incompleteRate, double repairRate, String photoBaseUrl) {
+    }
+
+    private record Finding(String description, List<String> photoUrls) {
+    }
+
+    private final Settings settings;
+    private final List<Long> questionIds;
+    private final Map<Long, Double> damageRates = new HashMap<>();
+    private final LocalDateTime windowStart;
+    private final long windowSeconds;
+
+    public SyntheticFleet(Settings settings, List<Long> questionIds) {
+        if (questionIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one active question is required");
+        }
+        this.settings = settings;
+        this.questionIds = List.copyOf(questionIds);
+        this.windowStart = settings.until().minusMonths(settings.months()).atStartOfDay();
+        this.windowSeconds = ChronoUnit.SECONDS.between(windowStart, settings.until().atStartOfDay());
+        // Some questions (tyres, paint) find damage far more often than others (engine, glass)
+        for (Long questionId : questionIds) {
+            damageRates.put(questionId, new SplittableRandom(settings.seed() ^ (questionId * 0x9E3779B97F4A7C15L))
+                    .nextDouble(0.02, 0.25));
+        }
+    }
+
+    public String carId(int carIndex) {
+        return String.format("%s%07d", settings.carPrefix(), carIndex);
+    }
+
+    /**
+     * Generate the complete history of one car into the sink
+     */
+    public void generateCar(int carIndex, RowSink sink) {
+        SplittableRandom random = new SplittableRandom(settings.seed() * 0x9E3779B97F4A7C15L + carIndex);
+        String carId = carId(carIndex);
+        // Older or harder used cars collect more damage
+        double wear = Math.exp(random.nextGaussian() * 0.6);
+        LocalDateTime[] dates = inspectionDates(random);
+        Map<Long, Finding> openFindings = new HashMap<>();
+
+        for (int i = 0; i < dates.length; i++) {
+            boolean latest = i == dates.length - 1;
+            boolean completed = !latest || random.nextDouble() >= settings.incompleteRate();
+            long inspectionId = sink.inspection(carId, dates[i], completed);
+
+            // An inspection in progress has only part of its answers so far
+            int answered = completed ? questionIds.size() : random.nextInt(questionIds.size());
+            LocalDateTime answeredAt = dates[i];
+            for (int q = 0; q < answered; q++) {
+                long questionId = questionIds.get(q);
+                answeredAt = answeredAt.plusSeconds(random.nextInt(10, 90));
+                Finding finding = nextFinding(random, carId, i, questionId, wear, openFindings.get(questionId));
+
+                if (finding == null) {
+                    openFindings.remove(questionId);
+                    sink.answer(inspectionId, questionId, false, null, answeredAt);
+                    continue;
+                }
+                boolean carriedOver = finding == openFindings.get(questionId);
+                openFindings.put(questionId, finding);
+                long answerId = sink.answer(inspectionId, questionId, true, finding.description(), answeredAt);
+                for (String photoUrl : finding.photoUrls()) {
+                    sink.photo(answerId, photoUrl, !carriedOver, answeredAt);
+                }
+            }
+        }
+    }
+
+    private Finding nextFinding(SplittableRandom random, String carId, int inspectionNumber, long questionId,
+                                double wear, Finding previous) {
+        if (previous != null && random.nextDouble() >= settings.repairRate()) {
+            return previous;
+        }
+        if (random.nextDouble() >= Math.min(0.9, damageRates.get(questionId) * wear)) {
+            return null;
+        }
+        String description = DAMAGES[random.nextInt(DAMAGES.length)] + " on " +
+                POSITIONS[random.nextInt(POSITIONS.length)] + " " + PARTS[random.nextInt(PARTS.length)] +
+                SEVERITIES[random.nextInt(SEVERITIES.length)];
+        // One photo in half of the findings, three in one out of six
+        double photoDraw = random.nextDouble();
+        int photos = photoDraw < 0.5 ? 1 : photoDraw < 0.85 ? 2 : MAX_PHOTOS;
+        List<String> photoUrls = new ArrayList<>(photos);
+        for (int n = 1; n <= photos; n++) {
+            photoUrls.add(settings.photoBaseUrl() + "dataset/" + carId + "/" + (inspectionNumber + 1) + "-" +
+                    questionId + "-" + n + ".jpg");
+        }
+        return new Finding(description, photoUrls);
+    }
+
+    // Long-tailed count, dates spread from the day the car joined the fleet until the end of the window
+    private LocalDateTime[] inspectionDates(SplittableRandom random) {
+        double extra = -Math.log(1 - random.nextDouble()) * Math.max(0, settings.inspectionsPerCar() - 1);
+        int count = 1 + (int) Math.min(MAX_INSPECTIONS_PER_CAR - 1, extra);
+        long joined = random.nextLong(0, Math.max(1, windowSeconds * 9 / 10));
+
+        LocalDateTime[] dates = new LocalDateTime[count];
+        for (int i = 0; i < count; i++) {
+            LocalDate day = windowStart.plusSeconds(random.nextLong(joined, windowSeconds)).toLocalDate();
+            // Weekend inspections are the exception
+            if (day.getDayOfWeek().getValue() >= DayOfWeek.SATURDAY.getValue() && random.nextDouble() < 0.8) {
+                day = day.minusDays(day.getDayOfWeek().getValue() - DayOfWeek.FRIDAY.getValue());
+            }
+            dates[i] = day.atTime(8, 0).plusSeconds(random.nextInt(10 * 3600));
+        }
+        Arrays.sort(dates);
+        return dates;
+    }
+}
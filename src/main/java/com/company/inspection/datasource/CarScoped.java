@@ -0,0 +1,9 @@
+package com.company.inspection.datasource;
+
+/**
+ * A request that belongs to a single car and can therefore be used as a {@link ShardKey}.
+ */
+public interface CarScoped {
+
+    String getCarId();
+}
@@ -0,0 +1,37 @@
+package com.company.inspection.datasource;
+
+/**
+ * Shard explicitly selected for the current thread, if any. Without one, connections go to
+ * shard 0, which also owns the question catalog.
+ */
+public final class ShardHolder {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardHolder() {
+    }
+
+    public static Integer get() {
+        return CURRENT.get();
+    }
+
+    public static int current() {
+        Integer shard = CURRENT.get();
+        return shard != null ? shard : 0;
+    }
+
+    // Returns the previous value, to be restored with restore()
+    public static Integer set(int shard) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        return previous;
+    }
+
+    public static void restore(Integer previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.company.inspection.datasource;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+
+/**
+ * Selects the shard from the {@link ShardKey} parameter. Runs before the transaction
+ * interceptor so the shard is known when the transaction asks for a connection.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class ShardKeyAspect {
+
+    private final ShardRouter shardRouter;
+
+    @Around("execution(* com.company.inspection..*.*(.., @com.company.inspection.datasource.ShardKey (*), ..))")
+    public Object routeToShard(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!shardRouter.isSharded()) {
+            return joinPoint.proceed();
+        }
+
+        Integer shard = resolveShard(((MethodSignature) joinPoint.getSignature()).getMethod(), joinPoint.getArgs());
+        if (shard == null) {
+            // No key given: let the method's own validation reject the call
+            return joinPoint.proceed();
+        }
+
+        Integer previous = ShardHolder.set(shard);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ShardHolder.restore(previous);
+        }
+    }
+
+    private Integer resolveShard(Method method, Object[] args) {
+        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+        for (int i = 0; i < parameterAnnotations.length; i++) {
+            for (Annotation annotation : parameterAnnotations[i]) {
+                if (annotation instanceof ShardKey) {
+                    return shardOf(args[i]);
+                }
+            }
+        }
+        return null;
+    }
+
+    private Integer shardOf(Object key) {
+        if (key instanceof String carId) {
+            return shardRouter.shardForCar(carId);
+        }
+        if (key instanceof Number id) {
+            return shardRouter.shardOfId(id.longValue());
+        }
+        if (key instanceof CarScoped request && request.getCarId() != null) {
+            return shardRouter.shardForCar(request.getCarId());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,92 @@
+package com.company.inspection.datasource;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Decides which shard owns a car. Cars are placed on a consistent-hash ring with a number of
+ * virtual nodes per shard, so adding a shard only moves the cars that land on the new shard's
+ * points (about 1/N of them) and leaves every other car where it is.
+ *
+ * <p>Rows below an inspection are located by id instead: every shard allocates ids with a
+ * stride of {@link #ID_STRIDE} starting at its own index, so {@code id % ID_STRIDE} is the
+ * shard that owns the row. Rows never move between shards, so both rules only hold for data
+ * written under the current ring: {@link ShardSchemaInitializer} refuses to start when a shard
+ * holds rows from before sharding or cars the ring now places elsewhere.
+ */
+public class ShardRouter {
+
+    public static final int ID_STRIDE = 1024;
+
+    private final List<String> shardUrls;
+    private final int virtualNodes;
+    private final NavigableMap<Long, Integer> ring = new TreeMap<>();
+
+    public ShardRouter(List<String> shardUrls, int virtualNodes) {
+        if (shardUrls.isEmpty() || shardUrls.size() > ID_STRIDE) {
+            throw new IllegalArgumentException("Between 1 and " + ID_STRIDE + " shards are supported, got " + shardUrls.size());
+        }
+        this.shardUrls = List.copyOf(shardUrls);
+        this.virtualNodes = virtualNodes;
+        // Points depend on the shard index only, so moving a shard to another host moves no cars
+        for (int shard = 0; shard < shardUrls.size(); shard++) {
+            for (int node = 0; node < virtualNodes; node++) {
+                ring.put(hash("shard-" + shard + "#" + node), shard);
+            }
+        }
+    }
+
+    public boolean isSharded() {
+        return shardUrls.size() > 1;
+    }
+
+    public int getShardCount() {
+        return shardUrls.size();
+    }
+
+    public List<String> getShardUrls() {
+        return shardUrls;
+    }
+
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+
+    public int shardForCar(String carId) {
+        if (!isSharded()) {
+            return 0;
+        }
+        Map.Entry<Long, Integer> point = ring.ceilingEntry(hash(carId));
+        return (point != null ? point : ring.firstEntry()).getValue();
+    }
+
+    public int shardOfId(long id) {
+        if (!isSharded()) {
+            return 0;
+        }
+        int shard = (int) Math.floorMod(id, (long) ID_STRIDE);
+        if (shard >= shardUrls.size()) {
+            throw new IllegalArgumentException("Id " + id + " does not belong to any configured shard");
+        }
+        return shard;
+    }
+
+    // First 8 bytes of MD5: stable across JVMs and evenly spread, unlike String.hashCode()
+    static long hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            long hash = 0;
+            for (int i = 0; i < 8; i++) {
+                hash = (hash << 8) | (digest[i] & 0xff);
+            }
+            return hash;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+}
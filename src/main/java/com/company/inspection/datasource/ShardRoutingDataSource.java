@@ -0,0 +1,44 @@
+package com.company.inspection.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routes each connection request to the shard selected in {@link ShardHolder} (shard 0 by
+ * default). Every shard is itself a {@link TrafficRoutingDataSource} over its own pools.
+ * Like the traffic router it has to sit behind a LazyConnectionDataSourceProxy.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    // Pools of shards 1..n are not Spring beans, so they are closed here
+    private final List<HikariDataSource> ownedPools = new ArrayList<>();
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardHolder.current();
+    }
+
+    /**
+     * The data source of one shard, bypassing any connection bound to the current transaction
+     */
+    public DataSource shardDataSource(int shard) {
+        DataSource dataSource = getResolvedDataSources().get(shard);
+        if (dataSource == null) {
+            throw new IllegalArgumentException("Unknown shard " + shard);
+        }
+        return dataSource;
+    }
+
+    public void addOwnedPool(HikariDataSource pool) {
+        ownedPools.add(pool);
+    }
+
+    @Override
+    public void close() {
+        ownedPools.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,128 @@
+package com.company.inspection.datasource;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prepares the shards before anything else gets a connection: optionally runs the schema
+ * scripts on every shard (spring.sql.init only knows a single database), then makes sure each
+ * shard allocates inspection, answer and photo ids with {@link ShardRouter#ID_STRIDE} starting
+ * at its own index, so ids are unique across shards and name the shard that owns them.
+ *
+ * <p>Existing rows are never moved or renumbered, so startup fails instead of serving wrong
+ * answers when a shard holds rows allocated before sharding (their ids route elsewhere) or
+ * cars the configured ring places on another shard (e.g. after a shard was added). Such data
+ * has to be moved to the right shard, with ids allocated there, before the new configuration
+ * can start; the ring layout the cars were verified against is kept in shard_layout, so the
+ * full car check only runs when the layout changes.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class ShardSchemaInitializer {
+
+    static final List<String> SHARDED_ID_TABLES = List.of("inspections", "inspection_answers", "inspection_photos");
+
+    private static final int EXAMPLES = 5;
+
+    private final ShardRoutingDataSource dataSource;
+    private final ShardRouter shardRouter;
+
+    public void initialize(boolean createSchema) {
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource.shardDataSource(shard));
+            if (createSchema) {
+                createSchema(jdbcTemplate, shard);
+            }
+            for (String table : SHARDED_ID_TABLES) {
+                String sequence = alignIdSequence(jdbcTemplate, shard, table);
+                verifyIdsNameShard(jdbcTemplate, shard, table, sequence);
+            }
+            verifyCarPlacement(jdbcTemplate, shard);
+        }
+    }
+
+    // The question catalog is seeded on shard 0 only and copied to the others by QuestionReplicator
+    private void createSchema(JdbcTemplate jdbcTemplate, int shard) {
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("schema.sql"));
+        if (shard == 0) {
+            populator.addScript(new ClassPathResource("data-sharded.sql"));
+        }
+        populator.execute(jdbcTemplate.getDataSource());
+        log.info("Created schema on shard {}", shard);
+    }
+
+    private String alignIdSequence(JdbcTemplate jdbcTemplate, int shard, String table) {
+        String sequence = jdbcTemplate.queryForObject("SELECT pg_get_serial_sequence(?, 'id')", String.class, table);
+        if (sequence == null) {
+            throw new IllegalStateException("Table " + table + " on shard " + shard + " has no id sequence");
+        }
+
+        Boolean aligned = jdbcTemplate.queryForObject(
+                "SELECT increment_by = ? AND start_value % ? = ? FROM pg_sequences " +
+                "WHERE format('%I.%I', schemaname, sequencename)::regclass = ?::regclass",
+                Boolean.class, ShardRouter.ID_STRIDE, ShardRouter.ID_STRIDE, shard, sequence);
+        if (Boolean.TRUE.equals(aligned)) {
+            return sequence;
+        }
+
+        // Continue above every existing id so nothing allocated before sharding is handed out again
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        long start = ((maxId != null ? maxId : 0) / ShardRouter.ID_STRIDE + 1) * ShardRouter.ID_STRIDE + shard;
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " INCREMENT BY " + ShardRouter.ID_STRIDE +
+                " START WITH " + start + " RESTART WITH " + start);
+        log.info("Shard {} allocates {} ids from {} in steps of {}", shard, table, start, ShardRouter.ID_STRIDE);
+        return sequence;
+    }
+
+    // Only rows below the aligned start value can have been allocated with another stride
+    private void verifyIdsNameShard(JdbcTemplate jdbcTemplate, int shard, String table, String sequence) {
+        Long misrouted = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + table + " WHERE id < (" +
+                "SELECT start_value FROM pg_sequences " +
+                "WHERE format('%I.%I', schemaname, sequencename)::regclass = ?::regclass) AND id % ? <> ?",
+                Long.class, sequence, ShardRouter.ID_STRIDE, shard);
+        if (misrouted != null && misrouted > 0) {
+            throw new IllegalStateException("Shard " + shard + " holds " + misrouted + " " + table +
+                    " rows from before sharding whose ids do not name the shard (id % " + ShardRouter.ID_STRIDE +
+                    " != " + shard + "); reload them with ids allocated by the shard before starting sharded");
+        }
+    }
+
+    private void verifyCarPlacement(JdbcTemplate jdbcTemplate, int shard) {
+        Boolean unchanged = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM shard_layout WHERE shard_index = ? AND shard_count = ? AND virtual_nodes = ?)",
+                Boolean.class, shard, shardRouter.getShardCount(), shardRouter.getVirtualNodes());
+        if (Boolean.TRUE.equals(unchanged)) {
+            return;
+        }
+
+        // First sharded start or a changed ring: every car stored here must still map to this shard
+        long[] misplaced = new long[1];
+        List<String> examples = new ArrayList<>();
+        jdbcTemplate.query("SELECT car_id FROM inspections UNION SELECT car_id FROM car_inspection_schedules", rs -> {
+            String carId = rs.getString("car_id");
+            if (shardRouter.shardForCar(carId) != shard) {
+                misplaced[0]++;
+                if (examples.size() < EXAMPLES) {
+                    examples.add(carId);
+                }
+            }
+        });
+        if (misplaced[0] > 0) {
+            throw new IllegalStateException("Shard " + shard + " holds " + misplaced[0] + " cars that the ring of " +
+                    shardRouter.getShardCount() + " shards places elsewhere, e.g. " + examples +
+                    "; move their inspections and schedules to their new shard before starting with this configuration");
+        }
+
+        jdbcTemplate.update("DELETE FROM shard_layout");
+        jdbcTemplate.update("INSERT INTO shard_layout (shard_index, shard_count, virtual_nodes) VALUES (?, ?, ?)",
+                shard, shardRouter.getShardCount(), shardRouter.getVirtualNodes());
+        log.info("Verified the cars of shard {} against a ring of {} shards", shard, shardRouter.getShardCount());
+    }
+}
@@ -0,0 +1,134 @@
+package com.company.inspection.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Runs work on explicitly chosen shards, for the fleet-wide operations that cannot be routed
+ * by a {@link ShardKey}. The work must open its own transactions: a transaction that already
+ * holds a connection keeps using it whatever shard is selected.
+ */
+@Component
+@Slf4j
+public class ShardTemplate implements DisposableBean {
+
+    private final ShardRouter shardRouter;
+    private final ExecutorService gatherExecutor;
+
+    @Value("${inspection.sharding.gather-timeout-ms:30000}")
+    private long gatherTimeoutMs;
+
+    public ShardTemplate(ShardRouter shardRouter,
+                         @Value("${inspection.sharding.gather-threads:8}") int gatherThreads) {
+        this.shardRouter = shardRouter;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.gatherExecutor = shardRouter.isSharded()
+                ? Executors.newFixedThreadPool(gatherThreads, runnable -> {
+                    Thread thread = new Thread(runnable, "shard-gather-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+    }
+
+    public int getShardCount() {
+        return shardRouter.getShardCount();
+    }
+
+    public <T> T onShard(int shard, Supplier<T> work) {
+        Integer previous = ShardHolder.set(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardHolder.restore(previous);
+        }
+    }
+
+    public void runOnShard(int shard, Runnable work) {
+        Integer previous = ShardHolder.set(shard);
+        try {
+            work.run();
+        } finally {
+            ShardHolder.restore(previous);
+        }
+    }
+
+    /**
+     * Run the work on every shard, one after another
+     */
+    public void forEachShard(IntConsumer work) {
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            int current = shard;
+            runOnShard(current, () -> work.accept(current));
+        }
+    }
+
+    /**
+     * Run the work on all shards in parallel and return the results in shard order. Fails as a
+     * whole when any shard fails or does not answer within the gather timeout.
+     */
+    public <T> List<T> scatterGather(IntFunction<T> work) {
+        if (gatherExecutor == null) {
+            return List.of(onShard(0, () -> work.apply(0)));
+        }
+
+        // Worker threads have no transaction, so pass on the pool the caller would have used
+        TrafficClass trafficClass = TrafficRoutingDataSource.currentTrafficClass();
+        List<Future<T>> futures = new ArrayList<>(shardRouter.getShardCount());
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            int current = shard;
+            futures.add(gatherExecutor.submit(() -> {
+                TrafficClass previous = TrafficClassHolder.set(trafficClass);
+                try {
+                    return onShard(current, () -> work.apply(current));
+                } finally {
+                    TrafficClassHolder.restore(previous);
+                }
+            }));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(gatherTimeoutMs);
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (int shard = 0; shard < futures.size(); shard++) {
+                results.add(await(futures.get(shard), shard, deadline));
+            }
+            return results;
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private <T> T await(Future<T> future, int shard, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Query on shard " + shard + " failed", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Shard " + shard + " did not answer within " + gatherTimeoutMs + " ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for shard " + shard, e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (gatherExecutor != null) {
+            gatherExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.company.inspection.datasource;
+
+import java.lang.annotation.*;
+
+/**
+ * Runs the annotated method (or every method of the annotated class) in the given traffic
+ * class, overriding the routing by transaction read-only flag. Used to keep background and
+ * bulk work on the batch pool.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Traffic {
+
+    TrafficClass value();
+}
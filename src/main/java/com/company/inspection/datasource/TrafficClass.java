@@ -0,0 +1,10 @@
+package com.company.inspection.datasource;
+
+/**
+ * Traffic classes with their own connection pool (and, for batch work, their own executor).
+ */
+public enum TrafficClass {
+    READ,   // Interactive read-only transactions
+    WRITE,  // Interactive writes and anything outside a read-only transaction
+    BATCH   // Exports, archival, rollups and other background jobs
+}
@@ -0,0 +1,39 @@
+package com.company.inspection.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies {@link Traffic} annotations. Runs before the transaction interceptor so the traffic
+ * class is already set when the transaction asks for a connection.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TrafficClassAspect {
+
+    @Around("@within(com.company.inspection.datasource.Traffic) || @annotation(com.company.inspection.datasource.Traffic)")
+    public Object applyTrafficClass(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Traffic traffic = AnnotatedElementUtils.findMergedAnnotation(signature.getMethod(), Traffic.class);
+        if (traffic == null) {
+            traffic = AnnotatedElementUtils.findMergedAnnotation(joinPoint.getTarget().getClass(), Traffic.class);
+        }
+        if (traffic == null) {
+            return joinPoint.proceed();
+        }
+
+        TrafficClass previous = TrafficClassHolder.set(traffic.value());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            TrafficClassHolder.restore(previous);
+        }
+    }
+}
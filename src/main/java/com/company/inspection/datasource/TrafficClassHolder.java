@@ -0,0 +1,31 @@
+package com.company.inspection.datasource;
+
+/**
+ * Traffic class explicitly selected for the current thread, if any.
+ */
+public final class TrafficClassHolder {
+
+    private static final ThreadLocal<TrafficClass> CURRENT = new ThreadLocal<>();
+
+    private TrafficClassHolder() {
+    }
+
+    public static TrafficClass get() {
+        return CURRENT.get();
+    }
+
+    // Returns the previous value, to be restored with restore()
+    public static TrafficClass set(TrafficClass trafficClass) {
+        TrafficClass previous = CURRENT.get();
+        CURRENT.set(trafficClass);
+        return previous;
+    }
+
+    public static void restore(TrafficClass previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.company.inspection.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routes each connection request to the pool of its traffic class: an explicit {@link Traffic}
+ * class first, otherwise READ inside read-only transactions and WRITE for everything else.
+ *
+ * <p>Must be wrapped in a LazyConnectionDataSourceProxy: transaction managers fetch the
+ * connection before the transaction's read-only flag is published, the proxy defers the
+ * actual lookup to the first statement.
+ */
+public class TrafficRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return currentTrafficClass();
+    }
+
+    public static TrafficClass currentTrafficClass() {
+        TrafficClass explicit = TrafficClassHolder.get();
+        if (explicit != null) {
+            return explicit;
+        }
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? TrafficClass.READ : TrafficClass.WRITE;
+    }
+}
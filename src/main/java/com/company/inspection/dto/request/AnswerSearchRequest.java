@@ -0,0 +1,24 @@
+package com.company.inspection.dto.request;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnswerSearchRequest {
+
+    private String query; // Free text, e.g. "scratch on rear bumper"
+
+    // Optional filters
+    private String carId;
+    private Long questionId;
+    private LocalDateTime from; // inclusive
+    private LocalDateTime to;   // exclusive
+
+    // Keyset pagination: answer id of the last hit of the previous page
+    private Long cursor;
+    private Integer size;
+}
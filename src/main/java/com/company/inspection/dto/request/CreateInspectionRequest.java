@@ -1,5 +1,6 @@
 package com.company.inspection.dto.request;
 
+import com.company.inspection.datasource.CarScoped;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
@@ -13,12 +14,19 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class CreateInspectionRequest {
+public class CreateInspectionRequest implements CarScoped {
 
     @NotBlank(message = "Car ID cannot be blank")
     @Size(max = 100, message = "Car ID cannot exceed 100 characters")
     private String carId;
 
+    // inspectionId of the questions this submission is based on; when given and another inspection
+    // has been completed for the car since, the submission is rejected with 409
+    private Long previousInspectionId;
+
+    // questionnaireVersionId of the questions that were answered (current version when omitted)
+    private Long questionnaireVersionId;
+
     @NotEmpty(message = "Answers cannot be empty")
     @Valid
     private List<AnswerRequest> answers;
@@ -0,0 +1,25 @@
+package com.company.inspection.dto.request;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FleetAnswerQueryRequest {
+
+    private String predicate; // e.g. "YES(3) AND YES(7)"
+
+    // Only the latest completed inspection of each car (otherwise every completed inspection)
+    private boolean latestOnly;
+
+    // Optional filters on the inspection date
+    private LocalDateTime from; // inclusive
+    private LocalDateTime to;   // exclusive
+
+    // Keyset pagination: inspection id of the last match of the previous page
+    private Long cursor;
+    private Integer size;
+}
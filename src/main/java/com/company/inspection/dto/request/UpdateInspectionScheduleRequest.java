@@ -0,0 +1,18 @@
+package com.company.inspection.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdateInspectionScheduleRequest {
+
+    @NotNull(message = "Interval days cannot be null")
+    @Min(value = 1, message = "Interval must be at least 1 day")
+    @Max(value = 3650, message = "Interval cannot exceed 3650 days")
+    private Integer intervalDays;
+}
@@ -0,0 +1,52 @@
+package com.company.inspection.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AnswerAnalyticsResponse {
+
+    private String groupBy;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate from;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate to;
+
+    // Oldest day held in memory; earlier days are not covered
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate windowStart;
+
+    private long rowsScanned;
+    private long rowsMatched;
+    private double elapsedMs;
+
+    private List<Group> groups;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Group {
+
+        private Long questionId; // Null unless grouped by question
+
+        @JsonFormat(pattern = "yyyy-MM-dd")
+        private LocalDate date; // Null unless grouped by day
+
+        private long yesCount;
+        private long noCount;
+        private long inspectionCount;
+        private Double yesRate; // yesCount / (yesCount + noCount)
+    }
+}
@@ -0,0 +1,39 @@
+package com.company.inspection.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AnswerSearchResponse {
+
+    private String query;
+    private List<Hit> results;
+
+    // Pass as "cursor" to fetch the next page; null when there are no more results
+    private Long nextCursor;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Hit {
+        private Long answerId;
+        private Long inspectionId;
+        private String carId;
+        private Long questionId;
+        private String answer; // "YES" or "NO"
+        private String description;
+
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+        private LocalDateTime inspectionDate;
+    }
+}
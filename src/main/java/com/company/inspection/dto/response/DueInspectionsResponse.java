@@ -0,0 +1,31 @@
+package com.company.inspection.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DueInspectionsResponse {
+
+    // Cars due after "from" (exclusive; absent for overdue queries) and up to "until"
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime from;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime until;
+
+    // Number of cars in the range; only computed for the first page
+    private Long totalCount;
+
+    private List<CarInspectionScheduleResponse> cars; // Most overdue / soonest due first
+
+    // Pass as "cursor" to fetch the next page; null when there are no more cars
+    private String nextCursor;
+}
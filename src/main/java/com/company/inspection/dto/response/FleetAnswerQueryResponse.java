@@ -0,0 +1,40 @@
+package com.company.inspection.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FleetAnswerQueryResponse {
+
+    private String predicate; // Normalized, with explicit parentheses
+    private Boolean latestOnly;
+
+    // Number of matching inspections; only computed for the first page
+    private Long totalMatches;
+
+    private List<Match> results;
+
+    // Pass as "cursor" to fetch the next page; null when there are no more matches
+    private Long nextCursor;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Match {
+        private Long inspectionId;
+        private String carId;
+
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+        private LocalDateTime inspectionDate;
+    }
+}
@@ -0,0 +1,60 @@
+package com.company.inspection.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class InspectionDiffResponse {
+
+    private String carId;
+    private Long fromInspectionId;
+    private Long toInspectionId;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime fromInspectionDate;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime toInspectionDate;
+
+    private List<QuestionDiff> changes; // Only questions that changed, ordered by question id
+
+    public enum ChangeType {
+        NEW_DEFECT,          // NO or unanswered before, YES now
+        RESOLVED_DEFECT,     // YES before, NO or unanswered now
+        DESCRIPTION_CHANGED, // YES both times, different description
+        PHOTOS_REPLACED,     // YES both times, different set of photos
+        ANSWERED,            // Not answered before, NO now
+        UNANSWERED           // NO before, not answered now
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class QuestionDiff {
+        private Long questionId;
+        private List<ChangeType> changeTypes;
+        private AnswerState before; // null when the question was not answered
+        private AnswerState after;  // null when the question is not answered
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class AnswerState {
+        private String answer; // "YES" or "NO"
+        private String description;
+        private List<String> photoUrls;
+    }
+}
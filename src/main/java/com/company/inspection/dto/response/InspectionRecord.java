@@ -0,0 +1,49 @@
+package com.company.inspection.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Self-contained, flat representation of an inspection with its answers and photo URLs.
+ * Used as the line format of archive segments (one JSON document per line).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class InspectionRecord {
+
+    private Long inspectionId;
+    private String carId;
+    private String status;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime inspectionDate;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    @Builder.Default
+    private List<AnswerRecord> answers = new ArrayList<>();
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class AnswerRecord {
+        private Long answerId;
+        private Long questionId;
+        private String answer; // "YES" or "NO"
+        private String description;
+
+        @Builder.Default
+        private List<String> photoUrls = new ArrayList<>();
+    }
+}
@@ -18,6 +18,8 @@ public class InspectionResponse {
     private String carId;
     private List<QuestionResponse> questions;
     private Boolean hasPreviousInspection;
+    // Questionnaire version of the questions (GET) or the one answered (POST); GET /questionnaires/{id} never changes
+    private Long questionnaireVersionId;
 
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime lastInspectionDate;
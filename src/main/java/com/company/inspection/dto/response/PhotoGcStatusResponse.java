@@ -0,0 +1,32 @@
+package com.company.inspection.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PhotoGcStatusResponse {
+
+    private boolean enabled;
+    private boolean running;
+
+    private String fileCheckpoint;  // Last file swept in the current pass, null at the start of a pass
+
+    private long filesScanned;
+    private long filesDeleted;
+    private long throttledPauses;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime lastRunStartedAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime lastRunFinishedAt;
+
+    private Boolean lastRunCompletedPass; // False when the run stopped at its time budget
+}
@@ -35,6 +35,9 @@ public class QuestionResponse {
     @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class PhotoInfo {
         private String url;
+        private String thumbnailUrl; // Downsized JPEG, only once the photo was processed
+        private Integer width; // Of the original, only once the photo was processed
+        private Integer height;
         private Boolean isNew; // false for previous photos, true for new photos
 
         // Utility methods
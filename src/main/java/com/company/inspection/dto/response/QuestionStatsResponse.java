@@ -0,0 +1,42 @@
+package com.company.inspection.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class QuestionStatsResponse {
+
+    private Long questionId;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate from;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate to;
+
+    private List<DailyBucket> days; // One bucket per day in the range, zero-filled
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class DailyBucket {
+
+        @JsonFormat(pattern = "yyyy-MM-dd")
+        private LocalDate date;
+
+        private long yesCount;
+        private long noCount;
+        private long photoCount;
+        private Double yesRate; // yesCount / (yesCount + noCount), null when there were no answers
+    }
+}
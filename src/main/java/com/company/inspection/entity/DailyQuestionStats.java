@@ -0,0 +1,42 @@
+package com.company.inspection.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Daily rollup of answers per question. Rows are written by
+ * {@link com.company.inspection.repository.DailyQuestionStatsJdbcRepository}, never through JPA.
+ */
+@Entity
+@Table(name = "daily_question_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString
+@Builder
+public class DailyQuestionStats {
+
+    @EmbeddedId
+    @EqualsAndHashCode.Include
+    private DailyQuestionStatsId id;
+
+    @Column(name = "yes_count", nullable = false)
+    private long yesCount;
+
+    @Column(name = "no_count", nullable = false)
+    private long noCount;
+
+    @Column(name = "photo_count", nullable = false)
+    private long photoCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public long getAnswerCount() {
+        return yesCount + noCount;
+    }
+}
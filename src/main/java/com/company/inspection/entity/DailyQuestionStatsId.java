@@ -0,0 +1,24 @@
+package com.company.inspection.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class DailyQuestionStatsId implements Serializable {
+
+    @Column(name = "question_id", nullable = false)
+    private Long questionId;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+}
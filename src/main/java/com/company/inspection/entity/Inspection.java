@@ -5,7 +5,12 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.SQLSelect;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -13,6 +18,9 @@ import java.util.List;
 
 @Entity
 @Table(name = "inspections")
+@Cacheable
+// Updated once after insert (answers added, marked completed) and once more when superseded
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -41,17 +49,43 @@ public class Inspection {
     @Builder.Default
     private boolean completed = false;
 
+    // Bumped when the inspection is completed and when a newer one for the car supersedes it
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    // Questionnaire version the answers were given to (NULL for inspections from before versioning)
+    @Column(name = "questionnaire_version_id", updatable = false)
+    private Long questionnaireVersionId;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
+    // Answered and YES questions by Question.bitPosition, 64 per element (see AnswerBitmap)
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "answered_bits", columnDefinition = "bigint[]")
+    private long[] answeredBits;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "yes_bits", columnDefinition = "bigint[]")
+    private long[] yesBits;
+
+    // Joined on the partition key, so only the answer partition of this inspection is probed
     @OneToMany(mappedBy = "inspection", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
+    @SQLSelect(sql = "SELECT a.* FROM inspection_answers a " +
+            "JOIN inspections i ON a.inspection_id = i.id AND a.inspection_date = i.inspection_date " +
+            "WHERE i.id = ?",
+            resultSetMapping = @SqlResultSetMapping(name = "", entities = @EntityResult(entityClass = InspectionAnswer.class)),
+            querySpaces = "inspection_answers")
     @Builder.Default
     private List<InspectionAnswer> answers = new ArrayList<>();
 
     public void addAnswer(InspectionAnswer answer) {
         answers.add(answer);
         answer.setInspection(this);
+        answer.setInspectionDate(inspectionDate);
     }
 
     public void removeAnswer(InspectionAnswer answer) {
@@ -64,7 +98,11 @@ public class Inspection {
     }
 
     public boolean isCompleted() {
-        return !completed;
+        return completed;
+    }
+
+    public String getStatus() {
+        return completed ? "COMPLETED" : "IN_PROGRESS";
     }
 
 }
@@ -5,6 +5,8 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
@@ -13,6 +15,9 @@ import java.util.List;
 
 @Entity
 @Table(name = "inspection_answers")
+@Cacheable
+// Answers are only inserted, never updated
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -29,10 +34,14 @@ public class InspectionAnswer {
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "inspection_id", nullable = false)
+    @JoinColumn(name = "inspection_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     @NotNull(message = "Inspection cannot be null")
     private Inspection inspection;
 
+    // Copied from the inspection; the partition key of inspection_answers
+    @Column(name = "inspection_date", nullable = false, updatable = false)
+    private LocalDateTime inspectionDate;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "question_id", nullable = false)
     @NotNull(message = "Question cannot be null")
@@ -52,6 +61,7 @@ public class InspectionAnswer {
     private LocalDateTime createdAt;
 
     @OneToMany(mappedBy = "answer", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
     @Builder.Default
     private List<InspectionPhoto> photos = new ArrayList<>();
 
@@ -60,10 +70,18 @@ public class InspectionAnswer {
         NO
     }
 
+    @PrePersist
+    void copyInspectionDate() {
+        if (inspectionDate == null && inspection != null) {
+            inspectionDate = inspection.getInspectionDate();
+        }
+    }
+
     // Helper methods
     public void addPhoto(InspectionPhoto photo) {
         photos.add(photo);
         photo.setAnswer(this);
+        photo.setInspectionDate(inspectionDate);
     }
 
     public void removePhoto(InspectionPhoto photo) {
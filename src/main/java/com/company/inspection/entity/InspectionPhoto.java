@@ -5,12 +5,18 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
+import java.util.Set;
 
 @Entity
 @Table(name = "inspection_photos")
+@Cacheable
+// The processing workers fill in the metadata with plain SQL and evict the entry afterwards
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -20,16 +26,22 @@ import java.time.LocalDateTime;
 @Builder
 public class InspectionPhoto {
 
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "bmp", "webp");
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @EqualsAndHashCode.Include
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "answer_id" , nullable = false)
+    @JoinColumn(name = "answer_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     @NotNull(message = "Inspection answer cannot be null")
     private InspectionAnswer answer;
 
+    // Copied from the answer; part of the foreign key to the partitioned inspection_answers
+    @Column(name = "inspection_date", nullable = false, updatable = false)
+    private LocalDateTime inspectionDate;
+
     @NotBlank(message = "Photo URL cannot be blank")
     @Size(max = 500, message = "Photo URL cannot exceed 500 characters")
     @Column(name = "photo_url", nullable = false, length = 500)
@@ -43,6 +55,38 @@ public class InspectionPhoto {
     @Column(name = "uploaded_at", updatable = false)
     private LocalDateTime uploadedAt;
 
+    // Written only by the photo processing workers (see PhotoProcessingService)
+    @Enumerated(EnumType.STRING)
+    @Column(name = "processing_status", length = 10, insertable = false, updatable = false)
+    private ProcessingStatus processingStatus;
+
+    @Column(name = "image_format", length = 10, insertable = false, updatable = false)
+    private String imageFormat;
+
+    @Column(name = "width", insertable = false, updatable = false)
+    private Integer width;
+
+    @Column(name = "height", insertable = false, updatable = false)
+    private Integer height;
+
+    @Column(name = "captured_at", insertable = false, updatable = false)
+    private LocalDateTime capturedAt;
+
+    @Column(name = "thumbnail_url", length = 500, insertable = false, updatable = false)
+    private String thumbnailUrl;
+
+    @Column(name = "processed_at", insertable = false, updatable = false)
+    private LocalDateTime processedAt;
+
+    @PrePersist
+    void copyInspectionDate() {
+        if (inspectionDate == null && answer != null) {
+            inspectionDate = answer.getInspectionDate() != null
+                    ? answer.getInspectionDate()
+                    : answer.getInspection().getInspectionDate();
+        }
+    }
+
     // Helper methods
     public boolean isNewPhoto(){
         return Boolean.TRUE.equals(this.isNew);
@@ -77,9 +121,23 @@ public class InspectionPhoto {
         return "";
     }
 
-    // Check if photo is image format
+    // Check if photo is image format; once processed the format detected from the content decides
     public boolean isImageFormat() {
-        String extension = getFileExtension();
-        return extension.matches("jpg|jpeg|png|gif|bmp|webp");
+        if (imageFormat != null) {
+            return true;
+        }
+        return IMAGE_EXTENSIONS.contains(getFileExtension());
+    }
+
+    public boolean hasThumbnail() {
+        return thumbnailUrl != null;
+    }
+
+    public enum ProcessingStatus {
+        PENDING,
+        PROCESSING,
+        DONE,
+        SKIPPED,
+        FAILED
     }
 }
@@ -5,12 +5,21 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
 
+/**
+ * The editable catalog. Id and bit position identify a question for good; text, order and the
+ * active flag as answered by an inspection are kept in its questionnaire version.
+ */
 @Entity
 @Table(name = "questions")
+@Cacheable
+// Rarely changed by admins; a stale entry lives at most until the update commits
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -35,6 +44,11 @@ public class Question {
     @Column(name = "order_index", nullable = false)
     private Integer orderIndex;
 
+    // Position in the answer bitmaps of inspections; assigned once and never reused
+    @NotNull(message = "Bit position cannot be null")
+    @Column(name = "bit_position", nullable = false, unique = true, updatable = false)
+    private Integer bitPosition;
+
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
 
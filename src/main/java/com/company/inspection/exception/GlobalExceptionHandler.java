@@ -1,6 +1,9 @@
 package com.company.inspection.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -10,6 +13,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestControllerAdvice
@@ -34,6 +38,49 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
     }
 
+    /**
+     * Handle a rejected inspection submission: all violations, in the same shape as Bean Validation errors
+     */
+    @ExceptionHandler(InspectionValidationException.class)
+    public ResponseEntity<ValidationErrorResponse> handleInspectionValidationException(InspectionValidationException ex) {
+        log.warn("Inspection validation failed: {}", ex.getMessage());
+
+        Map<String, String> fieldErrors = new LinkedHashMap<>();
+        ex.getViolations().forEach(violation ->
+                fieldErrors.merge(violation.field(), violation.message(), (first, second) -> first + "; " + second));
+
+        ValidationErrorResponse errorResponse = ValidationErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .error("Validation Failed")
+                .message("Inspection validation failed with " + ex.getViolations().size() + " error(s)")
+                .path("/api/v1/inspections")
+                .fieldErrors(fieldErrors)
+                .build();
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    /**
+     * Handle a submission that collided with another one for the same car
+     */
+    @ExceptionHandler({InspectionConflictException.class, OptimisticLockingFailureException.class})
+    public ResponseEntity<ErrorResponse> handleConflictException(RuntimeException ex) {
+        log.warn("Conflict: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error("Conflict")
+                .message(ex instanceof InspectionConflictException
+                        ? ex.getMessage()
+                        : "The inspection was changed concurrently. Please reload and try again.")
+                .path("/api/v1/inspections")
+                .build();
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+
     /**
      * Handle IllegalArgumentException (validation errors)
      */
@@ -78,6 +125,26 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 
+    /**
+     * Handle a full executor bulkhead (e.g. too many concurrent exports)
+     */
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<ErrorResponse> handleTaskRejectedException(TaskRejectedException ex) {
+        log.warn("Task rejected: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Service Unavailable")
+                .message("Too many concurrent background requests. Please try again later.")
+                .path("/api/v1/inspections")
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .body(errorResponse);
+    }
+
     /**
      * Handle generic exceptions
      */
@@ -0,0 +1,15 @@
+package com.company.inspection.exception;
+
+/**
+ * A submission collided with another submission for the same car
+ */
+public class InspectionConflictException extends RuntimeException {
+
+    public InspectionConflictException(String message) {
+        super(message);
+    }
+
+    public InspectionConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,29 @@
+package com.company.inspection.exception;
+
+import com.company.inspection.validation.Violation;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Thrown once per rejected submission with all of its violations. Extends
+ * IllegalArgumentException so existing callers keep treating it as a client error.
+ */
+@Getter
+public class InspectionValidationException extends IllegalArgumentException {
+
+    private final List<Violation> violations;
+
+    public InspectionValidationException(List<Violation> violations) {
+        super(violations.size() == 1
+                ? violations.get(0).message()
+                : violations.size() + " validation errors, first: " + violations.get(0).message());
+        this.violations = List.copyOf(violations);
+    }
+
+    // A rejected request is not an error of ours; the stack trace would only cost time
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,87 @@
+package com.company.inspection.filter;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limit that adapts with AIMD (additive increase, multiplicative decrease).
+ *
+ * <p>While requests finish within the target latency and the system is not overloaded the limit
+ * grows by about one per limit-many completions. A slow completion or an overload signal cuts the
+ * limit by the backoff ratio, at most once per target latency so a burst of slow completions counts
+ * as one congestion event. Requests beyond the limit are rejected instead of queueing.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+    private final LongSupplier nanoClock;
+
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      long targetLatencyNanos, double backoffRatio) {
+        this(initialLimit, minLimit, maxLimit, targetLatencyNanos, backoffRatio, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                               long targetLatencyNanos, double backoffRatio, LongSupplier nanoClock) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= max");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be between 0 and 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.backoffRatio = backoffRatio;
+        this.nanoClock = nanoClock;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.lastDecreaseNanos = nanoClock.getAsLong() - targetLatencyNanos;
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Release a permit taken with {@link #tryAcquire()} and feed back how the request went
+     */
+    public synchronized void release(long latencyNanos, boolean overloaded) {
+        inFlight--;
+
+        if (overloaded || latencyNanos > targetLatencyNanos) {
+            onCongestion();
+        } else if (inFlight + 1 >= (int) limit / 2) {
+            // Only grow while the current limit is actually being used
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    /**
+     * Multiplicative decrease, applied at most once per target latency
+     */
+    public synchronized void onCongestion() {
+        long now = nanoClock.getAsLong();
+        if (now - lastDecreaseNanos >= targetLatencyNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+            lastDecreaseNanos = now;
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,223 @@
+package com.company.inspection.filter;
+
+import com.company.inspection.config.DataSourceConfig;
+import com.company.inspection.datasource.TrafficClass;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission decisions for API requests, with separate budgets for reads and writes.
+ *
+ * <p>A request has to pass, in order: its client's token bucket and the global token bucket
+ * (429 when empty), the database pool check (503 while the recent mean connection wait is above
+ * the threshold) and the adaptive concurrency limit of its budget (503 when full). Rejecting up
+ * front keeps excess requests from queueing for Tomcat threads and pool connections.
+ */
+@Component
+@Slf4j
+public class AdmissionControl {
+
+    private static final String POOL_ACQUIRE_METRIC = "hikaricp.connections.acquire";
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    public enum Budget {
+        READ, WRITE
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Budget, BudgetState> budgets = new EnumMap<>(Budget.class);
+
+    @Value("${inspection.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${inspection.admission.max-clients:10000}")
+    private int maxClients;
+
+    private final long poolWaitThresholdNanos;
+    private final long poolWaitWindowNanos;
+
+    // Windowed mean of the pool acquire timers, refreshed at most once per window
+    private volatile long poolWaitWindowStart;
+    private double poolWaitTotalNanos;
+    private long poolWaitCount;
+    private volatile long recentPoolWaitNanos;
+
+    public AdmissionControl(MeterRegistry meterRegistry, Environment environment,
+                            @Value("${inspection.admission.pool-wait-threshold-ms:200}") long poolWaitThresholdMs,
+                            @Value("${inspection.admission.pool-wait-window-ms:1000}") long poolWaitWindowMs) {
+        this.meterRegistry = meterRegistry;
+        this.poolWaitThresholdNanos = TimeUnit.MILLISECONDS.toNanos(poolWaitThresholdMs);
+        this.poolWaitWindowNanos = TimeUnit.MILLISECONDS.toNanos(poolWaitWindowMs);
+        this.poolWaitWindowStart = System.nanoTime();
+
+        for (Budget budget : Budget.values()) {
+            BudgetState state = new BudgetState(budget, environment);
+            budgets.put(budget, state);
+            Gauge.builder("inspection.admission.concurrency.limit", state.limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .tag("budget", budget.name().toLowerCase())
+                    .register(meterRegistry);
+            Gauge.builder("inspection.admission.concurrency.in_flight", state.limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .tag("budget", budget.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Decide whether a request may proceed; an admitted decision must be passed to
+     * {@link #complete(Decision, long)} when the request finishes
+     */
+    public Decision admit(String clientId, Budget budget, boolean limitConcurrency) {
+        BudgetState state = budgets.get(budget);
+
+        long waitNanos = state.clientBucket(clientId).tryAcquire();
+        if (waitNanos > 0) {
+            return state.reject(HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds(waitNanos), "client-rate");
+        }
+
+        waitNanos = state.globalBucket.tryAcquire();
+        if (waitNanos > 0) {
+            return state.reject(HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds(waitNanos), "global-rate");
+        }
+
+        if (!limitConcurrency) {
+            return Decision.admitted(null);
+        }
+
+        if (isPoolOverloaded()) {
+            // Shedding alone is not enough; shrink the limit so fewer requests reach the pool
+            state.limiter.onCongestion();
+            return state.reject(HttpStatus.SERVICE_UNAVAILABLE, 1, "pool-wait");
+        }
+
+        if (!state.limiter.tryAcquire()) {
+            return state.reject(HttpStatus.SERVICE_UNAVAILABLE, 1, "concurrency");
+        }
+        return Decision.admitted(state.limiter);
+    }
+
+    public void complete(Decision decision, long latencyNanos) {
+        if (decision.permit() != null) {
+            decision.permit().release(latencyNanos, isPoolOverloaded());
+        }
+    }
+
+    private boolean isPoolOverloaded() {
+        return recentPoolWaitNanos() > poolWaitThresholdNanos;
+    }
+
+    long recentPoolWaitNanos() {
+        long now = System.nanoTime();
+        if (now - poolWaitWindowStart < poolWaitWindowNanos) {
+            return recentPoolWaitNanos;
+        }
+        synchronized (this) {
+            if (now - poolWaitWindowStart < poolWaitWindowNanos) {
+                return recentPoolWaitNanos;
+            }
+            double totalNanos = 0;
+            long count = 0;
+            for (Timer timer : meterRegistry.find(POOL_ACQUIRE_METRIC).timers()) {
+                if (DataSourceConfig.isPoolOf(timer.getId().getTag("pool"), TrafficClass.BATCH)) {
+                    continue; // Batch jobs wait for their pool by design
+                }
+                totalNanos += timer.totalTime(TimeUnit.NANOSECONDS);
+                count += timer.count();
+            }
+            long acquired = count - poolWaitCount;
+            // No acquisitions in the window means nobody waited long enough to complete one
+            recentPoolWaitNanos = acquired > 0 ? (long) ((totalNanos - poolWaitTotalNanos) / acquired) : 0;
+            poolWaitTotalNanos = totalNanos;
+            poolWaitCount = count;
+            poolWaitWindowStart = now;
+            return recentPoolWaitNanos;
+        }
+    }
+
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+    }
+
+    public record Decision(boolean admitted, AdaptiveConcurrencyLimiter permit,
+                           HttpStatus status, long retryAfterSeconds, String reason) {
+
+        static Decision admitted(AdaptiveConcurrencyLimiter permit) {
+            return new Decision(true, permit, null, 0, null);
+        }
+    }
+
+    private final class BudgetState {
+
+        private final Budget budget;
+        private final String prefix;
+        private final double clientRate;
+        private final double clientBurst;
+        private final TokenBucket globalBucket;
+        private final AdaptiveConcurrencyLimiter limiter;
+        // Least recently used first, guarded by itself
+        private final Map<String, TokenBucket> clientBuckets = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+                return size() > maxClients;
+            }
+        };
+        private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+
+        BudgetState(Budget budget, Environment environment) {
+            this.budget = budget;
+            this.prefix = "inspection.admission." + budget.name().toLowerCase() + ".";
+            boolean read = budget == Budget.READ;
+
+            this.clientRate = property(environment, "client-rate", read ? 50 : 10);
+            this.clientBurst = property(environment, "client-burst", read ? 100 : 20);
+            this.globalBucket = new TokenBucket(
+                    property(environment, "global-rate", read ? 500 : 100),
+                    property(environment, "global-burst", read ? 1000 : 200));
+
+            int maxConcurrency = (int) property(environment, "max-concurrency", read ? 32 : 8);
+            int minConcurrency = (int) property(environment, "min-concurrency", read ? 4 : 2);
+            long targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(
+                    (long) property(environment, "target-latency-ms", read ? 250 : 1000));
+            // Start in the middle and let AIMD find the level the database sustains
+            int initialConcurrency = (int) property(environment, "initial-concurrency", Math.max(minConcurrency, maxConcurrency / 2));
+            this.limiter = new AdaptiveConcurrencyLimiter(initialConcurrency, minConcurrency, maxConcurrency,
+                    targetLatencyNanos, property(environment, "backoff-ratio", 0.9));
+        }
+
+        private double property(Environment environment, String name, double defaultValue) {
+            return environment.getProperty(prefix + name, Double.class, defaultValue);
+        }
+
+        // Beyond max-clients the least recently seen client is dropped; its bucket has most likely refilled
+        TokenBucket clientBucket(String clientId) {
+            synchronized (clientBuckets) {
+                return clientBuckets.computeIfAbsent(clientId, id -> new TokenBucket(clientRate, clientBurst));
+            }
+        }
+
+        Decision reject(HttpStatus status, long retryAfterSeconds, String reason) {
+            rejections.computeIfAbsent(reason, r -> Counter.builder("inspection.admission.rejected")
+                    .tag("budget", budget.name().toLowerCase())
+                    .tag("reason", r)
+                    .register(meterRegistry)).increment();
+            log.debug("Rejected {} request: {}", budget, reason);
+            return new Decision(false, null, status, retryAfterSeconds, reason);
+        }
+    }
+}
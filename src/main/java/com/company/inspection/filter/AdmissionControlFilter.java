@@ -0,0 +1,97 @@
+package com.company.inspection.filter;
+
+import com.company.inspection.exception.GlobalExceptionHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Applies {@link AdmissionControl} to every /api request before it reaches a controller.
+ * GET/HEAD requests use the read budget, everything else the write budget. Clients are
+ * identified by the X-Client-Id header, falling back to the remote address.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+@Slf4j
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    // Long-running streams would hold a concurrency permit (and skew latency) for minutes
+    private static final String EXPORTS_PATH = "/api/v1/exports/";
+
+    private final AdmissionControl admissionControl;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !admissionControl.isEnabled() || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        AdmissionControl.Budget budget = isRead(request) ? AdmissionControl.Budget.READ : AdmissionControl.Budget.WRITE;
+        boolean limitConcurrency = !request.getRequestURI().startsWith(EXPORTS_PATH);
+
+        AdmissionControl.Decision decision = admissionControl.admit(clientId(request), budget, limitConcurrency);
+        if (!decision.admitted()) {
+            reject(request, response, decision);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            admissionControl.complete(decision, System.nanoTime() - start);
+        }
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method);
+    }
+
+    private static String clientId(HttpServletRequest request) {
+        String clientId = request.getHeader(CLIENT_ID_HEADER);
+        return clientId != null && !clientId.isBlank() ? clientId : request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response,
+                        AdmissionControl.Decision decision) throws IOException {
+        log.warn("{} {} - Rejected with {} ({})", request.getMethod(), request.getRequestURI(),
+                decision.status().value(), decision.reason());
+
+        GlobalExceptionHandler.ErrorResponse errorResponse = GlobalExceptionHandler.ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(decision.status().value())
+                .error(decision.status().getReasonPhrase())
+                .message(decision.status().value() == 429
+                        ? "Request rate limit exceeded (" + decision.reason() + "). Please retry later."
+                        : "Service is overloaded (" + decision.reason() + "). Please retry later.")
+                .path(request.getRequestURI())
+                .build();
+
+        response.setStatus(decision.status().value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(decision.retryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
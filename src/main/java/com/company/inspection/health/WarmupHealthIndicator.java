@@ -0,0 +1,34 @@
+package com.company.inspection.health;
+
+import com.company.inspection.service.WarmupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * "warmup" health contributor: WARMING_UP until the startup warm-up has finished. Only the
+ * readiness group ranks that status (as not ready, answered with 503); the root status and the
+ * liveness group ignore it, so a slow warm-up neither marks the instance DOWN nor makes the
+ * liveness probe restart it.
+ */
+@Component
+@RequiredArgsConstructor
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    static final Status WARMING_UP = new Status("WARMING_UP", "Startup warm-up has not finished");
+
+    private final WarmupService warmupService;
+
+    @Override
+    public Health health() {
+        Health.Builder builder = warmupService.isComplete() ? Health.up() : Health.status(WARMING_UP);
+        builder.withDetail("cars", warmupService.getWarmedCars())
+                .withDetail("replayedRequests", warmupService.getReplayedRequests());
+        if (warmupService.getFailure() != null) {
+            builder.withDetail("failure", warmupService.getFailure());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,214 @@
+package com.company.inspection.photo;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads the capture time from the EXIF block of a JPEG without decoding the image: walks the
+ * marker segments up to the first APP1 "Exif" segment, then follows IFD0 to the Exif sub-IFD
+ * for DateTimeOriginal, falling back to DateTime of IFD0. Only the segment headers before the
+ * EXIF block are read, so this is cheap even for large files.
+ */
+public final class ExifReader {
+
+    private static final int SOI = 0xD8;
+    private static final int APP1 = 0xE1;
+    private static final int SOS = 0xDA;
+    private static final int EOI = 0xD9;
+
+    private static final int TAG_DATE_TIME = 0x0132;
+    private static final int TAG_EXIF_IFD = 0x8769;
+    private static final int TAG_DATE_TIME_ORIGINAL = 0x9003;
+    private static final int TYPE_ASCII = 2;
+    private static final int TYPE_LONG = 4;
+
+    private static final byte[] EXIF_HEADER = {'E', 'x', 'i', 'f', 0, 0};
+    private static final DateTimeFormatter EXIF_DATE_TIME = DateTimeFormatter.ofPattern("yyyy:MM:dd HH:mm:ss");
+
+    private ExifReader() {
+    }
+
+    /**
+     * Capture time of a JPEG stream; empty when the stream is no JPEG or carries no (valid) date
+     */
+    public static Optional<LocalDateTime> readCaptureTime(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        try {
+            if (in.readUnsignedByte() != 0xFF || in.readUnsignedByte() != SOI) {
+                return Optional.empty();
+            }
+            while (true) {
+                int marker = nextMarker(in);
+                if (marker == SOS || marker == EOI) {
+                    return Optional.empty();
+                }
+                int length = in.readUnsignedShort() - 2;
+                if (length < 0) {
+                    return Optional.empty();
+                }
+                if (marker == APP1) {
+                    byte[] segment = new byte[length];
+                    in.readFully(segment);
+                    if (startsWith(segment, EXIF_HEADER)) {
+                        return parseTiff(segment, EXIF_HEADER.length);
+                    }
+                } else {
+                    in.skipNBytes(length);
+                }
+            }
+        } catch (EOFException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static int nextMarker(DataInputStream in) throws IOException {
+        int b = in.readUnsignedByte();
+        if (b != 0xFF) {
+            throw new EOFException("Not at a JPEG marker");
+        }
+        // Markers may be preceded by any number of 0xFF fill bytes
+        do {
+            b = in.readUnsignedByte();
+        } while (b == 0xFF);
+        return b;
+    }
+
+    private static Optional<LocalDateTime> parseTiff(byte[] data, int start) {
+        Tiff tiff = Tiff.open(data, start);
+        if (tiff == null) {
+            return Optional.empty();
+        }
+        int ifd0 = tiff.int32(start + 4);
+        String dateTime = null;
+        String dateTimeOriginal = null;
+
+        int exifIfd = -1;
+        for (Entry entry : tiff.entries(ifd0)) {
+            if (entry.tag() == TAG_EXIF_IFD && entry.type() == TYPE_LONG) {
+                exifIfd = tiff.int32(entry.valueOffset());
+            } else if (entry.tag() == TAG_DATE_TIME) {
+                dateTime = tiff.ascii(entry);
+            }
+        }
+        if (exifIfd >= 0) {
+            for (Entry entry : tiff.entries(exifIfd)) {
+                if (entry.tag() == TAG_DATE_TIME_ORIGINAL) {
+                    dateTimeOriginal = tiff.ascii(entry);
+                }
+            }
+        }
+
+        Optional<LocalDateTime> original = parseDateTime(dateTimeOriginal);
+        return original.isPresent() ? original : parseDateTime(dateTime);
+    }
+
+    // Cameras without a clock write blanks or zeros
+    private static Optional<LocalDateTime> parseDateTime(String value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(LocalDateTime.parse(value.trim(), EXIF_DATE_TIME));
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static boolean startsWith(byte[] data, byte[] prefix) {
+        if (data.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (data[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private record Entry(int tag, int type, int count, int valueOffset) {
+    }
+
+    /**
+     * TIFF structure inside the APP1 segment; offsets in the file are relative to its header
+     */
+    private record Tiff(byte[] data, int base, boolean littleEndian) {
+
+        private static final int MAX_ENTRIES = 512;
+
+        static Tiff open(byte[] data, int base) {
+            if (data.length < base + 8) {
+                return null;
+            }
+            boolean littleEndian;
+            if (data[base] == 'I' && data[base + 1] == 'I') {
+                littleEndian = true;
+            } else if (data[base] == 'M' && data[base + 1] == 'M') {
+                littleEndian = false;
+            } else {
+                return null;
+            }
+            Tiff tiff = new Tiff(data, base, littleEndian);
+            return tiff.int16(base + 2) == 42 ? tiff : null;
+        }
+
+        // Entries of the IFD at the given TIFF offset; empty when it lies outside the segment
+        List<Entry> entries(int ifdOffset) {
+            if (ifdOffset < 0 || ifdOffset > data.length - base - 2) {
+                return List.of();
+            }
+            int position = base + ifdOffset;
+            int count = Math.min(int16(position), MAX_ENTRIES);
+            List<Entry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int entry = position + 2 + i * 12;
+                if (entry + 12 > data.length) {
+                    break;
+                }
+                entries.add(new Entry(int16(entry), int16(entry + 2), int32(entry + 4), entry + 8));
+            }
+            return entries;
+        }
+
+        // ASCII values of up to four bytes are stored inline, longer ones at an offset
+        String ascii(Entry entry) {
+            if (entry.type() != TYPE_ASCII || entry.count() <= 0) {
+                return null;
+            }
+            int offset = entry.count() <= 4 ? entry.valueOffset() - base : int32(entry.valueOffset());
+            if (offset < 0 || offset > data.length - base - entry.count()) {
+                return null;
+            }
+            int position = base + offset;
+            int length = entry.count();
+            while (length > 0 && data[position + length - 1] == 0) {
+                length--;
+            }
+            return new String(data, position, length, StandardCharsets.US_ASCII);
+        }
+
+        int int16(int position) {
+            int b0 = data[position] & 0xFF;
+            int b1 = data[position + 1] & 0xFF;
+            return littleEndian ? b0 | b1 << 8 : b0 << 8 | b1;
+        }
+
+        int int32(int position) {
+            if (position < 0 || position + 4 > data.length) {
+                return -1;
+            }
+            int high = int16(littleEndian ? position + 2 : position);
+            int low = int16(littleEndian ? position : position + 2);
+            return high << 16 | low;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.company.inspection.photo;
+
+import java.time.LocalDateTime;
+
+/**
+ * What the processing workers store about a photo; capturedAt is null without an EXIF date.
+ */
+public record PhotoMetadata(String format, int width, int height, LocalDateTime capturedAt) {
+}
@@ -0,0 +1,134 @@
+package com.company.inspection.photo;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Reads the dimensions and EXIF capture time of a photo and writes a JPEG thumbnail whose
+ * longer edge is at most {@code maxEdge} pixels.
+ *
+ * <p>The format is detected from the file content, not its name. Dimensions come from the
+ * image header; the pixels are decoded with subsampling, so a 12 MP photo is read at roughly
+ * twice the thumbnail size instead of in full, and then scaled down with bilinear filtering.
+ * Transparent areas become white. The thumbnail is written next to its final path and moved
+ * into place, so a reader never sees a partial file.
+ */
+public class PhotoMetadataExtractor {
+
+    private final int maxEdge;
+    private final float quality;
+
+    public PhotoMetadataExtractor(int maxEdge, float quality) {
+        if (maxEdge <= 0) {
+            throw new IllegalArgumentException("Thumbnail edge must be positive");
+        }
+        if (quality <= 0 || quality > 1) {
+            throw new IllegalArgumentException("Thumbnail quality must be in (0, 1]");
+        }
+        this.maxEdge = maxEdge;
+        this.quality = quality;
+    }
+
+    /**
+     * Extract the metadata of source and write its thumbnail to thumbnail; empty (and no
+     * thumbnail) when source is not an image format ImageIO can read
+     */
+    public Optional<PhotoMetadata> process(Path source, Path thumbnail) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            if (input == null) {
+                throw new IOException("Cannot open " + source);
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return Optional.empty();
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                String format = reader.getFormatName().toLowerCase(Locale.ROOT);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = subsampling(width, height);
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                BufferedImage decoded = reader.read(0, param);
+
+                writeThumbnail(scale(decoded), thumbnail);
+                return Optional.of(new PhotoMetadata(format, width, height, captureTime(source, format)));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Keep at least twice the thumbnail size so the final scaling still has pixels to average
+    int subsampling(int width, int height) {
+        return Math.max(1, Math.max(width, height) / (2 * maxEdge));
+    }
+
+    private BufferedImage scale(BufferedImage image) {
+        double factor = Math.min(1.0, (double) maxEdge / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * factor));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * factor));
+
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private void writeThumbnail(BufferedImage image, Path thumbnail) throws IOException {
+        Files.createDirectories(thumbnail.getParent());
+        Path temporary = Files.createTempFile(thumbnail.getParent(), ".thumbnail-", ".tmp");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temporary.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(quality);
+                writer.setOutput(output);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(temporary, thumbnail, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private LocalDateTime captureTime(Path source, String format) throws IOException {
+        if (!format.equals("jpeg")) {
+            return null;
+        }
+        try (InputStream input = Files.newInputStream(source)) {
+            return ExifReader.readCaptureTime(input).orElse(null);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.company.inspection.repository;
+
+import com.company.inspection.dto.request.FleetAnswerQueryRequest;
+import com.company.inspection.dto.response.FleetAnswerQueryResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads and writes the answer bitmaps of inspections (answered_bits / yes_bits). Predicates
+ * arrive as SQL conditions on alias {@code i} compiled by AnswerPredicateCompiler; they only
+ * touch the inspections rows, never the answer tables.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AnswerBitmapJdbcRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private static final RowMapper<FleetAnswerQueryResponse.Match> MATCH_MAPPER = (rs, rowNum) ->
+            FleetAnswerQueryResponse.Match.builder()
+                    .inspectionId(rs.getLong("id"))
+                    .carId(rs.getString("car_id"))
+                    .inspectionDate(rs.getTimestamp("inspection_date").toLocalDateTime())
+                    .build();
+
+    public record InspectionKey(long id, LocalDateTime inspectionDate) {
+    }
+
+    public record AnswerBit(long inspectionId, int bitPosition, boolean yes) {
+    }
+
+    public record EncodedInspection(InspectionKey key, long[] answeredBits, long[] yesBits) {
+    }
+
+    // Up to "limit" matches ordered by inspection id descending, starting after request.cursor
+    public List<FleetAnswerQueryResponse.Match> findMatches(FleetAnswerQueryRequest request, String condition,
+                                                            MapSqlParameterSource params, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT i.id, i.car_id, i.inspection_date FROM ");
+        appendSource(sql, request, params);
+        sql.append(" WHERE i.answered_bits IS NOT NULL AND ").append(condition);
+        if (request.getCursor() != null) {
+            sql.append(" AND i.id < :cursor");
+            params.addValue("cursor", request.getCursor());
+        }
+        sql.append(" ORDER BY i.id DESC LIMIT :limit");
+        params.addValue("limit", limit);
+
+        return jdbcTemplate.query(sql.toString(), params, MATCH_MAPPER);
+    }
+
+    public long countMatches(FleetAnswerQueryRequest request, String condition, MapSqlParameterSource params) {
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM ");
+        appendSource(sql, request, params);
+        sql.append(" WHERE i.answered_bits IS NOT NULL AND ").append(condition);
+
+        Long count = jdbcTemplate.queryForObject(sql.toString(), params, Long.class);
+        return count != null ? count : 0;
+    }
+
+    // Completed inspections in the date range, or only the latest one of each car
+    private static void appendSource(StringBuilder sql, FleetAnswerQueryRequest request, MapSqlParameterSource params) {
+        StringBuilder where = new StringBuilder(" WHERE completed");
+        if (request.getFrom() != null) {
+            where.append(" AND inspection_date >= :from");
+            params.addValue("from", Timestamp.valueOf(request.getFrom()));
+        }
+        if (request.getTo() != null) {
+            where.append(" AND inspection_date < :to");
+            params.addValue("to", Timestamp.valueOf(request.getTo()));
+        }
+
+        if (request.isLatestOnly()) {
+            sql.append("(SELECT DISTINCT ON (car_id) id, car_id, inspection_date, answered_bits, yes_bits FROM inspections")
+                    .append(where)
+                    .append(" ORDER BY car_id, inspection_date DESC, id DESC) i");
+        } else {
+            sql.append("(SELECT id, car_id, inspection_date, answered_bits, yes_bits FROM inspections")
+                    .append(where)
+                    .append(") i");
+        }
+    }
+
+    /**
+     * Inspections written before the bitmaps existed, in id order after the given id
+     */
+    public List<InspectionKey> findUnencoded(long afterId, int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, inspection_date FROM inspections WHERE answered_bits IS NULL AND id > :afterId " +
+                "ORDER BY id LIMIT :limit",
+                new MapSqlParameterSource("afterId", afterId).addValue("limit", limit),
+                (rs, rowNum) -> new InspectionKey(rs.getLong("id"), rs.getTimestamp("inspection_date").toLocalDateTime()));
+    }
+
+    // The inspection dates limit the scan to the answer partitions of these inspections
+    public List<AnswerBit> findAnswerBits(List<InspectionKey> inspections) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", inspections.stream().map(InspectionKey::id).toList())
+                .addValue("dates", inspections.stream().map(key -> Timestamp.valueOf(key.inspectionDate())).distinct().toList());
+
+        return jdbcTemplate.query(
+                "SELECT a.inspection_id, q.bit_position, a.answer = 'YES' AS yes " +
+                "FROM inspection_answers a JOIN questions q ON q.id = a.question_id " +
+                "WHERE a.inspection_id IN (:ids) AND a.inspection_date IN (:dates)",
+                params,
+                (rs, rowNum) -> new AnswerBit(rs.getLong("inspection_id"), rs.getInt("bit_position"), rs.getBoolean("yes")));
+    }
+
+    // The partition key is part of the condition, so each row is looked up in one partition only
+    public void updateBitmaps(List<EncodedInspection> inspections) {
+        jdbcTemplate.getJdbcTemplate().batchUpdate(
+                "UPDATE inspections SET answered_bits = ?, yes_bits = ? WHERE id = ? AND inspection_date = ?",
+                inspections, inspections.size(), (ps, inspection) -> {
+                    Connection connection = ps.getConnection();
+                    ps.setArray(1, toSqlArray(connection, inspection.answeredBits()));
+                    ps.setArray(2, toSqlArray(connection, inspection.yesBits()));
+                    ps.setLong(3, inspection.key().id());
+                    ps.setTimestamp(4, Timestamp.valueOf(inspection.key().inspectionDate()));
+                });
+    }
+
+    private static Array toSqlArray(Connection connection, long[] words) throws SQLException {
+        return connection.createArrayOf("bigint", Arrays.stream(words).boxed().toArray(Long[]::new));
+    }
+}
@@ -0,0 +1,71 @@
+package com.company.inspection.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Bulk read of recent answers for the in-memory column store. Only used when the store is
+ * (re)loaded or catches up with other instances; analytics queries themselves never reach the database.
+ */
+@Repository
+public class AnswerColumnJdbcRepository {
+
+    private final NamedParameterJdbcTemplate streamingJdbcTemplate;
+
+    @FunctionalInterface
+    public interface AnswerRowConsumer {
+        void accept(int questionId, long inspectionId, boolean yes, int epochDay);
+    }
+
+    public AnswerColumnJdbcRepository(NamedParameterJdbcTemplate jdbcTemplate,
+                                      @Value("${inspection.export.fetch-size:1000}") int streamingFetchSize) {
+        JdbcTemplate streamingTemplate = new JdbcTemplate(jdbcTemplate.getJdbcTemplate().getDataSource());
+        streamingTemplate.setFetchSize(streamingFetchSize);
+        this.streamingJdbcTemplate = new NamedParameterJdbcTemplate(streamingTemplate);
+    }
+
+    /**
+     * Stream the answers of inspections since the given time, the rows of each inspection together.
+     * The inspection_date condition prunes older partitions; the cursor only streams inside a transaction.
+     */
+    public void streamAnswersSince(LocalDateTime since, AnswerRowConsumer consumer) {
+        String sql =
+                "SELECT a.question_id, a.inspection_id, a.answer = 'YES' AS yes, " +
+                "       (a.inspection_date::date - DATE '1970-01-01') AS epoch_day " +
+                "FROM inspection_answers a " +
+                "WHERE a.inspection_date >= :since " +
+                "ORDER BY a.inspection_id";
+
+        streamingJdbcTemplate.query(sql, new MapSqlParameterSource("since", Timestamp.valueOf(since)), rs ->
+                consumer.accept(rs.getInt("question_id"), rs.getLong("inspection_id"),
+                        rs.getBoolean("yes"), rs.getInt("epoch_day")));
+    }
+
+    /**
+     * Stream the answers of the given cars' inspections since the given time, the rows of each
+     * inspection together. Used to pick up inspections other instances created.
+     */
+    public void streamAnswersOfCarsSince(Collection<String> carIds, LocalDateTime since, AnswerRowConsumer consumer) {
+        String sql =
+                "SELECT a.question_id, a.inspection_id, a.answer = 'YES' AS yes, " +
+                "       (a.inspection_date::date - DATE '1970-01-01') AS epoch_day " +
+                "FROM inspections i " +
+                "JOIN inspection_answers a ON a.inspection_id = i.id AND a.inspection_date = i.inspection_date " +
+                "WHERE i.car_id IN (:carIds) AND i.completed AND i.inspection_date >= :since " +
+                "ORDER BY a.inspection_id";
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("carIds", carIds)
+                .addValue("since", Timestamp.valueOf(since));
+        streamingJdbcTemplate.query(sql, params, rs ->
+                consumer.accept(rs.getInt("question_id"), rs.getLong("inspection_id"),
+                        rs.getBoolean("yes"), rs.getInt("epoch_day")));
+    }
+}
@@ -0,0 +1,76 @@
+package com.company.inspection.repository;
+
+import com.company.inspection.dto.request.AnswerSearchRequest;
+import com.company.inspection.dto.response.AnswerSearchResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Full-text search over inspection_answers.description_tsv (GIN indexed).
+ * Only the filters that are actually set end up in the WHERE clause, so the planner
+ * never has to deal with "(:param IS NULL OR ...)" predicates.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AnswerSearchRepository {
+
+    static final String TEXT_SEARCH_CONFIG = "simple";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private static final RowMapper<AnswerSearchResponse.Hit> HIT_MAPPER = (rs, rowNum) -> {
+        Timestamp inspectionDate = rs.getTimestamp("inspection_date");
+        return AnswerSearchResponse.Hit.builder()
+                .answerId(rs.getLong("id"))
+                .inspectionId(rs.getLong("inspection_id"))
+                .carId(rs.getString("car_id"))
+                .questionId(rs.getLong("question_id"))
+                .answer(rs.getString("answer"))
+                .description(rs.getString("description"))
+                .inspectionDate(inspectionDate != null ? inspectionDate.toLocalDateTime() : null)
+                .build();
+    };
+
+    // Returns up to "limit" hits ordered by answer id descending, starting after request.cursor
+    public List<AnswerSearchResponse.Hit> search(AnswerSearchRequest request, int limit) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT a.id, a.inspection_id, i.car_id, a.question_id, a.answer, a.description, i.inspection_date " +
+                "FROM inspection_answers a " +
+                "JOIN inspections i ON i.id = a.inspection_id AND i.inspection_date = a.inspection_date " +
+                "WHERE a.description_tsv @@ websearch_to_tsquery('" + TEXT_SEARCH_CONFIG + "', :query)");
+
+        MapSqlParameterSource params = new MapSqlParameterSource("query", request.getQuery());
+
+        if (request.getCarId() != null) {
+            sql.append(" AND i.car_id = :carId");
+            params.addValue("carId", request.getCarId());
+        }
+        if (request.getQuestionId() != null) {
+            sql.append(" AND a.question_id = :questionId");
+            params.addValue("questionId", request.getQuestionId());
+        }
+        if (request.getFrom() != null) {
+            sql.append(" AND a.inspection_date >= :from");
+            params.addValue("from", Timestamp.valueOf(request.getFrom()));
+        }
+        if (request.getTo() != null) {
+            sql.append(" AND a.inspection_date < :to");
+            params.addValue("to", Timestamp.valueOf(request.getTo()));
+        }
+        if (request.getCursor() != null) {
+            sql.append(" AND a.id < :cursor");
+            params.addValue("cursor", request.getCursor());
+        }
+
+        sql.append(" ORDER BY a.id DESC LIMIT :limit");
+        params.addValue("limit", limit);
+
+        return jdbcTemplate.query(sql.toString(), params, HIT_MAPPER);
+    }
+}
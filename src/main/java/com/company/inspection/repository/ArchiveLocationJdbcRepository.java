@@ -0,0 +1,36 @@
+package com.company.inspection.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Id of the archive directory the inspections of this database were archived into
+ * (archive_location), so an instance with a different directory notices it.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ArchiveLocationJdbcRepository {
+
+    private static final String CLAIM_SQL =
+            "INSERT INTO archive_location (id, archive_id) VALUES (1, :archiveId) ON CONFLICT (id) DO NOTHING";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Empty until the first archival run
+    public Optional<String> findArchiveId() {
+        List<String> archiveIds = jdbcTemplate.queryForList(
+                "SELECT archive_id FROM archive_location", new MapSqlParameterSource(), String.class);
+        return archiveIds.stream().findFirst();
+    }
+
+    // Records the archive id unless one is recorded already; returns the recorded one
+    public String claim(String archiveId) {
+        jdbcTemplate.update(CLAIM_SQL, new MapSqlParameterSource("archiveId", archiveId));
+        return findArchiveId().orElseThrow();
+    }
+}
@@ -0,0 +1,134 @@
+package com.company.inspection.repository;
+
+import com.company.inspection.dto.response.CarInspectionScheduleResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Next-due times of inspections per car (car_inspection_schedules). The index on
+ * (next_due_at, car_id) acts as the priority queue: overdue and due-soon queries are index
+ * range scans in due order, whatever the size of the fleet.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CarInspectionScheduleJdbcRepository {
+
+    // A late-arriving older inspection never moves the due date back
+    private static final String RECORD_INSPECTION_SQL =
+            "INSERT INTO car_inspection_schedules (car_id, interval_days, last_inspection_at, next_due_at, updated_at) " +
+            "VALUES (:carId, :intervalDays, :inspectedAt, :inspectedAt + make_interval(days => :intervalDays), CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (car_id) DO UPDATE SET " +
+            "last_inspection_at = GREATEST(car_inspection_schedules.last_inspection_at, EXCLUDED.last_inspection_at), " +
+            "next_due_at = GREATEST(car_inspection_schedules.last_inspection_at, EXCLUDED.last_inspection_at) " +
+            "    + make_interval(days => car_inspection_schedules.interval_days), " +
+            "updated_at = CURRENT_TIMESTAMP";
+
+    // A car that was never inspected is due from the moment its interval is set
+    private static final String SET_INTERVAL_SQL =
+            "INSERT INTO car_inspection_schedules (car_id, interval_days, last_inspection_at, next_due_at, updated_at) " +
+            "VALUES (:carId, :intervalDays, NULL, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (car_id) DO UPDATE SET " +
+            "interval_days = EXCLUDED.interval_days, " +
+            "next_due_at = COALESCE(car_inspection_schedules.last_inspection_at + make_interval(days => EXCLUDED.interval_days), " +
+            "    car_inspection_schedules.next_due_at), " +
+            "updated_at = CURRENT_TIMESTAMP";
+
+    private static final String BACKFILL_SQL =
+            "INSERT INTO car_inspection_schedules (car_id, interval_days, last_inspection_at, next_due_at, updated_at) " +
+            "SELECT car_id, :intervalDays, MAX(inspection_date), MAX(inspection_date) + make_interval(days => :intervalDays), CURRENT_TIMESTAMP " +
+            "FROM inspections WHERE completed GROUP BY car_id " +
+            "ON CONFLICT (car_id) DO UPDATE SET " +
+            "last_inspection_at = GREATEST(car_inspection_schedules.last_inspection_at, EXCLUDED.last_inspection_at), " +
+            "next_due_at = GREATEST(car_inspection_schedules.last_inspection_at, EXCLUDED.last_inspection_at) " +
+            "    + make_interval(days => car_inspection_schedules.interval_days), " +
+            "updated_at = CURRENT_TIMESTAMP " +
+            "WHERE car_inspection_schedules.last_inspection_at IS DISTINCT FROM " +
+            "    GREATEST(car_inspection_schedules.last_inspection_at, EXCLUDED.last_inspection_at)";
+
+    private static final String SELECT_COLUMNS = "car_id, interval_days, last_inspection_at, next_due_at";
+
+    private static final RowMapper<CarInspectionScheduleResponse> SCHEDULE_MAPPER = (rs, rowNum) -> {
+        Timestamp lastInspectionAt = rs.getTimestamp("last_inspection_at");
+        return CarInspectionScheduleResponse.builder()
+                .carId(rs.getString("car_id"))
+                .intervalDays(rs.getInt("interval_days"))
+                .lastInspectionAt(lastInspectionAt != null ? lastInspectionAt.toLocalDateTime() : null)
+                .nextDueAt(rs.getTimestamp("next_due_at").toLocalDateTime())
+                .build();
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Position after the last row of a page, in (next_due_at, car_id) order
+    public record DueKey(LocalDateTime nextDueAt, String carId) {
+    }
+
+    public void recordInspection(String carId, LocalDateTime inspectedAt, int defaultIntervalDays) {
+        jdbcTemplate.update(RECORD_INSPECTION_SQL, new MapSqlParameterSource()
+                .addValue("carId", carId)
+                .addValue("intervalDays", defaultIntervalDays)
+                .addValue("inspectedAt", Timestamp.valueOf(inspectedAt)));
+    }
+
+    public void setInterval(String carId, int intervalDays) {
+        jdbcTemplate.update(SET_INTERVAL_SQL, new MapSqlParameterSource()
+                .addValue("carId", carId)
+                .addValue("intervalDays", intervalDays));
+    }
+
+    public Optional<CarInspectionScheduleResponse> findByCarId(String carId) {
+        return jdbcTemplate.query("SELECT " + SELECT_COLUMNS + " FROM car_inspection_schedules WHERE car_id = :carId",
+                new MapSqlParameterSource("carId", carId), SCHEDULE_MAPPER).stream().findFirst();
+    }
+
+    /**
+     * Cars due after {@code from} (exclusive, null = no lower bound) and up to {@code until}
+     * (inclusive), in due order, starting after the given key
+     */
+    public List<CarInspectionScheduleResponse> findDue(LocalDateTime from, LocalDateTime until, DueKey after, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("until", Timestamp.valueOf(until))
+                .addValue("limit", limit);
+        StringBuilder sql = new StringBuilder("SELECT " + SELECT_COLUMNS + " FROM car_inspection_schedules " +
+                "WHERE next_due_at <= :until");
+        if (from != null) {
+            sql.append(" AND next_due_at > :from");
+            params.addValue("from", Timestamp.valueOf(from));
+        }
+        if (after != null) {
+            sql.append(" AND (next_due_at, car_id) > (:afterDueAt, :afterCarId)");
+            params.addValue("afterDueAt", Timestamp.valueOf(after.nextDueAt()));
+            params.addValue("afterCarId", after.carId());
+        }
+        sql.append(" ORDER BY next_due_at, car_id LIMIT :limit");
+
+        return jdbcTemplate.query(sql.toString(), params, SCHEDULE_MAPPER);
+    }
+
+    public long countDue(LocalDateTime from, LocalDateTime until) {
+        MapSqlParameterSource params = new MapSqlParameterSource("until", Timestamp.valueOf(until));
+        String sql = "SELECT COUNT(*) FROM car_inspection_schedules WHERE next_due_at <= :until";
+        if (from != null) {
+            sql += " AND next_due_at > :from";
+            params.addValue("from", Timestamp.valueOf(from));
+        }
+        Long count = jdbcTemplate.queryForObject(sql, params, Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Create or advance the schedules of all cars from their latest completed inspection;
+     * returns the number of schedules changed
+     */
+    public int backfillFromInspections(int defaultIntervalDays) {
+        return jdbcTemplate.update(BACKFILL_SQL, new MapSqlParameterSource("intervalDays", defaultIntervalDays));
+    }
+}
@@ -0,0 +1,36 @@
+package com.company.inspection.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Transaction-scoped advisory locks per car, held until the current transaction ends. The lock
+ * needs no row, so it also orders the submissions of a car that has no inspection yet, on every
+ * instance using the car's database.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CarLockJdbcRepository {
+
+    // Two-key form: the first key keeps car locks apart from other advisory locks
+    private static final String LOCK_SQL =
+            "SELECT pg_advisory_xact_lock(hashtext('car'), hashtext(:carId))";
+
+    private static final String TRY_LOCK_SQL =
+            "SELECT pg_try_advisory_xact_lock(hashtext('car'), hashtext(:carId))";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Waits until no other transaction holds the car's lock
+    public void lock(String carId) {
+        jdbcTemplate.queryForList(LOCK_SQL, new MapSqlParameterSource("carId", carId));
+    }
+
+    // False when another transaction holds the car's lock
+    public boolean tryLock(String carId) {
+        Boolean locked = jdbcTemplate.queryForObject(TRY_LOCK_SQL, new MapSqlParameterSource("carId", carId), Boolean.class);
+        return Boolean.TRUE.equals(locked);
+    }
+}
@@ -0,0 +1,86 @@
+package com.company.inspection.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Write side of daily_question_stats. Counters are only ever changed with set-based SQL:
+ * additive upserts for incremental deltas and a delete + re-aggregate for rebuilding a day.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DailyQuestionStatsJdbcRepository {
+
+    private static final String UPSERT_DELTA_SQL =
+            "INSERT INTO daily_question_stats (stat_date, question_id, yes_count, no_count, photo_count, updated_at) " +
+            "VALUES (:statDate, :questionId, :yesCount, :noCount, :photoCount, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (question_id, stat_date) DO UPDATE SET " +
+            "yes_count = daily_question_stats.yes_count + EXCLUDED.yes_count, " +
+            "no_count = daily_question_stats.no_count + EXCLUDED.no_count, " +
+            "photo_count = daily_question_stats.photo_count + EXCLUDED.photo_count, " +
+            "updated_at = CURRENT_TIMESTAMP";
+
+    private static final String DELETE_DAY_SQL =
+            "DELETE FROM daily_question_stats WHERE stat_date = :statDate";
+
+    private static final String AGGREGATE_DAY_SQL =
+            "INSERT INTO daily_question_stats (stat_date, question_id, yes_count, no_count, photo_count, updated_at) " +
+            "SELECT :statDate, a.question_id, " +
+            "       COUNT(*) FILTER (WHERE a.answer = 'YES'), " +
+            "       COUNT(*) FILTER (WHERE a.answer = 'NO'), " +
+            "       COALESCE(SUM(pc.photo_count), 0), " +
+            "       CURRENT_TIMESTAMP " +
+            "FROM inspections i " +
+            "JOIN inspection_answers a ON a.inspection_id = i.id AND a.inspection_date = i.inspection_date " +
+            "LEFT JOIN LATERAL (SELECT COUNT(*) AS photo_count FROM inspection_photos p WHERE p.answer_id = a.id) pc ON TRUE " +
+            "WHERE i.inspection_date >= :dayStart AND i.inspection_date < :dayEnd " +
+            "  AND a.inspection_date >= :dayStart AND a.inspection_date < :dayEnd " +
+            "GROUP BY a.question_id";
+
+    private static final String HAS_INSPECTIONS_SQL =
+            "SELECT EXISTS (SELECT 1 FROM inspections WHERE inspection_date >= :dayStart AND inspection_date < :dayEnd)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Add counter deltas in one batched round trip
+    public void upsertDeltas(List<Delta> deltas) {
+        MapSqlParameterSource[] batch = deltas.stream()
+                .map(delta -> new MapSqlParameterSource()
+                        .addValue("statDate", Date.valueOf(delta.statDate()))
+                        .addValue("questionId", delta.questionId())
+                        .addValue("yesCount", delta.yesCount())
+                        .addValue("noCount", delta.noCount())
+                        .addValue("photoCount", delta.photoCount()))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(UPSERT_DELTA_SQL, batch);
+    }
+
+    // False when no inspection of the day is left in the source tables (none taken, or all archived or detached)
+    public boolean hasInspections(LocalDate day) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(HAS_INSPECTIONS_SQL, dayParams(day), Boolean.class));
+    }
+
+    // Recompute all counters of a single day from the source tables; returns the number of rows written
+    public int rebuildDay(LocalDate day) {
+        MapSqlParameterSource params = dayParams(day);
+        jdbcTemplate.update(DELETE_DAY_SQL, params);
+        return jdbcTemplate.update(AGGREGATE_DAY_SQL, params);
+    }
+
+    private static MapSqlParameterSource dayParams(LocalDate day) {
+        return new MapSqlParameterSource()
+                .addValue("statDate", Date.valueOf(day))
+                .addValue("dayStart", Timestamp.valueOf(day.atStartOfDay()))
+                .addValue("dayEnd", Timestamp.valueOf(day.plusDays(1).atStartOfDay()));
+    }
+
+    public record Delta(LocalDate statDate, Long questionId, long yesCount, long noCount, long photoCount) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.company.inspection.repository;
+
+import com.company.inspection.entity.DailyQuestionStats;
+import com.company.inspection.entity.DailyQuestionStatsId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyQuestionStatsRepository extends JpaRepository<DailyQuestionStats, DailyQuestionStatsId> {
+
+    // Find day buckets of a question within a date range (primary key range scan)
+    List<DailyQuestionStats> findByIdQuestionIdAndIdStatDateBetweenOrderByIdStatDate(Long questionId,
+                                                                                      LocalDate startDate,
+                                                                                      LocalDate endDate);
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +22,15 @@ public interface InspectionAnswerRepository extends JpaRepository<InspectionAnsw
             "WHERE a.inspection.id = :inspectionId")
     List<InspectionAnswer> findByInspectionIdWithPhotos(@Param("inspectionId") Long inspectionId);
 
+    // Find answers by inspection ID with photos, ordered by question ID (for merging two inspections);
+    // the inspection date selects the answer partition
+    @Query("SELECT a FROM InspectionAnswer a " +
+            "LEFT JOIN FETCH a.photos " +
+            "WHERE a.inspection.id = :inspectionId AND a.inspectionDate = :inspectionDate " +
+            "ORDER BY a.question.id")
+    List<InspectionAnswer> findByInspectionIdWithPhotosOrderByQuestionId(@Param("inspectionId") Long inspectionId,
+                                                                         @Param("inspectionDate") LocalDateTime inspectionDate);
+
     // Find answers by question ID
     List<InspectionAnswer> findByQuestionId(Long questionId);
 
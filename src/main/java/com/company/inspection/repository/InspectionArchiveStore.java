@@ -0,0 +1,544 @@
+package com.company.inspection.repository;
+
+import com.company.inspection.dto.response.InspectionRecord;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Append-only cold storage for archived inspections in a directory that every instance mounts.
+ *
+ * <p>Inspections are spread over a fixed number of buckets by car id, so the whole history of a
+ * car lives in one bucket. Each archival batch is first appended, as plain NDJSON lines, to the
+ * bucket's pending file. Once a bucket has {@code member-records} pending records they are moved
+ * into the bucket's active segment as one self-contained gzip member (concatenated gzip members
+ * are still a valid gzip stream), so members stay large however the batches are spread over the
+ * buckets.
+ *
+ * <p>{@code index-BB.ndjson} is the sparse index of bucket BB: one line per member with its
+ * segment, byte range, date range and a Bloom filter of the car ids it contains. A car lookup
+ * only reads its own bucket's index, kept in memory for the {@code cached-buckets} most recently
+ * used buckets and topped up from the file when it grew, and only decompresses the members that
+ * may contain the car.
+ *
+ * <p>Writers on different instances take an exclusive lock on the {@code LOCK} file, and the
+ * archive id in the {@code MANIFEST} lets {@link com.company.inspection.service.InspectionArchivalService}
+ * refuse to archive into, or read from, a directory that is not the one the database was archived
+ * into. A directory on an instance's local disk therefore only works with a single instance.
+ */
+@Repository
+@Slf4j
+public class InspectionArchiveStore {
+
+    private static final String MANIFEST_FILE = "MANIFEST";
+    private static final String LOCK_FILE = "LOCK";
+    private static final int BLOOM_BITS_PER_ENTRY = 10;
+
+    private final ObjectWriter recordWriter;
+    private final ObjectReader recordReader;
+    private final ObjectWriter indexWriter;
+    private final ObjectReader indexReader;
+
+    @Value("${inspection.archive.directory:data/archive}")
+    private String directoryLocation;
+
+    private Path directory;
+
+    @Value("${inspection.archive.buckets:64}")
+    private int bucketCount;
+
+    @Value("${inspection.archive.max-segment-bytes:268435456}")
+    private long maxSegmentBytes;
+
+    @Value("${inspection.archive.member-records:1024}")
+    private int memberRecords;
+
+    @Value("${inspection.archive.cached-buckets:16}")
+    private int cachedBuckets;
+
+    private String archiveId;
+
+    // Least recently used bucket indexes, guarded by itself
+    private Map<Integer, BucketIndex> bucketIndexes;
+
+    public InspectionArchiveStore(ObjectMapper objectMapper) {
+        ObjectMapper mapper = objectMapper.copy()
+                .disable(SerializationFeature.INDENT_OUTPUT)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.recordWriter = mapper.writerFor(InspectionRecord.class);
+        this.recordReader = mapper.readerFor(InspectionRecord.class);
+        this.indexWriter = mapper.writerFor(ArchiveBlock.class);
+        this.indexReader = mapper.readerFor(ArchiveBlock.class);
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        if (memberRecords <= 0)
+            throw new IllegalArgumentException("Archive member records must be positive");
+        directory = Path.of(directoryLocation);
+        Files.createDirectories(directory);
+        bucketIndexes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, BucketIndex> eldest) {
+                return size() > Math.max(1, cachedBuckets);
+            }
+        };
+        withWriteLock(() -> {
+            readOrWriteManifest();
+            return null;
+        });
+    }
+
+    // The bucket count is fixed for the lifetime of an archive directory, the id identifies it
+    private void readOrWriteManifest() throws IOException {
+        Path manifest = directory.resolve(MANIFEST_FILE);
+        Properties properties = new Properties();
+        if (Files.exists(manifest)) {
+            try (Reader reader = Files.newBufferedReader(manifest, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+            String buckets = properties.getProperty("buckets");
+            archiveId = properties.getProperty("archive-id");
+            if (buckets == null || archiveId == null) {
+                throw new IllegalStateException("Archive manifest " + manifest + " lacks buckets or archive-id");
+            }
+            int stored = Integer.parseInt(buckets);
+            if (stored != bucketCount) {
+                log.warn("Archive at {} uses {} buckets, ignoring configured {}", directory, stored, bucketCount);
+            }
+            bucketCount = stored;
+            return;
+        }
+
+        archiveId = UUID.randomUUID().toString();
+        properties.setProperty("buckets", Integer.toString(bucketCount));
+        properties.setProperty("archive-id", archiveId);
+        StringWriter content = new StringWriter();
+        properties.store(content, null);
+        // Written next to the manifest and moved into place, so a crash never leaves half a manifest
+        Path temporary = directory.resolve(MANIFEST_FILE + ".tmp");
+        Files.writeString(temporary, content.toString());
+        Files.move(temporary, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public String getArchiveId() {
+        return archiveId;
+    }
+
+    /**
+     * Append a batch of inspections; returns only once it is forced to disk
+     */
+    public synchronized void append(List<InspectionRecord> records) throws IOException {
+        Map<Integer, List<InspectionRecord>> recordsByBucket = new TreeMap<>();
+        for (InspectionRecord record : records) {
+            recordsByBucket.computeIfAbsent(bucketOf(record.getCarId()), bucket -> new ArrayList<>()).add(record);
+        }
+
+        withWriteLock(() -> {
+            for (Map.Entry<Integer, List<InspectionRecord>> entry : recordsByBucket.entrySet()) {
+                int pending = appendPending(entry.getKey(), entry.getValue());
+                if (pending >= memberRecords) {
+                    compactPending(entry.getKey());
+                }
+            }
+            return null;
+        });
+    }
+
+    // Appends the records to the bucket's pending file; returns the number of records now pending
+    private int appendPending(int bucket, List<InspectionRecord> records) throws IOException {
+        Path pendingFile = pendingFile(bucket);
+        List<String> lines = readPendingLines(bucket);
+        try (FileChannel channel = FileChannel.open(pendingFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // Drops a torn last line from a crash while appending: its batch was never deleted from the database
+            long complete = 0;
+            for (String line : lines) {
+                complete += line.getBytes(StandardCharsets.UTF_8).length + 1;
+            }
+            channel.truncate(complete);
+            channel.position(complete);
+
+            StringBuilder appended = new StringBuilder();
+            for (InspectionRecord record : records) {
+                appended.append(recordWriter.writeValueAsString(record)).append('\n');
+            }
+            channel.write(ByteBuffer.wrap(appended.toString().getBytes(StandardCharsets.UTF_8)));
+            channel.force(true);
+        }
+        return lines.size() + records.size();
+    }
+
+    // Moves the pending records of a bucket into one gzip member of its active segment
+    private void compactPending(int bucket) throws IOException {
+        List<String> lines = readPendingLines(bucket);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        BloomFilter carIds = BloomFilter.create(lines.size() * BLOOM_BITS_PER_ENTRY);
+        LocalDateTime minDate = null;
+        LocalDateTime maxDate = null;
+
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(compressed), StandardCharsets.UTF_8)) {
+            for (String line : lines) {
+                InspectionRecord record = recordReader.readValue(line);
+                writer.write(line);
+                writer.write('\n');
+                carIds.add(record.getCarId());
+                LocalDateTime date = record.getInspectionDate();
+                if (minDate == null || date.isBefore(minDate)) minDate = date;
+                if (maxDate == null || date.isAfter(maxDate)) maxDate = date;
+            }
+        }
+
+        Path segment = activeSegment(bucket, compressed.size());
+        long offset;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            offset = channel.size();
+            channel.write(ByteBuffer.wrap(compressed.toByteArray()));
+            channel.force(true);
+        }
+
+        // A crash before the truncate leaves the records in both places, which reads drop as duplicates
+        appendIndexEntry(new ArchiveBlock(bucket, segment.getFileName().toString(), offset, compressed.size(),
+                lines.size(), minDate, maxDate, carIds.getBits()));
+        try (FileChannel channel = FileChannel.open(pendingFile(bucket), StandardOpenOption.WRITE)) {
+            channel.truncate(0);
+            channel.force(true);
+        }
+    }
+
+    private void appendIndexEntry(ArchiveBlock block) throws IOException {
+        String line = indexWriter.writeValueAsString(block) + "\n";
+        try (FileChannel channel = FileChannel.open(indexFile(block.bucket()), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (size > 0) {
+                // Starts a new line after a torn one, so this entry stays readable
+                ByteBuffer last = ByteBuffer.allocate(1);
+                channel.read(last, size - 1);
+                if (last.get(0) != '\n') {
+                    line = "\n" + line;
+                }
+            }
+            channel.write(ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8)), size);
+            channel.force(true);
+        }
+    }
+
+    // Segments are named bucket-BB-NNNNNN.ndjson.gz; a new one is started once the current one is full
+    private Path activeSegment(int bucket, long incomingBytes) throws IOException {
+        List<ArchiveBlock> blocks = blocksOf(bucket);
+        int sequence = 0;
+        if (!blocks.isEmpty()) {
+            ArchiveBlock last = blocks.get(blocks.size() - 1);
+            sequence = segmentSequence(last.segment());
+            Path current = directory.resolve(last.segment());
+            if (Files.exists(current) && Files.size(current) + incomingBytes > maxSegmentBytes) {
+                sequence++;
+            }
+        }
+        return directory.resolve(String.format("bucket-%02d-%06d.ndjson.gz", bucket, sequence));
+    }
+
+    private static int segmentSequence(String segmentName) {
+        String sequence = segmentName.substring(segmentName.lastIndexOf('-') + 1, segmentName.indexOf('.'));
+        return Integer.parseInt(sequence);
+    }
+
+    // Serializes writers of all instances sharing the directory
+    private <T> T withWriteLock(IOSupplier<T> work) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            return work.get();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IOSupplier<T> {
+        T get() throws IOException;
+    }
+
+    // True once anything was archived here, whether or not archival is enabled now
+    public boolean hasArchivedInspections() {
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            try {
+                if (sizeIfExists(indexFile(bucket)) > 0 || sizeIfExists(pendingFile(bucket)) > 0) {
+                    return true;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Archived inspections of a car, newest first
+     */
+    public List<InspectionRecord> findByCarId(String carId) throws IOException {
+        int bucket = bucketOf(carId);
+        Map<Long, InspectionRecord> recordsById = new HashMap<>();
+        // Pending records first: a member compacted meanwhile is then found in the index as well
+        for (String line : readPendingLines(bucket)) {
+            InspectionRecord record = recordReader.readValue(line);
+            if (carId.equals(record.getCarId())) {
+                recordsById.put(record.getInspectionId(), record);
+            }
+        }
+        for (ArchiveBlock block : blocksOf(bucket)) {
+            if (!BloomFilter.of(block.carIdBloom()).mightContain(carId)) {
+                continue;
+            }
+            for (InspectionRecord record : readBlock(block)) {
+                // A batch archived twice after a crash between file append and row delete shows up twice
+                if (carId.equals(record.getCarId())) {
+                    recordsById.put(record.getInspectionId(), record);
+                }
+            }
+        }
+
+        List<InspectionRecord> records = new ArrayList<>(recordsById.values());
+        records.sort(Comparator.comparing(InspectionRecord::getInspectionDate).reversed());
+        return records;
+    }
+
+    // Index entries of a bucket, read from its index file once and then only the lines appended since
+    private List<ArchiveBlock> blocksOf(int bucket) throws IOException {
+        BucketIndex index;
+        synchronized (bucketIndexes) {
+            index = bucketIndexes.computeIfAbsent(bucket, key -> new BucketIndex());
+        }
+        synchronized (index) {
+            Path indexFile = indexFile(bucket);
+            long size = sizeIfExists(indexFile);
+            if (size > index.loadedBytes) {
+                try (InputStream input = Files.newInputStream(indexFile)) {
+                    input.skipNBytes(index.loadedBytes);
+                    byte[] appended = input.readNBytes(Math.toIntExact(size - index.loadedBytes));
+                    // A last line without its newline is still being written (or torn), read it next time
+                    int complete = 0;
+                    for (int i = appended.length - 1; i >= 0; i--) {
+                        if (appended[i] == '\n') {
+                            complete = i + 1;
+                            break;
+                        }
+                    }
+                    for (String line : new String(appended, 0, complete, StandardCharsets.UTF_8).split("\n")) {
+                        ArchiveBlock block = parseIndexLine(line);
+                        if (block != null) {
+                            index.blocks.add(block);
+                        }
+                    }
+                    index.loadedBytes += complete;
+                }
+            }
+            return List.copyOf(index.blocks);
+        }
+    }
+
+    private ArchiveBlock parseIndexLine(String line) {
+        if (line.isBlank()) {
+            return null;
+        }
+        try {
+            return indexReader.readValue(line);
+        } catch (IOException e) {
+            // A torn line from a crash while appending: its member was never deleted from the pending file
+            log.warn("Skipping unreadable archive index entry: {}", line);
+            return null;
+        }
+    }
+
+    // Complete lines of the bucket's pending file, without a torn last line
+    private List<String> readPendingLines(int bucket) throws IOException {
+        Path pendingFile = pendingFile(bucket);
+        if (!Files.exists(pendingFile)) {
+            return List.of();
+        }
+        String content = Files.readString(pendingFile, StandardCharsets.UTF_8);
+        int complete = content.lastIndexOf('\n') + 1;
+        List<String> lines = new ArrayList<>();
+        for (String line : content.substring(0, complete).split("\n")) {
+            if (!line.isEmpty()) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    private List<InspectionRecord> readBlock(ArchiveBlock block) throws IOException {
+        List<InspectionRecord> records = new ArrayList<>(block.records());
+        try (FileChannel channel = FileChannel.open(directory.resolve(block.segment()), StandardOpenOption.READ)) {
+            channel.position(block.offset());
+            InputStream blockStream = new BoundedInputStream(Channels.newInputStream(channel), block.length());
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(new GZIPInputStream(blockStream), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    records.add(recordReader.readValue(line));
+                }
+            }
+        }
+        return records;
+    }
+
+    private Path indexFile(int bucket) {
+        return directory.resolve(String.format("index-%02d.ndjson", bucket));
+    }
+
+    private Path pendingFile(int bucket) {
+        return directory.resolve(String.format("bucket-%02d.pending.ndjson", bucket));
+    }
+
+    private static long sizeIfExists(Path file) throws IOException {
+        return Files.exists(file) ? Files.size(file) : 0;
+    }
+
+    private int bucketOf(String carId) {
+        return Math.floorMod(carId.hashCode(), bucketCount);
+    }
+
+    /**
+     * Index entries of one bucket loaded so far
+     */
+    private static final class BucketIndex {
+
+        private final List<ArchiveBlock> blocks = new ArrayList<>();
+        private long loadedBytes;
+    }
+
+    /**
+     * Index entry of one appended gzip member
+     */
+    record ArchiveBlock(int bucket, String segment, long offset, long length, int records,
+                        LocalDateTime minDate, LocalDateTime maxDate, long[] carIdBloom) {
+    }
+
+    /**
+     * Fixed-size Bloom filter over car ids (double hashing on a 64-bit FNV-1a hash)
+     */
+    static final class BloomFilter {
+
+        private static final int HASH_FUNCTIONS = 7;
+
+        private final long[] bits;
+
+        private BloomFilter(long[] bits) {
+            this.bits = bits;
+        }
+
+        static BloomFilter create(int bitCount) {
+            return new BloomFilter(new long[Math.max(1, (bitCount + 63) / 64)]);
+        }
+
+        static BloomFilter of(long[] bits) {
+            return new BloomFilter(bits);
+        }
+
+        void add(String value) {
+            long hash = fnv1a(value);
+            for (int i = 0; i < HASH_FUNCTIONS; i++) {
+                int bit = bitIndex(hash, i);
+                bits[bit >>> 6] |= 1L << bit;
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash = fnv1a(value);
+            for (int i = 0; i < HASH_FUNCTIONS; i++) {
+                int bit = bitIndex(hash, i);
+                if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long[] getBits() {
+            return bits;
+        }
+
+        private int bitIndex(long hash, int i) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            return Math.floorMod(h1 + i * h2, bits.length * 64);
+        }
+
+        private static long fnv1a(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b & 0xff;
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+    }
+
+    /**
+     * Limits reads to the byte range of one block inside a segment file
+     */
+    private static final class BoundedInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long length) {
+            super(in);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = super.read(buffer, off, (int) Math.min(len, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(remaining, super.available());
+        }
+
+        @Override
+        public void close() {
+            // The underlying channel is closed by the caller
+        }
+    }
+}
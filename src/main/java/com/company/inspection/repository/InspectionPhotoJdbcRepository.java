@@ -0,0 +1,96 @@
+package com.company.inspection.repository;
+
+import com.company.inspection.entity.InspectionPhoto;
+import com.company.inspection.photo.PhotoMetadata;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Set-based photo maintenance queries. inspection_photos references its answer by (answer_id,
+ * inspection_date) with ON DELETE CASCADE, so photo rows never outlive their answer.
+ */
+@Repository
+@RequiredArgsConstructor
+public class InspectionPhotoJdbcRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // The subset of the given URLs still referenced by a photo row, as the photo or its thumbnail
+    public Set<String> findReferencedUrls(Collection<String> photoUrls) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT photo_url FROM inspection_photos WHERE photo_url IN (:urls) " +
+                "UNION SELECT thumbnail_url FROM inspection_photos WHERE thumbnail_url IN (:urls)",
+                new MapSqlParameterSource("urls", photoUrls), String.class));
+    }
+
+    /**
+     * Claim up to limit photos for processing: pending ones, and ones whose previous claim is
+     * older than leaseCutoff (the worker died). Rows locked by a concurrent claim are skipped,
+     * so workers of all instances can poll the same table without waiting for each other.
+     */
+    public List<ClaimedPhoto> claimForProcessing(LocalDateTime leaseCutoff, int limit) {
+        String sql =
+                "UPDATE inspection_photos p " +
+                "SET processing_status = 'PROCESSING', processing_attempts = p.processing_attempts + 1, " +
+                "    claimed_at = CURRENT_TIMESTAMP " +
+                "WHERE p.id IN (" +
+                "    SELECT id FROM inspection_photos " +
+                "    WHERE processing_status IN ('PENDING', 'PROCESSING') " +
+                "      AND (processing_status = 'PENDING' OR claimed_at < :leaseCutoff) " +
+                "    ORDER BY id LIMIT :limit " +
+                "    FOR UPDATE SKIP LOCKED" +
+                ") " +
+                "RETURNING p.id, p.photo_url, p.processing_attempts";
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("leaseCutoff", Timestamp.valueOf(leaseCutoff))
+                .addValue("limit", limit);
+
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> new ClaimedPhoto(
+                rs.getLong("id"),
+                rs.getString("photo_url"),
+                rs.getInt("processing_attempts")));
+    }
+
+    public void markProcessed(long photoId, PhotoMetadata metadata, String thumbnailUrl) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", photoId)
+                .addValue("format", metadata.format())
+                .addValue("width", metadata.width())
+                .addValue("height", metadata.height())
+                .addValue("capturedAt", metadata.capturedAt() != null ? Timestamp.valueOf(metadata.capturedAt()) : null)
+                .addValue("thumbnailUrl", thumbnailUrl);
+
+        jdbcTemplate.update(
+                "UPDATE inspection_photos SET processing_status = 'DONE', image_format = :format, " +
+                "width = :width, height = :height, captured_at = :capturedAt, thumbnail_url = :thumbnailUrl, " +
+                "processed_at = CURRENT_TIMESTAMP, claimed_at = NULL " +
+                "WHERE id = :id",
+                params);
+    }
+
+    // Final states without metadata (SKIPPED, FAILED)
+    public void markStatus(long photoId, InspectionPhoto.ProcessingStatus status) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", photoId)
+                .addValue("status", status.name());
+
+        jdbcTemplate.update(
+                "UPDATE inspection_photos SET processing_status = :status, claimed_at = NULL, " +
+                "processed_at = CURRENT_TIMESTAMP " +
+                "WHERE id = :id",
+                params);
+    }
+
+    public record ClaimedPhoto(long id, String photoUrl, int attempts) {
+    }
+}
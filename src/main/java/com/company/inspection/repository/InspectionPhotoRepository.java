@@ -83,8 +83,4 @@ public interface InspectionPhotoRepository extends JpaRepository<InspectionPhoto
             "JOIN p.answer a " +
             "WHERE a.inspection.id = :inspectionId")
     Object[] getPhotoStatsByInspection(@Param("inspectionId") Long inspectionId);
-
-    // Find orphaned photos (photos without valid answers)
-    @Query("SELECT p FROM InspectionPhoto p WHERE p.answer IS NULL")
-    List<InspectionPhoto> findOrphanedPhotos();
 }
\ No newline at end of file
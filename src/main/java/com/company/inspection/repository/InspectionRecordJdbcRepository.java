@@ -0,0 +1,102 @@
+package com.company.inspection.repository;
+
+import com.company.inspection.dto.response.InspectionRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Set-based access to whole inspections (inspection + answers + photo URLs) for bulk jobs.
+ * Reads use a single join instead of per-entity lazy loading, and deletes remove the
+ * children explicitly, each restricted to the partitions before the cutoff, instead of
+ * leaving them to the cascading foreign keys.
+ */
+@Repository
+public class InspectionRecordJdbcRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Separate template so only streaming reads use a cursor with a large fetch size
+    private final NamedParameterJdbcTemplate streamingJdbcTemplate;
+
+    public InspectionRecordJdbcRepository(NamedParameterJdbcTemplate jdbcTemplate,
+                                          @Value("${inspection.export.fetch-size:1000}") int streamingFetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+
+        JdbcTemplate streamingTemplate = new JdbcTemplate(jdbcTemplate.getJdbcTemplate().getDataSource());
+        streamingTemplate.setFetchSize(streamingFetchSize);
+        this.streamingJdbcTemplate = new NamedParameterJdbcTemplate(streamingTemplate);
+    }
+
+    // Oldest completed inspections before the cutoff, with their answers and photos
+    public List<InspectionRecord> findCompletedBefore(LocalDateTime cutoff, int limit) {
+        String sql =
+                "WITH batch AS (" +
+                "    SELECT id, inspection_date FROM inspections " +
+                "    WHERE completed = TRUE AND inspection_date < :cutoff " +
+                "    ORDER BY inspection_date, id LIMIT :limit" +
+                ") " +
+                "SELECT " + InspectionRecordRowHandler.SELECT_COLUMNS + " " +
+                "FROM batch b " +
+                "JOIN inspections i ON i.id = b.id AND i.inspection_date = b.inspection_date " +
+                "LEFT JOIN inspection_answers a ON a.inspection_id = i.id AND a.inspection_date = i.inspection_date " +
+                "    AND a.inspection_date < :cutoff " +
+                "LEFT JOIN inspection_photos p ON p.answer_id = a.id " +
+                "ORDER BY i.id, a.id, p.id";
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("cutoff", Timestamp.valueOf(cutoff))
+                .addValue("limit", limit);
+
+        List<InspectionRecord> records = new ArrayList<>();
+        InspectionRecordRowHandler handler = new InspectionRecordRowHandler(records::add);
+        jdbcTemplate.query(sql, params, handler);
+        handler.finish();
+        return records;
+    }
+
+    /**
+     * Stream all inspections of a date range (inclusive from, exclusive to) to the consumer in
+     * inspection date order. Rows are pulled through a forward-only cursor fetch-size rows at a
+     * time, which the Postgres driver only does inside a transaction (auto-commit off).
+     */
+    public void streamByInspectionDate(LocalDateTime from, LocalDateTime to, Consumer<InspectionRecord> consumer) {
+        String sql =
+                "SELECT " + InspectionRecordRowHandler.SELECT_COLUMNS + " " +
+                "FROM inspections i " +
+                "LEFT JOIN inspection_answers a ON a.inspection_id = i.id AND a.inspection_date = i.inspection_date " +
+                "    AND a.inspection_date >= :from AND a.inspection_date < :to " +
+                "LEFT JOIN inspection_photos p ON p.answer_id = a.id " +
+                "WHERE i.inspection_date >= :from AND i.inspection_date < :to " +
+                "ORDER BY i.inspection_date, i.id, a.id, p.id";
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", Timestamp.valueOf(from))
+                .addValue("to", Timestamp.valueOf(to));
+
+        InspectionRecordRowHandler handler = new InspectionRecordRowHandler(consumer);
+        streamingJdbcTemplate.query(sql, params, handler);
+        handler.finish();
+    }
+
+    // Delete inspections dated before the cutoff together with their answers and photos; returns the
+    // number of inspections removed. The cutoff keeps the deletes to the partitions that can hold them.
+    public int deleteByIds(Collection<Long> inspectionIds, LocalDateTime cutoff) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", inspectionIds)
+                .addValue("cutoff", Timestamp.valueOf(cutoff));
+
+        jdbcTemplate.update("DELETE FROM inspection_photos WHERE answer_id IN " +
+                "(SELECT id FROM inspection_answers WHERE inspection_id IN (:ids) AND inspection_date < :cutoff)", params);
+        jdbcTemplate.update("DELETE FROM inspection_answers WHERE inspection_id IN (:ids) AND inspection_date < :cutoff", params);
+        return jdbcTemplate.update("DELETE FROM inspections WHERE id IN (:ids) AND inspection_date < :cutoff", params);
+    }
+}
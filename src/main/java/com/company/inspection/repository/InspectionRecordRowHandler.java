@@ -0,0 +1,78 @@
+package com.company.inspection.repository;
+
+import com.company.inspection.dto.response.InspectionRecord;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Folds the rows of an "inspections LEFT JOIN answers LEFT JOIN photos" query into
+ * {@link InspectionRecord}s. Rows must be ordered by inspection id, then answer id, so only the
+ * inspection currently being assembled is ever held in memory.
+ * Call {@link #finish()} after the query to emit the last record.
+ */
+public class InspectionRecordRowHandler implements RowCallbackHandler {
+
+    static final String SELECT_COLUMNS =
+            "i.id, i.car_id, i.completed, i.inspection_date, i.created_at, " +
+            "a.id AS answer_id, a.question_id, a.answer, a.description, p.photo_url";
+
+    private final Consumer<InspectionRecord> consumer;
+
+    private InspectionRecord current;
+    private InspectionRecord.AnswerRecord currentAnswer;
+
+    public InspectionRecordRowHandler(Consumer<InspectionRecord> consumer) {
+        this.consumer = consumer;
+    }
+
+    @Override
+    public void processRow(ResultSet rs) throws SQLException {
+        long inspectionId = rs.getLong("id");
+        if (current == null || current.getInspectionId() != inspectionId) {
+            finish();
+            current = InspectionRecord.builder()
+                    .inspectionId(inspectionId)
+                    .carId(rs.getString("car_id"))
+                    .status(rs.getBoolean("completed") ? "COMPLETED" : "IN_PROGRESS")
+                    .inspectionDate(toLocalDateTime(rs.getTimestamp("inspection_date")))
+                    .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+                    .build();
+        }
+
+        long answerId = rs.getLong("answer_id");
+        if (rs.wasNull()) {
+            return; // Inspection without answers
+        }
+        if (currentAnswer == null || currentAnswer.getAnswerId() != answerId) {
+            currentAnswer = InspectionRecord.AnswerRecord.builder()
+                    .answerId(answerId)
+                    .questionId(rs.getLong("question_id"))
+                    .answer(rs.getString("answer"))
+                    .description(rs.getString("description"))
+                    .build();
+            current.getAnswers().add(currentAnswer);
+        }
+
+        String photoUrl = rs.getString("photo_url");
+        if (photoUrl != null) {
+            currentAnswer.getPhotoUrls().add(photoUrl);
+        }
+    }
+
+    public void finish() {
+        if (current != null) {
+            consumer.accept(current);
+            current = null;
+            currentAnswer = null;
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -22,6 +22,21 @@ public interface InspectionRepository extends JpaRepository<Inspection, Long> {
     @EntityGraph(attributePaths = {"answers", "answers.question", "answers.photos"})
     Optional<Inspection> findFirstByCarIdAndCompletedOrderByCreatedAtDesc(String carId, boolean completed);
 
+    // Same as above, bounded on the partition key so only recent monthly partitions are scanned
+    @EntityGraph(attributePaths = {"answers", "answers.question", "answers.photos"})
+    Optional<Inspection> findFirstByCarIdAndCompletedAndInspectionDateGreaterThanEqualOrderByCreatedAtDesc(
+            String carId, boolean completed, LocalDateTime since);
+
+    List<Inspection> findTop2ByCarIdAndCompletedOrderByCreatedAtDesc(String carId, boolean completed);
+
+    // The car's latest completed inspection
+    Optional<Inspection> findFirstByCarIdAndCompletedTrueOrderByCreatedAtDesc(String carId);
+
+    // Most recently inspected cars first; bounded on the partition key so only recent partitions are scanned
+    @Query(value = "SELECT car_id FROM inspections WHERE completed AND inspection_date >= :since " +
+            "GROUP BY car_id ORDER BY MAX(inspection_date) DESC LIMIT :limit", nativeQuery = true)
+    List<String> findRecentlyInspectedCarIds(@Param("since") LocalDateTime since, @Param("limit") int limit);
+
     boolean existsByCarId(String carId);
 
     boolean existsByCarIdAndCompleted(String carId, boolean completed);
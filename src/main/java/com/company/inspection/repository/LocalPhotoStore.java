@@ -0,0 +1,134 @@
+package com.company.inspection.repository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Photo files on local disk. A stored file at {@code <directory>/<relative path>} is served as
+ * {@code <base-url><relative path>}, which is the value kept in inspection_photos.photo_url.
+ * URLs outside the base URL point to external storage and are never touched.
+ */
+@Repository
+@Slf4j
+public class LocalPhotoStore {
+
+    @Value("${inspection.photos.directory:data/photos}")
+    private String directoryLocation;
+
+    @Value("${inspection.photos.base-url:/photos/}")
+    private String baseUrl;
+
+    private Path directory;
+
+    @PostConstruct
+    void init() {
+        directory = Path.of(directoryLocation).toAbsolutePath().normalize();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public String toUrl(String relativePath) {
+        return baseUrl + relativePath;
+    }
+
+    // Relative path of a photo URL, empty when the URL does not belong to this store
+    public Optional<String> toRelativePath(String photoUrl) {
+        if (photoUrl == null || !photoUrl.startsWith(baseUrl)) {
+            return Optional.empty();
+        }
+        String relativePath = photoUrl.substring(baseUrl.length());
+        Path resolved = directory.resolve(relativePath).normalize();
+        if (relativePath.isEmpty() || !resolved.startsWith(directory)) {
+            return Optional.empty();
+        }
+        return Optional.of(relativePath);
+    }
+
+    public Path resolve(String relativePath) {
+        Path resolved = directory.resolve(relativePath).normalize();
+        if (!resolved.startsWith(directory)) {
+            throw new IllegalArgumentException("Photo path escapes the photo store: " + relativePath);
+        }
+        return resolved;
+    }
+
+    /**
+     * Up to limit files that come after the given relative path (null = from the start), in a
+     * stable depth-first order with the entries of each directory sorted by name. Directories
+     * entirely before the position are skipped without being listed, so a sweep can resume from
+     * the last file it processed while holding no more than one directory listing in memory.
+     */
+    public List<StoredPhoto> listFilesAfter(String afterRelativePath, int limit) throws IOException {
+        List<StoredPhoto> files = new ArrayList<>(limit);
+        if (Files.isDirectory(directory)) {
+            String[] after = afterRelativePath == null ? new String[0] : afterRelativePath.split("/");
+            collectFiles(directory, after, 0, after.length > 0, limit, files);
+        }
+        return files;
+    }
+
+    // Returns false once the limit is reached
+    private boolean collectFiles(Path dir, String[] after, int depth, boolean bounded,
+                                 int limit, List<StoredPhoto> files) throws IOException {
+        List<Path> children;
+        try (Stream<Path> entries = Files.list(dir)) {
+            children = entries.sorted(Comparator.comparing(path -> path.getFileName().toString())).toList();
+        }
+
+        for (Path child : children) {
+            String name = child.getFileName().toString();
+            boolean isDirectory = Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS);
+            boolean childBounded = false;
+
+            if (bounded && depth < after.length) {
+                int order = name.compareTo(after[depth]);
+                if (order < 0 || (order == 0 && !isDirectory)) {
+                    continue; // Already processed
+                }
+                childBounded = order == 0;
+            }
+
+            if (isDirectory) {
+                if (!collectFiles(child, after, depth + 1, childBounded, limit, files)) {
+                    return false;
+                }
+            } else if (Files.isRegularFile(child, LinkOption.NOFOLLOW_LINKS)) {
+                files.add(new StoredPhoto(relativePath(child), Files.getLastModifiedTime(child).toInstant()));
+                if (files.size() >= limit) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public boolean delete(String relativePath) throws IOException {
+        boolean deleted = Files.deleteIfExists(resolve(relativePath));
+        if (deleted) {
+            log.debug("Deleted photo file {}", relativePath);
+        }
+        return deleted;
+    }
+
+    private String relativePath(Path file) {
+        return directory.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+    }
+
+    public record StoredPhoto(String relativePath, Instant lastModified) {
+    }
+}
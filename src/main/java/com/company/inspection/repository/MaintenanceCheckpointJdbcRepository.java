@@ -0,0 +1,40 @@
+package com.company.inspection.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Resume positions of long-running maintenance jobs (maintenance_checkpoints), so a job cut
+ * short by its time budget or a restart continues where it stopped.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MaintenanceCheckpointJdbcRepository {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO maintenance_checkpoints (name, position, updated_at) " +
+            "VALUES (:name, :position, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (name) DO UPDATE SET position = EXCLUDED.position, updated_at = CURRENT_TIMESTAMP";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Empty when the job has no checkpoint or finished its last pass
+    public Optional<String> findPosition(String name) {
+        List<String> positions = jdbcTemplate.queryForList(
+                "SELECT position FROM maintenance_checkpoints WHERE name = :name",
+                new MapSqlParameterSource("name", name), String.class);
+        return positions.stream().filter(position -> position != null).findFirst();
+    }
+
+    // A null position marks a completed pass; the next run starts from the beginning
+    public void savePosition(String name, String position) {
+        jdbcTemplate.update(UPSERT_SQL, new MapSqlParameterSource()
+                .addValue("name", name)
+                .addValue("position", position));
+    }
+}
@@ -36,6 +36,10 @@ public interface QuestionRepository extends JpaRepository<Question, Long> {
     @Query("SELECT COALESCE(MAX(q.orderIndex),0) FROM Question q")
     Integer findMaxOrderIndex();
 
+    // Next unused bit position; taken from a sequence, so concurrent creates never get the same one
+    @Query(value = "SELECT CAST(nextval('question_bit_positions') AS INTEGER)", nativeQuery = true)
+    Integer nextBitPosition();
+
     // Find questions that need reordering after deletion
     @Query("SELECT q FROM Question q WHERE q.orderIndex > :deletedOrderIndex ORDER BY q.orderIndex")
     List<Question> findQuestionsToReorder(Integer deletedOrderIndex);
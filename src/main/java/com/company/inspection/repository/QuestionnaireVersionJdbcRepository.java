@@ -0,0 +1,116 @@
+package com.company.inspection.repository;
+
+import com.company.inspection.datasource.ShardRoutingDataSource;
+import com.company.inspection.entity.Question;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Immutable questionnaire versions: a version row plus a snapshot of the active questions
+ * (text and order as of that version). A version is written once, in the transaction that
+ * changed the questions, and never updated. Versions are read from the catalog shard directly
+ * (shard 0, where questions are edited), so any shard can resolve the version an inspection
+ * answered without waiting for replication.
+ */
+@Repository
+public class QuestionnaireVersionJdbcRepository {
+
+    // Taken by every catalog edit, so each version snapshots the result of exactly one edit
+    private static final String LOCK_EDITS_SQL =
+            "SELECT pg_advisory_xact_lock(hashtext('questionnaire_versions'))";
+
+    private static final String INSERT_VERSION_SQL =
+            "INSERT INTO questionnaire_versions (change_note) VALUES (:changeNote) RETURNING id";
+
+    private static final String SNAPSHOT_SQL =
+            "INSERT INTO questionnaire_version_questions (version_id, question_id, question_text, order_index) " +
+            "SELECT :versionId, id, question_text, order_index FROM questions WHERE is_active";
+
+    // For a database that predates versioning; concurrent callers may both insert, which is harmless
+    private static final String INSERT_INITIAL_VERSION_SQL =
+            "WITH version AS (" +
+            "    INSERT INTO questionnaire_versions (change_note) " +
+            "    SELECT 'Initial catalog' WHERE NOT EXISTS (SELECT 1 FROM questionnaire_versions) RETURNING id) " +
+            "INSERT INTO questionnaire_version_questions (version_id, question_id, question_text, order_index) " +
+            "SELECT version.id, q.id, q.question_text, q.order_index FROM version CROSS JOIN questions q WHERE q.is_active";
+
+    private static final String CURRENT_VERSION_SQL =
+            "SELECT MAX(id) FROM questionnaire_versions";
+
+    private static final String VERSION_SQL =
+            "SELECT created_at FROM questionnaire_versions WHERE id = :versionId";
+
+    private static final String VERSION_QUESTIONS_SQL =
+            "SELECT vq.question_id, vq.question_text, vq.order_index, q.bit_position, q.created_at " +
+            "FROM questionnaire_version_questions vq JOIN questions q ON q.id = vq.question_id " +
+            "WHERE vq.version_id = :versionId ORDER BY vq.order_index, vq.question_id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate catalogShard;
+
+    public QuestionnaireVersionJdbcRepository(NamedParameterJdbcTemplate jdbcTemplate,
+                                              ShardRoutingDataSource shardRoutingDataSource) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.catalogShard = new NamedParameterJdbcTemplate(shardRoutingDataSource.shardDataSource(0));
+    }
+
+    /**
+     * Wait for other catalog edits to commit; held until the current transaction ends
+     */
+    public void lockEdits() {
+        jdbcTemplate.queryForList(LOCK_EDITS_SQL, new MapSqlParameterSource());
+    }
+
+    /**
+     * Snapshot the active questions as a new version within the current transaction (pending
+     * JPA changes to questions have to be flushed first); returns the version id
+     */
+    public long createVersion(String changeNote) {
+        Long versionId = jdbcTemplate.queryForObject(INSERT_VERSION_SQL,
+                new MapSqlParameterSource("changeNote", changeNote), Long.class);
+        jdbcTemplate.update(SNAPSHOT_SQL, new MapSqlParameterSource("versionId", versionId));
+        return versionId;
+    }
+
+    public long findCurrentVersionId() {
+        Long versionId = catalogShard.queryForObject(CURRENT_VERSION_SQL, new MapSqlParameterSource(), Long.class);
+        if (versionId == null) {
+            catalogShard.update(INSERT_INITIAL_VERSION_SQL, new MapSqlParameterSource());
+            versionId = catalogShard.queryForObject(CURRENT_VERSION_SQL, new MapSqlParameterSource(), Long.class);
+        }
+        return versionId;
+    }
+
+    public Optional<QuestionnaireVersion> findVersion(long versionId) {
+        MapSqlParameterSource params = new MapSqlParameterSource("versionId", versionId);
+        List<Timestamp> createdAt = catalogShard.queryForList(VERSION_SQL, params, Timestamp.class);
+        if (createdAt.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<Question> questions = catalogShard.query(VERSION_QUESTIONS_SQL, params, (rs, rowNum) -> {
+            Timestamp questionCreatedAt = rs.getTimestamp("created_at");
+            return Question.builder()
+                    .id(rs.getLong("question_id"))
+                    .questionText(rs.getString("question_text"))
+                    .orderIndex(rs.getInt("order_index"))
+                    .bitPosition(rs.getInt("bit_position"))
+                    .isActive(true)
+                    .createdAt(questionCreatedAt != null ? questionCreatedAt.toLocalDateTime() : null)
+                    .build();
+        });
+        return Optional.of(new QuestionnaireVersion(versionId, createdAt.get(0).toLocalDateTime(), List.copyOf(questions)));
+    }
+
+    /**
+     * One questionnaire version; its questions are detached, read-only entities in order
+     */
+    public record QuestionnaireVersion(long id, LocalDateTime createdAt, List<Question> questions) {
+    }
+}
@@ -0,0 +1,363 @@
+package com.company.inspection.service;
+
+import com.company.inspection.analytics.AnswerColumnQuery;
+import com.company.inspection.analytics.AnswerColumnResult;
+import com.company.inspection.analytics.AnswerColumnStore;
+import com.company.inspection.cache.InvalidationHandler;
+import com.company.inspection.cache.InvalidationMessage;
+import com.company.inspection.datasource.ShardRouter;
+import com.company.inspection.datasource.ShardTemplate;
+import com.company.inspection.datasource.TrafficClass;
+import com.company.inspection.datasource.TrafficClassHolder;
+import com.company.inspection.dto.response.AnswerAnalyticsResponse;
+import com.company.inspection.entity.Inspection;
+import com.company.inspection.entity.InspectionAnswer;
+import com.company.inspection.repository.AnswerColumnJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ad-hoc answer analytics served from the in-memory {@link AnswerColumnStore}. The store is
+ * filled with the last {@code inspection.analytics.window-days} days of answers before the
+ * web server starts taking requests, and every committed inspection created by this instance
+ * is appended to it.
+ *
+ * <p>Other instances are followed through the invalidation bus: a CAR message queues the car,
+ * and {@link #applyInvalidations} reads the recent inspections of the queued cars and appends
+ * the ones not held yet. INSPECTION messages (archival) drop the inspection's rows, and ALL
+ * messages (partitions detached, listener reconnected) reload the whole window in the background.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AnswerAnalyticsService implements SmartLifecycle, InvalidationHandler {
+
+    private final AnswerColumnStore answerColumnStore;
+    private final AnswerColumnJdbcRepository answerColumnRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardTemplate shardTemplate;
+    private final ShardRouter shardRouter;
+
+    // Filled by invalidation messages, drained by applyInvalidations()
+    private final Set<String> pendingCars = ConcurrentHashMap.newKeySet();
+    private final Set<Long> pendingRemovals = ConcurrentHashMap.newKeySet();
+    private volatile boolean reloadRequested;
+
+    @Value("${inspection.analytics.enabled:true}")
+    private boolean enabled;
+
+    @Value("${inspection.analytics.window-days:30}")
+    private int windowDays;
+
+    private volatile boolean running;
+
+    /**
+     * Load the window, one shard after another, each as one streaming read
+     */
+    @Override
+    public void start() {
+        running = true;
+        if (!enabled) {
+            log.info("In-memory answer analytics is disabled");
+            return;
+        }
+        reload();
+    }
+
+    private void reload() {
+        long startNanos = System.nanoTime();
+        LocalDate windowStart = windowStart();
+        // Whatever committed before this point is in the reload, what commits later stays queued
+        pendingCars.clear();
+        pendingRemovals.clear();
+        AnswerColumnStore.Loader loader = answerColumnStore.newLoader();
+        TrafficClass previous = TrafficClassHolder.set(TrafficClass.BATCH);
+        try {
+            shardTemplate.forEachShard(shard -> transactionTemplate.executeWithoutResult(status ->
+                    answerColumnRepository.streamAnswersSince(windowStart.atStartOfDay(),
+                            (questionId, inspectionId, yes, epochDay) -> loader.append(questionId,
+                                    inspectionId, yes ? AnswerColumnStore.YES : AnswerColumnStore.NO, epochDay))));
+        } finally {
+            TrafficClassHolder.restore(previous);
+        }
+        answerColumnStore.install(loader);
+
+        log.info("Loaded {} answers since {} into {} analytics segments in {} ms", answerColumnStore.rowCount(),
+                windowStart, answerColumnStore.segmentCount(), (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Before the web server (and with it createInspection) starts, so no append can race the load
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    /**
+     * Append the answers of an inspection once the surrounding transaction commits
+     */
+    public void record(Inspection inspection) {
+        if (!enabled) {
+            return;
+        }
+        long inspectionId = inspection.getId();
+        int epochDay = (int) inspection.getInspectionDate().toLocalDate().toEpochDay();
+        List<InspectionAnswer> answers = List.copyOf(inspection.getAnswers());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    appendAnswers(inspectionId, epochDay, answers);
+                }
+            });
+        } else {
+            appendAnswers(inspectionId, epochDay, answers);
+        }
+    }
+
+    private void appendAnswers(long inspectionId, int epochDay, List<InspectionAnswer> answers) {
+        int[] questionIds = new int[answers.size()];
+        byte[] answerValues = new byte[answers.size()];
+        for (int i = 0; i < questionIds.length; i++) {
+            questionIds[i] = Math.toIntExact(answers.get(i).getQuestion().getId());
+            answerValues[i] = answers.get(i).isYesAnswer() ? AnswerColumnStore.YES : AnswerColumnStore.NO;
+        }
+        answerColumnStore.appendInspection(inspectionId, epochDay, questionIds, answerValues);
+    }
+
+    @Override
+    public void onInvalidation(InvalidationMessage message) {
+        if (!enabled) {
+            return;
+        }
+        switch (message.type()) {
+            case CAR -> pendingCars.add(message.key());
+            case INSPECTION -> pendingRemovals.add(Long.parseLong(message.key()));
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public void evictAll() {
+        if (enabled) {
+            reloadRequested = true;
+        }
+    }
+
+    /**
+     * Catch up with the changes other instances announced since the last run
+     */
+    @Scheduled(fixedDelayString = "${inspection.analytics.refresh-interval-ms:1000}")
+    public void applyInvalidations() {
+        if (!enabled || !running) {
+            return;
+        }
+        if (reloadRequested) {
+            reloadRequested = false;
+            reload();
+            return;
+        }
+
+        Set<Long> removals = drain(pendingRemovals);
+        if (!removals.isEmpty()) {
+            long removed = answerColumnStore.removeInspections(removals);
+            log.debug("Dropped {} answers of {} removed inspections from the analytics store", removed, removals.size());
+        }
+
+        Set<String> cars = drain(pendingCars);
+        if (!cars.isEmpty()) {
+            appendInspectionsOf(cars);
+        }
+    }
+
+    private static <T> Set<T> drain(Set<T> pending) {
+        Set<T> drained = new HashSet<>();
+        for (T item : pending) {
+            if (pending.remove(item)) {
+                drained.add(item);
+            }
+        }
+        return drained;
+    }
+
+    // One read per shard for all queued cars; inspections the store already holds are skipped
+    private void appendInspectionsOf(Set<String> carIds) {
+        Map<Integer, List<String>> carsByShard = new HashMap<>();
+        carIds.forEach(carId -> carsByShard.computeIfAbsent(shardRouter.shardForCar(carId), shard -> new ArrayList<>()).add(carId));
+
+        LocalDate windowStart = windowStart();
+        TrafficClass previous = TrafficClassHolder.set(TrafficClass.BATCH);
+        try {
+            carsByShard.forEach((shard, cars) -> shardTemplate.runOnShard(shard, () ->
+                    transactionTemplate.executeWithoutResult(status -> {
+                        InspectionRows rows = new InspectionRows();
+                        answerColumnRepository.streamAnswersOfCarsSince(cars, windowStart.atStartOfDay(), rows);
+                        rows.flush();
+                    })));
+        } finally {
+            TrafficClassHolder.restore(previous);
+        }
+    }
+
+    /**
+     * Collects the streamed rows of one inspection and appends them together
+     */
+    private final class InspectionRows implements AnswerColumnJdbcRepository.AnswerRowConsumer {
+
+        private long inspectionId = -1;
+        private int epochDay;
+        private final List<Integer> questionIds = new ArrayList<>();
+        private final List<Byte> answers = new ArrayList<>();
+
+        @Override
+        public void accept(int questionId, long rowInspectionId, boolean yes, int rowEpochDay) {
+            if (rowInspectionId != inspectionId) {
+                flush();
+                inspectionId = rowInspectionId;
+                epochDay = rowEpochDay;
+            }
+            questionIds.add(questionId);
+            answers.add(yes ? AnswerColumnStore.YES : AnswerColumnStore.NO);
+        }
+
+        void flush() {
+            if (questionIds.isEmpty()) {
+                return;
+            }
+            int[] questionIdArray = questionIds.stream().mapToInt(Integer::intValue).toArray();
+            byte[] answerArray = new byte[answers.size()];
+            for (int i = 0; i < answerArray.length; i++) {
+                answerArray[i] = answers.get(i);
+            }
+            answerColumnStore.appendInspection(inspectionId, epochDay, questionIdArray, answerArray);
+            questionIds.clear();
+            answers.clear();
+        }
+    }
+
+    /**
+     * Drop segments that fell out of the window
+     */
+    @Scheduled(cron = "${inspection.analytics.evict-cron:0 45 0 * * *}")
+    public void evictExpired() {
+        long evicted = answerColumnStore.evictBefore((int) windowStart().toEpochDay());
+        if (evicted > 0) {
+            log.info("Evicted {} answers older than {} from the analytics store", evicted, windowStart());
+        }
+    }
+
+    /**
+     * Count YES/NO answers and inspections, optionally filtered and grouped by question and/or day
+     */
+    public AnswerAnalyticsResponse query(String groupBy, List<Long> questionIds, LocalDate from, LocalDate to,
+                                         String answer) {
+        if (!enabled)
+            throw new IllegalStateException("In-memory answer analytics is disabled");
+
+        LocalDate windowStart = windowStart();
+        LocalDate effectiveFrom = from == null || from.isBefore(windowStart) ? windowStart : from;
+        LocalDate effectiveTo = to != null ? to : LocalDate.now();
+        if (effectiveFrom.isAfter(effectiveTo))
+            throw new IllegalArgumentException("Analytics 'from' date must not be after 'to' date");
+
+        AnswerColumnQuery query = new AnswerColumnQuery(parseGroupBy(groupBy), toBitSet(questionIds),
+                (int) effectiveFrom.toEpochDay(), (int) effectiveTo.toEpochDay(), parseAnswer(answer));
+
+        long startNanos = System.nanoTime();
+        AnswerColumnResult result = answerColumnStore.query(query);
+        double elapsedMs = (System.nanoTime() - startNanos) / 1_000_000.0;
+        log.debug("Analytics query {} matched {} of {} scanned answers in {} ms",
+                query.groupBy(), result.rowsMatched(), result.rowsScanned(), elapsedMs);
+
+        return AnswerAnalyticsResponse.builder()
+                .groupBy(query.groupBy().name())
+                .from(effectiveFrom)
+                .to(effectiveTo)
+                .windowStart(windowStart)
+                .rowsScanned(result.rowsScanned())
+                .rowsMatched(result.rowsMatched())
+                .elapsedMs(elapsedMs)
+                .groups(result.groups().stream().map(this::buildGroup).toList())
+                .build();
+    }
+
+    private AnswerAnalyticsResponse.Group buildGroup(AnswerColumnResult.Group group) {
+        long answerCount = group.yesCount() + group.noCount();
+        return AnswerAnalyticsResponse.Group.builder()
+                .questionId(group.questionId() != null ? group.questionId().longValue() : null)
+                .date(group.epochDay() != null ? LocalDate.ofEpochDay(group.epochDay()) : null)
+                .yesCount(group.yesCount())
+                .noCount(group.noCount())
+                .inspectionCount(group.inspectionCount())
+                .yesRate(answerCount > 0 ? (double) group.yesCount() / answerCount : null)
+                .build();
+    }
+
+    private LocalDate windowStart() {
+        return LocalDate.now().minusDays(windowDays);
+    }
+
+    private static AnswerColumnQuery.GroupBy parseGroupBy(String groupBy) {
+        if (groupBy == null || groupBy.isBlank()) {
+            return AnswerColumnQuery.GroupBy.QUESTION;
+        }
+        try {
+            return AnswerColumnQuery.GroupBy.valueOf(groupBy.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported groupBy: " + groupBy + " (use none, question, day or question_and_day)");
+        }
+    }
+
+    private static Byte parseAnswer(String answer) {
+        if (answer == null || answer.isBlank()) {
+            return null;
+        }
+        return switch (answer.trim().toUpperCase(Locale.ROOT)) {
+            case "YES" -> AnswerColumnStore.YES;
+            case "NO" -> AnswerColumnStore.NO;
+            default -> throw new IllegalArgumentException("Answer must be YES or NO");
+        };
+    }
+
+    private static BitSet toBitSet(List<Long> questionIds) {
+        if (questionIds == null || questionIds.isEmpty()) {
+            return null;
+        }
+        BitSet bits = new BitSet();
+        for (Long questionId : questionIds) {
+            if (questionId == null || questionId <= 0 || questionId > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("Invalid question id: " + questionId);
+            bits.set(questionId.intValue());
+        }
+        return bits;
+    }
+}
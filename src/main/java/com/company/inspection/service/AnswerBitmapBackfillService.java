@@ -0,0 +1,88 @@
+package com.company.inspection.service;
+
+import com.company.inspection.bitmap.AnswerBitmap;
+import com.company.inspection.datasource.ShardTemplate;
+import com.company.inspection.datasource.Traffic;
+import com.company.inspection.datasource.TrafficClass;
+import com.company.inspection.repository.AnswerBitmapJdbcRepository;
+import com.company.inspection.repository.AnswerBitmapJdbcRepository.AnswerBit;
+import com.company.inspection.repository.AnswerBitmapJdbcRepository.EncodedInspection;
+import com.company.inspection.repository.AnswerBitmapJdbcRepository.InspectionKey;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Encodes the answer bitmaps of inspections stored before the bitmaps existed, in keyset
+ * batches of one transaction each. New inspections are encoded when they are created, so a
+ * run only has work to do once after the upgrade (or after a plain SQL import).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Traffic(TrafficClass.BATCH)
+public class AnswerBitmapBackfillService {
+
+    private final AnswerBitmapJdbcRepository answerBitmapRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardTemplate shardTemplate;
+
+    @Value("${inspection.answer-bitmap.backfill-batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * @return number of inspections encoded
+     */
+    public long backfill() {
+        log.info("Backfilling answer bitmaps");
+        AtomicLong encoded = new AtomicLong();
+
+        shardTemplate.forEachShard(shard -> {
+            long afterId = 0;
+            while (true) {
+                long cursor = afterId;
+                List<InspectionKey> batch = transactionTemplate.execute(status -> encodeBatch(cursor));
+                if (batch == null || batch.isEmpty()) {
+                    break;
+                }
+                encoded.addAndGet(batch.size());
+                afterId = batch.get(batch.size() - 1).id();
+                log.debug("Encoded answer bitmaps of {} inspections on shard {} up to id {}", batch.size(), shard, afterId);
+            }
+        });
+
+        log.info("Backfilled answer bitmaps of {} inspections", encoded.get());
+        return encoded.get();
+    }
+
+    private List<InspectionKey> encodeBatch(long afterId) {
+        List<InspectionKey> keys = answerBitmapRepository.findUnencoded(afterId, batchSize);
+        if (keys.isEmpty()) {
+            return keys;
+        }
+
+        Map<Long, AnswerBitmap> answered = new HashMap<>();
+        Map<Long, AnswerBitmap> yes = new HashMap<>();
+        for (AnswerBit bit : answerBitmapRepository.findAnswerBits(keys)) {
+            answered.computeIfAbsent(bit.inspectionId(), id -> new AnswerBitmap()).set(bit.bitPosition());
+            if (bit.yes()) {
+                yes.computeIfAbsent(bit.inspectionId(), id -> new AnswerBitmap()).set(bit.bitPosition());
+            }
+        }
+
+        // Inspections without answers get empty bitmaps, which marks them as encoded
+        answerBitmapRepository.updateBitmaps(keys.stream()
+                .map(key -> new EncodedInspection(key,
+                        answered.getOrDefault(key.id(), new AnswerBitmap()).toWords(),
+                        yes.getOrDefault(key.id(), new AnswerBitmap()).toWords()))
+                .toList());
+        return keys;
+    }
+}
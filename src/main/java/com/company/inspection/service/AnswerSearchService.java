@@ -0,0 +1,89 @@
+package com.company.inspection.service;
+
+import com.company.inspection.datasource.ShardRouter;
+import com.company.inspection.datasource.ShardTemplate;
+import com.company.inspection.dto.request.AnswerSearchRequest;
+import com.company.inspection.dto.response.AnswerSearchResponse;
+import com.company.inspection.repository.AnswerSearchRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class AnswerSearchService {
+
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+
+    private final AnswerSearchRepository answerSearchRepository;
+    private final ShardRouter shardRouter;
+    private final ShardTemplate shardTemplate;
+
+    /**
+     * Search answer descriptions across the fleet, newest answers first
+     */
+    public AnswerSearchResponse search(AnswerSearchRequest request) {
+        validateSearchRequest(request);
+
+        int pageSize = resolvePageSize(request.getSize());
+        log.debug("Searching answer descriptions for '{}' (carId: {}, questionId: {}, cursor: {})",
+                request.getQuery(), request.getCarId(), request.getQuestionId(), request.getCursor());
+
+        // Fetch one extra row to know whether another page exists
+        List<AnswerSearchResponse.Hit> hits = searchShards(request, pageSize + 1);
+
+        Long nextCursor = null;
+        if (hits.size() > pageSize) {
+            hits = hits.subList(0, pageSize);
+            nextCursor = hits.get(pageSize - 1).getAnswerId();
+        }
+
+        log.debug("Found {} answers matching '{}'", hits.size(), request.getQuery());
+
+        return AnswerSearchResponse.builder()
+                .query(request.getQuery())
+                .results(hits)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * A car filter pins the search to the car's shard. Otherwise every shard returns its own
+     * first page and the pages are merged by answer id, which is unique across shards, so the
+     * cursor keeps working for the merged result.
+     */
+    private List<AnswerSearchResponse.Hit> searchShards(AnswerSearchRequest request, int limit) {
+        if (request.getCarId() != null) {
+            return shardTemplate.onShard(shardRouter.shardForCar(request.getCarId()),
+                    () -> answerSearchRepository.search(request, limit));
+        }
+        return shardTemplate.scatterGather(shard -> answerSearchRepository.search(request, limit)).stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(AnswerSearchResponse.Hit::getAnswerId).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private void validateSearchRequest(AnswerSearchRequest request) {
+        if (request.getQuery() == null || request.getQuery().trim().isEmpty())
+            throw new IllegalArgumentException("Search query cannot be null or empty");
+        if (request.getFrom() != null && request.getTo() != null && !request.getFrom().isBefore(request.getTo()))
+            throw new IllegalArgumentException("Search 'from' date must be before 'to' date");
+
+        request.setQuery(request.getQuery().trim());
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+}
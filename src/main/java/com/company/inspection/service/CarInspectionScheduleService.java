@@ -0,0 +1,179 @@
+package com.company.inspection.service;
+
+import com.company.inspection.datasource.ShardKey;
+import com.company.inspection.datasource.ShardTemplate;
+import com.company.inspection.datasource.Traffic;
+import com.company.inspection.datasource.TrafficClass;
+import com.company.inspection.dto.response.CarInspectionScheduleResponse;
+import com.company.inspection.dto.response.DueInspectionsResponse;
+import com.company.inspection.exception.ResourceNotFoundException;
+import com.company.inspection.repository.CarInspectionScheduleJdbcRepository;
+import com.company.inspection.repository.CarInspectionScheduleJdbcRepository.DueKey;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class CarInspectionScheduleService {
+
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+    static final int MAX_WITHIN_HOURS = 24 * 366;
+    static final int MAX_INTERVAL_DAYS = 3650;
+
+    private static final Comparator<CarInspectionScheduleResponse> DUE_ORDER =
+            Comparator.comparing(CarInspectionScheduleResponse::getNextDueAt)
+                    .thenComparing(CarInspectionScheduleResponse::getCarId);
+
+    private final CarInspectionScheduleJdbcRepository scheduleRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardTemplate shardTemplate;
+
+    @Value("${inspection.schedule.default-interval-days:365}")
+    private int defaultIntervalDays;
+
+    /**
+     * Move the car's next due date on; joins the transaction (and shard) of the inspection
+     */
+    @Transactional
+    public void recordInspection(String carId, LocalDateTime inspectedAt) {
+        scheduleRepository.recordInspection(carId, inspectedAt, defaultIntervalDays);
+    }
+
+    public CarInspectionScheduleResponse getSchedule(@ShardKey String carId) {
+        return scheduleRepository.findByCarId(carId)
+                .orElseThrow(() -> new ResourceNotFoundException("No inspection schedule for car: " + carId));
+    }
+
+    /**
+     * Set the inspection interval of a car; the due date is recomputed from its latest inspection
+     */
+    @Transactional
+    public CarInspectionScheduleResponse updateInterval(@ShardKey String carId, int intervalDays) {
+        if (carId == null || carId.isBlank())
+            throw new IllegalArgumentException("Car ID cannot be blank");
+        // A zero or negative interval would put the next due date at or before the inspection
+        if (intervalDays <= 0 || intervalDays > MAX_INTERVAL_DAYS)
+            throw new IllegalArgumentException("Interval must be between 1 and " + MAX_INTERVAL_DAYS + " days");
+
+        log.debug("Setting inspection interval of car {} to {} days", carId, intervalDays);
+        scheduleRepository.setInterval(carId, intervalDays);
+        return getSchedule(carId);
+    }
+
+    /**
+     * Cars whose next inspection is due now or earlier, most overdue first
+     */
+    public DueInspectionsResponse findOverdue(String cursor, Integer size) {
+        return findDue(null, LocalDateTime.now(), cursor, size);
+    }
+
+    /**
+     * Cars that become due within the next hours (not the ones already overdue), soonest first
+     */
+    public DueInspectionsResponse findDueWithin(int hours, String cursor, Integer size) {
+        if (hours <= 0 || hours > MAX_WITHIN_HOURS)
+            throw new IllegalArgumentException("Hours must be between 1 and " + MAX_WITHIN_HOURS);
+
+        LocalDateTime now = LocalDateTime.now();
+        return findDue(now, now.plusHours(hours), cursor, size);
+    }
+
+    /**
+     * Every shard returns its own first page in due order; car ids live on exactly one shard,
+     * so the merged pages keep the (next_due_at, car_id) keyset valid
+     */
+    private DueInspectionsResponse findDue(LocalDateTime from, LocalDateTime until, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        DueKey after = decodeCursor(cursor);
+
+        List<CarInspectionScheduleResponse> cars = shardTemplate.scatterGather(shard ->
+                        scheduleRepository.findDue(from, until, after, pageSize + 1)).stream()
+                .flatMap(List::stream)
+                .sorted(DUE_ORDER)
+                .limit(pageSize + 1)
+                .toList();
+
+        String nextCursor = null;
+        if (cars.size() > pageSize) {
+            cars = cars.subList(0, pageSize);
+            CarInspectionScheduleResponse last = cars.get(pageSize - 1);
+            nextCursor = encodeCursor(new DueKey(last.getNextDueAt(), last.getCarId()));
+        }
+
+        Long totalCount = null;
+        if (after == null) {
+            totalCount = shardTemplate.scatterGather(shard -> scheduleRepository.countDue(from, until)).stream()
+                    .mapToLong(Long::longValue)
+                    .sum();
+        }
+
+        return DueInspectionsResponse.builder()
+                .from(from)
+                .until(until)
+                .totalCount(totalCount)
+                .cars(cars)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Create or advance the schedules of all cars from the inspections table, one transaction
+     * per shard (after an upgrade or a bulk load that bypassed createInspection)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Traffic(TrafficClass.BATCH)
+    public long backfill() {
+        log.info("Backfilling inspection schedules with a default interval of {} days", defaultIntervalDays);
+        AtomicLong changed = new AtomicLong();
+        shardTemplate.forEachShard(shard -> {
+            Integer rows = transactionTemplate.execute(status -> scheduleRepository.backfillFromInspections(defaultIntervalDays));
+            log.debug("Backfilled {} inspection schedules on shard {}", rows, shard);
+            changed.addAndGet(rows != null ? rows : 0);
+        });
+        log.info("Backfilled {} inspection schedules", changed.get());
+        return changed.get();
+    }
+
+    private static String encodeCursor(DueKey key) {
+        String raw = key.nextDueAt() + "|" + key.carId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static DueKey decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0)
+                throw new IllegalArgumentException("Invalid cursor");
+            return new DueKey(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+}
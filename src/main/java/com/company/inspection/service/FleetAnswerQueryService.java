@@ -0,0 +1,107 @@
+package com.company.inspection.service;
+
+import com.company.inspection.bitmap.AnswerPredicate;
+import com.company.inspection.bitmap.AnswerPredicateCompiler;
+import com.company.inspection.bitmap.AnswerPredicateParser;
+import com.company.inspection.datasource.ShardTemplate;
+import com.company.inspection.dto.request.FleetAnswerQueryRequest;
+import com.company.inspection.dto.response.FleetAnswerQueryResponse;
+import com.company.inspection.entity.Question;
+import com.company.inspection.repository.AnswerBitmapJdbcRepository;
+import com.company.inspection.repository.QuestionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class FleetAnswerQueryService {
+
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private final AnswerBitmapJdbcRepository answerBitmapRepository;
+    private final QuestionRepository questionRepository;
+    private final ShardTemplate shardTemplate;
+
+    /**
+     * Find inspections whose answers satisfy a boolean predicate such as
+     * {@code YES(3) AND NOT YES(7)}, newest inspections first
+     */
+    public FleetAnswerQueryResponse query(FleetAnswerQueryRequest request) {
+        validateQueryRequest(request);
+
+        AnswerPredicate predicate = AnswerPredicateParser.parse(request.getPredicate());
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String condition = new AnswerPredicateCompiler(loadBitPositions(), params).compile(predicate);
+
+        int pageSize = resolvePageSize(request.getSize());
+        log.debug("Querying fleet answers for {} (latestOnly: {}, cursor: {}) as {}",
+                predicate, request.isLatestOnly(), request.getCursor(), condition);
+
+        // Every shard returns its own first page; inspection ids are unique across shards
+        List<FleetAnswerQueryResponse.Match> matches = shardTemplate.scatterGather(shard ->
+                        answerBitmapRepository.findMatches(request, condition, copyOf(params), pageSize + 1)).stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(FleetAnswerQueryResponse.Match::getInspectionId).reversed())
+                .limit(pageSize + 1)
+                .toList();
+
+        Long nextCursor = null;
+        if (matches.size() > pageSize) {
+            matches = matches.subList(0, pageSize);
+            nextCursor = matches.get(pageSize - 1).getInspectionId();
+        }
+
+        // Counting scans every match, so only do it once per query rather than on every page
+        Long totalMatches = null;
+        if (request.getCursor() == null) {
+            totalMatches = shardTemplate.scatterGather(shard ->
+                            answerBitmapRepository.countMatches(request, condition, copyOf(params))).stream()
+                    .mapToLong(Long::longValue)
+                    .sum();
+        }
+
+        return FleetAnswerQueryResponse.builder()
+                .predicate(predicate.toString())
+                .latestOnly(request.isLatestOnly())
+                .totalMatches(totalMatches)
+                .results(matches)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    // Inactive questions keep their position, so predicates on them still match older inspections
+    private Map<Long, Integer> loadBitPositions() {
+        return questionRepository.findAll().stream()
+                .collect(Collectors.toMap(Question::getId, Question::getBitPosition));
+    }
+
+    // The repository adds its own parameters, and shards run concurrently
+    private static MapSqlParameterSource copyOf(MapSqlParameterSource params) {
+        return new MapSqlParameterSource(params.getValues());
+    }
+
+    private void validateQueryRequest(FleetAnswerQueryRequest request) {
+        if (request.getPredicate() == null || request.getPredicate().trim().isEmpty())
+            throw new IllegalArgumentException("Predicate cannot be null or empty");
+        if (request.getFrom() != null && request.getTo() != null && !request.getFrom().isBefore(request.getTo()))
+            throw new IllegalArgumentException("Query 'from' date must be before 'to' date");
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+}
@@ -0,0 +1,146 @@
+package com.company.inspection.service;
+
+import com.company.inspection.cache.InvalidationBus;
+import com.company.inspection.cache.InvalidationType;
+import com.company.inspection.datasource.ShardTemplate;
+import com.company.inspection.datasource.Traffic;
+import com.company.inspection.datasource.TrafficClass;
+import com.company.inspection.dto.response.InspectionRecord;
+import com.company.inspection.repository.ArchiveLocationJdbcRepository;
+import com.company.inspection.repository.InspectionArchiveStore;
+import com.company.inspection.repository.InspectionRecordJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves completed inspections older than the configured age from the hot tables into the
+ * compressed archive. Each batch is first forced to disk and only then deleted, so a crash
+ * can at worst archive a batch twice (duplicates are dropped when reading), never lose it.
+ *
+ * <p>The archive lives in a directory, so every instance has to mount the same one. The first
+ * run records the directory's archive id in each database; archiving into or reading from a
+ * directory with another id fails, rather than splitting the history over instances or showing
+ * it incomplete.
+ */
+@Service
+@Traffic(TrafficClass.BATCH)
+@RequiredArgsConstructor
+@Slf4j
+public class InspectionArchivalService {
+
+    private final InspectionRecordJdbcRepository inspectionRecordRepository;
+    private final InspectionArchiveStore archiveStore;
+    private final ArchiveLocationJdbcRepository archiveLocationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SecondLevelCacheEvictor cacheEvictor;
+    private final InvalidationBus invalidationBus;
+    private final ShardTemplate shardTemplate;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${inspection.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${inspection.archive.min-age-days:180}")
+    private long minAgeDays;
+
+    @Value("${inspection.archive.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(cron = "${inspection.archive.cron:0 30 2 * * *}")
+    public void archiveScheduled() {
+        if (enabled) {
+            archiveExpiredInspections();
+        }
+    }
+
+    /**
+     * Archive all completed inspections older than min-age-days; returns the number archived
+     */
+    public long archiveExpiredInspections() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Inspection archival is already running");
+            return 0;
+        }
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(minAgeDays);
+            log.info("Archiving completed inspections older than {}", cutoff);
+
+            long archived = 0;
+            for (int shard = 0; shard < shardTemplate.getShardCount(); shard++) {
+                archived += shardTemplate.onShard(shard, () -> archiveBefore(cutoff));
+            }
+
+            log.info("Archived {} inspections older than {}", archived, cutoff);
+            return archived;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private long archiveBefore(LocalDateTime cutoff) {
+        String recorded = transactionTemplate.execute(status -> archiveLocationRepository.claim(archiveStore.getArchiveId()));
+        verifyArchiveId(recorded);
+
+        long archived = 0;
+        List<InspectionRecord> batch;
+        do {
+            batch = transactionTemplate.execute(status ->
+                    inspectionRecordRepository.findCompletedBefore(cutoff, batchSize));
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+
+            writeToArchive(batch);
+
+            List<Long> ids = batch.stream().map(InspectionRecord::getInspectionId).toList();
+            Integer deleted = transactionTemplate.execute(status -> {
+                // Other instances drop their cached copies once the delete commits
+                invalidationBus.publishAll(InvalidationType.INSPECTION, ids);
+                return inspectionRecordRepository.deleteByIds(ids, cutoff);
+            });
+            cacheEvictor.evictInspections(batch);
+            archived += batch.size();
+            log.debug("Archived batch of {} inspections ({} rows deleted)", batch.size(), deleted);
+        } while (batch.size() == batchSize);
+        return archived;
+    }
+
+    private void writeToArchive(List<InspectionRecord> batch) {
+        try {
+            archiveStore.append(batch);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write inspection archive batch", e);
+        }
+    }
+
+    /**
+     * Archived inspections of a car, newest first
+     */
+    public List<InspectionRecord> findArchivedByCarId(String carId) {
+        archiveLocationRepository.findArchiveId().ifPresent(this::verifyArchiveId);
+        try {
+            return archiveStore.findByCarId(carId);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read inspection archive for car " + carId, e);
+        }
+    }
+
+    private void verifyArchiveId(String recorded) {
+        if (!recorded.equals(archiveStore.getArchiveId())) {
+            throw new IllegalStateException("Inspections of this database were archived into archive " + recorded
+                    + ", but inspection.archive.directory holds archive " + archiveStore.getArchiveId()
+                    + "; every instance must mount the same archive directory");
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.company.inspection.service;
+
+import com.company.inspection.datasource.ShardKey;
+import com.company.inspection.dto.response.InspectionDiffResponse;
+import com.company.inspection.dto.response.InspectionDiffResponse.AnswerState;
+import com.company.inspection.dto.response.InspectionDiffResponse.ChangeType;
+import com.company.inspection.dto.response.InspectionDiffResponse.QuestionDiff;
+import com.company.inspection.entity.Inspection;
+import com.company.inspection.entity.InspectionAnswer;
+import com.company.inspection.entity.InspectionPhoto;
+import com.company.inspection.exception.ResourceNotFoundException;
+import com.company.inspection.repository.InspectionAnswerRepository;
+import com.company.inspection.repository.InspectionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Computes per-question differences between two inspections of the same car.
+ * Both answer sets are loaded sorted by question id and merged in a single pass.
+ */
+@Service
+@Slf4j
+public class InspectionDiffService {
+
+    private final InspectionRepository inspectionRepository;
+    private final InspectionAnswerRepository answerRepository;
+
+    // Completed inspections never change, so their diffs can be reused; access-ordered for LRU eviction.
+    // Responses are mutable, so the cache keeps its own copy and every caller gets a fresh one
+    private final Map<DiffKey, InspectionDiffResponse> completedDiffCache;
+
+    public InspectionDiffService(InspectionRepository inspectionRepository,
+                                 InspectionAnswerRepository answerRepository,
+                                 @Value("${inspection.diff.cache-size:1000}") int cacheSize) {
+        this.inspectionRepository = inspectionRepository;
+        this.answerRepository = answerRepository;
+        this.completedDiffCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<DiffKey, InspectionDiffResponse> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Diff the latest two completed inspections of a car
+     */
+    @Transactional(readOnly = true)
+    public InspectionDiffResponse diffLatest(@ShardKey String carId) {
+        log.info("Diffing latest two inspections for car: {}", carId);
+
+        List<Inspection> latest = inspectionRepository.findTop2ByCarIdAndCompletedOrderByCreatedAtDesc(carId, true);
+        if (latest.size() < 2) {
+            throw new ResourceNotFoundException("At least two completed inspections are required to diff car: " + carId);
+        }
+
+        return diff(carId, latest.get(1), latest.get(0));
+    }
+
+    /**
+     * Diff two given inspections of a car; 'from' is the earlier state, 'to' the later one
+     */
+    @Transactional(readOnly = true)
+    public InspectionDiffResponse diff(@ShardKey String carId, Long fromInspectionId, Long toInspectionId) {
+        log.info("Diffing inspections {} -> {} for car: {}", fromInspectionId, toInspectionId, carId);
+
+        if (fromInspectionId.equals(toInspectionId)) {
+            throw new IllegalArgumentException("Cannot diff an inspection with itself: " + fromInspectionId);
+        }
+
+        return diff(carId, findInspectionOfCar(carId, fromInspectionId), findInspectionOfCar(carId, toInspectionId));
+    }
+
+    private InspectionDiffResponse diff(String carId, Inspection from, Inspection to) {
+        boolean cacheable = "COMPLETED".equals(from.getStatus()) && "COMPLETED".equals(to.getStatus());
+        DiffKey key = new DiffKey(from.getId(), to.getId());
+
+        if (cacheable) {
+            InspectionDiffResponse cached = completedDiffCache.get(key);
+            if (cached != null) {
+                log.debug("Diff cache hit for inspections {} -> {}", from.getId(), to.getId());
+                return copyOf(cached);
+            }
+        }
+
+        List<QuestionDiff> changes = mergeDiff(
+                answerRepository.findByInspectionIdWithPhotosOrderByQuestionId(from.getId(), from.getInspectionDate()),
+                answerRepository.findByInspectionIdWithPhotosOrderByQuestionId(to.getId(), to.getInspectionDate()));
+
+        InspectionDiffResponse response = InspectionDiffResponse.builder()
+                .carId(carId)
+                .fromInspectionId(from.getId())
+                .toInspectionId(to.getId())
+                .fromInspectionDate(from.getInspectionDate())
+                .toInspectionDate(to.getInspectionDate())
+                .changes(changes)
+                .build();
+
+        if (cacheable) {
+            completedDiffCache.put(key, copyOf(response));
+        }
+
+        log.info("Found {} changed questions between inspections {} and {}", changes.size(), from.getId(), to.getId());
+        return response;
+    }
+
+    // Both lists must be sorted by question id
+    private List<QuestionDiff> mergeDiff(List<InspectionAnswer> before, List<InspectionAnswer> after) {
+        List<QuestionDiff> changes = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+
+        while (i < before.size() || j < after.size()) {
+            InspectionAnswer previous = i < before.size() ? before.get(i) : null;
+            InspectionAnswer current = j < after.size() ? after.get(j) : null;
+
+            int order;
+            if (previous == null) {
+                order = 1;
+            } else if (current == null) {
+                order = -1;
+            } else {
+                order = Long.compare(previous.getQuestion().getId(), current.getQuestion().getId());
+            }
+
+            QuestionDiff change;
+            if (order < 0) {
+                change = compare(previous.getQuestion().getId(), previous, null);
+                i++;
+            } else if (order > 0) {
+                change = compare(current.getQuestion().getId(), null, current);
+                j++;
+            } else {
+                change = compare(current.getQuestion().getId(), previous, current);
+                i++;
+                j++;
+            }
+
+            if (change != null) {
+                changes.add(change);
+            }
+        }
+
+        return changes;
+    }
+
+    // Returns null when nothing relevant changed for the question
+    private QuestionDiff compare(Long questionId, InspectionAnswer previous, InspectionAnswer current) {
+        boolean wasDefect = previous != null && previous.isYesAnswer();
+        boolean isDefect = current != null && current.isYesAnswer();
+        List<ChangeType> changeTypes = new ArrayList<>(2);
+
+        if (!wasDefect && isDefect) {
+            changeTypes.add(ChangeType.NEW_DEFECT);
+        } else if (wasDefect && !isDefect) {
+            changeTypes.add(ChangeType.RESOLVED_DEFECT);
+        } else if (wasDefect) {
+            if (!Objects.equals(previous.getDescription(), current.getDescription())) {
+                changeTypes.add(ChangeType.DESCRIPTION_CHANGED);
+            }
+            if (!photoUrls(previous).equals(photoUrls(current))) {
+                changeTypes.add(ChangeType.PHOTOS_REPLACED);
+            }
+        } else if (previous == null && current != null) {
+            changeTypes.add(ChangeType.ANSWERED);
+        } else if (previous != null && current == null) {
+            changeTypes.add(ChangeType.UNANSWERED);
+        }
+
+        if (changeTypes.isEmpty()) {
+            return null;
+        }
+
+        return QuestionDiff.builder()
+                .questionId(questionId)
+                .changeTypes(changeTypes)
+                .before(toState(previous))
+                .after(toState(current))
+                .build();
+    }
+
+    private AnswerState toState(InspectionAnswer answer) {
+        if (answer == null) {
+            return null;
+        }
+        List<String> urls = new ArrayList<>(photoUrls(answer));
+        return AnswerState.builder()
+                .answer(answer.getAnswer().name())
+                .description(answer.getDescription())
+                .photoUrls(urls.isEmpty() ? null : urls)
+                .build();
+    }
+
+    // Photo order is not meaningful, only which photos are attached
+    private Set<String> photoUrls(InspectionAnswer answer) {
+        Set<String> urls = new TreeSet<>();
+        for (InspectionPhoto photo : answer.getPhotos()) {
+            urls.add(photo.getPhotoUrl());
+        }
+        return urls;
+    }
+
+    private static InspectionDiffResponse copyOf(InspectionDiffResponse diff) {
+        return InspectionDiffResponse.builder()
+                .carId(diff.getCarId())
+                .fromInspectionId(diff.getFromInspectionId())
+                .toInspectionId(diff.getToInspectionId())
+                .fromInspectionDate(diff.getFromInspectionDate())
+                .toInspectionDate(diff.getToInspectionDate())
+                .changes(diff.getChanges().stream().map(InspectionDiffService::copyOf).collect(Collectors.toList()))
+                .build();
+    }
+
+    private static QuestionDiff copyOf(QuestionDiff change) {
+        return QuestionDiff.builder()
+                .questionId(change.getQuestionId())
+                .changeTypes(new ArrayList<>(change.getChangeTypes()))
+                .before(copyOf(change.getBefore()))
+                .after(copyOf(change.getAfter()))
+                .build();
+    }
+
+    private static AnswerState copyOf(AnswerState state) {
+        if (state == null) {
+            return null;
+        }
+        return AnswerState.builder()
+                .answer(state.getAnswer())
+                .description(state.getDescription())
+                .photoUrls(state.getPhotoUrls() != null ? new ArrayList<>(state.getPhotoUrls()) : null)
+                .build();
+    }
+
+    private Inspection findInspectionOfCar(String carId, Long inspectionId) {
+        Inspection inspection = inspectionRepository.findById(inspectionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Inspection not found with id: " + inspectionId));
+        if (!inspection.getCarId().equals(carId)) {
+            throw new IllegalArgumentException("Inspection " + inspectionId + " does not belong to car: " + carId);
+        }
+        return inspection;
+    }
+
+    private record DiffKey(Long fromInspectionId, Long toInspectionId) {
+    }
+}
@@ -0,0 +1,180 @@
+package com.company.inspection.service;
+
+import com.company.inspection.datasource.ShardTemplate;
+import com.company.inspection.datasource.Traffic;
+import com.company.inspection.datasource.TrafficClass;
+import com.company.inspection.dto.response.InspectionRecord;
+import com.company.inspection.repository.InspectionRecordJdbcRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+
+/**
+ * Streams inspections of a date range straight from a database cursor to an output stream.
+ * Memory use is bounded by a single inspection and the writer buffer, regardless of range size.
+ * With sharding, the shards are streamed one after another, each in its own read-only transaction.
+ *
+ * <p>Only inspections still in the database are exported. Archived inspections and those of
+ * detached partitions are not: the archive is bucketed by car, so a date range would have to
+ * read all of it.
+ */
+@Service
+@Slf4j
+public class InspectionExportService {
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER =
+            "inspection_id,car_id,status,inspection_date,question_id,answer,description,photo_urls";
+
+    private final InspectionRecordJdbcRepository inspectionRecordRepository;
+    private final ShardTemplate shardTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter ndjsonWriter;
+
+    @Value("${inspection.export.flush-every:500}")
+    private int flushEvery;
+
+    @Value("${inspection.export.max-range-days:400}")
+    private long maxRangeDays;
+
+    public InspectionExportService(InspectionRecordJdbcRepository inspectionRecordRepository, ShardTemplate shardTemplate,
+                                   PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
+        this.inspectionRecordRepository = inspectionRecordRepository;
+        this.shardTemplate = shardTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.ndjsonWriter = objectMapper.writerFor(InspectionRecord.class)
+                .without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    public enum ExportFormat {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String fileExtension;
+
+        ExportFormat(String contentType, String fileExtension) {
+            this.contentType = contentType;
+            this.fileExtension = fileExtension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getFileExtension() {
+            return fileExtension;
+        }
+
+        public static ExportFormat fromString(String value) {
+            try {
+                return ExportFormat.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value + " (use ndjson or csv)");
+            }
+        }
+    }
+
+    public void validateRange(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null)
+            throw new IllegalArgumentException("Export range 'from' and 'to' are required");
+        if (!from.isBefore(to))
+            throw new IllegalArgumentException("Export 'from' date must be before 'to' date");
+        if (ChronoUnit.DAYS.between(from, to) > maxRangeDays)
+            throw new IllegalArgumentException("Export range cannot exceed " + maxRangeDays + " days");
+    }
+
+    /**
+     * Export inspections with answers and photo URLs; returns the number of inspections written
+     */
+    @Traffic(TrafficClass.BATCH)
+    public long export(LocalDateTime from, LocalDateTime to, ExportFormat format, OutputStream outputStream) {
+        validateRange(from, to);
+        log.info("Exporting inspections from {} to {} as {}", from, to, format);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        long[] written = {0};
+
+        try {
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+
+            // The cursor needs a transaction; a shard is only picked when it opens its first connection
+            shardTemplate.forEachShard(shard -> readOnlyTransaction.executeWithoutResult(status ->
+                    inspectionRecordRepository.streamByInspectionDate(from, to, record -> {
+                        try {
+                            if (format == ExportFormat.CSV) {
+                                writeCsv(writer, record);
+                            } else {
+                                writer.write(ndjsonWriter.writeValueAsString(record));
+                                writer.write('\n');
+                            }
+                            // Periodic flushes keep data moving to the client instead of piling up in buffers
+                            if (++written[0] % flushEvery == 0) {
+                                writer.flush();
+                            }
+                        } catch (IOException e) {
+                            // Typically the client went away; abort the cursor
+                            throw new UncheckedIOException(e);
+                        }
+                    })));
+
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write inspection export", e);
+        }
+
+        log.info("Exported {} inspections from {} to {}", written[0], from, to);
+        return written[0];
+    }
+
+    // One line per answer; inspections without answers get a single line with empty answer columns
+    private void writeCsv(Writer writer, InspectionRecord record) throws IOException {
+        String inspectionColumns = record.getInspectionId() + "," +
+                csv(record.getCarId()) + "," +
+                record.getStatus() + "," +
+                record.getInspectionDate();
+
+        if (record.getAnswers().isEmpty()) {
+            writer.write(inspectionColumns);
+            writer.write(",,,,\n");
+            return;
+        }
+
+        for (InspectionRecord.AnswerRecord answer : record.getAnswers()) {
+            writer.write(inspectionColumns);
+            writer.write(',');
+            writer.write(String.valueOf(answer.getQuestionId()));
+            writer.write(',');
+            writer.write(answer.getAnswer());
+            writer.write(',');
+            writer.write(csv(answer.getDescription()));
+            writer.write(',');
+            writer.write(csv(String.join("|", answer.getPhotoUrls())));
+            writer.write('\n');
+        }
+    }
+
+    private static String csv(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        boolean needsQuotes = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        return needsQuotes ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+}
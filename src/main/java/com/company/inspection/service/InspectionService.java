@@ -1,20 +1,36 @@
 package com.company.inspection.service;
 
+import com.company.inspection.bitmap.AnswerBitmap;
+import com.company.inspection.cache.InvalidationBus;
+import com.company.inspection.cache.InvalidationType;
+import com.company.inspection.cache.LatestInspectionCache;
+import com.company.inspection.concurrency.ConflictPolicy;
+import com.company.inspection.datasource.ShardKey;
 import com.company.inspection.dto.request.CreateInspectionRequest;
+import com.company.inspection.dto.response.InspectionRecord;
 import com.company.inspection.dto.response.InspectionResponse;
 import com.company.inspection.dto.response.QuestionResponse;
 import com.company.inspection.entity.*;
+import com.company.inspection.exception.InspectionConflictException;
+import com.company.inspection.exception.InspectionValidationException;
+import com.company.inspection.exception.ResourceNotFoundException;
+import com.company.inspection.repository.CarLockJdbcRepository;
 import com.company.inspection.repository.InspectionRepository;
+import com.company.inspection.repository.QuestionnaireVersionJdbcRepository.QuestionnaireVersion;
+import com.company.inspection.tracing.InspectionSpanAttributes;
+import com.company.inspection.validation.InspectionSubmissionValidator;
+import com.company.inspection.validation.ValidatedAnswer;
+import com.company.inspection.validation.ValidationResult;
+import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.instrumentation.annotations.WithSpan;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
 import java.util.stream.Collectors;
 
 
@@ -25,23 +41,42 @@ public class InspectionService {
 
     private final InspectionRepository inspectionRepository;
     private final QuestionService questionService;
+    private final QuestionStatsAccumulator questionStatsAccumulator;
+    private final AnswerAnalyticsService answerAnalyticsService;
+    private final CarInspectionScheduleService carInspectionScheduleService;
+    private final InspectionArchivalService inspectionArchivalService;
+    private final LatestInspectionCache latestInspectionCache;
+    private final InvalidationBus invalidationBus;
+    private final InspectionSubmissionValidator submissionValidator;
+    private final PhotoProcessingService photoProcessingService;
+    private final CarLockJdbcRepository carLockRepository;
 
     private static final String COMPLETED_STATUS = "COMPLETED";
-    private static final String YES_ANSWER = "YES";
+
+    @Value("${inspection.partitioning.latest-lookback-months:6}")
+    private long latestInspectionLookbackMonths;
+
+    @Value("${inspection.submission.conflict-policy:SERIALIZE}")
+    private ConflictPolicy conflictPolicy;
+
+    public ConflictPolicy getConflictPolicy() {
+        return conflictPolicy;
+    }
 
     @WithSpan("inspection.getQuestions")
     @Transactional(readOnly = true)
-    public InspectionResponse getInspectionQuestions(String carId) {
+    public InspectionResponse getInspectionQuestions(@ShardKey String carId) {
         log.debug("Getting inspection questions for car: {}", carId);
 
-        List<Question> questions = questionService.getAllActiveQuestions();
+        QuestionnaireVersion questionnaire = questionService.getCurrentQuestionnaire();
+        List<Question> questions = questionnaire.questions();
 
-        Optional<Inspection> latestInspection = inspectionRepository
-                .findFirstByCarIdAndCompletedOrderByCreatedAtDesc(carId, true);
+        Optional<Inspection> latestInspection = findLatestCompletedInspection(carId);
 
         InspectionResponse.InspectionResponseBuilder responseBuilder = InspectionResponse.builder()
                 .carId(carId)
-                .hasPreviousInspection(latestInspection.isPresent());
+                .hasPreviousInspection(latestInspection.isPresent())
+                .questionnaireVersionId(questionnaire.id());
 
         latestInspection.ifPresent(inspection -> {
             responseBuilder
@@ -55,6 +90,7 @@ public class InspectionService {
                 .map(inspection -> inspection.getAnswers().stream()
                         .collect(Collectors.toMap(a -> a.getQuestion().getId(), a -> a)))
                 .orElse(Map.of());
+        recordAnswerCounts(previousAnswersMap.values());
 
         List<QuestionResponse> questionResponses = questions.stream()
                 .map(question -> buildQuestionResponse(question, previousAnswersMap))
@@ -63,6 +99,51 @@ public class InspectionService {
         return responseBuilder.questions(questionResponses).build();
     }
 
+    /**
+     * Use the cached id of the car's latest inspection when there is one (the inspection itself
+     * then comes from the second-level cache). Otherwise look in the recent monthly partitions
+     * first and only scan the full history when the car has not been inspected within the
+     * lookback window
+     */
+    private Optional<Inspection> findLatestCompletedInspection(String carId) {
+        Long cachedId = latestInspectionCache.get(carId);
+        if (cachedId != null) {
+            Optional<Inspection> cached = inspectionRepository.findById(cachedId);
+            if (cached.isPresent() && cached.get().isCompleted()) {
+                Span.current().setAttribute(InspectionSpanAttributes.LATEST_CACHE, "hit");
+                return cached;
+            }
+            // Archived or otherwise gone since it was cached
+            latestInspectionCache.remove(carId);
+            Span.current().setAttribute(InspectionSpanAttributes.LATEST_CACHE, "stale");
+        } else {
+            Span.current().setAttribute(InspectionSpanAttributes.LATEST_CACHE, "miss");
+        }
+
+        long loadToken = latestInspectionCache.beginLoad();
+        Optional<Inspection> latest = queryLatestCompletedInspection(carId);
+        latest.ifPresent(inspection -> latestInspectionCache.put(carId, inspection.getId(), loadToken));
+        return latest;
+    }
+
+    private Optional<Inspection> queryLatestCompletedInspection(String carId) {
+        LocalDateTime since = LocalDateTime.now().minusMonths(latestInspectionLookbackMonths);
+        Optional<Inspection> recent = inspectionRepository
+                .findFirstByCarIdAndCompletedAndInspectionDateGreaterThanEqualOrderByCreatedAtDesc(carId, true, since);
+        if (recent.isPresent()) {
+            return recent;
+        }
+        log.debug("No completed inspection for car: {} since {}, searching full history", carId, since);
+        return inspectionRepository.findFirstByCarIdAndCompletedOrderByCreatedAtDesc(carId, true);
+    }
+
+    private void recordAnswerCounts(Collection<InspectionAnswer> answers) {
+        Span span = Span.current();
+        span.setAttribute(InspectionSpanAttributes.ANSWER_COUNT, (long) answers.size());
+        span.setAttribute(InspectionSpanAttributes.PHOTO_COUNT,
+                answers.stream().mapToLong(answer -> answer.getPhotos().size()).sum());
+    }
+
     private QuestionResponse buildQuestionResponse(Question question, Map<Long, InspectionAnswer> previousAnswersMap) {
         QuestionResponse.QuestionResponseBuilder builder = QuestionResponse.builder()
                 .id(question.getId())
@@ -77,6 +158,9 @@ public class InspectionService {
                     .photos(previousAnswer.getPhotos().stream()
                             .map(photo -> QuestionResponse.PhotoInfo.builder()
                                     .url(photo.getPhotoUrl())
+                                    .thumbnailUrl(photo.getThumbnailUrl())
+                                    .width(photo.getWidth())
+                                    .height(photo.getHeight())
                                     .isNew(false)
                                     .build())
                             .toList())
@@ -88,39 +172,82 @@ public class InspectionService {
 
     @WithSpan("inspection.create")
     @Transactional
-    public InspectionResponse createInspection(CreateInspectionRequest request) {
-        validateCreateInspectionRequest(request);
+    public InspectionResponse createInspection(@ShardKey CreateInspectionRequest request) {
+        ValidationResult validation = submissionValidator.validate(request);
+        if (!validation.isValid())
+            throw new InspectionValidationException(validation.violations());
+
+        // Submissions for the car run one after another on every instance, so the latest inspection
+        // read below includes whatever a concurrent submission committed
+        lockCar(request.getCarId());
+
+        Long supersededId = inspectionRepository.findFirstByCarIdAndCompletedTrueOrderByCreatedAtDesc(request.getCarId())
+                .map(Inspection::getId)
+                .orElse(null);
+        if (request.getPreviousInspectionId() != null && !request.getPreviousInspectionId().equals(supersededId)) {
+            throw new InspectionConflictException("Inspection " + request.getPreviousInspectionId()
+                    + " is no longer the latest inspection of car " + request.getCarId());
+        }
 
         Inspection inspection = Inspection.builder()
                 .carId(request.getCarId())
                 .inspectionDate(LocalDateTime.now())
                 .completed(false)
+                .questionnaireVersionId(validation.questionnaireVersionId())
                 .build();
 
         inspectionRepository.save(inspection);
 
-        request.getAnswers().forEach(answerRequest -> {
-            InspectionAnswer answer = processAnswer(inspection, answerRequest);
+        AnswerBitmap answered = new AnswerBitmap();
+        AnswerBitmap yes = new AnswerBitmap();
+        validation.answers().forEach(validatedAnswer -> {
+            InspectionAnswer answer = processAnswer(inspection, validatedAnswer);
             inspection.addAnswer(answer);
+
+            answered.set(validatedAnswer.question().getBitPosition());
+            if (validatedAnswer.isYes()) {
+                yes.set(validatedAnswer.question().getBitPosition());
+            }
         });
+        inspection.setAnsweredBits(answered.toWords());
+        inspection.setYesBits(yes.toWords());
+        recordAnswerCounts(inspection.getAnswers());
 
         inspection.markAsCompleted();
         inspectionRepository.save(inspection);
+        carInspectionScheduleService.recordInspection(inspection.getCarId(), inspection.getInspectionDate());
+
+        questionStatsAccumulator.record(inspection);
+        answerAnalyticsService.record(inspection);
+        invalidationBus.publish(InvalidationType.CAR, inspection.getCarId());
+        if (inspection.getAnswers().stream().anyMatch(answer -> !answer.getPhotos().isEmpty())) {
+            photoProcessingService.requestProcessing();
+        }
 
         return buildInspectionResponse(inspection);
     }
 
-    private InspectionAnswer processAnswer(Inspection inspection, CreateInspectionRequest.AnswerRequest answerRequest) {
-        Question question = questionService.getQuestionById(answerRequest.getQuestionId());
+    private void lockCar(String carId) {
+        if (conflictPolicy == ConflictPolicy.REJECT) {
+            if (!carLockRepository.tryLock(carId)) {
+                throw new InspectionConflictException("An inspection for car " + carId + " is already being submitted");
+            }
+        } else {
+            carLockRepository.lock(carId);
+        }
+    }
+
+    private InspectionAnswer processAnswer(Inspection inspection, ValidatedAnswer validatedAnswer) {
+        CreateInspectionRequest.AnswerRequest answerRequest = validatedAnswer.request();
 
         InspectionAnswer answer = InspectionAnswer.builder()
                 .inspection(inspection)
-                .question(question)
-                .answer(InspectionAnswer.AnswerType.valueOf(answerRequest.getAnswer().toUpperCase()))
+                .question(validatedAnswer.question())
+                .answer(validatedAnswer.answerType())
                 .description(answerRequest.getDescription())
                 .build();
 
-        if (YES_ANSWER.equalsIgnoreCase(answerRequest.getAnswer()) && answerRequest.getPhotoUrls() != null) {
+        if (validatedAnswer.isYes()) {
             List<InspectionPhoto> photos = answerRequest.getPhotoUrls().stream()
                     .map(url -> InspectionPhoto.builder()
                             .answer(answer)
@@ -134,33 +261,59 @@ public class InspectionService {
         return answer;
     }
 
-    private void validateCreateInspectionRequest(CreateInspectionRequest request) {
-        if (request.getCarId() == null || request.getCarId().trim().isEmpty())
-            throw new IllegalArgumentException("Car ID cannot be null or empty");
-        if (request.getAnswers() == null || request.getAnswers().isEmpty())
-            throw new IllegalArgumentException("Answers cannot be null or empty");
+    /**
+     * Get inspection by ID
+     */
+    @Transactional(readOnly = true)
+    public Inspection getInspectionById(@ShardKey Long inspectionId) {
+        log.debug("Fetching inspection with id: {}", inspectionId);
+        return inspectionRepository.findById(inspectionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Inspection not found with id: " + inspectionId));
+    }
 
-        request.getAnswers().forEach(this::validateAnswerRequest);
+    /**
+     * Get the inspections of a car that are still in the hot tables, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<Inspection> getInspectionsByCarId(@ShardKey String carId) {
+        log.debug("Fetching inspections for car: {}", carId);
+        return inspectionRepository.findByCarIdOrderByCreatedAtDesc(carId);
     }
 
-    private void validateAnswerRequest(CreateInspectionRequest.AnswerRequest answer) {
-        if (answer.getQuestionId() == null)
-            throw new IllegalArgumentException("Question ID cannot be null");
-        if (answer.getAnswer() == null || answer.getAnswer().trim().isEmpty())
-            throw new IllegalArgumentException("Answer cannot be null or empty");
-
-        if (YES_ANSWER.equalsIgnoreCase(answer.getAnswer())) {
-            if (answer.getDescription() == null || answer.getDescription().trim().isEmpty())
-                throw new IllegalArgumentException("Description required for YES answers");
-            if (answer.getPhotoUrls() == null || answer.getPhotoUrls().isEmpty())
-                throw new IllegalArgumentException("Photos required for YES answers");
+    /**
+     * Get the full inspection history of a car: hot tables merged with the archive, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<InspectionRecord> getInspectionHistory(@ShardKey String carId) {
+        List<Inspection> hot = getInspectionsByCarId(carId);
+        List<InspectionRecord> archived = inspectionArchivalService.findArchivedByCarId(carId);
+        log.debug("Found {} hot and {} archived inspections for car: {}", hot.size(), archived.size(), carId);
+
+        Set<Long> hotIds = new HashSet<>();
+        List<InspectionRecord> history = new ArrayList<>(hot.size() + archived.size());
+        for (Inspection inspection : hot) {
+            hotIds.add(inspection.getId());
+            history.add(InspectionRecord.builder()
+                    .inspectionId(inspection.getId())
+                    .carId(inspection.getCarId())
+                    .status(inspection.getStatus())
+                    .inspectionDate(inspection.getInspectionDate())
+                    .createdAt(inspection.getCreatedAt())
+                    .build());
         }
+        archived.stream()
+                .filter(record -> !hotIds.contains(record.getInspectionId()))
+                .forEach(history::add);
+
+        history.sort(Comparator.comparing(InspectionRecord::getInspectionDate).reversed());
+        return history;
     }
 
     private InspectionResponse buildInspectionResponse(Inspection inspection) {
         return InspectionResponse.builder()
                 .inspectionId(inspection.getId())
                 .carId(inspection.getCarId())
+                .questionnaireVersionId(inspection.getQuestionnaireVersionId())
                 .status(COMPLETED_STATUS)
                 .createdAt(inspection.getCreatedAt())
                 .build();
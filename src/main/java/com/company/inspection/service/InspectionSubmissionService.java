@@ -0,0 +1,76 @@
+package com.company.inspection.service;
+
+import com.company.inspection.concurrency.CarLockStripes;
+import com.company.inspection.concurrency.ConflictPolicy;
+import com.company.inspection.dto.request.CreateInspectionRequest;
+import com.company.inspection.dto.response.InspectionResponse;
+import com.company.inspection.exception.InspectionConflictException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Entry point for inspection submissions.
+ *
+ * <p>Submissions for the same car are ordered, and the conflict policy applied, by
+ * {@link InspectionService#createInspection}, which holds the car's advisory lock for its
+ * transaction on every instance. With {@code SERIALIZE} this class adds a local fast path in front
+ * of that lock: a car's submissions on this instance first queue on the car's {@link CarLockStripes}
+ * stripe (up to the lock timeout), so a burst for one car waits in memory instead of each submission
+ * holding a pooled connection while it is blocked on the advisory lock. With {@code REJECT} there is
+ * nothing to wait for and submissions go straight to the advisory lock.
+ */
+@Service
+public class InspectionSubmissionService {
+
+    private final Function<CreateInspectionRequest, InspectionResponse> createInspection;
+    private final CarLockStripes lockStripes;
+    private final ConflictPolicy conflictPolicy;
+    private final long lockTimeoutMs;
+
+    @Autowired
+    public InspectionSubmissionService(InspectionService inspectionService,
+                                       @Value("${inspection.submission.lock-stripes:1024}") int lockStripes,
+                                       @Value("${inspection.submission.lock-timeout-ms:2000}") long lockTimeoutMs) {
+        this(inspectionService::createInspection, new CarLockStripes(lockStripes),
+                inspectionService.getConflictPolicy(), lockTimeoutMs);
+    }
+
+    InspectionSubmissionService(Function<CreateInspectionRequest, InspectionResponse> createInspection,
+                                CarLockStripes lockStripes, ConflictPolicy conflictPolicy, long lockTimeoutMs) {
+        this.createInspection = createInspection;
+        this.lockStripes = lockStripes;
+        this.conflictPolicy = conflictPolicy;
+        this.lockTimeoutMs = lockTimeoutMs;
+    }
+
+    public InspectionResponse submit(CreateInspectionRequest request) {
+        if (conflictPolicy == ConflictPolicy.REJECT) {
+            return createInspection.apply(request);
+        }
+
+        ReentrantLock lock = lockStripes.lockFor(request.getCarId());
+        acquire(lock, request.getCarId());
+        try {
+            return createInspection.apply(request);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void acquire(ReentrantLock lock, String carId) {
+        try {
+            if (!lock.tryLock(lockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new InspectionConflictException("A submission for car " + carId
+                        + " is still in progress after " + lockTimeoutMs + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InspectionConflictException("Interrupted while waiting to submit for car " + carId, e);
+        }
+    }
+}
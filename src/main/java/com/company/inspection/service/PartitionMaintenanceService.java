@@ -0,0 +1,260 @@
+package com.company.inspection.service;
+
+import com.company.inspection.cache.InvalidationBus;
+import com.company.inspection.cache.InvalidationType;
+import com.company.inspection.datasource.ShardTemplate;
+import com.company.inspection.datasource.Traffic;
+import com.company.inspection.datasource.TrafficClass;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the monthly range partitions of inspections and inspection_answers in shape:
+ * creates partitions ahead of time and detaches the ones that fall out of the retention window.
+ * Detached partitions stay in the database as plain tables until they are archived or dropped;
+ * the photos of a detached answer partition are moved to a plain table of the same month.
+ */
+@Service
+@Traffic(TrafficClass.BATCH)
+@RequiredArgsConstructor
+@Slf4j
+public class PartitionMaintenanceService implements SmartInitializingSingleton {
+
+    // Partition key of every partitioned table; photos carry it too
+    static final String PARTITION_KEY = "inspection_date";
+    static final PartitionedTable INSPECTIONS = new PartitionedTable("inspections");
+    static final PartitionedTable ANSWERS = new PartitionedTable("inspection_answers");
+    // Parents before children, in the order of the foreign keys between them
+    static final List<PartitionedTable> PARTITIONED_TABLES = List.of(INSPECTIONS, ANSWERS);
+    // Not partitioned, but references inspection_answers by (answer_id, inspection_date)
+    static final String PHOTOS_TABLE = "inspection_photos";
+
+    private static final DateTimeFormatter BOUND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final InvalidationBus invalidationBus;
+    private final ShardTemplate shardTemplate;
+
+    @Value("${inspection.partitioning.enabled:true}")
+    private boolean enabled;
+
+    @Value("${inspection.partitioning.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${inspection.partitioning.run-on-startup:true}")
+    private boolean runOnStartup;
+
+    // 0 keeps every partition attached
+    @Value("${inspection.partitioning.retention-months:0}")
+    private int retentionMonths;
+
+    // Called on the proxy once all singletons exist, so the startup run uses the batch pool
+    // (a @PostConstruct method would run on the bare bean, past the @Traffic aspect)
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            log.info("Partition maintenance is disabled");
+            return;
+        }
+        if (!runOnStartup) {
+            log.info("Partition maintenance deferred to the next scheduled run");
+            return;
+        }
+        try {
+            maintainPartitions();
+        } catch (RuntimeException e) {
+            // Rows keep landing in the default partitions until the next scheduled run
+            log.error("Initial partition maintenance failed", e);
+        }
+    }
+
+    /**
+     * Create the partitions for the current and upcoming months, then detach expired ones, on every shard
+     */
+    @Scheduled(cron = "${inspection.partitioning.cron:0 0 1 * * *}")
+    public void maintainPartitions() {
+        if (!enabled) {
+            return;
+        }
+        YearMonth currentMonth = YearMonth.now();
+        shardTemplate.forEachShard(shard -> {
+            for (int i = 0; i <= monthsAhead; i++) {
+                createPartitionsIfMissing(currentMonth.plusMonths(i));
+            }
+            if (retentionMonths > 0) {
+                detachPartitionsBefore(currentMonth.minusMonths(retentionMonths));
+            }
+        });
+    }
+
+    /**
+     * Create the partitions of a month range on every shard, e.g. before history is bulk-loaded
+     */
+    public void createPartitions(YearMonth from, YearMonth to) {
+        if (!enabled) {
+            return;
+        }
+        shardTemplate.forEachShard(shard -> {
+            for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+                createPartitionsIfMissing(month);
+            }
+        });
+    }
+
+    // The partitions of a month are created together, parents before children
+    private void createPartitionsIfMissing(YearMonth month) {
+        List<PartitionedTable> missing = PARTITIONED_TABLES.stream()
+                .filter(table -> !tableExists(table.partitionName(month)))
+                .toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+        // Stray rows of a missing parent partition could still be referenced from an existing child partition
+        int firstMissing = PARTITIONED_TABLES.size() - missing.size();
+        if (!missing.equals(PARTITIONED_TABLES.subList(firstMissing, PARTITIONED_TABLES.size()))) {
+            throw new IllegalStateException("Partitions of " + month + " are missing for " +
+                    missing.stream().map(PartitionedTable::name).toList() + " but not for their children");
+        }
+
+        String from = month.atDay(1).format(BOUND_FORMAT);
+        String to = month.plusMonths(1).atDay(1).format(BOUND_FORMAT);
+        String rangeCondition = PARTITION_KEY + " >= '" + from + "' AND " + PARTITION_KEY + " < '" + to + "'";
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // The default partitions may already hold rows of this month: Postgres refuses to create the
+            // partition until they are moved, so they are set aside children first (the photos of those
+            // answers included) to keep the foreign keys intact, and put back parents first
+            stashRows(PHOTOS_TABLE, PHOTOS_TABLE, rangeCondition + " AND (answer_id, inspection_date) IN " +
+                    "(SELECT id, inspection_date FROM " + ANSWERS.defaultPartitionName() + ")");
+            for (PartitionedTable table : missing.reversed()) {
+                stashRows(table.name(), table.defaultPartitionName(), rangeCondition);
+            }
+
+            for (PartitionedTable table : missing) {
+                jdbcTemplate.execute("CREATE TABLE " + table.partitionName(month) + " PARTITION OF " + table.name() +
+                        " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+            }
+
+            for (PartitionedTable table : missing) {
+                int moved = restoreRows(table.name());
+                if (moved > 0) {
+                    log.info("Moved {} rows from {} into new partition {}", moved,
+                            table.defaultPartitionName(), table.partitionName(month));
+                }
+            }
+            restoreRows(PHOTOS_TABLE);
+        });
+
+        log.info("Created partitions of {} for {} [{}, {})", month,
+                missing.stream().map(PartitionedTable::name).toList(), from, to);
+    }
+
+    // Moves the rows of source matching condition into a temporary table named after table
+    private void stashRows(String table, String source, String condition) {
+        jdbcTemplate.execute("CREATE TEMPORARY TABLE stray_" + table + " ON COMMIT DROP AS " +
+                "SELECT * FROM " + source + " WHERE " + condition);
+        jdbcTemplate.update("DELETE FROM " + source + " WHERE " + condition);
+    }
+
+    // Inserts the rows set aside by stashRows again; returns their number
+    private int restoreRows(String table) {
+        String columns = String.join(", ", insertableColumns(table));
+        return jdbcTemplate.update("INSERT INTO " + table + " (" + columns + ") SELECT " + columns +
+                " FROM stray_" + table);
+    }
+
+    // Children first: a partition can only be detached once no attached row references it
+    private void detachPartitionsBefore(YearMonth cutoff) {
+        for (PartitionedTable table : PARTITIONED_TABLES.reversed()) {
+            List<String> partitions = jdbcTemplate.queryForList(
+                    "SELECT c.relname FROM pg_inherits i " +
+                    "JOIN pg_class c ON c.oid = i.inhrelid " +
+                    "JOIN pg_class p ON p.oid = i.inhparent " +
+                    "WHERE p.relname = ?", String.class, table.name());
+
+            boolean detached = false;
+            for (String partition : partitions) {
+                YearMonth month = table.monthOf(partition);
+                if (month != null && month.isBefore(cutoff)) {
+                    transactionTemplate.executeWithoutResult(status -> detachPartition(table, partition, month));
+                    log.info("Detached partition {} from {}", partition, table.name());
+                    detached = true;
+                }
+            }
+            if (detached) {
+                // Every instance may have cached rows of the detached partitions
+                invalidationBus.publish(InvalidationType.ALL, table.name());
+            }
+        }
+    }
+
+    private void detachPartition(PartitionedTable table, String partition, YearMonth month) {
+        if (table.equals(ANSWERS)) {
+            // Photos reference their answer by foreign key; they are kept in a plain table next to the partition
+            String condition = "(answer_id, inspection_date) IN (SELECT id, inspection_date FROM " + partition + ")";
+            jdbcTemplate.execute("CREATE TABLE " + new PartitionedTable(PHOTOS_TABLE).partitionName(month) +
+                    " AS SELECT * FROM " + PHOTOS_TABLE + " WHERE " + condition);
+            jdbcTemplate.update("DELETE FROM " + PHOTOS_TABLE + " WHERE " + condition);
+        }
+
+        // Plain DETACH: CONCURRENTLY is not allowed while a default partition exists
+        jdbcTemplate.execute("ALTER TABLE " + table.name() + " DETACH PARTITION " + partition);
+
+        // The detached table keeps its own copy of the foreign keys into the partitioned tables, which
+        // would block detaching the referenced partition of the same month
+        List<String> foreignKeys = jdbcTemplate.queryForList(
+                "SELECT c.conname FROM pg_constraint c JOIN pg_class r ON r.oid = c.confrelid " +
+                "WHERE c.conrelid = ?::regclass AND c.contype = 'f' AND r.relkind = 'p'", String.class, partition);
+        for (String foreignKey : foreignKeys) {
+            jdbcTemplate.execute("ALTER TABLE " + partition + " DROP CONSTRAINT \"" + foreignKey + "\"");
+        }
+    }
+
+    private boolean tableExists(String tableName) {
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT to_regclass(?) IS NOT NULL", Boolean.class, tableName);
+        return Boolean.TRUE.equals(exists);
+    }
+
+    // Generated columns (e.g. description_tsv) cannot be written explicitly
+    private List<String> insertableColumns(String tableName) {
+        return jdbcTemplate.queryForList(
+                "SELECT column_name FROM information_schema.columns " +
+                "WHERE table_schema = current_schema() AND table_name = ? AND is_generated = 'NEVER' " +
+                "ORDER BY ordinal_position", String.class, tableName);
+    }
+
+    record PartitionedTable(String name) {
+
+        private static final DateTimeFormatter SUFFIX_FORMAT = DateTimeFormatter.ofPattern("'p'yyyy_MM");
+
+        String partitionName(YearMonth month) {
+            return name + "_" + month.format(SUFFIX_FORMAT);
+        }
+
+        String defaultPartitionName() {
+            return name + "_default";
+        }
+
+        YearMonth monthOf(String partitionName) {
+            Matcher matcher = Pattern.compile("^" + name + "_p(\\d{4})_(\\d{2})$").matcher(partitionName);
+            if (!matcher.matches()) {
+                return null;
+            }
+            return YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.company.inspection.service;
+
+import com.company.inspection.config.DataSourceConfig;
+import com.company.inspection.datasource.ShardTemplate;
+import com.company.inspection.datasource.Traffic;
+import com.company.inspection.datasource.TrafficClass;
+import com.company.inspection.dto.response.PhotoGcStatusResponse;
+import com.company.inspection.repository.InspectionArchiveStore;
+import com.company.inspection.repository.InspectionPhotoJdbcRepository;
+import com.company.inspection.repository.LocalPhotoStore;
+import com.company.inspection.repository.LocalPhotoStore.StoredPhoto;
+import com.company.inspection.repository.MaintenanceCheckpointJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Incremental garbage collector for photo files: removes files of the local photo store that no
+ * photo row references. Photo rows themselves need no sweep, since inspection_photos references
+ * its answer with ON DELETE CASCADE.
+ *
+ * <p>The sweep walks the store in path order in small batches and stores its position in
+ * maintenance_checkpoints after every batch, so a run that hits its time budget (or a restart)
+ * resumes where it stopped. Between batches the sweeper sleeps, and it backs off while
+ * requests are waiting for a database connection.
+ *
+ * <p>With sharding, a file is only deleted when no shard references it.
+ */
+@Service
+@Traffic(TrafficClass.BATCH)
+@Slf4j
+public class PhotoGarbageCollectionService {
+
+    static final String FILES_CHECKPOINT = "photo-gc.files";
+
+    private static final String PENDING_CONNECTIONS_METRIC = "hikaricp.connections.pending";
+    private static final int MAX_BACKOFFS_PER_BATCH = 10;
+
+    private final InspectionPhotoJdbcRepository photoJdbcRepository;
+    private final LocalPhotoStore photoStore;
+    private final InspectionArchiveStore archiveStore;
+    private final MaintenanceCheckpointJdbcRepository checkpointRepository;
+    private final ShardTemplate shardTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private final Counter filesScanned;
+    private final Counter filesDeleted;
+    private final Counter throttledPauses;
+
+    private volatile LocalDateTime lastRunStartedAt;
+    private volatile LocalDateTime lastRunFinishedAt;
+    private volatile Boolean lastRunCompletedPass;
+
+    @Value("${inspection.photo-gc.enabled:false}")
+    private boolean enabled;
+
+    @Value("${inspection.photo-gc.batch-size:500}")
+    private int batchSize;
+
+    @Value("${inspection.photo-gc.pause-ms:200}")
+    private long pauseMs;
+
+    @Value("${inspection.photo-gc.backoff-ms:2000}")
+    private long backoffMs;
+
+    @Value("${inspection.photo-gc.max-run-seconds:600}")
+    private long maxRunSeconds;
+
+    // Files are uploaded before the inspection that references them is committed
+    @Value("${inspection.photo-gc.file-grace-hours:24}")
+    private long fileGraceHours;
+
+    @Value("${inspection.archive.enabled:false}")
+    private boolean archiveEnabled;
+
+    @Value("${inspection.archive.min-age-days:180}")
+    private long archiveMinAgeDays;
+
+    @Value("${inspection.partitioning.retention-months:0}")
+    private int partitionRetentionMonths;
+
+    public PhotoGarbageCollectionService(InspectionPhotoJdbcRepository photoJdbcRepository,
+                                         LocalPhotoStore photoStore,
+                                         InspectionArchiveStore archiveStore,
+                                         MaintenanceCheckpointJdbcRepository checkpointRepository,
+                                         ShardTemplate shardTemplate,
+                                         MeterRegistry meterRegistry) {
+        this.photoJdbcRepository = photoJdbcRepository;
+        this.photoStore = photoStore;
+        this.archiveStore = archiveStore;
+        this.checkpointRepository = checkpointRepository;
+        this.shardTemplate = shardTemplate;
+        this.meterRegistry = meterRegistry;
+
+        this.filesScanned = counter("inspection.photo_gc.files.scanned", "Photo files checked for a referencing row");
+        this.filesDeleted = counter("inspection.photo_gc.files.deleted", "Unreferenced photo files deleted");
+        this.throttledPauses = counter("inspection.photo_gc.throttled", "Pauses because requests were waiting for connections");
+        Gauge.builder("inspection.photo_gc.running", running, flag -> flag.get() ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    private Counter counter(String name, String description) {
+        return Counter.builder(name).description(description).register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${inspection.photo-gc.cron:0 0 3 * * *}")
+    public void collectScheduled() {
+        if (enabled) {
+            collectGarbage();
+        }
+    }
+
+    /**
+     * Run one time-bounded slice of the sweep; returns the resulting status
+     */
+    public PhotoGcStatusResponse collectGarbage() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Photo garbage collection is already running");
+            return getStatus();
+        }
+        try {
+            lastRunStartedAt = LocalDateTime.now();
+            Instant deadline = Instant.now().plusSeconds(maxRunSeconds);
+            log.info("Starting photo garbage collection (time budget {}s)", maxRunSeconds);
+
+            boolean completedPass = sweepUnreferencedFiles(deadline);
+
+            lastRunCompletedPass = completedPass;
+            lastRunFinishedAt = LocalDateTime.now();
+            log.info("Photo garbage collection {} ({} files deleted so far)",
+                    completedPass ? "completed a full pass" : "stopped at its time budget",
+                    (long) filesDeleted.count());
+            return getStatus();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // Returns true when the whole photo store was swept
+    private boolean sweepUnreferencedFiles(Instant deadline) {
+        String afterPath = checkpointRepository.findPosition(FILES_CHECKPOINT).orElse(null);
+        Instant newestDeletable = Instant.now().minus(Duration.ofHours(fileGraceHours));
+        Instant oldestDeletable = oldestDeletable();
+
+        while (Instant.now().isBefore(deadline)) {
+            throttle();
+
+            List<StoredPhoto> batch = listFilesAfter(afterPath);
+            if (batch.isEmpty()) {
+                checkpointRepository.savePosition(FILES_CHECKPOINT, null);
+                return true;
+            }
+
+            Map<String, StoredPhoto> candidatesByUrl = new HashMap<>();
+            for (StoredPhoto file : batch) {
+                if (file.lastModified().isBefore(newestDeletable) && file.lastModified().isAfter(oldestDeletable)) {
+                    candidatesByUrl.put(photoStore.toUrl(file.relativePath()), file);
+                }
+            }
+
+            if (!candidatesByUrl.isEmpty()) {
+                Set<String> referenced = new HashSet<>();
+                shardTemplate.scatterGather(shard -> photoJdbcRepository.findReferencedUrls(candidatesByUrl.keySet()))
+                        .forEach(referenced::addAll);
+                for (Map.Entry<String, StoredPhoto> candidate : candidatesByUrl.entrySet()) {
+                    if (!referenced.contains(candidate.getKey()) && deleteFile(candidate.getValue())) {
+                        filesDeleted.increment();
+                    }
+                }
+            }
+
+            afterPath = batch.get(batch.size() - 1).relativePath();
+            checkpointRepository.savePosition(FILES_CHECKPOINT, afterPath);
+            filesScanned.increment(batch.size());
+        }
+        return false;
+    }
+
+    /**
+     * Files older than this may be referenced only by rows that left inspection_photos: archived
+     * inspections keep their photo URLs in the archive (also after archival was switched off), and
+     * detached partitions keep them in their per-month photo table
+     */
+    private Instant oldestDeletable() {
+        Instant oldest = Instant.MIN;
+        if (archiveEnabled || archiveStore.hasArchivedInspections()) {
+            oldest = Instant.now().minus(Duration.ofDays(archiveMinAgeDays));
+        }
+        if (partitionRetentionMonths > 0) {
+            Instant detachedBefore = ZonedDateTime.now().minusMonths(partitionRetentionMonths).toInstant();
+            if (detachedBefore.isAfter(oldest)) {
+                oldest = detachedBefore;
+            }
+        }
+        return oldest;
+    }
+
+    private List<StoredPhoto> listFilesAfter(String afterPath) {
+        try {
+            return photoStore.listFilesAfter(afterPath, batchSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list photo store " + photoStore.getDirectory(), e);
+        }
+    }
+
+    private boolean deleteFile(StoredPhoto file) {
+        try {
+            return photoStore.delete(file.relativePath());
+        } catch (IOException e) {
+            log.warn("Failed to delete unreferenced photo file {}: {}", file.relativePath(), e.getMessage());
+            return false;
+        }
+    }
+
+    // Pause between batches, and longer while request threads are queued for a connection
+    private void throttle() {
+        sleep(pauseMs);
+        for (int attempt = 0; attempt < MAX_BACKOFFS_PER_BATCH && connectionsPending(); attempt++) {
+            throttledPauses.increment();
+            sleep(backoffMs);
+        }
+    }
+
+    // Only interactive pools count; the sweeper itself runs on the batch pool
+    private boolean connectionsPending() {
+        return meterRegistry.find(PENDING_CONNECTIONS_METRIC).gauges().stream()
+                .filter(gauge -> !DataSourceConfig.isPoolOf(gauge.getId().getTag("pool"), TrafficClass.BATCH))
+                .anyMatch(gauge -> gauge.value() > 0);
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Photo garbage collection interrupted", e);
+        }
+    }
+
+    public PhotoGcStatusResponse getStatus() {
+        return PhotoGcStatusResponse.builder()
+                .enabled(enabled)
+                .running(running.get())
+                .fileCheckpoint(checkpointRepository.findPosition(FILES_CHECKPOINT).orElse(null))
+                .filesScanned((long) filesScanned.count())
+                .filesDeleted((long) filesDeleted.count())
+                .throttledPauses((long) throttledPauses.count())
+                .lastRunStartedAt(lastRunStartedAt)
+                .lastRunFinishedAt(lastRunFinishedAt)
+                .lastRunCompletedPass(lastRunCompletedPass)
+                .build();
+    }
+}
@@ -0,0 +1,281 @@
+package com.company.inspection.service;
+
+import com.company.inspection.cache.InvalidationBus;
+import com.company.inspection.cache.InvalidationType;
+import com.company.inspection.datasource.ShardTemplate;
+import com.company.inspection.datasource.TrafficClass;
+import com.company.inspection.datasource.TrafficClassHolder;
+import com.company.inspection.entity.InspectionPhoto.ProcessingStatus;
+import com.company.inspection.photo.PhotoMetadata;
+import com.company.inspection.photo.PhotoMetadataExtractor;
+import com.company.inspection.repository.InspectionPhotoJdbcRepository;
+import com.company.inspection.repository.InspectionPhotoJdbcRepository.ClaimedPhoto;
+import com.company.inspection.repository.LocalPhotoStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Pool of background workers that extract the dimensions and EXIF capture time of newly stored
+ * photos and write a downsized JPEG thumbnail for each, so no image decoding happens on a
+ * request thread.
+ *
+ * <p>inspection_photos is the work queue: a worker claims a batch of pending photos of one
+ * shard with {@code FOR UPDATE SKIP LOCKED}, processes them without holding a transaction, and
+ * stores the results of the batch in one short transaction that also invalidates the cached
+ * photo entities on every instance. A claim is a lease: photos whose worker died, and photos
+ * whose processing failed, are claimed again once {@code lease-seconds} have passed, up to
+ * {@code max-attempts} times. Photos outside the local photo store, or in a format ImageIO
+ * cannot read, are marked SKIPPED.
+ *
+ * <p>Workers poll every {@code poll-interval-ms} while the queue is empty and are woken right
+ * away when this instance commits an inspection with photos.
+ */
+@Service
+@Slf4j
+public class PhotoProcessingService implements SmartLifecycle {
+
+    static final String THUMBNAIL_DIRECTORY = "thumbnails/";
+
+    private final InspectionPhotoJdbcRepository photoJdbcRepository;
+    private final LocalPhotoStore photoStore;
+    private final ShardTemplate shardTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final InvalidationBus invalidationBus;
+
+    private final Counter processed;
+    private final Counter skipped;
+    private final Counter failed;
+    private final Counter retried;
+    private final Timer processingTime;
+
+    private final Object wakeUp = new Object();
+    private final List<Thread> workerThreads = new ArrayList<>();
+    private volatile boolean running;
+    private PhotoMetadataExtractor extractor;
+
+    @Value("${inspection.photo-processing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${inspection.photo-processing.workers:2}")
+    private int workers;
+
+    @Value("${inspection.photo-processing.batch-size:10}")
+    private int batchSize;
+
+    @Value("${inspection.photo-processing.poll-interval-ms:2000}")
+    private long pollIntervalMs;
+
+    @Value("${inspection.photo-processing.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${inspection.photo-processing.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${inspection.photo-processing.thumbnail-max-edge:320}")
+    private int thumbnailMaxEdge;
+
+    @Value("${inspection.photo-processing.thumbnail-quality:0.8}")
+    private float thumbnailQuality;
+
+    public PhotoProcessingService(InspectionPhotoJdbcRepository photoJdbcRepository,
+                                  LocalPhotoStore photoStore,
+                                  ShardTemplate shardTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  InvalidationBus invalidationBus,
+                                  MeterRegistry meterRegistry) {
+        this.photoJdbcRepository = photoJdbcRepository;
+        this.photoStore = photoStore;
+        this.shardTemplate = shardTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.invalidationBus = invalidationBus;
+
+        this.processed = counter(meterRegistry, "inspection.photo_processing.processed", "Photos with extracted metadata and a thumbnail");
+        this.skipped = counter(meterRegistry, "inspection.photo_processing.skipped", "Photos that are not local images");
+        this.failed = counter(meterRegistry, "inspection.photo_processing.failed", "Photos given up after max-attempts");
+        this.retried = counter(meterRegistry, "inspection.photo_processing.retried", "Failed attempts left for a later claim");
+        this.processingTime = Timer.builder("inspection.photo_processing.duration")
+                .description("Time to extract the metadata and write the thumbnail of one photo")
+                .register(meterRegistry);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String description) {
+        return Counter.builder(name).description(description).register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            log.info("Photo processing is disabled");
+            return;
+        }
+        extractor = new PhotoMetadataExtractor(thumbnailMaxEdge, thumbnailQuality);
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            Thread workerThread = new Thread(this::work, "photo-processing-" + i);
+            workerThread.setDaemon(true);
+            workerThread.start();
+            workerThreads.add(workerThread);
+        }
+        log.info("Started {} photo processing workers", workers);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        workerThreads.forEach(Thread::interrupt);
+        workerThreads.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Wake the workers once the current transaction commits, so photos it stored are processed
+     * without waiting for the next poll
+     */
+    public void requestProcessing() {
+        if (!running) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeWorkers();
+                }
+            });
+        } else {
+            wakeWorkers();
+        }
+    }
+
+    private void wakeWorkers() {
+        synchronized (wakeUp) {
+            wakeUp.notifyAll();
+        }
+    }
+
+    private void work() {
+        TrafficClassHolder.set(TrafficClass.BATCH);
+        while (running) {
+            try {
+                boolean claimedAny = false;
+                for (int shard = 0; shard < shardTemplate.getShardCount() && running; shard++) {
+                    claimedAny |= shardTemplate.onShard(shard, this::processBatch);
+                }
+                if (!claimedAny) {
+                    awaitWork();
+                }
+            } catch (RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Photo processing failed, retrying in {} ms: {}", pollIntervalMs, e.getMessage());
+                awaitWork();
+            }
+        }
+    }
+
+    private void awaitWork() {
+        synchronized (wakeUp) {
+            try {
+                wakeUp.wait(pollIntervalMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+        }
+    }
+
+    // Process one claimed batch of the current shard; returns false when nothing was pending
+    private boolean processBatch() {
+        List<ClaimedPhoto> claimed = photoJdbcRepository.claimForProcessing(
+                LocalDateTime.now().minusSeconds(leaseSeconds), batchSize);
+        if (claimed.isEmpty()) {
+            return false;
+        }
+
+        List<Outcome> outcomes = new ArrayList<>(claimed.size());
+        for (ClaimedPhoto photo : claimed) {
+            outcomes.add(processingTime.record(() -> process(photo)));
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> changed = new ArrayList<>(outcomes.size());
+            for (Outcome outcome : outcomes) {
+                if (outcome.status() == ProcessingStatus.PROCESSING) {
+                    continue; // Left claimed, so it is retried once the lease expires
+                }
+                if (outcome.status() == ProcessingStatus.DONE) {
+                    photoJdbcRepository.markProcessed(outcome.photoId(), outcome.metadata(), outcome.thumbnailUrl());
+                } else {
+                    photoJdbcRepository.markStatus(outcome.photoId(), outcome.status());
+                }
+                changed.add(outcome.photoId());
+            }
+            invalidationBus.publishAll(InvalidationType.PHOTO, changed);
+        });
+
+        for (Outcome outcome : outcomes) {
+            switch (outcome.status()) {
+                case DONE -> processed.increment();
+                case SKIPPED -> skipped.increment();
+                case FAILED -> failed.increment();
+                default -> retried.increment();
+            }
+        }
+        return true;
+    }
+
+    private Outcome process(ClaimedPhoto photo) {
+        // The claim of a worker that died counts as an attempt too
+        if (photo.attempts() > maxAttempts) {
+            log.warn("Giving up on photo {} after {} attempts", photo.id(), maxAttempts);
+            return Outcome.of(photo, ProcessingStatus.FAILED);
+        }
+
+        Optional<String> relativePath = photoStore.toRelativePath(photo.photoUrl());
+        if (relativePath.isEmpty() || relativePath.get().startsWith(THUMBNAIL_DIRECTORY)) {
+            return Outcome.of(photo, ProcessingStatus.SKIPPED);
+        }
+
+        String thumbnailPath = THUMBNAIL_DIRECTORY + relativePath.get() + ".jpg";
+        try {
+            Optional<PhotoMetadata> metadata = extractor.process(
+                    photoStore.resolve(relativePath.get()), photoStore.resolve(thumbnailPath));
+            if (metadata.isEmpty()) {
+                log.debug("Photo {} is not in a readable image format", photo.id());
+                return Outcome.of(photo, ProcessingStatus.SKIPPED);
+            }
+            return new Outcome(photo.id(), ProcessingStatus.DONE, metadata.get(), photoStore.toUrl(thumbnailPath));
+        } catch (IOException | RuntimeException e) {
+            boolean lastAttempt = photo.attempts() >= maxAttempts;
+            log.warn("Processing photo {} ({}) failed on attempt {}{}: {}", photo.id(), photo.photoUrl(),
+                    photo.attempts(), lastAttempt ? ", giving up" : "", e.toString());
+            return Outcome.of(photo, lastAttempt ? ProcessingStatus.FAILED : ProcessingStatus.PROCESSING);
+        }
+    }
+
+    private record Outcome(long photoId, ProcessingStatus status, PhotoMetadata metadata, String thumbnailUrl) {
+
+        static Outcome of(ClaimedPhoto photo, ProcessingStatus status) {
+            return new Outcome(photo.id(), status, null, null);
+        }
+    }
+}
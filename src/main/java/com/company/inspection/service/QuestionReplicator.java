@@ -0,0 +1,87 @@
+package com.company.inspection.service;
+
+import com.company.inspection.datasource.ShardRouter;
+import com.company.inspection.datasource.ShardRoutingDataSource;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copies the question catalog from shard 0, where questions are edited, to the other shards,
+ * whose answers reference it. The whole catalog is copied at startup and single questions
+ * after each committed change; a copy that fails is repaired by the next startup.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QuestionReplicator {
+
+    private static final String SELECT_SQL =
+            "SELECT id, question_text, order_index, bit_position, is_active, created_at FROM questions";
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO questions (id, question_text, order_index, bit_position, is_active, created_at) VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (id) DO UPDATE SET question_text = EXCLUDED.question_text, " +
+            "order_index = EXCLUDED.order_index, is_active = EXCLUDED.is_active";
+
+    private final ShardRouter shardRouter;
+    private final ShardRoutingDataSource shardRoutingDataSource;
+
+    @PostConstruct
+    public void replicateCatalog() {
+        if (shardRouter.isSharded()) {
+            replicate(catalogShard().queryForList(SELECT_SQL + " ORDER BY id"));
+        }
+    }
+
+    /**
+     * Copy the question to the other shards once the current transaction commits
+     */
+    public void replicateAfterCommit(Long questionId) {
+        if (!shardRouter.isSharded()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    replicateQuestion(questionId);
+                }
+            });
+        } else {
+            replicateQuestion(questionId);
+        }
+    }
+
+    private void replicateQuestion(Long questionId) {
+        try {
+            replicate(catalogShard().queryForList(SELECT_SQL + " WHERE id = ?", questionId));
+        } catch (RuntimeException e) {
+            log.error("Failed to replicate question {} to the other shards", questionId, e);
+        }
+    }
+
+    // Shard data sources are used directly: after commit the old connection is still bound to the thread
+    private void replicate(List<Map<String, Object>> questions) {
+        for (int shard = 1; shard < shardRouter.getShardCount(); shard++) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(shardRoutingDataSource.shardDataSource(shard));
+            jdbcTemplate.batchUpdate(UPSERT_SQL, questions.stream()
+                    .map(question -> new Object[]{question.get("id"), question.get("question_text"),
+                            question.get("order_index"), question.get("bit_position"), question.get("is_active"),
+                            question.get("created_at")})
+                    .toList());
+        }
+        log.debug("Replicated {} questions to {} shards", questions.size(), shardRouter.getShardCount() - 1);
+    }
+
+    private JdbcTemplate catalogShard() {
+        return new JdbcTemplate(shardRoutingDataSource.shardDataSource(0));
+    }
+}
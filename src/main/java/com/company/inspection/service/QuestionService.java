@@ -1,8 +1,14 @@
 package com.company.inspection.service;
 
+import com.company.inspection.cache.InvalidationBus;
+import com.company.inspection.cache.InvalidationType;
+import com.company.inspection.cache.QuestionCatalogCache;
+import com.company.inspection.dto.response.QuestionnaireResponse;
 import com.company.inspection.entity.Question;
 import com.company.inspection.exception.ResourceNotFoundException;
 import com.company.inspection.repository.QuestionRepository;
+import com.company.inspection.repository.QuestionnaireVersionJdbcRepository;
+import com.company.inspection.repository.QuestionnaireVersionJdbcRepository.QuestionnaireVersion;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -17,15 +23,55 @@ import java.util.List;
 public class QuestionService {
 
     private final QuestionRepository questionRepository;
+    private final QuestionCatalogCache questionCatalogCache;
+    private final InvalidationBus invalidationBus;
+    private final QuestionReplicator questionReplicator;
+    private final QuestionnaireVersionJdbcRepository questionnaireVersionRepository;
 
     /**
-     * Get all active questions ordered by index
+     * Get all active questions ordered by index: the questions of the current questionnaire version
      */
     public List<Question> getAllActiveQuestions() {
-        log.debug("Fetching all active questions");
-        List<Question> questions = questionRepository.findByIsActiveTrueOrderByOrderIndex();
-        log.debug("Found {} active questions", questions.size());
-        return questions;
+        return getCurrentQuestionnaire().questions();
+    }
+
+    /**
+     * Get the current questionnaire version (its id is cached until any question changes)
+     */
+    public QuestionnaireVersion getCurrentQuestionnaire() {
+        long versionId = questionCatalogCache.getCurrentVersionId(() -> {
+            log.debug("Fetching current questionnaire version");
+            return questionnaireVersionRepository.findCurrentVersionId();
+        });
+        return getQuestionnaire(versionId);
+    }
+
+    /**
+     * Get a questionnaire version by ID (immutable, so cached without invalidation)
+     */
+    public QuestionnaireVersion getQuestionnaire(Long versionId) {
+        return questionCatalogCache.getVersion(versionId, id -> {
+                    log.debug("Fetching questionnaire version {}", id);
+                    return questionnaireVersionRepository.findVersion(id);
+                })
+                .orElseThrow(() -> {
+                    log.error("Questionnaire version not found with id: {}", versionId);
+                    return new ResourceNotFoundException("Questionnaire version not found with id: " + versionId);
+                });
+    }
+
+    public QuestionnaireResponse toResponse(QuestionnaireVersion questionnaire) {
+        return QuestionnaireResponse.builder()
+                .versionId(questionnaire.id())
+                .createdAt(questionnaire.createdAt())
+                .questions(questionnaire.questions().stream()
+                        .map(question -> QuestionnaireResponse.Question.builder()
+                                .id(question.getId())
+                                .questionText(question.getQuestionText())
+                                .orderIndex(question.getOrderIndex())
+                                .build())
+                        .toList())
+                .build();
     }
 
     /**
@@ -82,6 +128,7 @@ public class QuestionService {
     @Transactional
     public Question createQuestion(String questionText) {
         log.debug("Creating new question: {}", questionText);
+        questionnaireVersionRepository.lockEdits();
 
         // Get next order index
         Integer nextOrderIndex = questionRepository.findMaxOrderIndex() + 1;
@@ -89,10 +136,13 @@ public class QuestionService {
         Question question = Question.builder()
                 .questionText(questionText)
                 .orderIndex(nextOrderIndex)
+                .bitPosition(questionRepository.nextBitPosition())
                 .isActive(true)
                 .build();
 
         Question savedQuestion = questionRepository.save(question);
+        questionChanged(savedQuestion.getId());
+        publishVersion("Question " + savedQuestion.getId() + " created");
         log.info("Created new question with id: {} and order index: {}", savedQuestion.getId(), nextOrderIndex);
         return savedQuestion;
     }
@@ -103,11 +153,14 @@ public class QuestionService {
     @Transactional
     public Question updateQuestion(Long id, String questionText) {
         log.debug("Updating question with id: {}", id);
+        questionnaireVersionRepository.lockEdits();
 
         Question question = getQuestionById(id);
         question.setQuestionText(questionText);
 
         Question updatedQuestion = questionRepository.save(question);
+        questionChanged(id);
+        publishVersion("Question " + id + " updated");
         log.info("Updated question with id: {}", id);
         return updatedQuestion;
     }
@@ -118,11 +171,14 @@ public class QuestionService {
     @Transactional
     public Question toggleQuestionStatus(Long id) {
         log.debug("Toggling status for question with id: {}", id);
+        questionnaireVersionRepository.lockEdits();
 
         Question question = getQuestionById(id);
         question.setIsActive(!question.getIsActive());
 
         Question updatedQuestion = questionRepository.save(question);
+        questionChanged(id);
+        publishVersion("Question " + id + (updatedQuestion.getIsActive() ? " activated" : " deactivated"));
         log.info("Toggled question status with id: {} to {}", id, updatedQuestion.getIsActive());
         return updatedQuestion;
     }
@@ -133,6 +189,7 @@ public class QuestionService {
     @Transactional
     public void reorderQuestion(Long id, Integer newOrderIndex) {
         log.debug("Reordering question with id: {} to order index: {}", id, newOrderIndex);
+        questionnaireVersionRepository.lockEdits();
 
         Question question = getQuestionById(id);
         Integer oldOrderIndex = question.getOrderIndex();
@@ -149,17 +206,21 @@ public class QuestionService {
                     .findByIsActiveTrueAndOrderIndexBetweenOrderByOrderIndex(newOrderIndex, oldOrderIndex - 1);
             questionsToUpdate.forEach(q -> q.setOrderIndex(q.getOrderIndex() + 1));
             questionRepository.saveAll(questionsToUpdate);
+            questionsToUpdate.forEach(q -> questionChanged(q.getId()));
         } else {
             // Moving down: decrement order indexes between old and new position
             List<Question> questionsToUpdate = questionRepository
                     .findByIsActiveTrueAndOrderIndexBetweenOrderByOrderIndex(oldOrderIndex + 1, newOrderIndex);
             questionsToUpdate.forEach(q -> q.setOrderIndex(q.getOrderIndex() - 1));
             questionRepository.saveAll(questionsToUpdate);
+            questionsToUpdate.forEach(q -> questionChanged(q.getId()));
         }
 
         // Update target question
         question.setOrderIndex(newOrderIndex);
         questionRepository.save(question);
+        questionChanged(id);
+        publishVersion("Question " + id + " moved to position " + newOrderIndex);
 
         log.info("Reordered question with id: {} from {} to {}", id, oldOrderIndex, newOrderIndex);
     }
@@ -170,10 +231,13 @@ public class QuestionService {
     @Transactional
     public void deleteQuestion(Long id) {
         log.debug("Deleting question with id: {}", id);
+        questionnaireVersionRepository.lockEdits();
 
         Question question = getQuestionById(id);
         question.setIsActive(false);
         questionRepository.save(question);
+        questionChanged(id);
+        publishVersion("Question " + id + " deleted");
 
         log.info("Soft deleted question with id: {}", id);
     }
@@ -195,4 +259,17 @@ public class QuestionService {
         log.debug("Question exists with order index {}: {}", orderIndex, exists);
         return exists;
     }
-}
\ No newline at end of file
+
+    // Every committed edit is a new immutable version; the snapshot is taken in SQL from the questions table
+    private void publishVersion(String changeNote) {
+        questionRepository.flush();
+        long versionId = questionnaireVersionRepository.createVersion(changeNote);
+        log.info("Published questionnaire version {}: {}", versionId, changeNote);
+    }
+
+    // Other shards hold a copy of the catalog, other instances a cached one
+    private void questionChanged(Long id) {
+        invalidationBus.publish(InvalidationType.QUESTION, id);
+        questionReplicator.replicateAfterCommit(id);
+    }
+}
@@ -0,0 +1,154 @@
+package com.company.inspection.service;
+
+import com.company.inspection.datasource.ShardHolder;
+import com.company.inspection.datasource.ShardTemplate;
+import com.company.inspection.datasource.Traffic;
+import com.company.inspection.datasource.TrafficClass;
+import com.company.inspection.entity.Inspection;
+import com.company.inspection.entity.InspectionAnswer;
+import com.company.inspection.repository.DailyQuestionStatsJdbcRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Collects daily_question_stats deltas of committed inspections in memory and rolls them
+ * into the table in batches. Keeping the counter upserts off the request path avoids every
+ * createInspection locking the same (question, day) rows until it commits.
+ * Deltas still in memory when a node dies are restored by the nightly rebuild in
+ * {@link QuestionStatsService}. Each shard keeps the counters of its own cars, so deltas
+ * remember the shard their inspection was written to.
+ */
+@Component
+@Traffic(TrafficClass.BATCH)
+@RequiredArgsConstructor
+@Slf4j
+public class QuestionStatsAccumulator {
+
+    private final DailyQuestionStatsJdbcRepository statsJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardTemplate shardTemplate;
+
+    // Writers share the read lock; flush takes the write lock only to swap the map
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private Map<StatKey, Counters> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Record the answers of an inspection once the surrounding transaction commits
+     */
+    public void record(Inspection inspection) {
+        int shard = ShardHolder.current();
+        LocalDate statDate = inspection.getInspectionDate().toLocalDate();
+        List<InspectionAnswer> answers = List.copyOf(inspection.getAnswers());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addAnswers(shard, statDate, answers);
+                }
+            });
+        } else {
+            addAnswers(shard, statDate, answers);
+        }
+    }
+
+    private void addAnswers(int shard, LocalDate statDate, List<InspectionAnswer> answers) {
+        swapLock.readLock().lock();
+        try {
+            for (InspectionAnswer answer : answers) {
+                Counters counters = pending.computeIfAbsent(
+                        new StatKey(shard, statDate, answer.getQuestion().getId()), key -> new Counters());
+                if (answer.isYesAnswer()) {
+                    counters.yes.increment();
+                } else {
+                    counters.no.increment();
+                }
+                counters.photos.add(answer.getPhotoCount());
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Roll pending deltas into daily_question_stats
+     */
+    @Scheduled(fixedDelayString = "${inspection.stats.flush-interval-ms:5000}")
+    public void flush() {
+        Map<StatKey, Counters> batch;
+        swapLock.writeLock().lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new ConcurrentHashMap<>();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        Map<Integer, Map<StatKey, Counters>> batchByShard = new HashMap<>();
+        batch.forEach((key, counters) -> batchByShard.computeIfAbsent(key.shard(), shard -> new HashMap<>()).put(key, counters));
+        batchByShard.forEach(this::flushShard);
+    }
+
+    private void flushShard(int shard, Map<StatKey, Counters> batch) {
+        List<DailyQuestionStatsJdbcRepository.Delta> deltas = new ArrayList<>(batch.size());
+        batch.forEach((key, counters) -> deltas.add(new DailyQuestionStatsJdbcRepository.Delta(
+                key.statDate(), key.questionId(),
+                counters.yes.sum(), counters.no.sum(), counters.photos.sum())));
+
+        try {
+            shardTemplate.runOnShard(shard, () ->
+                    transactionTemplate.executeWithoutResult(status -> statsJdbcRepository.upsertDeltas(deltas)));
+            log.debug("Rolled {} question stats deltas into daily_question_stats of shard {}", deltas.size(), shard);
+        } catch (RuntimeException e) {
+            log.warn("Failed to roll {} question stats deltas of shard {}, retrying on next flush", deltas.size(), shard, e);
+            requeue(batch);
+        }
+    }
+
+    private void requeue(Map<StatKey, Counters> batch) {
+        swapLock.readLock().lock();
+        try {
+            batch.forEach((key, counters) -> {
+                Counters target = pending.computeIfAbsent(key, k -> new Counters());
+                target.yes.add(counters.yes.sum());
+                target.no.add(counters.no.sum());
+                target.photos.add(counters.photos.sum());
+            });
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private record StatKey(int shard, LocalDate statDate, Long questionId) {
+    }
+
+    private static final class Counters {
+        private final LongAdder yes = new LongAdder();
+        private final LongAdder no = new LongAdder();
+        private final LongAdder photos = new LongAdder();
+    }
+}
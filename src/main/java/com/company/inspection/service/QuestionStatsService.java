@@ -0,0 +1,191 @@
+package com.company.inspection.service;
+
+import com.company.inspection.datasource.ShardTemplate;
+import com.company.inspection.datasource.Traffic;
+import com.company.inspection.datasource.TrafficClass;
+import com.company.inspection.dto.response.QuestionStatsResponse;
+import com.company.inspection.entity.DailyQuestionStats;
+import com.company.inspection.repository.DailyQuestionStatsJdbcRepository;
+import com.company.inspection.repository.DailyQuestionStatsRepository;
+import com.company.inspection.repository.InspectionArchiveStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class QuestionStatsService {
+
+    private final DailyQuestionStatsRepository statsRepository;
+    private final DailyQuestionStatsJdbcRepository statsJdbcRepository;
+    private final QuestionStatsAccumulator statsAccumulator;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardTemplate shardTemplate;
+    private final InspectionArchiveStore archiveStore;
+
+    @Value("${inspection.stats.max-range-days:1830}")
+    private long maxRangeDays;
+
+    @Value("${inspection.archive.min-age-days:180}")
+    private long archiveMinAgeDays;
+
+    @Value("${inspection.partitioning.enabled:true}")
+    private boolean partitioningEnabled;
+
+    @Value("${inspection.partitioning.retention-months:0}")
+    private int retentionMonths;
+
+    /**
+     * Get the daily answer trend of a question; cost is one index range scan of at most one row per day
+     */
+    public QuestionStatsResponse getDailyTrend(Long questionId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        log.debug("Fetching daily stats for question: {} from {} to {}", questionId, from, to);
+
+        // Every shard counts its own cars; add up the rows of the same day
+        Map<LocalDate, DailyQuestionStats> statsByDay = shardTemplate.scatterGather(shard -> statsRepository
+                        .findByIdQuestionIdAndIdStatDateBetweenOrderByIdStatDate(questionId, from, to)).stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toMap(stats -> stats.getId().getStatDate(), Function.identity(), this::sum));
+
+        List<QuestionStatsResponse.DailyBucket> days = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            days.add(buildDailyBucket(day, statsByDay.get(day)));
+        }
+
+        return QuestionStatsResponse.builder()
+                .questionId(questionId)
+                .from(from)
+                .to(to)
+                .days(days)
+                .build();
+    }
+
+    private DailyQuestionStats sum(DailyQuestionStats left, DailyQuestionStats right) {
+        return DailyQuestionStats.builder()
+                .id(left.getId())
+                .yesCount(left.getYesCount() + right.getYesCount())
+                .noCount(left.getNoCount() + right.getNoCount())
+                .photoCount(left.getPhotoCount() + right.getPhotoCount())
+                .updatedAt(left.getUpdatedAt().isAfter(right.getUpdatedAt()) ? left.getUpdatedAt() : right.getUpdatedAt())
+                .build();
+    }
+
+    private QuestionStatsResponse.DailyBucket buildDailyBucket(LocalDate day, DailyQuestionStats stats) {
+        if (stats == null) {
+            return QuestionStatsResponse.DailyBucket.builder().date(day).build();
+        }
+        long answerCount = stats.getAnswerCount();
+        return QuestionStatsResponse.DailyBucket.builder()
+                .date(day)
+                .yesCount(stats.getYesCount())
+                .noCount(stats.getNoCount())
+                .photoCount(stats.getPhotoCount())
+                .yesRate(answerCount > 0 ? (double) stats.getYesCount() / answerCount : null)
+                .build();
+    }
+
+    /**
+     * Recompute the rollup for past days from the answer tables, one transaction per day and shard;
+     * returns the number of days rebuilt. Today is excluded because its counters are still being
+     * rolled in incrementally. Days whose inspections may have been archived or detached are kept
+     * as they are, since their source rows are gone: the range is clamped to the oldest day that
+     * is still complete, and a day without any inspection left on a shard is skipped there.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Traffic(TrafficClass.BATCH)
+    public int backfill(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        if (!to.isBefore(LocalDate.now()))
+            throw new IllegalArgumentException("Backfill range must end before today");
+
+        LocalDate first = from;
+        LocalDate oldestRebuildable = oldestRebuildableDay();
+        if (first.isBefore(oldestRebuildable)) {
+            log.info("Keeping the daily question stats before {}: their inspections were archived or detached", oldestRebuildable);
+            first = oldestRebuildable;
+        }
+        if (first.isAfter(to)) {
+            return 0;
+        }
+
+        log.info("Backfilling daily question stats from {} to {}", first, to);
+
+        // Make sure no in-memory delta for the range is rolled in on top of the rebuilt counters
+        statsAccumulator.flush();
+
+        int days = 0;
+        for (LocalDate day = first; !day.isAfter(to); day = day.plusDays(1)) {
+            LocalDate statDate = day;
+            boolean[] rebuilt = new boolean[1];
+            shardTemplate.forEachShard(shard -> {
+                Integer rows = transactionTemplate.execute(status -> statsJdbcRepository.hasInspections(statDate)
+                        ? statsJdbcRepository.rebuildDay(statDate) : null);
+                if (rows == null) {
+                    log.debug("No inspections left for {} on shard {}, keeping its question stats", statDate, shard);
+                    return;
+                }
+                rebuilt[0] = true;
+                log.debug("Rebuilt {} question stats rows for {} on shard {}", rows, statDate, shard);
+            });
+            if (rebuilt[0]) {
+                days++;
+            }
+        }
+
+        log.info("Backfilled {} days of daily question stats", days);
+        return days;
+    }
+
+    // Archival removes inspections older than min-age-days at the time it runs, so the day after
+    // today's cutoff is complete; partition retention detaches whole months
+    LocalDate oldestRebuildableDay() {
+        LocalDate oldest = LocalDate.MIN;
+        if (archiveStore.hasArchivedInspections()) {
+            oldest = LocalDate.now().minusDays(archiveMinAgeDays).plusDays(1);
+        }
+        if (partitioningEnabled && retentionMonths > 0) {
+            LocalDate firstAttached = YearMonth.now().minusMonths(retentionMonths).atDay(1);
+            if (firstAttached.isAfter(oldest)) {
+                oldest = firstAttached;
+            }
+        }
+        return oldest;
+    }
+
+    /**
+     * Nightly reconciliation of yesterday's counters (heals deltas lost with a crashed node)
+     */
+    @Scheduled(cron = "${inspection.stats.reconcile-cron:0 15 0 * * *}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Traffic(TrafficClass.BATCH)
+    public void reconcileYesterday() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        backfill(yesterday, yesterday);
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null)
+            throw new IllegalArgumentException("Date range 'from' and 'to' are required");
+        if (from.isAfter(to))
+            throw new IllegalArgumentException("Date range 'from' must not be after 'to'");
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays)
+            throw new IllegalArgumentException("Date range cannot exceed " + maxRangeDays + " days");
+    }
+}
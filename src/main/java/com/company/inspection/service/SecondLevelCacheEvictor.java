@@ -0,0 +1,82 @@
+package com.company.inspection.service;
+
+import com.company.inspection.cache.InvalidationHandler;
+import com.company.inspection.cache.InvalidationMessage;
+import com.company.inspection.dto.response.InspectionRecord;
+import com.company.inspection.entity.Inspection;
+import com.company.inspection.entity.InspectionAnswer;
+import com.company.inspection.entity.InspectionPhoto;
+import com.company.inspection.entity.Question;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Removes entries from the Hibernate second-level cache after rows were changed with plain
+ * SQL (archival, photo processing, detached partitions), which Hibernate cannot see,
+ * and after other instances changed them (see {@link com.company.inspection.cache.InvalidationBus}).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SecondLevelCacheEvictor implements InvalidationHandler {
+
+    private static final String ANSWERS_ROLE = Inspection.class.getName() + ".answers";
+    private static final String PHOTOS_ROLE = InspectionAnswer.class.getName() + ".photos";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public void evictInspections(Collection<InspectionRecord> records) {
+        Cache cache = cache();
+        for (InspectionRecord record : records) {
+            cache.evictEntityData(Inspection.class, record.getInspectionId());
+            cache.evictCollectionData(ANSWERS_ROLE, record.getInspectionId());
+            for (InspectionRecord.AnswerRecord answer : record.getAnswers()) {
+                cache.evictEntityData(InspectionAnswer.class, answer.getAnswerId());
+                cache.evictCollectionData(PHOTOS_ROLE, answer.getAnswerId());
+            }
+        }
+        log.debug("Evicted {} inspections from the second-level cache", records.size());
+    }
+
+    // When whole partitions disappear there is no list of ids to evict
+    public void evictAllInspectionData() {
+        Cache cache = cache();
+        cache.evictEntityData(Inspection.class);
+        cache.evictEntityData(InspectionAnswer.class);
+        cache.evictEntityData(InspectionPhoto.class);
+        cache.evictCollectionData(ANSWERS_ROLE);
+        cache.evictCollectionData(PHOTOS_ROLE);
+        log.info("Evicted all inspection data from the second-level cache");
+    }
+
+    @Override
+    public void onInvalidation(InvalidationMessage message) {
+        switch (message.type()) {
+            case QUESTION -> cache().evictEntityData(Question.class, Long.valueOf(message.key()));
+            case INSPECTION -> {
+                Long inspectionId = Long.valueOf(message.key());
+                cache().evictEntityData(Inspection.class, inspectionId);
+                cache().evictCollectionData(ANSWERS_ROLE, inspectionId);
+            }
+            case PHOTO -> cache().evictEntityData(InspectionPhoto.class, Long.valueOf(message.key()));
+            default -> {
+                // Nothing of the car itself is cached here
+            }
+        }
+    }
+
+    @Override
+    public void evictAll() {
+        cache().evictEntityData(Question.class);
+        evictAllInspectionData();
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.getCache().unwrap(Cache.class);
+    }
+}
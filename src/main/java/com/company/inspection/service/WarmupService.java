@@ -0,0 +1,139 @@
+package com.company.inspection.service;
+
+import com.company.inspection.datasource.ShardTemplate;
+import com.company.inspection.dto.response.InspectionResponse;
+import com.company.inspection.repository.InspectionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms the caches and the JIT after startup, while the readiness probe (see
+ * {@link com.company.inspection.health.WarmupHealthIndicator}) keeps traffic away: loads the
+ * question catalog, loads the previous inspection of the most recently inspected cars into the
+ * latest-inspection and second-level caches, and then replays {@code synthetic-requests} question
+ * lookups over those cars, serializing each response as the controller would. Runs on its own
+ * thread once the web server is up, so liveness answers meanwhile. Warm-up failures are logged
+ * and end the warm-up; they never keep the instance unready.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WarmupService {
+
+    private final QuestionService questionService;
+    private final InspectionService inspectionService;
+    private final InspectionRepository inspectionRepository;
+    private final ShardTemplate shardTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${inspection.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${inspection.warmup.cars:1000}")
+    private int cars;
+
+    @Value("${inspection.warmup.lookback-days:30}")
+    private int lookbackDays;
+
+    @Value("${inspection.warmup.synthetic-requests:2000}")
+    private int syntheticRequests;
+
+    @Value("${inspection.warmup.max-duration-seconds:120}")
+    private long maxDurationSeconds;
+
+    private volatile boolean complete;
+    private volatile String failure;
+    private volatile int warmedCars;
+    private volatile int replayedRequests;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            log.info("Startup warm-up is disabled");
+            complete = true;
+            return;
+        }
+        Thread warmupThread = new Thread(this::warmUp, "startup-warmup");
+        warmupThread.setDaemon(true);
+        warmupThread.start();
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public String getFailure() {
+        return failure;
+    }
+
+    public int getWarmedCars() {
+        return warmedCars;
+    }
+
+    public int getReplayedRequests() {
+        return replayedRequests;
+    }
+
+    void warmUp() {
+        long startNanos = System.nanoTime();
+        long deadline = startNanos + TimeUnit.SECONDS.toNanos(maxDurationSeconds);
+        try {
+            questionService.getAllActiveQuestions();
+
+            List<String> carIds = recentlyInspectedCars();
+            for (String carId : carIds) {
+                if (System.nanoTime() - deadline >= 0) {
+                    break;
+                }
+                inspectionService.getInspectionQuestions(carId);
+                warmedCars++;
+            }
+
+            for (int i = 0; i < syntheticRequests && !carIds.isEmpty(); i++) {
+                if (System.nanoTime() - deadline >= 0) {
+                    log.warn("Warm-up stopped after {} s", maxDurationSeconds);
+                    break;
+                }
+                replay(carIds.get(i % carIds.size()));
+                replayedRequests++;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Warm-up failed, accepting traffic anyway: {}", e.getMessage());
+            failure = e.getMessage();
+        } finally {
+            complete = true;
+        }
+
+        log.info("Warm-up finished in {} ms: {} cars loaded, {} requests replayed",
+                (System.nanoTime() - startNanos) / 1_000_000, warmedCars, replayedRequests);
+    }
+
+    private List<String> recentlyInspectedCars() {
+        LocalDateTime since = LocalDateTime.now().minusDays(lookbackDays);
+        int perShard = Math.ceilDiv(cars, shardTemplate.getShardCount());
+        List<String> carIds = new ArrayList<>();
+        shardTemplate.scatterGather(shard -> inspectionRepository.findRecentlyInspectedCarIds(since, perShard))
+                .forEach(carIds::addAll);
+        return carIds;
+    }
+
+    private void replay(String carId) {
+        InspectionResponse response = inspectionService.getInspectionQuestions(carId);
+        try {
+            objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize the questions of car " + carId, e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.company.inspection.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Sampling probability that keeps about {@code targetPerSecond} of the offered items per second.
+ *
+ * <p>The arrival rate is measured per window and smoothed across windows; the probability for
+ * the next window is the target divided by that rate, never below {@code minProbability}.
+ * Under light traffic everything is kept, and under a burst the kept volume stays flat.
+ */
+public class AdaptiveSampleRate {
+
+    private static final double SMOOTHING = 0.5;
+
+    private final double targetPerSecond;
+    private final double minProbability;
+    private final long windowNanos;
+    private final LongSupplier nanoClock;
+    private final DoubleSupplier random;
+
+    private double probability = 1.0;
+    private double rateEstimate = -1;
+    private long windowStartNanos;
+    private long offeredInWindow;
+
+    public AdaptiveSampleRate(double targetPerSecond, double minProbability, long windowNanos) {
+        this(targetPerSecond, minProbability, windowNanos, System::nanoTime, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    AdaptiveSampleRate(double targetPerSecond, double minProbability, long windowNanos,
+                       LongSupplier nanoClock, DoubleSupplier random) {
+        if (targetPerSecond < 0) {
+            throw new IllegalArgumentException("Target rate cannot be negative");
+        }
+        if (minProbability < 0 || minProbability > 1) {
+            throw new IllegalArgumentException("Minimum probability must be between 0 and 1");
+        }
+        if (windowNanos <= 0) {
+            throw new IllegalArgumentException("Window must be positive");
+        }
+        this.targetPerSecond = targetPerSecond;
+        this.minProbability = minProbability;
+        this.windowNanos = windowNanos;
+        this.nanoClock = nanoClock;
+        this.random = random;
+        this.windowStartNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Offer one item; returns whether it is kept
+     */
+    public boolean sample() {
+        double current;
+        synchronized (this) {
+            long now = nanoClock.getAsLong();
+            long elapsed = now - windowStartNanos;
+            if (elapsed >= windowNanos) {
+                double observed = offeredInWindow * 1e9 / elapsed;
+                rateEstimate = rateEstimate < 0 ? observed : SMOOTHING * observed + (1 - SMOOTHING) * rateEstimate;
+                probability = rateEstimate <= targetPerSecond
+                        ? 1.0
+                        : Math.max(minProbability, targetPerSecond / rateEstimate);
+                windowStartNanos = now;
+                offeredInWindow = 0;
+            }
+            offeredInWindow++;
+            current = probability;
+        }
+        return current >= 1.0 || random.getAsDouble() < current;
+    }
+
+    public synchronized double getProbability() {
+        return probability;
+    }
+}
@@ -0,0 +1,19 @@
+package com.company.inspection.tracing;
+
+import io.opentelemetry.api.common.AttributeKey;
+
+/**
+ * Attributes the inspection service adds to its spans
+ */
+public final class InspectionSpanAttributes {
+
+    public static final AttributeKey<Long> ANSWER_COUNT = AttributeKey.longKey("inspection.answer_count");
+    public static final AttributeKey<Long> PHOTO_COUNT = AttributeKey.longKey("inspection.photo_count");
+    // "hit", "miss" or "stale" for the latest-inspection cache
+    public static final AttributeKey<String> LATEST_CACHE = AttributeKey.stringKey("inspection.latest_cache");
+    // Set along with the ERROR status; unlike the status it can be read from a ReadableSpan without a snapshot
+    public static final AttributeKey<Boolean> ERROR = AttributeKey.booleanKey("error");
+
+    private InspectionSpanAttributes() {
+    }
+}
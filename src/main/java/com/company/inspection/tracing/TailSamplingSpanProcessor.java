@@ -0,0 +1,216 @@
+package com.company.inspection.tracing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides per trace, once its local root span has ended, whether the trace is exported.
+ * Traces with an error span and traces whose root took at least the slow threshold are always
+ * kept; healthy fast traces are kept at the {@link AdaptiveSampleRate}. Kept spans go to the
+ * delegate (a batch processor with a bounded queue), dropped ones are never serialized: the
+ * decision reads only the {@link InspectionSpanAttributes#ERROR} attribute and the latency of a
+ * span, so only kept spans are ever snapshot into span data.
+ *
+ * <p>Spans of unfinished traces wait in memory. Traces whose root never ends here (a child
+ * outliving its parent) are decided when they get older than the maximum trace age, and once
+ * {@code maxBufferedTraces} traces are waiting, further spans are decided on their own.
+ */
+public class TailSamplingSpanProcessor implements SpanProcessor {
+
+    enum Decision {
+        KEPT_ERROR,
+        KEPT_SLOW,
+        SAMPLED,
+        DROPPED;
+
+        boolean isKept() {
+            return this != DROPPED;
+        }
+    }
+
+    private final SpanProcessor delegate;
+    private final long slowThresholdNanos;
+    private final int maxBufferedTraces;
+    private final long maxTraceAgeNanos;
+    private final AdaptiveSampleRate healthyRate;
+    private final LongSupplier nanoClock;
+    private final Map<Decision, Counter> decisions = new EnumMap<>(Decision.class);
+
+    private final ConcurrentHashMap<String, TraceBuffer> traces = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweepNanos;
+
+    public TailSamplingSpanProcessor(SpanProcessor delegate, long slowThresholdNanos, int maxBufferedTraces,
+                                     long maxTraceAgeNanos, AdaptiveSampleRate healthyRate, MeterRegistry meterRegistry) {
+        this(delegate, slowThresholdNanos, maxBufferedTraces, maxTraceAgeNanos, healthyRate, meterRegistry, System::nanoTime);
+    }
+
+    TailSamplingSpanProcessor(SpanProcessor delegate, long slowThresholdNanos, int maxBufferedTraces,
+                              long maxTraceAgeNanos, AdaptiveSampleRate healthyRate, MeterRegistry meterRegistry,
+                              LongSupplier nanoClock) {
+        this.delegate = delegate;
+        this.slowThresholdNanos = slowThresholdNanos;
+        this.maxBufferedTraces = maxBufferedTraces;
+        this.maxTraceAgeNanos = maxTraceAgeNanos;
+        this.healthyRate = healthyRate;
+        this.nanoClock = nanoClock;
+        this.lastSweepNanos = new AtomicLong(nanoClock.getAsLong());
+        for (Decision decision : Decision.values()) {
+            decisions.put(decision, Counter.builder("inspection.tracing.traces")
+                    .tag("decision", decision.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    // Spans of one trace seen so far; closed once the trace has been decided
+    private static final class TraceBuffer {
+        final long createdNanos;
+        final List<ReadableSpan> spans = new ArrayList<>(4);
+        boolean error;
+        long maxLatencyNanos;
+        boolean closed;
+
+        TraceBuffer(long createdNanos) {
+            this.createdNanos = createdNanos;
+        }
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+        if (delegate.isStartRequired()) {
+            delegate.onStart(parentContext, span);
+        }
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return delegate.isStartRequired();
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        boolean error = Boolean.TRUE.equals(span.getAttribute(InspectionSpanAttributes.ERROR));
+        String traceId = span.getSpanContext().getTraceId();
+
+        if (isLocalRoot(span)) {
+            List<ReadableSpan> spans = new ArrayList<>();
+            TraceBuffer buffer = traces.remove(traceId);
+            if (buffer != null) {
+                synchronized (buffer) {
+                    buffer.closed = true;
+                    spans.addAll(buffer.spans);
+                    error |= buffer.error;
+                }
+            }
+            spans.add(span);
+            decide(spans, error, span.getLatencyNanos());
+        } else if (!buffer(traceId, span, error)) {
+            decide(List.of(span), error, span.getLatencyNanos());
+        }
+
+        sweepIfDue();
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    // False when the span cannot wait for its trace (buffer full or trace already decided)
+    private boolean buffer(String traceId, ReadableSpan span, boolean error) {
+        TraceBuffer buffer = traces.get(traceId);
+        if (buffer == null) {
+            if (traces.size() >= maxBufferedTraces) {
+                return false;
+            }
+            buffer = traces.computeIfAbsent(traceId, id -> new TraceBuffer(nanoClock.getAsLong()));
+        }
+        synchronized (buffer) {
+            if (buffer.closed) {
+                return false;
+            }
+            buffer.spans.add(span);
+            buffer.error |= error;
+            buffer.maxLatencyNanos = Math.max(buffer.maxLatencyNanos, span.getLatencyNanos());
+            return true;
+        }
+    }
+
+    private Decision decide(List<ReadableSpan> spans, boolean error, long latencyNanos) {
+        Decision decision;
+        if (error) {
+            decision = Decision.KEPT_ERROR;
+        } else if (latencyNanos >= slowThresholdNanos) {
+            decision = Decision.KEPT_SLOW;
+        } else {
+            decision = healthyRate.sample() ? Decision.SAMPLED : Decision.DROPPED;
+        }
+
+        decisions.get(decision).increment();
+        if (decision.isKept()) {
+            spans.forEach(delegate::onEnd);
+        }
+        return decision;
+    }
+
+    // At most one sweep per maximum trace age, run by whichever thread ends a span first
+    private void sweepIfDue() {
+        long now = nanoClock.getAsLong();
+        long last = lastSweepNanos.get();
+        if (now - last >= maxTraceAgeNanos && lastSweepNanos.compareAndSet(last, now)) {
+            sweep(now - maxTraceAgeNanos);
+        }
+    }
+
+    // Decide the traces created before the given time with the spans they have
+    private void sweep(long createdBeforeNanos) {
+        traces.forEach((traceId, buffer) -> {
+            if (buffer.createdNanos - createdBeforeNanos < 0 && traces.remove(traceId, buffer)) {
+                List<ReadableSpan> spans;
+                boolean error;
+                long latency;
+                synchronized (buffer) {
+                    buffer.closed = true;
+                    spans = List.copyOf(buffer.spans);
+                    error = buffer.error;
+                    latency = buffer.maxLatencyNanos;
+                }
+                decide(spans, error, latency);
+            }
+        });
+    }
+
+    int getBufferedTraceCount() {
+        return traces.size();
+    }
+
+    private static boolean isLocalRoot(ReadableSpan span) {
+        SpanContext parent = span.getParentSpanContext();
+        return !parent.isValid() || parent.isRemote();
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        return delegate.forceFlush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        sweep(nanoClock.getAsLong() + 1);
+        return delegate.shutdown();
+    }
+}
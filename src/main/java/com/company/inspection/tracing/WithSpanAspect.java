@@ -0,0 +1,44 @@
+package com.company.inspection.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns {@link WithSpan} methods into spans of the in-process tracer, made current for the
+ * duration of the call so the method can add attributes through {@link Span#current()}.
+ * A thrown exception is recorded and marks the span as an error.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class WithSpanAspect {
+
+    private final Tracer tracer;
+
+    @Around("@annotation(withSpan)")
+    public Object trace(ProceedingJoinPoint joinPoint, WithSpan withSpan) throws Throwable {
+        String name = withSpan.value().isEmpty()
+                ? joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName()
+                : withSpan.value();
+
+        Span span = tracer.spanBuilder(name).setSpanKind(withSpan.kind()).startSpan();
+        try (Scope ignored = span.makeCurrent()) {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR, e.getClass().getSimpleName());
+            span.setAttribute(InspectionSpanAttributes.ERROR, true);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
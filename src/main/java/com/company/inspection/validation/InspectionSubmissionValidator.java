@@ -0,0 +1,145 @@
+package com.company.inspection.validation;
+
+import com.company.inspection.dto.request.CreateInspectionRequest;
+import com.company.inspection.entity.InspectionAnswer;
+import com.company.inspection.entity.Question;
+import com.company.inspection.exception.ResourceNotFoundException;
+import com.company.inspection.repository.QuestionnaireVersionJdbcRepository.QuestionnaireVersion;
+import com.company.inspection.service.QuestionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Validates an inspection submission in a single pass over its answers and reports every
+ * violation instead of stopping at the first one. Besides the per-question rules it checks that
+ * each question is part of the questionnaire version being answered (the requested one, else the
+ * current one) and is answered only once, and resolves the questions and answer types so the
+ * answers need not be looked up or parsed again.
+ *
+ * <p>The rules are compiled into a table keyed by question id and reused while the same
+ * questionnaire version is answered. Field-level constraints (sizes, blank values) are left to Bean Validation on
+ * {@link CreateInspectionRequest}; only what this pass relies on is checked again.
+ */
+@Component
+@RequiredArgsConstructor
+public class InspectionSubmissionValidator {
+
+    private final QuestionService questionService;
+
+    private volatile CompiledRules compiledRules;
+
+    private record CompiledRules(List<Question> catalog, Map<Long, QuestionRule> rules) {
+    }
+
+    public ValidationResult validate(CreateInspectionRequest request) {
+        List<Violation> violations = new ArrayList<>();
+        if (request.getCarId() == null || request.getCarId().isBlank()) {
+            violations.add(new Violation("carId", "Car ID cannot be blank"));
+        }
+        List<CreateInspectionRequest.AnswerRequest> answers = request.getAnswers();
+        if (answers == null || answers.isEmpty()) {
+            violations.add(new Violation("answers", "Answers cannot be empty"));
+            return new ValidationResult(violations, List.of(), null);
+        }
+
+        QuestionnaireVersion questionnaire;
+        try {
+            questionnaire = request.getQuestionnaireVersionId() != null
+                    ? questionService.getQuestionnaire(request.getQuestionnaireVersionId())
+                    : questionService.getCurrentQuestionnaire();
+        } catch (ResourceNotFoundException e) {
+            violations.add(new Violation("questionnaireVersionId", e.getMessage()));
+            return new ValidationResult(violations, List.of(), null);
+        }
+
+        Map<Long, QuestionRule> rules = rules(questionnaire.questions());
+        List<ValidatedAnswer> validated = new ArrayList<>(answers.size());
+        Set<Long> answeredQuestions = new HashSet<>(answers.size() * 2);
+
+        for (int i = 0; i < answers.size(); i++) {
+            CreateInspectionRequest.AnswerRequest answer = answers.get(i);
+            int violationsBefore = violations.size();
+
+            QuestionRule rule = null;
+            Long questionId = answer.getQuestionId();
+            if (questionId == null) {
+                violations.add(new Violation(field(i, "questionId"), "Question ID cannot be null"));
+            } else if (!answeredQuestions.add(questionId)) {
+                violations.add(new Violation(field(i, "questionId"), "Question " + questionId + " is answered more than once"));
+            } else {
+                rule = rules.get(questionId);
+                if (rule == null) {
+                    violations.add(new Violation(field(i, "questionId"), "Question " + questionId + " does not exist or is not active"));
+                }
+            }
+
+            InspectionAnswer.AnswerType answerType = parseAnswer(answer.getAnswer());
+            if (answerType == null) {
+                violations.add(new Violation(field(i, "answer"), "Answer must be YES or NO"));
+            } else if (rule != null) {
+                checkRule(rule, answerType, answer, i, violations);
+            }
+
+            if (violations.size() == violationsBefore) {
+                validated.add(new ValidatedAnswer(rule.question(), answerType, answer));
+            }
+        }
+        return new ValidationResult(violations, validated, questionnaire.id());
+    }
+
+    private static void checkRule(QuestionRule rule, InspectionAnswer.AnswerType answerType,
+                                  CreateInspectionRequest.AnswerRequest answer, int index, List<Violation> violations) {
+        int photos = answer.getPhotoUrls() != null ? answer.getPhotoUrls().size() : 0;
+        if (photos > rule.maxPhotos()) {
+            violations.add(new Violation(field(index, "photoUrls"), "Maximum " + rule.maxPhotos() + " photos allowed"));
+        }
+        if (answerType != InspectionAnswer.AnswerType.YES) {
+            return;
+        }
+        if (rule.descriptionRequiredOnYes() && (answer.getDescription() == null || answer.getDescription().isBlank())) {
+            violations.add(new Violation(field(index, "description"), "Description required for YES answers"));
+        }
+        if (photos < rule.minPhotosOnYes()) {
+            violations.add(new Violation(field(index, "photoUrls"), "Photos required for YES answers"));
+        }
+    }
+
+    // Case-insensitive without allocating an upper-cased copy
+    static InspectionAnswer.AnswerType parseAnswer(String answer) {
+        if (answer == null) {
+            return null;
+        }
+        if (answer.equalsIgnoreCase("YES")) {
+            return InspectionAnswer.AnswerType.YES;
+        }
+        if (answer.equalsIgnoreCase("NO")) {
+            return InspectionAnswer.AnswerType.NO;
+        }
+        return null;
+    }
+
+    // The catalog cache hands out the same list for a questionnaire version
+    private Map<Long, QuestionRule> rules(List<Question> catalog) {
+        CompiledRules compiled = compiledRules;
+        if (compiled == null || compiled.catalog() != catalog) {
+            Map<Long, QuestionRule> rules = new HashMap<>(catalog.size() * 2);
+            for (Question question : catalog) {
+                rules.put(question.getId(), QuestionRule.forQuestion(question));
+            }
+            compiled = new CompiledRules(catalog, rules);
+            compiledRules = compiled;
+        }
+        return compiled.rules();
+    }
+
+    private static String field(int index, String property) {
+        return "answers[" + index + "]." + property;
+    }
+}
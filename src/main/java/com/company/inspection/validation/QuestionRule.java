@@ -0,0 +1,16 @@
+package com.company.inspection.validation;
+
+import com.company.inspection.entity.Question;
+
+/**
+ * What an answer to one question has to provide. All questions share the same rule today;
+ * question-specific rules only have to be added in {@link #forQuestion}.
+ */
+record QuestionRule(Question question, boolean descriptionRequiredOnYes, int minPhotosOnYes, int maxPhotos) {
+
+    static final int MAX_PHOTOS = 3;
+
+    static QuestionRule forQuestion(Question question) {
+        return new QuestionRule(question, true, 1, MAX_PHOTOS);
+    }
+}
@@ -0,0 +1,16 @@
+package com.company.inspection.validation;
+
+import com.company.inspection.dto.request.CreateInspectionRequest;
+import com.company.inspection.entity.InspectionAnswer;
+import com.company.inspection.entity.Question;
+
+/**
+ * An answer that passed validation, with its question resolved and its answer parsed
+ */
+public record ValidatedAnswer(Question question, InspectionAnswer.AnswerType answerType,
+                              CreateInspectionRequest.AnswerRequest request) {
+
+    public boolean isYes() {
+        return answerType == InspectionAnswer.AnswerType.YES;
+    }
+}
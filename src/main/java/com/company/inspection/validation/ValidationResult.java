@@ -0,0 +1,15 @@
+package com.company.inspection.validation;
+
+import java.util.List;
+
+/**
+ * Outcome of validating a submission: every violation found, the validated answers in request
+ * order and the questionnaire version they were checked against (only meaningful when there are
+ * no violations)
+ */
+public record ValidationResult(List<Violation> violations, List<ValidatedAnswer> answers, Long questionnaireVersionId) {
+
+    public boolean isValid() {
+        return violations.isEmpty();
+    }
+}
@@ -0,0 +1,9 @@
+package com.company.inspection.validation;
+
+/**
+ * One problem found in a request
+ *
+ * @param field property path of the offending value, e.g. {@code answers[2].photoUrls}
+ */
+public record Violation(String field, String message) {
+}
@@ -0,0 +1,15 @@
+-- data-sharded.sql - question catalog for shard 0 when running with the 'sharded' profile.
+-- Sample inspections from data.sql are left out: their ids do not follow the per-shard id stride.
+
+INSERT INTO questions (question_text, order_index, bit_position, is_active) VALUES
+('Araçta dış hasar var mı?', 1, 0, true),
+('Motor ile ilgili sorun var mı?', 2, 1, true),
+('Lastiklerde aşınma var mı?', 3, 2, true);
+
+-- New questions continue after the seeded bit positions
+SELECT setval('question_bit_positions', MAX(bit_position)) FROM questions;
+
+-- First questionnaire version: snapshot of the active questions above
+INSERT INTO questionnaire_versions (change_note) VALUES ('Initial catalog');
+INSERT INTO questionnaire_version_questions (version_id, question_id, question_text, order_index)
+SELECT (SELECT MAX(id) FROM questionnaire_versions), id, question_text, order_index FROM questions WHERE is_active;
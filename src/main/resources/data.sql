@@ -1,29 +1,42 @@
 -- simple_data.sql - H2 veritabanı için basit versiyon
 
 -- Questions tablosuna veri ekliyoruz
-INSERT INTO questions (question_text, order_index, is_active) VALUES
-('Araçta dış hasar var mı?', 1, true),
-('Motor ile ilgili sorun var mı?', 2, true),
-('Lastiklerde aşınma var mı?', 3, true);
+INSERT INTO questions (question_text, order_index, bit_position, is_active) VALUES
+('Araçta dış hasar var mı?', 1, 0, true),
+('Motor ile ilgili sorun var mı?', 2, 1, true),
+('Lastiklerde aşınma var mı?', 3, 2, true);
+
+-- New questions continue after the seeded bit positions
+SELECT setval('question_bit_positions', MAX(bit_position)) FROM questions;
+
+-- First questionnaire version: snapshot of the active questions above
+INSERT INTO questionnaire_versions (change_note) VALUES ('Initial catalog');
+INSERT INTO questionnaire_version_questions (version_id, question_id, question_text, order_index)
+SELECT (SELECT MAX(id) FROM questionnaire_versions), id, question_text, order_index FROM questions WHERE is_active;
 
 -- Inspections tablosuna veri ekliyoruz
-INSERT INTO inspections (car_id, inspection_date, status) VALUES
-('ABC123', TIMESTAMP '2024-01-15 10:30:00', 'COMPLETED'),
-('ABC123', TIMESTAMP '2024-01-15 10:40:00', 'IN_PROGRESS'),
-('XYZ789', TIMESTAMP '2024-01-10 14:15:00', 'COMPLETED');
+INSERT INTO inspections (car_id, inspection_date, status, completed, answered_bits, yes_bits) VALUES
+('ABC123', TIMESTAMP '2024-01-15 10:30:00', 'COMPLETED', true, '{7}', '{5}'),
+('ABC123', TIMESTAMP '2024-01-15 10:40:00', 'IN_PROGRESS', false, '{3}', '{2}'),
+('XYZ789', TIMESTAMP '2024-01-10 14:15:00', 'COMPLETED', true, '{}', '{}');
 
 -- inspection_answers tablosuna veri ekliyoruz
-INSERT INTO inspection_answers (inspection_id, question_id, answer, description) VALUES
-(1, 1, 'YES', 'Sol kapıda çizik mevcut'),
-(1, 2, 'NO', NULL),
-(1, 3, 'YES', 'Ön lastiklerde hafif aşınma'),
-(2, 1, 'NO', NULL),
-(2, 2, 'YES', 'Motor yağı sızıntısı');
+INSERT INTO inspection_answers (inspection_id, inspection_date, question_id, answer, description) VALUES
+(1, TIMESTAMP '2024-01-15 10:30:00', 1, 'YES', 'Sol kapıda çizik mevcut'),
+(1, TIMESTAMP '2024-01-15 10:30:00', 2, 'NO', NULL),
+(1, TIMESTAMP '2024-01-15 10:30:00', 3, 'YES', 'Ön lastiklerde hafif aşınma'),
+(2, TIMESTAMP '2024-01-15 10:40:00', 1, 'NO', NULL),
+(2, TIMESTAMP '2024-01-15 10:40:00', 2, 'YES', 'Motor yağı sızıntısı');
 
 -- inspection_photos tablosuna veri ekliyoruz
-INSERT INTO inspection_photos (answer_id, photo_url, is_new) VALUES
-(1, 'https://example-cloud.com/photos/abc123-door-scratch-1.jpg', false),
-(1, 'https://example-cloud.com/photos/abc123-door-scratch-2.jpg', false),
-(3, 'https://example-cloud.com/photos/abc123-tire-wear-1.jpg', false),
-(5, 'https://example-cloud.com/photos/xyz789-engine-leak-1.jpg', false),
-(5, 'https://example-cloud.com/photos/xyz789-engine-leak-2.jpg', false);
\ No newline at end of file
+INSERT INTO inspection_photos (answer_id, inspection_date, photo_url, is_new) VALUES
+(1, TIMESTAMP '2024-01-15 10:30:00', 'https://example-cloud.com/photos/abc123-door-scratch-1.jpg', false),
+(1, TIMESTAMP '2024-01-15 10:30:00', 'https://example-cloud.com/photos/abc123-door-scratch-2.jpg', false),
+(3, TIMESTAMP '2024-01-15 10:30:00', 'https://example-cloud.com/photos/abc123-tire-wear-1.jpg', false),
+(5, TIMESTAMP '2024-01-15 10:40:00', 'https://example-cloud.com/photos/xyz789-engine-leak-1.jpg', false),
+(5, TIMESTAMP '2024-01-15 10:40:00', 'https://example-cloud.com/photos/xyz789-engine-leak-2.jpg', false);
+
+-- car_inspection_schedules: next due date of the inspected cars (365-day interval)
+INSERT INTO car_inspection_schedules (car_id, interval_days, last_inspection_at, next_due_at) VALUES
+('ABC123', 365, TIMESTAMP '2024-01-15 10:30:00', TIMESTAMP '2025-01-14 10:30:00'),
+('XYZ789', 365, TIMESTAMP '2024-01-10 14:15:00', TIMESTAMP '2025-01-09 14:15:00');
@@ -1,61 +1,190 @@
 -- schema.sql
 
 -- Drop tables if they exist to allow for clean re-creation (useful for development/testing)
+DROP TABLE IF EXISTS archive_location;
+DROP TABLE IF EXISTS shard_layout;
+DROP TABLE IF EXISTS car_inspection_schedules;
+DROP TABLE IF EXISTS maintenance_checkpoints;
+DROP TABLE IF EXISTS daily_question_stats;
 DROP TABLE IF EXISTS inspection_photos;
 DROP TABLE IF EXISTS inspection_answers;
 DROP TABLE IF EXISTS inspections;
+DROP TABLE IF EXISTS questionnaire_version_questions;
+DROP TABLE IF EXISTS questionnaire_versions;
 DROP TABLE IF EXISTS questions;
+DROP SEQUENCE IF EXISTS question_bit_positions;
 
 -- 1. questions table
 CREATE TABLE questions (
     id BIGSERIAL PRIMARY KEY, -- BIGSERIAL for auto-incrementing BIGINT primary key
     question_text VARCHAR(500) NOT NULL UNIQUE, -- Question text, cannot be null, must be unique
     order_index INTEGER NOT NULL, -- Order of the question, cannot be null
+    bit_position INTEGER NOT NULL UNIQUE, -- Position in the answer bitmaps of inspections, never reused
     is_active BOOLEAN NOT NULL DEFAULT TRUE, -- Is the question active? Default to true
     created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP -- Timestamp of creation
 );
 
+-- Bit positions for new questions; a rolled-back question leaves a gap, positions are never reused
+CREATE SEQUENCE question_bit_positions MINVALUE 0 START WITH 0;
+
+-- 1a. questionnaire_versions / questionnaire_version_questions (immutable snapshots of the active catalog)
+-- Every change to questions adds a version; rows are never updated or deleted. Versions live on the
+-- catalog shard (shard 0) only.
+CREATE TABLE questionnaire_versions (
+    id BIGSERIAL PRIMARY KEY, -- Version id, increasing; the highest one is the current questionnaire
+    change_note VARCHAR(200), -- What changed, e.g. 'Question 3 updated'
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP -- When the version was published
+);
+
+CREATE TABLE questionnaire_version_questions (
+    version_id BIGINT NOT NULL REFERENCES questionnaire_versions(id), -- Version the snapshot belongs to
+    question_id BIGINT NOT NULL REFERENCES questions(id), -- Question (identity and bit position stay in questions)
+    question_text VARCHAR(500) NOT NULL, -- Text as of this version
+    order_index INTEGER NOT NULL, -- Position as of this version
+    PRIMARY KEY (version_id, question_id)
+);
+
 -- 2. inspections table
+-- Range partitioned by month on inspection_date. Monthly partitions are created ahead of time
+-- (and old ones detached) by PartitionMaintenanceService; rows outside every monthly partition
+-- land in the default partition.
 CREATE TABLE inspections (
-    id BIGSERIAL PRIMARY KEY, -- BIGSERIAL for auto-incrementing BIGINT primary key
+    id BIGSERIAL, -- BIGSERIAL for auto-incrementing BIGINT primary key
     car_id VARCHAR(100) NOT NULL, -- ID of the car, cannot be null
-    inspection_date TIMESTAMP WITH TIME ZONE NOT NULL, -- Date and time of the inspection
-    status VARCHAR(20) NOT NULL, -- Status of the inspection (e.g., 'COMPLETED', 'IN_PROGRESS')
-    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP -- Timestamp of record creation
-);
+    inspection_date TIMESTAMP WITH TIME ZONE NOT NULL, -- Date and time of the inspection (partition key)
+    status VARCHAR(20), -- Legacy status column (e.g., 'COMPLETED', 'IN_PROGRESS'), superseded by completed
+    completed BOOLEAN NOT NULL DEFAULT FALSE, -- Set once all answers are stored (Inspection.completed)
+    version BIGINT NOT NULL DEFAULT 0, -- Optimistic lock version (Inspection.version)
+    questionnaire_version_id BIGINT, -- Questionnaire version answered (no FK: versions live on shard 0; NULL = before versioning)
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP, -- Timestamp of record creation
+    answered_bits BIGINT[], -- Bitmap of answered questions by questions.bit_position, 64 per element (NULL = not encoded yet)
+    yes_bits BIGINT[], -- Bitmap of questions answered YES, same layout
+
+    -- The partition key has to be part of the primary key
+    PRIMARY KEY (id, inspection_date)
+) PARTITION BY RANGE (inspection_date);
+
+CREATE TABLE inspections_default PARTITION OF inspections DEFAULT;
 
 -- Add an index on car_id for faster lookups
 CREATE INDEX idx_inspections_car_id ON inspections (car_id);
+-- Latest inspection per car within a date window
+CREATE INDEX idx_inspections_car_id_inspection_date ON inspections (car_id, inspection_date DESC);
 -- Add a unique constraint to ensure only one question text is allowed
 -- (This might be redundant if the Question entity handles it, but good for DB level)
 -- ALTER TABLE questions ADD CONSTRAINT unique_question_text UNIQUE (question_text);
 
 
 -- 3. inspection_answers table
+-- Range partitioned by month on inspection_date, which is copied from the inspection, so the
+-- answers of an inspection live in the partition matching its own and lookups that carry the
+-- inspection date (or join on it) touch a single partition.
+-- Keys on a partitioned table have to contain the partition key: the foreign key to inspections
+-- goes through (id, inspection_date), and since an inspection has a single date, the unique key
+-- below still allows only one answer per question and inspection.
 CREATE TABLE inspection_answers (
-    id BIGSERIAL PRIMARY KEY, -- BIGSERIAL for auto-incrementing BIGINT primary key
-    inspection_id BIGINT NOT NULL, -- Foreign key to inspections table
+    id BIGSERIAL, -- BIGSERIAL for auto-incrementing BIGINT primary key
+    inspection_id BIGINT NOT NULL, -- Foreign key to inspections table (together with inspection_date)
+    inspection_date TIMESTAMP WITH TIME ZONE NOT NULL, -- inspections.inspection_date of that inspection (partition key)
     question_id BIGINT NOT NULL, -- Foreign key to questions table
     answer VARCHAR(10) NOT NULL, -- The answer ('YES' or 'NO'), cannot be null
     description TEXT, -- Optional description for the answer
+    description_tsv TSVECTOR GENERATED ALWAYS AS (to_tsvector('simple', COALESCE(description, ''))) STORED, -- Full-text search vector, maintained by Postgres on insert
     created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP, -- Timestamp of creation
 
     -- Foreign key constraints
-    CONSTRAINT fk_inspection_answers_inspection FOREIGN KEY (inspection_id) REFERENCES inspections(id) ON DELETE CASCADE,
+    CONSTRAINT fk_inspection_answers_inspection FOREIGN KEY (inspection_id, inspection_date) REFERENCES inspections(id, inspection_date) ON DELETE CASCADE,
     CONSTRAINT fk_inspection_answers_question FOREIGN KEY (question_id) REFERENCES questions(id) ON DELETE RESTRICT,
 
-    -- Ensure a question is answered only once per inspection
-    UNIQUE (inspection_id, question_id)
-);
+    -- Ensure a question is answered only once per inspection; also serves the answers of an inspection
+    CONSTRAINT uq_inspection_answers_question UNIQUE (inspection_id, question_id, inspection_date),
+
+    PRIMARY KEY (id, inspection_date)
+) PARTITION BY RANGE (inspection_date);
+
+CREATE TABLE inspection_answers_default PARTITION OF inspection_answers DEFAULT;
+
+-- Full-text search over answer descriptions
+CREATE INDEX idx_inspection_answers_description_tsv ON inspection_answers USING GIN (description_tsv);
 
 -- 4. inspection_photos table
+-- Not partitioned; the inspection date of the answer is carried along for the foreign key. Before
+-- an answer partition is detached, PartitionMaintenanceService moves its photos out of this table.
 CREATE TABLE inspection_photos (
     id BIGSERIAL PRIMARY KEY, -- BIGSERIAL for auto-incrementing BIGINT primary key
-    answer_id BIGINT NOT NULL, -- Foreign key to inspection_answers table
+    answer_id BIGINT NOT NULL, -- Foreign key to inspection_answers table (together with inspection_date)
+    inspection_date TIMESTAMP WITH TIME ZONE NOT NULL, -- inspection_answers.inspection_date of that answer
     photo_url VARCHAR(500) NOT NULL, -- URL of the photo, cannot be null
     is_new BOOLEAN NOT NULL, -- Is this a newly taken photo?
     uploaded_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP, -- Timestamp when the photo was uploaded
+    processing_status VARCHAR(10) NOT NULL DEFAULT 'PENDING', -- PENDING, PROCESSING, DONE, SKIPPED (not a local image) or FAILED
+    processing_attempts SMALLINT NOT NULL DEFAULT 0, -- Number of times a worker claimed the photo
+    claimed_at TIMESTAMP WITH TIME ZONE, -- When the current worker claimed it; older claims are taken over
+    image_format VARCHAR(10), -- Format detected from the file content, e.g. jpeg or png
+    width INTEGER, -- Pixel width of the original
+    height INTEGER, -- Pixel height of the original
+    captured_at TIMESTAMP, -- EXIF capture time (camera local time), if present
+    thumbnail_url VARCHAR(500), -- Downsized JPEG in the local photo store
+    processed_at TIMESTAMP WITH TIME ZONE, -- When the metadata was extracted
 
     -- Foreign key constraint
-    CONSTRAINT fk_inspection_photos_answer FOREIGN KEY (answer_id) REFERENCES inspection_answers(id) ON DELETE CASCADE
-);
\ No newline at end of file
+    CONSTRAINT fk_inspection_photos_answer FOREIGN KEY (answer_id, inspection_date) REFERENCES inspection_answers(id, inspection_date) ON DELETE CASCADE
+);
+
+-- Add an index on answer_id for photo lookups per answer
+CREATE INDEX idx_inspection_photos_answer_id ON inspection_photos (answer_id);
+-- Reference checks of the photo garbage collector
+CREATE INDEX idx_inspection_photos_photo_url ON inspection_photos (photo_url);
+CREATE INDEX idx_inspection_photos_thumbnail_url ON inspection_photos (thumbnail_url);
+-- Work queue of the photo processing workers; stays small since finished photos leave it
+CREATE INDEX idx_inspection_photos_processing ON inspection_photos (id) WHERE processing_status IN ('PENDING', 'PROCESSING');
+
+-- 5. daily_question_stats table (per-question daily rollup of answers)
+CREATE TABLE daily_question_stats (
+    stat_date DATE NOT NULL, -- Day of the inspection
+    question_id BIGINT NOT NULL, -- Question the counters belong to
+    yes_count BIGINT NOT NULL DEFAULT 0, -- Number of YES answers on that day
+    no_count BIGINT NOT NULL DEFAULT 0, -- Number of NO answers on that day
+    photo_count BIGINT NOT NULL DEFAULT 0, -- Number of photos attached on that day
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP, -- Last time the counters changed
+
+    -- One row per question and day; also serves per-question date range scans
+    PRIMARY KEY (question_id, stat_date)
+);
+-- 6. maintenance_checkpoints table (resume positions of background maintenance jobs)
+CREATE TABLE maintenance_checkpoints (
+    name VARCHAR(100) PRIMARY KEY, -- Job name, e.g. 'photo-gc.files'
+    position VARCHAR(1000), -- Last processed key; NULL once a full pass has completed
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP -- Last time the position moved
+);
+
+-- 7. car_inspection_schedules table (when each car is due for its next inspection)
+CREATE TABLE car_inspection_schedules (
+    car_id VARCHAR(100) PRIMARY KEY, -- ID of the car
+    interval_days INTEGER NOT NULL, -- Days between two inspections of the car
+    last_inspection_at TIMESTAMP WITH TIME ZONE, -- Latest completed inspection (NULL = never inspected)
+    next_due_at TIMESTAMP WITH TIME ZONE NOT NULL, -- last_inspection_at + interval_days; when the interval was set if never inspected
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP -- Last time the schedule changed
+);
+
+-- Overdue and due-soon queries are range scans in due order
+CREATE INDEX idx_car_inspection_schedules_next_due_at ON car_inspection_schedules (next_due_at, car_id);
+
+-- 8. shard_layout table (the hash ring this shard's cars were placed with, see ShardSchemaInitializer)
+-- A single row, written when the shard is first started sharded and whenever its cars have been
+-- verified against a changed ring.
+CREATE TABLE shard_layout (
+    shard_index INTEGER NOT NULL, -- Position of this database in inspection.sharding.urls
+    shard_count INTEGER NOT NULL, -- Number of shards on the ring
+    virtual_nodes INTEGER NOT NULL, -- inspection.sharding.virtual-nodes
+    recorded_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP -- When the layout was verified
+);
+
+-- 9. archive_location table (the archive directory this database's inspections were archived into)
+-- A single row, written by the first archival run; instances whose inspection.archive.directory
+-- holds a different archive refuse to archive or read archived history (see InspectionArchivalService).
+CREATE TABLE archive_location (
+    id SMALLINT PRIMARY KEY DEFAULT 1 CHECK (id = 1), -- Only one row
+    archive_id VARCHAR(36) NOT NULL, -- archive-id from the archive directory's MANIFEST
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP -- First archival run
+);
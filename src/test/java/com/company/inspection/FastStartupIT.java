@@ -0,0 +1,101 @@
+package com.company.inspection;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Time-to-first-request of the fast-startup build: launches the extracted jar with its AOT
+ * initializers and class-data sharing archive (see the fast-startup Maven profile) and measures
+ * from process start until the first successful health request. Runs with failsafe in that
+ * profile only and publishes the measurement as a report entry. A single wall-clock measurement
+ * is only checked against a budget when the startup.budget.ms system property is set.
+ */
+public class FastStartupIT {
+
+    private static final Duration GIVE_UP_AFTER = Duration.ofSeconds(30);
+
+    @Test
+    void firstRequestShouldBeServedWithinBudget(TestReporter reporter) throws Exception {
+        Path cdsDirectory = Path.of(System.getProperty("cds.directory", "target/cds"));
+        Path jar = cdsDirectory.resolve(System.getProperty("application.jar", "inspection-0.0.1-SNAPSHOT.jar"));
+        assumeTrue(Files.exists(jar) && Files.exists(cdsDirectory.resolve("application.jsa")),
+                "Fast-startup build not found in " + cdsDirectory);
+
+        int port = freePort();
+        Process process = new ProcessBuilder(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-XX:SharedArchiveFile=application.jsa",
+                "-Dspring.aot.enabled=true",
+                "-Dspring.profiles.active=fast",
+                "-jar", jar.getFileName().toString(),
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:h2:mem:startup",
+                "--inspection.invalidation.enabled=false"))
+                .directory(cdsDirectory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(cdsDirectory.resolve("startup-it.log").toFile())
+                .start();
+
+        try {
+            long startupMs = awaitFirstRequest(process, port);
+            reporter.publishEntry("timeToFirstRequestMs", Long.toString(startupMs));
+
+            String budget = System.getProperty("startup.budget.ms");
+            if (budget != null && !budget.isBlank()) {
+                assertTrue(startupMs <= Long.parseLong(budget),
+                        "Time to first request " + startupMs + " ms exceeds budget of " + budget + " ms");
+            }
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private long awaitFirstRequest(Process process, int port) throws InterruptedException {
+        long started = process.info().startInstant()
+                .map(instant -> instant.toEpochMilli())
+                .orElseGet(System::currentTimeMillis);
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        HttpRequest health = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+
+        long deadline = System.currentTimeMillis() + GIVE_UP_AFTER.toMillis();
+        while (System.currentTimeMillis() < deadline) {
+            assertTrue(process.isAlive(), "Application exited during startup, see startup-it.log");
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return System.currentTimeMillis() - started;
+                }
+            } catch (ConnectException | HttpTimeoutException e) {
+                // Not listening yet
+            } catch (IOException e) {
+                // Connection reset while the server is still starting
+            }
+            Thread.sleep(5);
+        }
+        return fail("Application did not answer within " + GIVE_UP_AFTER);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.company.inspection.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AnswerColumnStoreTest {
+
+    private static final int DAY = 20_000;
+
+    @Test
+    void groupsByQuestionAndCountsInspectionsSplitAcrossSegments() {
+        // Three rows per segment, so every inspection below is cut by a segment boundary
+        AnswerColumnStore store = new AnswerColumnStore(3, 4);
+        try {
+            store.appendInspection(1, DAY, new int[]{1, 2}, new byte[]{AnswerColumnStore.YES, AnswerColumnStore.NO});
+            store.appendInspection(2, DAY, new int[]{1, 2}, new byte[]{AnswerColumnStore.NO, AnswerColumnStore.NO});
+            store.appendInspection(3, DAY + 1, new int[]{1, 2}, new byte[]{AnswerColumnStore.YES, AnswerColumnStore.YES});
+
+            AnswerColumnResult byQuestion = store.query(query(AnswerColumnQuery.GroupBy.QUESTION, null, null));
+            assertEquals(List.of(
+                    new AnswerColumnResult.Group(1, null, 2, 1, 3),
+                    new AnswerColumnResult.Group(2, null, 1, 2, 3)), byQuestion.groups());
+            assertEquals(6L, byQuestion.rowsMatched());
+
+            AnswerColumnResult total = store.query(query(AnswerColumnQuery.GroupBy.NONE, null, null));
+            assertEquals(List.of(new AnswerColumnResult.Group(null, null, 3, 3, 3)), total.groups());
+
+            AnswerColumnResult yesByDay = store.query(query(AnswerColumnQuery.GroupBy.DAY, null, AnswerColumnStore.YES));
+            assertEquals(List.of(
+                    new AnswerColumnResult.Group(null, DAY, 1, 0, 1),
+                    new AnswerColumnResult.Group(null, DAY + 1, 2, 0, 1)), yesByDay.groups());
+        } finally {
+            store.destroy();
+        }
+    }
+
+    @Test
+    void skipsSegmentsOutsideTheDayRange() {
+        AnswerColumnStore store = new AnswerColumnStore(2, 2);
+        try {
+            store.appendInspection(1, DAY, new int[]{1, 2}, new byte[]{AnswerColumnStore.YES, AnswerColumnStore.NO});
+            store.appendInspection(2, DAY + 5, new int[]{1, 2}, new byte[]{AnswerColumnStore.NO, AnswerColumnStore.NO});
+
+            AnswerColumnResult result = store.query(new AnswerColumnQuery(AnswerColumnQuery.GroupBy.QUESTION,
+                    null, DAY + 1, DAY + 10, null));
+            assertEquals(2L, result.rowsScanned());
+            assertEquals(List.of(
+                    new AnswerColumnResult.Group(1, null, 0, 1, 1),
+                    new AnswerColumnResult.Group(2, null, 0, 1, 1)), result.groups());
+        } finally {
+            store.destroy();
+        }
+    }
+
+    @Test
+    void evictsOnlyFullSegmentsOlderThanTheCutoff() {
+        AnswerColumnStore store = new AnswerColumnStore(2, 2);
+        try {
+            store.appendInspection(1, DAY, new int[]{1, 2}, new byte[]{AnswerColumnStore.YES, AnswerColumnStore.NO});
+            store.appendInspection(2, DAY + 5, new int[]{1, 2}, new byte[]{AnswerColumnStore.NO, AnswerColumnStore.NO});
+            store.appendInspection(3, DAY, new int[]{1}, new byte[]{AnswerColumnStore.NO});
+
+            assertEquals(2L, store.evictBefore(DAY + 1));
+            assertEquals(3L, store.rowCount());
+            assertEquals(2, store.segmentCount());
+        } finally {
+            store.destroy();
+        }
+    }
+
+    @Test
+    void appendsAnInspectionOnlyOnce() {
+        AnswerColumnStore store = new AnswerColumnStore(2, 2);
+        try {
+            assertTrue(store.appendInspection(1, DAY, new int[]{1, 2}, new byte[]{AnswerColumnStore.YES, AnswerColumnStore.NO}));
+            assertFalse(store.appendInspection(1, DAY, new int[]{1, 2}, new byte[]{AnswerColumnStore.YES, AnswerColumnStore.NO}));
+
+            assertEquals(2L, store.rowCount());
+        } finally {
+            store.destroy();
+        }
+    }
+
+    @Test
+    void removesTheRowsOfAnInspection() {
+        AnswerColumnStore store = new AnswerColumnStore(3, 2);
+        try {
+            store.appendInspection(1, DAY, new int[]{1, 2}, new byte[]{AnswerColumnStore.YES, AnswerColumnStore.NO});
+            store.appendInspection(2, DAY, new int[]{1, 2}, new byte[]{AnswerColumnStore.NO, AnswerColumnStore.NO});
+            store.appendInspection(3, DAY, new int[]{1, 2}, new byte[]{AnswerColumnStore.YES, AnswerColumnStore.YES});
+
+            assertEquals(2L, store.removeInspections(List.of(2L, 99L)));
+            assertEquals(0L, store.removeInspections(List.of(2L)));
+
+            AnswerColumnResult total = store.query(query(AnswerColumnQuery.GroupBy.NONE, null, null));
+            assertEquals(List.of(new AnswerColumnResult.Group(null, null, 3, 1, 2)), total.groups());
+            assertEquals(2, store.segmentCount());
+            // Removed inspections can be appended again
+            assertTrue(store.appendInspection(2, DAY, new int[]{1}, new byte[]{AnswerColumnStore.NO}));
+        } finally {
+            store.destroy();
+        }
+    }
+
+    @Test
+    void reloadReplacesAllRowsOnlyWhenInstalled() {
+        AnswerColumnStore store = new AnswerColumnStore(2, 2);
+        try {
+            store.appendInspection(1, DAY, new int[]{1, 2}, new byte[]{AnswerColumnStore.YES, AnswerColumnStore.NO});
+
+            AnswerColumnStore.Loader loader = store.newLoader();
+            loader.append(1, 7, AnswerColumnStore.NO, DAY);
+            loader.append(2, 7, AnswerColumnStore.NO, DAY);
+            loader.append(1, 8, AnswerColumnStore.YES, DAY);
+            assertEquals(2L, store.rowCount());
+
+            store.install(loader);
+
+            assertEquals(3L, store.rowCount());
+            assertTrue(store.appendInspection(1, DAY, new int[]{1}, new byte[]{AnswerColumnStore.YES}));
+            assertFalse(store.appendInspection(8, DAY, new int[]{1}, new byte[]{AnswerColumnStore.YES}));
+        } finally {
+            store.destroy();
+        }
+    }
+
+    @Test
+    void parallelScanMatchesSequentialCount() {
+        AnswerColumnStore store = new AnswerColumnStore(1000, 8);
+        Random random = new Random(7);
+        Map<Integer, long[]> expected = new HashMap<>();
+        Map<Integer, Set<Long>> expectedInspections = new HashMap<>();
+        BitSet questions = new BitSet();
+        questions.set(3);
+        questions.set(5);
+        try {
+            for (long inspectionId = 1; inspectionId <= 20_000; inspectionId++) {
+                int day = DAY + random.nextInt(30);
+                int[] questionIds = {1, 2, 3, 4, 5};
+                byte[] answers = new byte[questionIds.length];
+                for (int i = 0; i < answers.length; i++) {
+                    answers[i] = random.nextInt(4) == 0 ? AnswerColumnStore.YES : AnswerColumnStore.NO;
+                    if (questions.get(questionIds[i]) && day >= DAY + 10) {
+                        expected.computeIfAbsent(day, key -> new long[2])[answers[i]]++;
+                        expectedInspections.computeIfAbsent(day, key -> new HashSet<>()).add(inspectionId);
+                    }
+                }
+                store.appendInspection(inspectionId, day, questionIds, answers);
+            }
+
+            AnswerColumnResult result = store.query(new AnswerColumnQuery(AnswerColumnQuery.GroupBy.DAY,
+                    questions, DAY + 10, DAY + 40, null));
+            assertEquals(20, result.groups().size());
+            for (AnswerColumnResult.Group group : result.groups()) {
+                long[] counts = expected.get(group.epochDay());
+                assertEquals(counts[AnswerColumnStore.YES], group.yesCount());
+                assertEquals(counts[AnswerColumnStore.NO], group.noCount());
+                assertEquals((long) expectedInspections.get(group.epochDay()).size(), group.inspectionCount());
+            }
+        } finally {
+            store.destroy();
+        }
+    }
+
+    private static AnswerColumnQuery query(AnswerColumnQuery.GroupBy groupBy, BitSet questionIds, Byte answer) {
+        return new AnswerColumnQuery(groupBy, questionIds, DAY - 100, DAY + 100, answer);
+    }
+}
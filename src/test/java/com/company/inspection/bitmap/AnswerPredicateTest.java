@@ -0,0 +1,76 @@
+package com.company.inspection.bitmap;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AnswerPredicateTest {
+
+    // Question 10 and 11 share the first word, question 12 lives in the second one
+    private static final Map<Long, Integer> BIT_POSITIONS = Map.of(10L, 0, 11L, 5, 12L, 70);
+
+    @Test
+    void parserHonoursPrecedenceAndParentheses() {
+        assertEquals("((YES(1) AND NOT NO(2)) OR ANSWERED(3))",
+                AnswerPredicateParser.parse("yes(1) and not No(2) or ANSWERED(3)").toString());
+        assertEquals("(YES(1) AND (NO(2) OR YES(3)))",
+                AnswerPredicateParser.parse(" YES ( 1 ) AND (NO(2) OR YES(3))").toString());
+    }
+
+    @Test
+    void parserReportsPositionOfErrors() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> AnswerPredicateParser.parse("YES(1) AND MAYBE(2)"));
+        assertTrue(error.getMessage().contains("position 11"), error.getMessage());
+
+        assertThrows(IllegalArgumentException.class, () -> AnswerPredicateParser.parse("YES(1"));
+        assertThrows(IllegalArgumentException.class, () -> AnswerPredicateParser.parse("YES(1) YES(2)"));
+        assertThrows(IllegalArgumentException.class, () -> AnswerPredicateParser.parse(" "));
+        assertThrows(IllegalArgumentException.class,
+                () -> AnswerPredicateParser.parse("YES(1)" + " OR YES(1)".repeat(AnswerPredicateParser.MAX_ATOMS)));
+    }
+
+    @Test
+    void compilerMergesAtomsOfTheSameWord() {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = new AnswerPredicateCompiler(BIT_POSITIONS, params)
+                .compile(AnswerPredicateParser.parse("YES(10) AND YES(11) AND NOT YES(12)"));
+
+        assertEquals("((COALESCE(i.yes_bits[1], 0) & :mask1) = :mask1 AND NOT (COALESCE(i.yes_bits[2], 0) & :mask0) <> 0)", sql);
+        assertEquals(1L << 6, params.getValue("mask0"));
+        assertEquals(0b100001L, params.getValue("mask1"));
+    }
+
+    @Test
+    void compilerUsesAnyBitForDisjunctionsAndMasksNoAnswers() {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = new AnswerPredicateCompiler(BIT_POSITIONS, params)
+                .compile(AnswerPredicateParser.parse("NO(10) OR NO(11)"));
+
+        assertEquals("((COALESCE(i.answered_bits[1], 0) & ~COALESCE(i.yes_bits[1], 0)) & :mask0) <> 0", sql);
+        assertEquals(0b100001L, params.getValue("mask0"));
+    }
+
+    @Test
+    void compilerRejectsUnknownQuestions() {
+        assertThrows(IllegalArgumentException.class, () -> new AnswerPredicateCompiler(BIT_POSITIONS,
+                new MapSqlParameterSource()).compile(AnswerPredicateParser.parse("YES(99)")));
+    }
+
+    @Test
+    void bitmapTrimsTrailingZeroWords() {
+        AnswerBitmap bitmap = new AnswerBitmap();
+        assertArrayEquals(new long[0], bitmap.toWords());
+
+        bitmap.set(1);
+        bitmap.set(130);
+        long[] words = bitmap.toWords();
+        assertArrayEquals(new long[]{2L, 0L, 4L}, words);
+        assertTrue(AnswerBitmap.isSet(words, 130), "bit 130 set");
+        assertFalse(AnswerBitmap.isSet(words, 64), "bit 64 not set");
+        assertFalse(AnswerBitmap.isSet(words, 500), "bit past the end not set");
+    }
+}
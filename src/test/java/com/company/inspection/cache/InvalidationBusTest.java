@@ -0,0 +1,109 @@
+package com.company.inspection.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class InvalidationBusTest {
+
+    private static final String CHANNEL = "inspection_invalidation";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ObjectProvider<InvalidationHandler> handlers;
+
+    @Mock
+    private InvalidationHandler handler;
+
+    private InvalidationBus invalidationBus;
+
+    @BeforeEach
+    void setUp() {
+        invalidationBus = new InvalidationBus(jdbcTemplate, handlers, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(invalidationBus, "enabled", true);
+        ReflectionTestUtils.setField(invalidationBus, "channel", CHANNEL);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void batchOfIdsShouldBeOneNotificationWithOneTransactionIdLookup() {
+        beginTransaction();
+        when(jdbcTemplate.queryForObject("SELECT txid_current()", Long.class)).thenReturn(42L);
+
+        invalidationBus.publishAll(InvalidationType.PHOTO, List.of(1L, 2L, 3L));
+        invalidationBus.publish(InvalidationType.CAR, "CAR-1");
+
+        verify(jdbcTemplate, times(1)).queryForObject("SELECT txid_current()", Long.class);
+        verify(jdbcTemplate).queryForList("SELECT pg_notify(?, ?)", CHANNEL, "PHOTO:1,2,3:42");
+        verify(jdbcTemplate).queryForList("SELECT pg_notify(?, ?)", CHANNEL, "CAR:CAR-1:42");
+    }
+
+    @Test
+    void largeBatchesShouldBeSplitBelowThePayloadLimit() {
+        List<Long> ids = LongStream.range(10_000_000L, 10_002_000L).boxed().toList();
+        when(jdbcTemplate.queryForObject("SELECT txid_current()", Long.class)).thenReturn(7L);
+        when(handlers.orderedStream()).thenAnswer(invocation -> Stream.empty());
+
+        invalidationBus.publishAll(InvalidationType.INSPECTION, ids);
+
+        ArgumentCaptor<Object> payloads = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate, atLeast(2)).queryForList(eq("SELECT pg_notify(?, ?)"), eq(CHANNEL), payloads.capture());
+        long sent = 0;
+        for (Object payload : payloads.getAllValues()) {
+            assertTrue(((String) payload).length() < 8000);
+            sent += InvalidationMessage.parse((String) payload).split().size();
+        }
+        assertEquals(ids.size(), sent);
+    }
+
+    @Test
+    void receivedBatchShouldReachHandlersOneIdAtATime() {
+        when(handlers.orderedStream()).thenAnswer(invocation -> Stream.of(handler));
+
+        invalidationBus.onNotification("INSPECTION:5,6:9");
+
+        verify(handler).onInvalidation(new InvalidationMessage(InvalidationType.INSPECTION, "5", 9));
+        verify(handler).onInvalidation(new InvalidationMessage(InvalidationType.INSPECTION, "6", 9));
+    }
+
+    @Test
+    void carIdsShouldNotBeSplitOnCommas() {
+        when(handlers.orderedStream()).thenAnswer(invocation -> Stream.of(handler));
+
+        invalidationBus.onNotification("CAR:A,B:9");
+
+        verify(handler).onInvalidation(new InvalidationMessage(InvalidationType.CAR, "A,B", 9));
+    }
+
+    private static void beginTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+}
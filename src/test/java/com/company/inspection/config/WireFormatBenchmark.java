@@ -0,0 +1,87 @@
+package com.company.inspection.config;
+
+import com.company.inspection.dto.response.InspectionResponse;
+import com.company.inspection.dto.response.QuestionResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Payload size and serialization time of the questions payload in the pretty-printed JSON
+ * against CBOR.
+ *
+ * <p>Not part of {@code mvn test}, since the timings depend on the machine. Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.company.inspection.config.WireFormatBenchmark}.
+ */
+public class WireFormatBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final int MEASURED_ITERATIONS = 5_000;
+
+    public static void main(String[] args) throws Exception {
+        // Same settings as spring.jackson.serialization.indent-output=true
+        ObjectMapper prettyJsonMapper = Jackson2ObjectMapperBuilder.json().indentOutput(true).build();
+        ObjectMapper cborMapper = WireFormatConfig.cborObjectMapper(Jackson2ObjectMapperBuilder.json().indentOutput(true));
+        InspectionResponse payload = createQuestionsPayload(30);
+
+        int jsonBytes = prettyJsonMapper.writeValueAsBytes(payload).length;
+        int cborBytes = cborMapper.writeValueAsBytes(payload).length;
+        long jsonNanos = measureSerialization(prettyJsonMapper, payload);
+        long cborNanos = measureSerialization(cborMapper, payload);
+
+        System.out.printf("questions payload: pretty JSON %d bytes, %d ns/op | CBOR %d bytes, %d ns/op (%.0f%% of JSON size)%n",
+                jsonBytes, jsonNanos, cborBytes, cborNanos, 100.0 * cborBytes / jsonBytes);
+    }
+
+    private static long measureSerialization(ObjectMapper mapper, InspectionResponse payload) throws Exception {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            mapper.writeValueAsBytes(payload);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            mapper.writeValueAsBytes(payload);
+        }
+        return (System.nanoTime() - start) / MEASURED_ITERATIONS;
+    }
+
+    static InspectionResponse createQuestionsPayload(int questionCount) {
+        List<QuestionResponse> questions = new ArrayList<>();
+        for (int i = 1; i <= questionCount; i++) {
+            QuestionResponse.QuestionResponseBuilder question = QuestionResponse.builder()
+                    .id((long) i)
+                    .questionText("Araçta " + i + ". bölgede hasar var mı?")
+                    .orderIndex(i);
+            if (i % 3 == 0) {
+                question.previousAnswer(QuestionResponse.PreviousAnswer.builder()
+                        .answer("YES")
+                        .description("Sol kapıda çizik mevcut, boya hasarı " + i)
+                        .photos(List.of(
+                                QuestionResponse.PhotoInfo.builder()
+                                        .url("https://example-cloud.com/photos/car-12345-q" + i + "-1.jpg")
+                                        .isNew(false)
+                                        .build(),
+                                QuestionResponse.PhotoInfo.builder()
+                                        .url("https://example-cloud.com/photos/car-12345-q" + i + "-2.jpg")
+                                        .isNew(false)
+                                        .build()))
+                        .build());
+            } else {
+                question.previousAnswer(QuestionResponse.PreviousAnswer.builder().answer("NO").build());
+            }
+            questions.add(question.build());
+        }
+
+        return InspectionResponse.builder()
+                .carId("CAR-12345")
+                .hasPreviousInspection(true)
+                .inspectionId(42L)
+                .status("COMPLETED")
+                .lastInspectionDate(LocalDateTime.of(2024, 1, 15, 10, 30))
+                .questions(questions)
+                .build();
+    }
+}
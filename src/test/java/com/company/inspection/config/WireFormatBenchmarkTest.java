@@ -0,0 +1,72 @@
+package com.company.inspection.config;
+
+import com.company.inspection.dto.request.CreateInspectionRequest;
+import com.company.inspection.dto.response.InspectionResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards the size win of CBOR over the pretty-printed JSON of the questions payload and the
+ * round trip. Serialization time is measured by {@link WireFormatBenchmark}.
+ */
+public class WireFormatBenchmarkTest {
+
+    private ObjectMapper prettyJsonMapper;
+    private ObjectMapper cborMapper;
+    private InspectionResponse questionsPayload;
+
+    @BeforeEach
+    void setUp() {
+        // Same settings as spring.jackson.serialization.indent-output=true
+        prettyJsonMapper = Jackson2ObjectMapperBuilder.json().indentOutput(true).build();
+        cborMapper = WireFormatConfig.cborObjectMapper(Jackson2ObjectMapperBuilder.json().indentOutput(true));
+        questionsPayload = WireFormatBenchmark.createQuestionsPayload(30);
+    }
+
+    @Test
+    void cborPayloadShouldBeSmallerThanPrettyJson() throws Exception {
+        byte[] json = prettyJsonMapper.writeValueAsBytes(questionsPayload);
+        byte[] cbor = cborMapper.writeValueAsBytes(questionsPayload);
+
+        assertTrue(cbor.length < json.length * 0.8,
+                "CBOR payload should be at least 20% smaller than pretty-printed JSON");
+    }
+
+    @Test
+    void cborShouldRoundTripQuestionsPayload() throws Exception {
+        byte[] cbor = cborMapper.writeValueAsBytes(questionsPayload);
+
+        InspectionResponse decoded = cborMapper.readValue(cbor, InspectionResponse.class);
+
+        assertEquals(questionsPayload, decoded);
+    }
+
+    @Test
+    void cborShouldRoundTripCreateInspectionRequest() throws Exception {
+        CreateInspectionRequest request = CreateInspectionRequest.builder()
+                .carId("CAR-12345")
+                .answers(List.of(
+                        CreateInspectionRequest.AnswerRequest.builder()
+                                .questionId(1L)
+                                .answer("YES")
+                                .description("Scratch on rear bumper")
+                                .photoUrls(List.of("https://example-cloud.com/photos/car-12345-bumper-1.jpg"))
+                                .build(),
+                        CreateInspectionRequest.AnswerRequest.builder()
+                                .questionId(2L)
+                                .answer("NO")
+                                .build()))
+                .build();
+
+        byte[] cbor = cborMapper.writeValueAsBytes(request);
+
+        assertEquals(request, cborMapper.readValue(cbor, CreateInspectionRequest.class));
+        assertTrue(cbor.length < prettyJsonMapper.writeValueAsBytes(request).length);
+    }
+}
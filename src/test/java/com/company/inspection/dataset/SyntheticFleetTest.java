@@ -0,0 +1,149 @@
+package com.company.inspection.dataset;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The generated fleet only depends on the seed, and its shape matches the configured distributions.
+ */
+public class SyntheticFleetTest {
+
+    private static final int CARS = 2_000;
+    private static final List<Long> QUESTIONS = List.of(1L, 2L, 3L, 4L, 5L);
+    private static final LocalDate UNTIL = LocalDate.of(2026, 1, 1);
+
+    @Test
+    void sameSeedShouldGenerateSameRowsInAnyOrder() {
+        SyntheticFleet fleet = fleet(42);
+        List<String> forward = new ArrayList<>();
+        for (int car = 0; car < CARS; car++) {
+            fleet.generateCar(car, new RecordingSink(forward));
+        }
+
+        List<String> backward = new ArrayList<>();
+        SyntheticFleet sameSeed = fleet(42);
+        for (int car = CARS - 1; car >= 0; car--) {
+            List<String> rows = new ArrayList<>();
+            sameSeed.generateCar(car, new RecordingSink(rows));
+            backward.addAll(0, rows);
+        }
+
+        List<String> otherSeed = new ArrayList<>();
+        for (int car = 0; car < CARS; car++) {
+            fleet(7).generateCar(car, new RecordingSink(otherSeed));
+        }
+
+        assertEquals(forward, backward);
+        assertNotEquals(forward, otherSeed);
+    }
+
+    @Test
+    void fleetShouldFollowConfiguredDistributions() {
+        CountingSink sink = new CountingSink();
+        SyntheticFleet fleet = fleet(42);
+        for (int car = 0; car < CARS; car++) {
+            fleet.generateCar(car, sink);
+        }
+
+        assertEquals(10.0, (double) sink.inspections / CARS, 1.0, "inspections per car");
+        assertEquals(sink.completed * QUESTIONS.size(), sink.answers - sink.answersOfIncomplete, "answers of completed inspections");
+        double yesRate = (double) sink.yes / sink.answers;
+        assertTrue(yesRate > 0.02 && yesRate < 0.4, "yes rate " + yesRate);
+        assertTrue(sink.photos >= sink.yes && sink.photos <= 3L * sink.yes, "1 to 3 photos per finding");
+        assertTrue(sink.carriedOverPhotos > 0, "findings recur until repaired");
+        assertTrue(sink.weekend < sink.inspections * 0.1, "inspections mostly on working days");
+        assertFalse(sink.latest.isAfter(UNTIL.atStartOfDay()), "no inspection after the end of the window");
+    }
+
+    private static SyntheticFleet fleet(long seed) {
+        return new SyntheticFleet(new SyntheticFleet.Settings(seed, "DS-", 10, 36, UNTIL, 0.01, 0.5, "/photos/"),
+                QUESTIONS);
+    }
+
+    private static class RecordingSink implements SyntheticFleet.RowSink {
+
+        private final List<String> rows;
+        private long nextId;
+
+        RecordingSink(List<String> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public long inspection(String carId, LocalDateTime inspectionDate, boolean completed) {
+            rows.add("I " + carId + " " + inspectionDate + " " + completed);
+            return ++nextId;
+        }
+
+        @Override
+        public long answer(long inspectionId, long questionId, boolean yes, String description, LocalDateTime createdAt) {
+            rows.add("A " + inspectionId + " " + questionId + " " + yes + " " + description + " " + createdAt);
+            return ++nextId;
+        }
+
+        @Override
+        public void photo(long answerId, String photoUrl, boolean isNew, LocalDateTime uploadedAt) {
+            rows.add("P " + answerId + " " + photoUrl + " " + isNew + " " + uploadedAt);
+        }
+    }
+
+    private static class CountingSink implements SyntheticFleet.RowSink {
+
+        private long nextId;
+        private long inspections;
+        private long completed;
+        private long weekend;
+        private long answers;
+        private long answersOfIncomplete;
+        private long yes;
+        private long photos;
+        private long carriedOverPhotos;
+        private boolean currentCompleted;
+        private LocalDateTime latest = LocalDateTime.MIN;
+
+        @Override
+        public long inspection(String carId, LocalDateTime inspectionDate, boolean completed) {
+            inspections++;
+            currentCompleted = completed;
+            if (completed) {
+                this.completed++;
+            }
+            DayOfWeek day = inspectionDate.getDayOfWeek();
+            if (day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY) {
+                weekend++;
+            }
+            if (inspectionDate.isAfter(latest)) {
+                latest = inspectionDate;
+            }
+            return ++nextId;
+        }
+
+        @Override
+        public long answer(long inspectionId, long questionId, boolean yes, String description, LocalDateTime createdAt) {
+            answers++;
+            if (!currentCompleted) {
+                answersOfIncomplete++;
+            }
+            if (yes) {
+                this.yes++;
+                assertNotNull(description);
+            }
+            return ++nextId;
+        }
+
+        @Override
+        public void photo(long answerId, String photoUrl, boolean isNew, LocalDateTime uploadedAt) {
+            photos++;
+            if (!isNew) {
+                carriedOverPhotos++;
+            }
+        }
+    }
+}
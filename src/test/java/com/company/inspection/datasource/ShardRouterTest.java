@@ -0,0 +1,77 @@
+package com.company.inspection.datasource;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Car placement on the consistent-hash ring: cars spread evenly, and adding a shard only moves
+ * cars onto the new shard, about 1/N of them.
+ */
+public class ShardRouterTest {
+
+    private static final int CARS = 100_000;
+    private static final int VIRTUAL_NODES = 128;
+
+    @Test
+    void carsShouldSpreadEvenlyOverShards() {
+        ShardRouter router = new ShardRouter(urls(4), VIRTUAL_NODES);
+
+        int[] carsPerShard = new int[4];
+        for (int car = 0; car < CARS; car++) {
+            carsPerShard[router.shardForCar("CAR-" + car)]++;
+        }
+
+        for (int count : carsPerShard) {
+            assertEquals(CARS / 4.0, count, CARS / 4.0 * 0.2, "cars per shard");
+        }
+    }
+
+    @Test
+    void addingShardShouldOnlyMoveCarsToTheNewShard() {
+        ShardRouter fourShards = new ShardRouter(urls(4), VIRTUAL_NODES);
+        ShardRouter fiveShards = new ShardRouter(urls(5), VIRTUAL_NODES);
+
+        int moved = 0;
+        for (int car = 0; car < CARS; car++) {
+            String carId = "CAR-" + car;
+            int before = fourShards.shardForCar(carId);
+            int after = fiveShards.shardForCar(carId);
+            if (before != after) {
+                assertEquals(4, after, "a car may only move to the added shard");
+                moved++;
+            }
+        }
+
+        assertEquals(CARS / 5.0, moved, CARS / 5.0 * 0.25, "moved cars");
+    }
+
+    @Test
+    void idShouldNameItsShard() {
+        ShardRouter router = new ShardRouter(urls(4), VIRTUAL_NODES);
+
+        assertEquals(0, router.shardOfId(ShardRouter.ID_STRIDE));
+        assertEquals(3, router.shardOfId(7L * ShardRouter.ID_STRIDE + 3));
+        assertThrows(IllegalArgumentException.class, () -> router.shardOfId(ShardRouter.ID_STRIDE + 5));
+    }
+
+    @Test
+    void singleDatabaseShouldRouteEverythingToShardZero() {
+        ShardRouter router = new ShardRouter(urls(1), VIRTUAL_NODES);
+
+        assertFalse(router.isSharded());
+        assertEquals(0, router.shardForCar("CAR-1"));
+        assertEquals(0, router.shardOfId(12345));
+    }
+
+    private static List<String> urls(int shards) {
+        List<String> urls = new ArrayList<>();
+        for (int shard = 0; shard < shards; shard++) {
+            urls.add("jdbc:postgresql://localhost:" + (5441 + shard) + "/inspection");
+        }
+        return urls;
+    }
+}
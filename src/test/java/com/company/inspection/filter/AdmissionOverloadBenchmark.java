@@ -0,0 +1,102 @@
+package com.company.inspection.filter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency under overload: many clients hammer a backend that can only serve a few requests at a
+ * time (like a small connection pool). Without admission control every request queues and p99
+ * grows with the number of clients; with the adaptive limiter excess requests are rejected
+ * immediately and the admitted ones keep a bounded p99.
+ *
+ * <p>Not part of {@code mvn test}, since the latencies depend on the machine. Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.company.inspection.filter.AdmissionOverloadBenchmark}.
+ */
+public class AdmissionOverloadBenchmark {
+
+    static final int BACKEND_CAPACITY = 4;
+    static final long BACKEND_WORK_MS = 4;
+    static final int CLIENTS = 32;
+    static final long TARGET_LATENCY_MS = 12;
+
+    private static final long RUN_MS = 5_000;
+
+    public static void main(String[] args) throws Exception {
+        RunResult unlimited = run(null, RUN_MS);
+        RunResult limited = run(newLimiter(), RUN_MS);
+
+        System.out.printf("Unlimited: %d served, p50=%.1fms p99=%.1fms%n",
+                unlimited.latenciesNanos().size(), unlimited.percentileMs(50), unlimited.percentileMs(99));
+        System.out.printf("Adaptive:  %d served, %d rejected, p50=%.1fms p99=%.1fms (target %d ms)%n",
+                limited.latenciesNanos().size(), limited.rejected(), limited.percentileMs(50), limited.percentileMs(99),
+                TARGET_LATENCY_MS);
+    }
+
+    static AdaptiveConcurrencyLimiter newLimiter() {
+        return new AdaptiveConcurrencyLimiter(BACKEND_CAPACITY * 2, BACKEND_CAPACITY / 2, CLIENTS,
+                TimeUnit.MILLISECONDS.toNanos(TARGET_LATENCY_MS), 0.9);
+    }
+
+    static RunResult run(AdaptiveConcurrencyLimiter limiter, long runMs) throws Exception {
+        Semaphore backend = new Semaphore(BACKEND_CAPACITY, true);
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong rejected = new AtomicLong();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(runMs);
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                futures.add(clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        if (limiter != null && !limiter.tryAcquire()) {
+                            rejected.incrementAndGet();
+                            sleep(1); // Client backs off briefly (Retry-After)
+                            continue;
+                        }
+                        backend.acquireUninterruptibly();
+                        try {
+                            sleep(BACKEND_WORK_MS);
+                        } finally {
+                            backend.release();
+                        }
+                        long latency = System.nanoTime() - start;
+                        if (limiter != null) {
+                            limiter.release(latency, false);
+                        }
+                        latencies.add(latency);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+        return new RunResult(new ArrayList<>(latencies), rejected.get());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    record RunResult(List<Long> latenciesNanos, long rejected) {
+
+        double percentileMs(int percentile) {
+            List<Long> sorted = new ArrayList<>(latenciesNanos);
+            Collections.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+            return sorted.get(Math.max(0, index)) / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.company.inspection.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Admission building blocks and their behaviour under overload. Only counts are asserted here;
+ * the latency comparison with and without admission control is {@link AdmissionOverloadBenchmark}.
+ */
+public class AdmissionOverloadTest {
+
+    private static final long RUN_MS = 500;
+
+    @Test
+    void tokenBucketShouldAllowBurstThenReportWait() {
+        AtomicLong clock = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(10, 3, clock::get);
+
+        assertEquals(0, bucket.tryAcquire());
+        assertEquals(0, bucket.tryAcquire());
+        assertEquals(0, bucket.tryAcquire());
+
+        long wait = bucket.tryAcquire();
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), wait, TimeUnit.MICROSECONDS.toNanos(1));
+        assertFalse(bucket.isFull());
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(101));
+        assertEquals(0, bucket.tryAcquire());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertTrue(bucket.isFull());
+    }
+
+    @Test
+    void limiterShouldBackOffOnSlowCompletionsAndRecover() {
+        AtomicLong clock = new AtomicLong();
+        long target = TimeUnit.MILLISECONDS.toNanos(10);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 40, target, 0.5, clock::get);
+
+        assertTrue(limiter.tryAcquire());
+        limiter.release(target * 2, false);
+        assertEquals(10, limiter.getLimit());
+
+        // A second slow completion in the same interval is the same congestion event
+        assertTrue(limiter.tryAcquire());
+        limiter.release(target * 2, false);
+        assertEquals(10, limiter.getLimit());
+
+        // Fast completions while the limit is in use grow it again
+        for (int i = 0; i < 9; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        for (int i = 0; i < 200; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(target / 2, false);
+        }
+        assertTrue(limiter.getLimit() > 10);
+    }
+
+    @Test
+    void adaptiveLimitShouldShedPartOfAnOverload() throws Exception {
+        AdmissionOverloadBenchmark.RunResult limited =
+                AdmissionOverloadBenchmark.run(AdmissionOverloadBenchmark.newLimiter(), RUN_MS);
+
+        assertTrue(limited.rejected() > 0, "Overload should shed some requests");
+        assertFalse(limited.latenciesNanos().isEmpty(), "Admitted requests should still be served");
+    }
+
+    @Test
+    void clientBucketsShouldDropTheLeastRecentlySeenClient() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("inspection.admission.read.client-rate", "0.001")
+                .withProperty("inspection.admission.read.client-burst", "1");
+        AdmissionControl admissionControl = new AdmissionControl(new SimpleMeterRegistry(), environment, 200, 1000);
+        ReflectionTestUtils.setField(admissionControl, "maxClients", 2);
+
+        assertTrue(admit(admissionControl, "a"));
+        assertFalse(admit(admissionControl, "a"));
+        assertTrue(admit(admissionControl, "b"));
+        assertFalse(admit(admissionControl, "a"));
+        // b is now the least recently seen client
+        assertTrue(admit(admissionControl, "c"));
+
+        assertFalse(admit(admissionControl, "a"), "Recently seen clients keep their bucket");
+        assertTrue(admit(admissionControl, "b"), "The dropped client starts with a new bucket");
+    }
+
+    private static boolean admit(AdmissionControl admissionControl, String clientId) {
+        return admissionControl.admit(clientId, AdmissionControl.Budget.READ, false).admitted();
+    }
+}
@@ -0,0 +1,150 @@
+package com.company.inspection.photo;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PhotoMetadataExtractorTest {
+
+    private static final LocalDateTime CAPTURED = LocalDateTime.of(2024, 5, 17, 9, 30, 12);
+
+    private final PhotoMetadataExtractor extractor = new PhotoMetadataExtractor(320, 0.8f);
+
+    @Test
+    void readsDimensionsAndWritesAThumbnailWithinTheMaximumEdge() throws IOException {
+        Path directory = Files.createTempDirectory("photos");
+        Path source = directory.resolve("door.png");
+        ImageIO.write(image(4000, 3000), "png", source.toFile());
+        Path thumbnail = directory.resolve("thumbnails/door.png.jpg");
+
+        PhotoMetadata metadata = extractor.process(source, thumbnail).orElseThrow();
+
+        assertEquals("png", metadata.format());
+        assertEquals(4000, metadata.width());
+        assertEquals(3000, metadata.height());
+        assertNull(metadata.capturedAt());
+
+        BufferedImage written = ImageIO.read(thumbnail.toFile());
+        assertEquals(320, written.getWidth());
+        assertEquals(240, written.getHeight());
+    }
+
+    @Test
+    void keepsSmallImagesAtTheirSize() throws IOException {
+        Path directory = Files.createTempDirectory("photos");
+        Path source = directory.resolve("small.png");
+        ImageIO.write(image(100, 50), "png", source.toFile());
+        Path thumbnail = directory.resolve("small.jpg");
+
+        extractor.process(source, thumbnail).orElseThrow();
+
+        BufferedImage written = ImageIO.read(thumbnail.toFile());
+        assertEquals(100, written.getWidth());
+        assertEquals(50, written.getHeight());
+    }
+
+    @Test
+    void subsamplesLargeImagesToAboutTwiceTheThumbnail() {
+        assertEquals(1, extractor.subsampling(640, 480));
+        assertEquals(6, extractor.subsampling(4000, 3000));
+        assertEquals(6, extractor.subsampling(3000, 4000));
+    }
+
+    @Test
+    void readsTheCaptureTimeOfAJpeg() throws IOException {
+        Path directory = Files.createTempDirectory("photos");
+        Path source = directory.resolve("engine.jpg");
+        Files.write(source, withExif(jpeg(800, 600), exifWithDateTimeOriginal()));
+
+        PhotoMetadata metadata = extractor.process(source, directory.resolve("engine.jpg.thumb")).orElseThrow();
+
+        assertEquals("jpeg", metadata.format());
+        assertEquals(800, metadata.width());
+        assertEquals(CAPTURED, metadata.capturedAt());
+    }
+
+    @Test
+    void fallsBackToTheModificationDateOfLittleEndianExif() throws IOException {
+        byte[] jpeg = withExif(jpeg(10, 10), exifWithDateTimeOnly());
+
+        assertEquals(Optional.of(CAPTURED), ExifReader.readCaptureTime(new ByteArrayInputStream(jpeg)));
+    }
+
+    @Test
+    void ignoresJpegsWithoutExifAndOtherFiles() throws IOException {
+        assertEquals(Optional.empty(), ExifReader.readCaptureTime(new ByteArrayInputStream(jpeg(10, 10))));
+        assertEquals(Optional.empty(), ExifReader.readCaptureTime(new ByteArrayInputStream("not a photo".getBytes())));
+    }
+
+    @Test
+    void skipsFilesThatAreNoImages() throws IOException {
+        Path directory = Files.createTempDirectory("photos");
+        Path source = directory.resolve("notes.jpg");
+        Files.writeString(source, "not a photo");
+        Path thumbnail = directory.resolve("notes.jpg.thumb");
+
+        assertTrue(extractor.process(source, thumbnail).isEmpty());
+        assertFalse(Files.exists(thumbnail));
+    }
+
+    private static BufferedImage image(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.RED);
+        graphics.fillRect(0, 0, width / 2, height);
+        graphics.dispose();
+        return image;
+    }
+
+    private static byte[] jpeg(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", output);
+        return output.toByteArray();
+    }
+
+    // Inserts an APP1 segment right after the start-of-image marker
+    private static byte[] withExif(byte[] jpeg, byte[] tiff) {
+        int length = 2 + 6 + tiff.length;
+        ByteBuffer buffer = ByteBuffer.allocate(jpeg.length + 2 + length);
+        buffer.put(jpeg, 0, 2);
+        buffer.put((byte) 0xFF).put((byte) 0xE1).putShort((short) length);
+        buffer.put(new byte[]{'E', 'x', 'i', 'f', 0, 0}).put(tiff);
+        buffer.put(jpeg, 2, jpeg.length - 2);
+        return buffer.array();
+    }
+
+    // Big-endian: IFD0 points to the Exif IFD, which holds DateTimeOriginal
+    private static byte[] exifWithDateTimeOriginal() {
+        ByteBuffer tiff = ByteBuffer.allocate(64).order(ByteOrder.BIG_ENDIAN);
+        tiff.put((byte) 'M').put((byte) 'M').putShort((short) 42).putInt(8);
+        tiff.putShort((short) 1).putShort((short) 0x8769).putShort((short) 4).putInt(1).putInt(26).putInt(0);
+        tiff.putShort((short) 1).putShort((short) 0x9003).putShort((short) 2).putInt(20).putInt(44).putInt(0);
+        tiff.put("2024:05:17 09:30:12".getBytes(StandardCharsets.US_ASCII)).put((byte) 0);
+        return tiff.array();
+    }
+
+    // Little-endian: only DateTime in IFD0
+    private static byte[] exifWithDateTimeOnly() {
+        ByteBuffer tiff = ByteBuffer.allocate(48).order(ByteOrder.LITTLE_ENDIAN);
+        tiff.put((byte) 'I').put((byte) 'I').putShort((short) 42).putInt(8);
+        tiff.putShort((short) 1).putShort((short) 0x0132).putShort((short) 2).putInt(20).putInt(26).putInt(0);
+        tiff.put("2024:05:17 09:30:12".getBytes(StandardCharsets.US_ASCII)).put((byte) 0);
+        return tiff.array();
+    }
+}
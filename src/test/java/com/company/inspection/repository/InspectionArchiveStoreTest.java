@@ -0,0 +1,153 @@
+package com.company.inspection.repository;
+
+import com.company.inspection.dto.response.InspectionRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Archive round trips, recovery from files a crash left half-written, and Bloom index misses.
+ * All cars share one bucket, so every lookup has to go through the member index.
+ */
+public class InspectionArchiveStoreTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2023, 3, 1, 9, 0);
+    private static final String SEGMENT = "bucket-00-000000.ndjson.gz";
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("archive");
+    }
+
+    @Test
+    void returnsPendingAndCompactedInspectionsOfACarNewestFirst() throws IOException {
+        InspectionArchiveStore store = open(3);
+        List<InspectionRecord> car1 = List.of(record(1, "CAR-1", 1), record(3, "CAR-1", 3), record(5, "CAR-1", 5));
+
+        store.append(List.of(car1.get(0), record(2, "CAR-2", 2), car1.get(1))); // Compacted into a member
+        store.append(List.of(record(4, "CAR-2", 4), car1.get(2)));               // Left pending
+
+        assertTrue(store.hasArchivedInspections());
+        assertEquals(List.of(car1.get(2), car1.get(1), car1.get(0)), store.findByCarId("CAR-1"));
+        assertEquals(List.of(5L, 3L, 1L), ids(open(3).findByCarId("CAR-1")));
+    }
+
+    @Test
+    void bloomIndexMissSkipsTheMemberWithoutReadingIt() throws IOException {
+        InspectionArchiveStore store = open(2);
+        store.append(List.of(record(1, "CAR-A", 1), record(2, "CAR-A", 2)));
+        // Unreadable from here on, so any lookup that opens the member fails
+        Files.write(directory.resolve(SEGMENT), new byte[(int) Files.size(directory.resolve(SEGMENT))]);
+
+        assertEquals(List.of(), store.findByCarId("CAR-B"));
+        assertThrows(IOException.class, () -> store.findByCarId("CAR-A"));
+    }
+
+    @Test
+    void bloomFilterFindsEveryAddedCarAndFewOthers() {
+        InspectionArchiveStore.BloomFilter filter = InspectionArchiveStore.BloomFilter.create(1000 * 10);
+        for (int i = 0; i < 1000; i++) {
+            filter.add("CAR-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain("CAR-" + i));
+            InspectionArchiveStore.BloomFilter copy = InspectionArchiveStore.BloomFilter.of(filter.getBits());
+            if (copy.mightContain("OTHER-" + i)) {
+                falsePositives++;
+            }
+        }
+        // About 1% at 10 bits per entry
+        assertTrue(falsePositives < 30, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void halfWrittenSegmentTailIsSkippedByLaterMembers() throws IOException {
+        InspectionArchiveStore store = open(1);
+        store.append(List.of(record(1, "CAR-1", 1)));
+        // A member written without its index entry before a crash; its batch is archived again later
+        Files.write(directory.resolve(SEGMENT), new byte[]{0x1f, (byte) 0x8b, 8, 0, 0}, StandardOpenOption.APPEND);
+
+        store.append(List.of(record(2, "CAR-1", 2)));
+
+        assertEquals(List.of(2L, 1L), ids(store.findByCarId("CAR-1")));
+        assertEquals(List.of(2L, 1L), ids(open(1).findByCarId("CAR-1")));
+    }
+
+    @Test
+    void tornIndexLineIsSkipped() throws IOException {
+        open(1).append(List.of(record(1, "CAR-1", 1)));
+        Files.writeString(directory.resolve("index-00.ndjson"), "{\"bucket\":0,\"segm", StandardOpenOption.APPEND);
+
+        InspectionArchiveStore reopened = open(1);
+        reopened.append(List.of(record(2, "CAR-1", 2)));
+
+        assertEquals(List.of(2L, 1L), ids(reopened.findByCarId("CAR-1")));
+    }
+
+    @Test
+    void tornPendingLineIsDropped() throws IOException {
+        InspectionArchiveStore store = open(100);
+        store.append(List.of(record(1, "CAR-1", 1)));
+        Files.writeString(directory.resolve("bucket-00.pending.ndjson"), "{\"inspectionId\":9,\"ca", StandardOpenOption.APPEND);
+
+        assertEquals(List.of(1L), ids(store.findByCarId("CAR-1")));
+
+        store.append(List.of(record(2, "CAR-1", 2)));
+        assertEquals(List.of(2L, 1L), ids(store.findByCarId("CAR-1")));
+    }
+
+    @Test
+    void halfWrittenManifestIsIgnored() throws IOException {
+        String archiveId = open(1).getArchiveId();
+        Files.writeString(directory.resolve("MANIFEST.tmp"), "buck", StandardCharsets.UTF_8);
+
+        assertEquals(archiveId, open(1).getArchiveId());
+    }
+
+    private InspectionArchiveStore open(int memberRecords) throws IOException {
+        InspectionArchiveStore store = new InspectionArchiveStore(new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(store, "directoryLocation", directory.toString());
+        ReflectionTestUtils.setField(store, "bucketCount", 1);
+        ReflectionTestUtils.setField(store, "maxSegmentBytes", 1L << 20);
+        ReflectionTestUtils.setField(store, "memberRecords", memberRecords);
+        ReflectionTestUtils.setField(store, "cachedBuckets", 4);
+        store.open();
+        return store;
+    }
+
+    static InspectionRecord record(long id, String carId, int day) {
+        return InspectionRecord.builder()
+                .inspectionId(id)
+                .carId(carId)
+                .status("COMPLETED")
+                .inspectionDate(DAY.plusDays(day))
+                .createdAt(DAY.plusDays(day))
+                .answers(List.of(InspectionRecord.AnswerRecord.builder()
+                        .answerId(id * 10)
+                        .questionId(1L)
+                        .answer("YES")
+                        .description("Scratch " + id)
+                        .photoUrls(List.of("https://example-cloud.com/photos/" + id + ".jpg"))
+                        .build()))
+                .build();
+    }
+
+    private static List<Long> ids(List<InspectionRecord> records) {
+        return records.stream().map(InspectionRecord::getInspectionId).toList();
+    }
+}
@@ -0,0 +1,138 @@
+package com.company.inspection.service;
+
+import com.company.inspection.datasource.ShardRouter;
+import com.company.inspection.datasource.ShardTemplate;
+import com.company.inspection.dto.request.AnswerSearchRequest;
+import com.company.inspection.dto.response.AnswerSearchResponse;
+import com.company.inspection.repository.AnswerSearchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * The search turns the trimmed text into a websearch tsquery with only the filters that are set,
+ * merges the pages of all shards newest answer first, and continues after the cursor.
+ */
+@ExtendWith(MockitoExtension.class)
+public class AnswerSearchServiceTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ShardRouter shardRouter;
+
+    @Mock
+    private ShardTemplate shardTemplate;
+
+    private AnswerSearchService answerSearchService;
+
+    @BeforeEach
+    void setUp() {
+        answerSearchService = new AnswerSearchService(new AnswerSearchRepository(jdbcTemplate), shardRouter, shardTemplate);
+    }
+
+    @Test
+    void searchShouldBuildTheTsqueryFromTheTrimmedTextAndTheSetFilters() {
+        when(shardRouter.shardForCar("CAR-1")).thenReturn(1);
+        when(shardTemplate.onShard(eq(1), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        when(jdbcTemplate.query(anyString(), any(SqlParameterSource.class), ArgumentMatchers.<RowMapper<AnswerSearchResponse.Hit>>any()))
+                .thenReturn(List.of());
+
+        answerSearchService.search(AnswerSearchRequest.builder()
+                .query("  rear bumper -scratch  ")
+                .carId("CAR-1")
+                .cursor(50L)
+                .size(10)
+                .build());
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<SqlParameterSource> params = ArgumentCaptor.forClass(SqlParameterSource.class);
+        verify(jdbcTemplate).query(sql.capture(), params.capture(), ArgumentMatchers.<RowMapper<AnswerSearchResponse.Hit>>any());
+        assertTrue(sql.getValue().contains("a.description_tsv @@ websearch_to_tsquery('simple', :query)"));
+        assertTrue(sql.getValue().contains(" AND i.car_id = :carId"));
+        assertTrue(sql.getValue().contains(" AND a.id < :cursor"));
+        assertFalse(sql.getValue().contains("question_id = "));
+        assertFalse(sql.getValue().contains("IS NULL"));
+        assertTrue(sql.getValue().endsWith(" ORDER BY a.id DESC LIMIT :limit"));
+        assertEquals("rear bumper -scratch", params.getValue().getValue("query"));
+        assertEquals(50L, params.getValue().getValue("cursor"));
+        assertEquals(11, params.getValue().getValue("limit"));
+        assertFalse(params.getValue().hasValue("questionId"));
+        verify(shardTemplate, never()).scatterGather(any());
+    }
+
+    @Test
+    void searchShouldMergeTheShardsNewestAnswerFirst() {
+        onTwoShards(hits(9, 4, 2), hits(8, 7, 1));
+
+        AnswerSearchResponse page = answerSearchService.search(request(null, 4));
+
+        assertEquals(List.of(9L, 8L, 7L, 4L), answerIds(page));
+        assertEquals(4L, page.getNextCursor());
+        assertEquals("scratch", page.getQuery());
+    }
+
+    @Test
+    void nextPageShouldStartAfterTheCursorOnEveryShard() {
+        onTwoShards(hits(2), hits(1));
+
+        AnswerSearchResponse page = answerSearchService.search(request(4L, 4));
+
+        assertEquals(List.of(2L, 1L), answerIds(page));
+        assertNull(page.getNextCursor());
+        ArgumentCaptor<SqlParameterSource> params = ArgumentCaptor.forClass(SqlParameterSource.class);
+        verify(jdbcTemplate, times(2)).query(anyString(), params.capture(), ArgumentMatchers.<RowMapper<AnswerSearchResponse.Hit>>any());
+        params.getAllValues().forEach(shardParams -> {
+            assertEquals(4L, shardParams.getValue("cursor"));
+            assertEquals(5, shardParams.getValue("limit"));
+        });
+    }
+
+    @Test
+    void blankQueryShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> answerSearchService.search(AnswerSearchRequest.builder().query("   ").build()));
+        verifyNoInteractions(jdbcTemplate, shardTemplate);
+    }
+
+    private void onTwoShards(List<AnswerSearchResponse.Hit> first, List<AnswerSearchResponse.Hit> second) {
+        when(shardTemplate.scatterGather(any())).thenAnswer(invocation -> {
+            IntFunction<?> work = invocation.getArgument(0);
+            return List.of(work.apply(0), work.apply(1));
+        });
+        when(jdbcTemplate.query(anyString(), any(SqlParameterSource.class), ArgumentMatchers.<RowMapper<AnswerSearchResponse.Hit>>any()))
+                .thenReturn(first, second);
+    }
+
+    private static AnswerSearchRequest request(Long cursor, int size) {
+        return AnswerSearchRequest.builder().query("scratch").cursor(cursor).size(size).build();
+    }
+
+    private static List<AnswerSearchResponse.Hit> hits(long... answerIds) {
+        return Arrays.stream(answerIds)
+                .mapToObj(id -> AnswerSearchResponse.Hit.builder().answerId(id).build())
+                .toList();
+    }
+
+    private static List<Long> answerIds(AnswerSearchResponse response) {
+        return response.getResults().stream().map(AnswerSearchResponse.Hit::getAnswerId).toList();
+    }
+}
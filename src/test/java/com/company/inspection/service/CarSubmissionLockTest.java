@@ -0,0 +1,106 @@
+package com.company.inspection.service;
+
+import com.company.inspection.cache.InvalidationBus;
+import com.company.inspection.concurrency.ConflictPolicy;
+import com.company.inspection.dto.request.CreateInspectionRequest;
+import com.company.inspection.dto.response.InspectionResponse;
+import com.company.inspection.entity.Inspection;
+import com.company.inspection.exception.InspectionConflictException;
+import com.company.inspection.repository.CarLockJdbcRepository;
+import com.company.inspection.repository.InspectionRepository;
+import com.company.inspection.validation.InspectionSubmissionValidator;
+import com.company.inspection.validation.ValidationResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * createInspection takes the car's database lock before it reads the car's latest inspection,
+ * also for a car that has never been inspected, so submissions on other instances are ordered.
+ */
+@ExtendWith(MockitoExtension.class)
+public class CarSubmissionLockTest {
+
+    private static final String CAR_ID = "CAR-NEW";
+
+    @Mock
+    private InspectionRepository inspectionRepository;
+
+    @Mock
+    private CarLockJdbcRepository carLockRepository;
+
+    @Mock
+    private InspectionSubmissionValidator submissionValidator;
+
+    @Mock
+    private CarInspectionScheduleService carInspectionScheduleService;
+
+    @Mock
+    private QuestionStatsAccumulator questionStatsAccumulator;
+
+    @Mock
+    private AnswerAnalyticsService answerAnalyticsService;
+
+    @Mock
+    private InvalidationBus invalidationBus;
+
+    @InjectMocks
+    private InspectionService inspectionService;
+
+    private CreateInspectionRequest request;
+
+    @BeforeEach
+    void setUp() {
+        request = CreateInspectionRequest.builder().carId(CAR_ID).build();
+        when(submissionValidator.validate(request)).thenReturn(new ValidationResult(List.of(), List.of(), 1L));
+    }
+
+    @Test
+    void firstInspectionOfACarShouldWaitForTheCarLock() {
+        when(inspectionRepository.findFirstByCarIdAndCompletedTrueOrderByCreatedAtDesc(CAR_ID)).thenReturn(Optional.empty());
+
+        InspectionResponse response = inspectionService.createInspection(request);
+
+        assertEquals(CAR_ID, response.getCarId());
+        InOrder inOrder = inOrder(carLockRepository, inspectionRepository);
+        inOrder.verify(carLockRepository).lock(CAR_ID);
+        inOrder.verify(inspectionRepository).findFirstByCarIdAndCompletedTrueOrderByCreatedAtDesc(CAR_ID);
+        inOrder.verify(inspectionRepository, atLeastOnce()).save(any(Inspection.class));
+    }
+
+    @Test
+    void submissionShouldSeeTheInspectionCommittedWhileItWaited() {
+        request.setPreviousInspectionId(7L);
+        // Stored by the submission that held the lock
+        Inspection committed = Inspection.builder().id(8L).carId(CAR_ID).completed(true).build();
+        when(inspectionRepository.findFirstByCarIdAndCompletedTrueOrderByCreatedAtDesc(CAR_ID)).thenReturn(Optional.of(committed));
+
+        assertThrows(InspectionConflictException.class, () -> inspectionService.createInspection(request));
+
+        verify(carLockRepository).lock(CAR_ID);
+        verify(inspectionRepository, never()).save(any(Inspection.class));
+    }
+
+    @Test
+    void rejectPolicyShouldFailWhileAnotherInstanceHoldsTheCar() {
+        ReflectionTestUtils.setField(inspectionService, "conflictPolicy", ConflictPolicy.REJECT);
+        when(carLockRepository.tryLock(CAR_ID)).thenReturn(false);
+
+        assertThrows(InspectionConflictException.class, () -> inspectionService.createInspection(request));
+
+        verify(carLockRepository, never()).lock(anyString());
+        verifyNoInteractions(inspectionRepository);
+    }
+}
@@ -0,0 +1,134 @@
+package com.company.inspection.service;
+
+import com.company.inspection.cache.InvalidationBus;
+import com.company.inspection.datasource.ShardTemplate;
+import com.company.inspection.dto.response.InspectionRecord;
+import com.company.inspection.entity.Inspection;
+import com.company.inspection.repository.ArchiveLocationJdbcRepository;
+import com.company.inspection.repository.InspectionArchiveStore;
+import com.company.inspection.repository.InspectionRecordJdbcRepository;
+import com.company.inspection.repository.InspectionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Inspections archived into a real archive directory come back, answers and photos included,
+ * in the history of their car, merged with the hot inspections.
+ */
+@ExtendWith(MockitoExtension.class)
+public class InspectionArchiveRoundTripTest {
+
+    private static final String CAR_ID = "CAR-1";
+    private static final LocalDateTime DAY = LocalDateTime.of(2023, 3, 1, 9, 0);
+
+    @Mock
+    private InspectionRepository inspectionRepository;
+
+    @Mock
+    private InspectionRecordJdbcRepository inspectionRecordRepository;
+
+    @Mock
+    private ArchiveLocationJdbcRepository archiveLocationRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private SecondLevelCacheEvictor cacheEvictor;
+
+    @Mock
+    private InvalidationBus invalidationBus;
+
+    @Mock
+    private ShardTemplate shardTemplate;
+
+    @InjectMocks
+    private InspectionService inspectionService;
+
+    private InspectionArchivalService archivalService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        InspectionArchiveStore archiveStore = new InspectionArchiveStore(new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(archiveStore, "directoryLocation", Files.createTempDirectory("archive").toString());
+        ReflectionTestUtils.setField(archiveStore, "bucketCount", 4);
+        ReflectionTestUtils.setField(archiveStore, "maxSegmentBytes", 1L << 20);
+        ReflectionTestUtils.setField(archiveStore, "memberRecords", 2);
+        ReflectionTestUtils.setField(archiveStore, "cachedBuckets", 4);
+        ReflectionTestUtils.invokeMethod(archiveStore, "open");
+
+        archivalService = new InspectionArchivalService(inspectionRecordRepository, archiveStore,
+                archiveLocationRepository, transactionTemplate, cacheEvictor, invalidationBus, shardTemplate);
+        ReflectionTestUtils.setField(archivalService, "minAgeDays", 180L);
+        ReflectionTestUtils.setField(archivalService, "batchSize", 3);
+        ReflectionTestUtils.setField(inspectionService, "inspectionArchivalService", archivalService);
+
+        when(archiveLocationRepository.claim(archiveStore.getArchiveId())).thenReturn(archiveStore.getArchiveId());
+        when(archiveLocationRepository.findArchiveId()).thenReturn(Optional.of(archiveStore.getArchiveId()));
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(shardTemplate.getShardCount()).thenReturn(1);
+        when(shardTemplate.onShard(eq(0), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+    }
+
+    @Test
+    void archivedInspectionsShouldComeBackInTheHistoryOfTheirCar() {
+        InspectionRecord first = record(1, CAR_ID, 1);
+        InspectionRecord third = record(3, CAR_ID, 3);
+        when(inspectionRecordRepository.findCompletedBefore(any(), eq(3)))
+                .thenReturn(List.of(first, record(2, "CAR-2", 2), third))
+                .thenReturn(List.of());
+
+        assertEquals(3, archivalService.archiveExpiredInspections());
+
+        // Inspection 3 is still hot as well, as after a crash between the archive write and the delete
+        Inspection hot = Inspection.builder().id(7L).carId(CAR_ID).completed(true).inspectionDate(DAY.plusDays(7)).build();
+        Inspection notYetDeleted = Inspection.builder().id(3L).carId(CAR_ID).completed(true).inspectionDate(DAY.plusDays(3)).build();
+        when(inspectionRepository.findByCarIdOrderByCreatedAtDesc(CAR_ID)).thenReturn(List.of(hot, notYetDeleted));
+
+        List<InspectionRecord> history = inspectionService.getInspectionHistory(CAR_ID);
+
+        assertEquals(List.of(7L, 3L, 1L), history.stream().map(InspectionRecord::getInspectionId).toList());
+        assertTrue(history.get(1).getAnswers().isEmpty(), "the hot copy of a duplicate wins");
+        assertEquals(first, history.get(2));
+        assertEquals(List.of("https://example-cloud.com/photos/1.jpg"), history.get(2).getAnswers().get(0).getPhotoUrls());
+        verify(inspectionRecordRepository).deleteByIds(eq(List.of(1L, 2L, 3L)), any());
+    }
+
+    private static InspectionRecord record(long id, String carId, int day) {
+        return InspectionRecord.builder()
+                .inspectionId(id)
+                .carId(carId)
+                .status("COMPLETED")
+                .inspectionDate(DAY.plusDays(day))
+                .createdAt(DAY.plusDays(day))
+                .answers(List.of(InspectionRecord.AnswerRecord.builder()
+                        .answerId(id * 10)
+                        .questionId(1L)
+                        .answer("NO")
+                        .description("Scratch " + id)
+                        .photoUrls(List.of("https://example-cloud.com/photos/" + id + ".jpg"))
+                        .build()))
+                .build();
+    }
+}
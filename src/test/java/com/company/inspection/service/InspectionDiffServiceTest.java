@@ -0,0 +1,125 @@
+package com.company.inspection.service;
+
+import com.company.inspection.dto.response.InspectionDiffResponse;
+import com.company.inspection.dto.response.InspectionDiffResponse.ChangeType;
+import com.company.inspection.dto.response.InspectionDiffResponse.QuestionDiff;
+import com.company.inspection.entity.Inspection;
+import com.company.inspection.entity.InspectionAnswer;
+import com.company.inspection.entity.InspectionAnswer.AnswerType;
+import com.company.inspection.entity.InspectionPhoto;
+import com.company.inspection.entity.Question;
+import com.company.inspection.repository.InspectionAnswerRepository;
+import com.company.inspection.repository.InspectionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * The sorted answer lists of two inspections are merged into per-question changes, and a cached
+ * diff of completed inspections is never shared between callers.
+ */
+@ExtendWith(MockitoExtension.class)
+public class InspectionDiffServiceTest {
+
+    private static final String CAR_ID = "CAR-1";
+
+    @Mock
+    private InspectionRepository inspectionRepository;
+
+    @Mock
+    private InspectionAnswerRepository answerRepository;
+
+    private InspectionDiffService diffService;
+
+    private Inspection before;
+    private Inspection after;
+
+    @BeforeEach
+    void setUp() {
+        diffService = new InspectionDiffService(inspectionRepository, answerRepository, 10);
+
+        before = inspection(1L, LocalDateTime.of(2024, 1, 10, 9, 0));
+        after = inspection(2L, LocalDateTime.of(2024, 6, 10, 9, 0));
+        when(inspectionRepository.findById(1L)).thenReturn(Optional.of(before));
+        when(inspectionRepository.findById(2L)).thenReturn(Optional.of(after));
+
+        when(answerRepository.findByInspectionIdWithPhotosOrderByQuestionId(1L, before.getInspectionDate())).thenReturn(List.of(
+                answer(1, AnswerType.NO, null),
+                answer(2, AnswerType.YES, "Scratch", "a.jpg", "b.jpg"),
+                answer(3, AnswerType.YES, "Dent", "c.jpg"),
+                answer(5, AnswerType.NO, null),
+                answer(7, AnswerType.YES, "Crack", "e.jpg")));
+        when(answerRepository.findByInspectionIdWithPhotosOrderByQuestionId(2L, after.getInspectionDate())).thenReturn(List.of(
+                answer(1, AnswerType.YES, "Rust", "f.jpg"),
+                answer(2, AnswerType.YES, "Scratch", "b.jpg", "a.jpg"),
+                answer(3, AnswerType.YES, "Deep dent", "d.jpg"),
+                answer(4, AnswerType.YES, "Chip", "g.jpg"),
+                answer(6, AnswerType.NO, null)));
+    }
+
+    @Test
+    void diffShouldReportAddedRemovedAndChangedAnswersByQuestion() {
+        InspectionDiffResponse diff = diffService.diff(CAR_ID, 1L, 2L);
+
+        // Question 2 only reordered its photos
+        assertEquals(List.of(1L, 3L, 4L, 5L, 6L, 7L), diff.getChanges().stream().map(QuestionDiff::getQuestionId).toList());
+        assertEquals(List.of(ChangeType.NEW_DEFECT), change(diff, 1L).getChangeTypes());
+        assertEquals(List.of(ChangeType.DESCRIPTION_CHANGED, ChangeType.PHOTOS_REPLACED), change(diff, 3L).getChangeTypes());
+        assertEquals(List.of(ChangeType.NEW_DEFECT), change(diff, 4L).getChangeTypes());
+        assertEquals(List.of(ChangeType.UNANSWERED), change(diff, 5L).getChangeTypes());
+        assertEquals(List.of(ChangeType.ANSWERED), change(diff, 6L).getChangeTypes());
+        assertEquals(List.of(ChangeType.RESOLVED_DEFECT), change(diff, 7L).getChangeTypes());
+
+        assertEquals(List.of("c.jpg"), change(diff, 3L).getBefore().getPhotoUrls());
+        assertEquals(List.of("d.jpg"), change(diff, 3L).getAfter().getPhotoUrls());
+        assertNull(change(diff, 4L).getBefore());
+        assertEquals("Chip", change(diff, 4L).getAfter().getDescription());
+        assertNull(change(diff, 5L).getAfter());
+        assertNull(change(diff, 6L).getAfter().getPhotoUrls());
+        assertNull(change(diff, 7L).getAfter());
+    }
+
+    @Test
+    void cachedDiffShouldNotBeChangedByItsCallers() {
+        InspectionDiffResponse first = diffService.diff(CAR_ID, 1L, 2L);
+        change(first, 3L).getAfter().getPhotoUrls().clear();
+        first.getChanges().clear();
+
+        InspectionDiffResponse second = diffService.diff(CAR_ID, 1L, 2L);
+
+        assertNotSame(first, second);
+        assertEquals(6, second.getChanges().size());
+        assertEquals(List.of("d.jpg"), change(second, 3L).getAfter().getPhotoUrls());
+        verify(answerRepository, times(1)).findByInspectionIdWithPhotosOrderByQuestionId(1L, before.getInspectionDate());
+    }
+
+    private static QuestionDiff change(InspectionDiffResponse diff, Long questionId) {
+        return diff.getChanges().stream()
+                .filter(change -> change.getQuestionId().equals(questionId))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static Inspection inspection(Long id, LocalDateTime inspectionDate) {
+        return Inspection.builder().id(id).carId(CAR_ID).completed(true).inspectionDate(inspectionDate).build();
+    }
+
+    private static InspectionAnswer answer(long questionId, AnswerType type, String description, String... photoUrls) {
+        return InspectionAnswer.builder()
+                .question(Question.builder().id(questionId).build())
+                .answer(type)
+                .description(description)
+                .photos(Arrays.stream(photoUrls).map(url -> InspectionPhoto.builder().photoUrl(url).build()).toList())
+                .build();
+    }
+}
@@ -0,0 +1,122 @@
+package com.company.inspection.service;
+
+import com.company.inspection.datasource.ShardHolder;
+import com.company.inspection.datasource.ShardRouter;
+import com.company.inspection.datasource.ShardTemplate;
+import com.company.inspection.dto.response.InspectionRecord;
+import com.company.inspection.repository.InspectionRecordJdbcRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * The export streams the shards one after another, each in its own read-only transaction, and
+ * flushes every flush-every inspections, counted across shards.
+ */
+@ExtendWith(MockitoExtension.class)
+public class InspectionExportServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2024, 4, 1, 0, 0);
+
+    @Mock
+    private InspectionRecordJdbcRepository inspectionRecordRepository;
+
+    @Mock
+    private ShardRouter shardRouter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private InspectionExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        when(shardRouter.getShardCount()).thenReturn(2);
+        exportService = new InspectionExportService(inspectionRecordRepository, new ShardTemplate(shardRouter, 1),
+                transactionManager, new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(exportService, "flushEvery", 2);
+        ReflectionTestUtils.setField(exportService, "maxRangeDays", 400L);
+
+        // Shard 0 holds inspections 1-3, shard 1 holds 4 and 5
+        doAnswer(invocation -> {
+            Consumer<InspectionRecord> consumer = invocation.getArgument(2);
+            int shard = ShardHolder.current();
+            for (long id = shard == 0 ? 1 : 4; id <= (shard == 0 ? 3 : 5); id++) {
+                consumer.accept(InspectionRecord.builder()
+                        .inspectionId(id)
+                        .carId("CAR-" + shard)
+                        .status("COMPLETED")
+                        .inspectionDate(FROM.plusDays(id))
+                        .build());
+            }
+            return null;
+        }).when(inspectionRecordRepository).streamByInspectionDate(eq(FROM), eq(TO), any());
+    }
+
+    @Test
+    void shardsShouldBeStreamedOneAfterAnotherInReadOnlyTransactions() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long written = exportService.export(FROM, TO, InspectionExportService.ExportFormat.NDJSON, output);
+
+        assertEquals(5, written);
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        List<Long> ids = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            ids.add(objectMapper.readValue(line, InspectionRecord.class).getInspectionId());
+        }
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), ids);
+
+        // The second shard's transaction only starts once the first one has committed
+        InOrder inOrder = inOrder(transactionManager, inspectionRecordRepository);
+        for (int shard = 0; shard < 2; shard++) {
+            inOrder.verify(transactionManager).getTransaction(any());
+            inOrder.verify(inspectionRecordRepository).streamByInspectionDate(eq(FROM), eq(TO), any());
+            inOrder.verify(transactionManager).commit(any());
+        }
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager, times(2)).getTransaction(definition.capture());
+        assertTrue(definition.getAllValues().stream().allMatch(TransactionDefinition::isReadOnly));
+        assertNull(ShardHolder.get());
+    }
+
+    @Test
+    void exportShouldFlushEveryFlushEveryInspectionsAcrossShards() {
+        FlushRecordingStream output = new FlushRecordingStream();
+
+        exportService.export(FROM, TO, InspectionExportService.ExportFormat.NDJSON, output);
+
+        // After inspections 2 and 4 (the first of shard 1), then once at the end
+        assertEquals(List.of(2, 4, 5), output.linesAtFlush);
+    }
+
+    // Records how many complete lines had reached the stream at each flush
+    private static class FlushRecordingStream extends ByteArrayOutputStream {
+        private final List<Integer> linesAtFlush = new ArrayList<>();
+
+        @Override
+        public void flush() {
+            linesAtFlush.add((int) toString(StandardCharsets.UTF_8).chars().filter(c -> c == '\n').count());
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.company.inspection.service;
+
+import com.company.inspection.concurrency.CarLockStripes;
+import com.company.inspection.concurrency.ConflictPolicy;
+import com.company.inspection.dto.request.CreateInspectionRequest;
+import com.company.inspection.dto.response.InspectionResponse;
+import com.company.inspection.exception.InspectionConflictException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Many devices submitting on one instance: with SERIALIZE, submissions for the same car never run
+ * side by side, none are lost, and a car's submission does not wait for another car's. The backend
+ * stands in for the createInspection transaction and records how many submissions per car it is
+ * running at the same time; the car lock and the REJECT policy are covered by
+ * {@link CarSubmissionLockTest}.
+ */
+public class InspectionSubmissionStressTest {
+
+    private static final int THREADS = 8;
+    private static final int SUBMISSIONS_PER_THREAD = 40;
+    private static final long TRANSACTION_MS = 2;
+
+    @Test
+    void sameCarSubmissionsShouldRunOneAtATime() throws Exception {
+        Backend backend = new Backend();
+        InspectionSubmissionService service = service(backend, ConflictPolicy.SERIALIZE);
+
+        RunResult result = run(service, thread -> "CAR-1");
+
+        assertEquals(THREADS * SUBMISSIONS_PER_THREAD, result.accepted.get());
+        assertEquals(0, result.rejected.get());
+        assertEquals(THREADS * SUBMISSIONS_PER_THREAD, backend.stored("CAR-1"));
+        assertEquals(1, backend.maxOverlap.get(), "submissions for one car running at the same time");
+    }
+
+    @Test
+    void differentCarsShouldNotWaitForEachOther() throws Exception {
+        CarLockStripes stripes = new CarLockStripes(1024);
+        assertNotSame(stripes.lockFor("CAR-1"), stripes.lockFor("CAR-2"));
+
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        InspectionSubmissionService service = new InspectionSubmissionService(request -> {
+            if (request.getCarId().equals("CAR-1")) {
+                firstStarted.countDown();
+                try {
+                    releaseFirst.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return InspectionResponse.builder().carId(request.getCarId()).build();
+        }, stripes, ConflictPolicy.SERIALIZE, 10_000);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<InspectionResponse> first = executor.submit(() -> service.submit(request("CAR-1")));
+            assertTrue(firstStarted.await(10, TimeUnit.SECONDS));
+
+            // CAR-1 is still in its transaction
+            assertEquals("CAR-2", service.submit(request("CAR-2")).getCarId());
+
+            releaseFirst.countDown();
+            assertEquals("CAR-1", first.get(10, TimeUnit.SECONDS).getCarId());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectPolicyShouldLeaveTheSameCarToTheCarLock() throws Exception {
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        AtomicInteger started = new AtomicInteger();
+        InspectionSubmissionService service = new InspectionSubmissionService(request -> {
+            if (started.incrementAndGet() == 1) {
+                firstStarted.countDown();
+                try {
+                    releaseFirst.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return InspectionResponse.builder().carId(request.getCarId()).build();
+        }, new CarLockStripes(16), ConflictPolicy.REJECT, 10_000);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<InspectionResponse> first = executor.submit(() -> service.submit(request("CAR-1")));
+            assertTrue(firstStarted.await(10, TimeUnit.SECONDS));
+
+            // Not queued here: createInspection's tryLock answers for the car
+            assertEquals("CAR-1", service.submit(request("CAR-1")).getCarId());
+            assertEquals(2, started.get());
+
+            releaseFirst.countDown();
+            assertEquals("CAR-1", first.get(10, TimeUnit.SECONDS).getCarId());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedSubmissionShouldReleaseTheStripe() {
+        AtomicInteger attempts = new AtomicInteger();
+        InspectionSubmissionService service = new InspectionSubmissionService(request -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new InspectionConflictException("superseded concurrently");
+            }
+            return InspectionResponse.builder().carId(request.getCarId()).build();
+        }, new CarLockStripes(16), ConflictPolicy.SERIALIZE, 0);
+
+        assertThrows(InspectionConflictException.class, () -> service.submit(request("CAR-1")));
+        assertEquals("CAR-1", service.submit(request("CAR-1")).getCarId());
+    }
+
+    @Test
+    void stripesShouldBeStablePerCar() {
+        CarLockStripes stripes = new CarLockStripes(1000);
+
+        assertEquals(1024, stripes.getStripeCount());
+        assertSame(stripes.lockFor("CAR-42"), stripes.lockFor("CAR-" + 42));
+    }
+
+    private static InspectionSubmissionService service(Backend backend, ConflictPolicy policy) {
+        return new InspectionSubmissionService(backend, new CarLockStripes(1024), policy, 10_000);
+    }
+
+    private static CreateInspectionRequest request(String carId) {
+        return CreateInspectionRequest.builder().carId(carId).build();
+    }
+
+    private static RunResult run(InspectionSubmissionService service, Function<Integer, String> carOfThread) throws Exception {
+        RunResult result = new RunResult();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            String carId = carOfThread.apply(thread);
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < SUBMISSIONS_PER_THREAD; i++) {
+                    try {
+                        service.submit(request(carId));
+                        result.accepted.incrementAndGet();
+                    } catch (InspectionConflictException e) {
+                        result.rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        return result;
+    }
+
+    // Stands in for the createInspection transaction
+    private static class Backend implements Function<CreateInspectionRequest, InspectionResponse> {
+        private final Map<String, AtomicInteger> running = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> stored = new ConcurrentHashMap<>();
+        private final AtomicInteger maxOverlap = new AtomicInteger();
+
+        @Override
+        public InspectionResponse apply(CreateInspectionRequest request) {
+            AtomicInteger inProgress = running.computeIfAbsent(request.getCarId(), carId -> new AtomicInteger());
+            maxOverlap.accumulateAndGet(inProgress.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(TRANSACTION_MS);
+                stored.computeIfAbsent(request.getCarId(), carId -> new AtomicInteger()).incrementAndGet();
+                return InspectionResponse.builder().carId(request.getCarId()).build();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } finally {
+                inProgress.decrementAndGet();
+            }
+        }
+
+        int stored(String carId) {
+            AtomicInteger count = stored.get(carId);
+            return count != null ? count.get() : 0;
+        }
+    }
+
+    private static class RunResult {
+        final AtomicLong accepted = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+    }
+}
@@ -0,0 +1,81 @@
+package com.company.inspection.service;
+
+import com.company.inspection.cache.LatestInspectionCache;
+import com.company.inspection.dto.response.InspectionResponse;
+import com.company.inspection.entity.Inspection;
+import com.company.inspection.repository.InspectionRepository;
+import com.company.inspection.repository.QuestionnaireVersionJdbcRepository.QuestionnaireVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * The latest completed inspection of a car is queried once and then served from the id cache.
+ */
+@ExtendWith(MockitoExtension.class)
+public class LatestInspectionLookupTest {
+
+    private static final String CAR_ID = "CAR-1";
+
+    @Mock
+    private InspectionRepository inspectionRepository;
+
+    @Mock
+    private QuestionService questionService;
+
+    @Spy
+    private LatestInspectionCache latestInspectionCache = new LatestInspectionCache(100);
+
+    @InjectMocks
+    private InspectionService inspectionService;
+
+    private Inspection latest;
+
+    @BeforeEach
+    void setUp() {
+        latest = Inspection.builder().id(42L).carId(CAR_ID).completed(true).build();
+        when(questionService.getCurrentQuestionnaire()).thenReturn(new QuestionnaireVersion(1L, null, List.of()));
+    }
+
+    @Test
+    void secondReadForTheSameCarShouldBeACacheHit() {
+        when(inspectionRepository.findFirstByCarIdAndCompletedAndInspectionDateGreaterThanEqualOrderByCreatedAtDesc(
+                eq(CAR_ID), eq(true), any())).thenReturn(Optional.of(latest));
+        when(inspectionRepository.findById(42L)).thenReturn(Optional.of(latest));
+
+        InspectionResponse first = inspectionService.getInspectionQuestions(CAR_ID);
+        InspectionResponse second = inspectionService.getInspectionQuestions(CAR_ID);
+
+        assertEquals(42L, first.getInspectionId());
+        assertEquals(42L, second.getInspectionId());
+        assertEquals(42L, latestInspectionCache.get(CAR_ID));
+        verify(inspectionRepository, times(1))
+                .findFirstByCarIdAndCompletedAndInspectionDateGreaterThanEqualOrderByCreatedAtDesc(eq(CAR_ID), eq(true), any());
+        verify(inspectionRepository, never()).findFirstByCarIdAndCompletedOrderByCreatedAtDesc(anyString(), anyBoolean());
+        verify(latestInspectionCache, never()).remove(CAR_ID);
+    }
+
+    @Test
+    void cachedIdOfAnInspectionThatIsGoneShouldBeDropped() {
+        latestInspectionCache.put(CAR_ID, 7L, latestInspectionCache.beginLoad());
+        when(inspectionRepository.findById(7L)).thenReturn(Optional.empty());
+        when(inspectionRepository.findFirstByCarIdAndCompletedAndInspectionDateGreaterThanEqualOrderByCreatedAtDesc(
+                eq(CAR_ID), eq(true), any())).thenReturn(Optional.of(latest));
+
+        InspectionResponse response = inspectionService.getInspectionQuestions(CAR_ID);
+
+        assertEquals(42L, response.getInspectionId());
+        assertEquals(42L, latestInspectionCache.get(CAR_ID));
+    }
+}
@@ -0,0 +1,183 @@
+package com.company.inspection.service;
+
+import com.company.inspection.cache.InvalidationBus;
+import com.company.inspection.cache.InvalidationType;
+import com.company.inspection.datasource.ShardTemplate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Partitions are created for the months ahead, taking over the rows the default partitions already
+ * hold for their month, and only partitions older than the retention window are detached.
+ */
+@ExtendWith(MockitoExtension.class)
+public class PartitionMaintenanceServiceTest {
+
+    private static final YearMonth MARCH = YearMonth.of(2024, 3);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private InvalidationBus invalidationBus;
+
+    @Mock
+    private ShardTemplate shardTemplate;
+
+    @InjectMocks
+    private PartitionMaintenanceService partitionMaintenanceService;
+
+    // Tables that exist, and the partitions attached to each partitioned table
+    private final Set<String> tables = new HashSet<>();
+    private final Map<String, List<String>> partitions = new HashMap<>();
+    // Every statement run, in order
+    private final List<String> statements = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(partitionMaintenanceService, "enabled", true);
+
+        doAnswer(invocation -> {
+            invocation.<IntConsumer>getArgument(0).accept(0);
+            return null;
+        }).when(shardTemplate).forEachShard(any());
+        when(jdbcTemplate.queryForObject(eq("SELECT to_regclass(?) IS NOT NULL"), eq(Boolean.class), anyString()))
+                .thenAnswer(invocation -> tables.contains(invocation.<String>getArgument(2)));
+
+        // Not every test gets as far as writing
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        lenient().when(jdbcTemplate.queryForList(anyString(), eq(String.class), anyString())).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            String table = invocation.getArgument(2);
+            if (sql.contains("pg_inherits")) {
+                return partitions.getOrDefault(table, List.of());
+            }
+            if (sql.contains("pg_constraint")) {
+                return List.of(table + "_fkey");
+            }
+            return List.of("id", "inspection_date"); // Insertable columns
+        });
+        lenient().doAnswer(invocation -> statements.add(invocation.getArgument(0)))
+                .when(jdbcTemplate).execute(anyString());
+        lenient().when(jdbcTemplate.update(anyString())).thenAnswer(invocation -> {
+            statements.add(invocation.getArgument(0));
+            return 0;
+        });
+    }
+
+    @Test
+    void maintainPartitionsShouldCreateTheMissingMonthsAhead() {
+        ReflectionTestUtils.setField(partitionMaintenanceService, "monthsAhead", 2);
+        YearMonth current = YearMonth.now();
+        exist("inspections", current);
+        exist("inspection_answers", current);
+
+        partitionMaintenanceService.maintainPartitions();
+
+        List<String> created = statements.stream().filter(sql -> sql.contains(" PARTITION OF ")).toList();
+        assertEquals(List.of(
+                createPartition("inspections", current.plusMonths(1)),
+                createPartition("inspection_answers", current.plusMonths(1)),
+                createPartition("inspections", current.plusMonths(2)),
+                createPartition("inspection_answers", current.plusMonths(2))), created);
+        assertTrue(statements.stream().noneMatch(sql -> sql.contains(" DETACH ")));
+        verifyNoInteractions(invalidationBus);
+    }
+
+    @Test
+    void newPartitionShouldTakeOverTheRowsOfTheDefaultPartitions() {
+        partitionMaintenanceService.createPartitions(MARCH, MARCH);
+
+        String march = "inspection_date >= '2024-03-01' AND inspection_date < '2024-04-01'";
+        assertEquals(List.of(
+                // Set aside children first, photos of default-partition answers included
+                "CREATE TEMPORARY TABLE stray_inspection_photos ON COMMIT DROP AS SELECT * FROM inspection_photos WHERE "
+                        + march + " AND (answer_id, inspection_date) IN (SELECT id, inspection_date FROM inspection_answers_default)",
+                "DELETE FROM inspection_photos WHERE "
+                        + march + " AND (answer_id, inspection_date) IN (SELECT id, inspection_date FROM inspection_answers_default)",
+                "CREATE TEMPORARY TABLE stray_inspection_answers ON COMMIT DROP AS SELECT * FROM inspection_answers_default WHERE " + march,
+                "DELETE FROM inspection_answers_default WHERE " + march,
+                "CREATE TEMPORARY TABLE stray_inspections ON COMMIT DROP AS SELECT * FROM inspections_default WHERE " + march,
+                "DELETE FROM inspections_default WHERE " + march,
+                createPartition("inspections", MARCH),
+                createPartition("inspection_answers", MARCH),
+                // Put back parents first
+                "INSERT INTO inspections (id, inspection_date) SELECT id, inspection_date FROM stray_inspections",
+                "INSERT INTO inspection_answers (id, inspection_date) SELECT id, inspection_date FROM stray_inspection_answers",
+                "INSERT INTO inspection_photos (id, inspection_date) SELECT id, inspection_date FROM stray_inspection_photos"),
+                statements);
+    }
+
+    @Test
+    void missingParentPartitionOfAnExistingChildShouldBeRefused() {
+        exist("inspection_answers", MARCH);
+
+        assertThrows(IllegalStateException.class, () -> partitionMaintenanceService.createPartitions(MARCH, MARCH));
+        assertTrue(statements.isEmpty());
+    }
+
+    @Test
+    void onlyPartitionsBeforeTheRetentionWindowShouldBeDetached() {
+        ReflectionTestUtils.setField(partitionMaintenanceService, "retentionMonths", 2);
+        YearMonth current = YearMonth.now();
+        YearMonth oldestKept = current.minusMonths(2);
+        YearMonth expired = oldestKept.minusMonths(1);
+        for (String table : List.of("inspections", "inspection_answers")) {
+            exist(table, current);
+            partitions.put(table, List.of(partitionName(table, expired), partitionName(table, oldestKept),
+                    partitionName(table, current), table + "_default"));
+        }
+
+        partitionMaintenanceService.maintainPartitions();
+
+        List<String> detached = statements.stream().filter(sql -> sql.contains(" DETACH PARTITION ")).toList();
+        assertEquals(List.of(
+                "ALTER TABLE inspection_answers DETACH PARTITION " + partitionName("inspection_answers", expired),
+                "ALTER TABLE inspections DETACH PARTITION " + partitionName("inspections", expired)), detached);
+        // The photos of the detached answers are kept next to them
+        assertTrue(statements.contains("CREATE TABLE " + partitionName("inspection_photos", expired)
+                + " AS SELECT * FROM inspection_photos WHERE (answer_id, inspection_date) IN (SELECT id, inspection_date FROM "
+                + partitionName("inspection_answers", expired) + ")"));
+        assertTrue(statements.contains("ALTER TABLE " + partitionName("inspection_answers", expired)
+                + " DROP CONSTRAINT \"" + partitionName("inspection_answers", expired) + "_fkey\""));
+        assertTrue(statements.stream().noneMatch(sql -> sql.contains(partitionName("inspections", oldestKept))));
+        verify(invalidationBus).publish(InvalidationType.ALL, "inspection_answers");
+        verify(invalidationBus).publish(InvalidationType.ALL, "inspections");
+    }
+
+    private void exist(String table, YearMonth month) {
+        tables.add(partitionName(table, month));
+    }
+
+    private static String partitionName(String table, YearMonth month) {
+        return String.format("%s_p%04d_%02d", table, month.getYear(), month.getMonthValue());
+    }
+
+    private static String createPartition(String table, YearMonth month) {
+        return "CREATE TABLE " + partitionName(table, month) + " PARTITION OF " + table
+                + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')";
+    }
+}
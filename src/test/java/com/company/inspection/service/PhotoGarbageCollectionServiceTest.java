@@ -0,0 +1,129 @@
+package com.company.inspection.service;
+
+import com.company.inspection.datasource.ShardTemplate;
+import com.company.inspection.dto.response.PhotoGcStatusResponse;
+import com.company.inspection.repository.InspectionArchiveStore;
+import com.company.inspection.repository.InspectionPhotoJdbcRepository;
+import com.company.inspection.repository.LocalPhotoStore;
+import com.company.inspection.repository.MaintenanceCheckpointJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * The file sweep deletes a file only when no photo row references it and its modification time
+ * lies between the upload grace period and the age from which archived inspections or detached
+ * partitions may still reference it.
+ */
+@ExtendWith(MockitoExtension.class)
+public class PhotoGarbageCollectionServiceTest {
+
+    @Mock
+    private InspectionPhotoJdbcRepository photoJdbcRepository;
+
+    @Mock
+    private InspectionArchiveStore archiveStore;
+
+    @Mock
+    private MaintenanceCheckpointJdbcRepository checkpointRepository;
+
+    @Mock
+    private ShardTemplate shardTemplate;
+
+    private Path directory;
+    private PhotoGarbageCollectionService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("photos");
+        LocalPhotoStore photoStore = new LocalPhotoStore();
+        ReflectionTestUtils.setField(photoStore, "directoryLocation", directory.toString());
+        ReflectionTestUtils.setField(photoStore, "baseUrl", "/photos/");
+        ReflectionTestUtils.invokeMethod(photoStore, "init");
+
+        service = new PhotoGarbageCollectionService(photoJdbcRepository, photoStore, archiveStore,
+                checkpointRepository, shardTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "pauseMs", 0L);
+        ReflectionTestUtils.setField(service, "maxRunSeconds", 60L);
+        ReflectionTestUtils.setField(service, "fileGraceHours", 24L);
+        ReflectionTestUtils.setField(service, "archiveMinAgeDays", 180L);
+
+        when(checkpointRepository.findPosition(PhotoGarbageCollectionService.FILES_CHECKPOINT)).thenReturn(Optional.empty());
+        when(shardTemplate.scatterGather(any()))
+                .thenAnswer(invocation -> List.of(invocation.<IntFunction<?>>getArgument(0).apply(0)));
+    }
+
+    @Test
+    void deletesUnreferencedFilesPastTheGracePeriod() throws IOException {
+        Path fresh = photo("a/fresh.jpg", Duration.ofHours(1));
+        Path unreferenced = photo("a/unreferenced.jpg", Duration.ofDays(2));
+        Path referenced = photo("b/referenced.jpg", Duration.ofDays(2));
+        Path old = photo("b/old.jpg", Duration.ofDays(400));
+        when(photoJdbcRepository.findReferencedUrls(anyCollection())).thenReturn(Set.of("/photos/b/referenced.jpg"));
+
+        PhotoGcStatusResponse status = service.collectGarbage();
+
+        assertTrue(Files.exists(fresh));
+        assertFalse(Files.exists(unreferenced));
+        assertTrue(Files.exists(referenced));
+        assertFalse(Files.exists(old));
+        assertEquals(Boolean.TRUE, status.getLastRunCompletedPass());
+        assertEquals(4, status.getFilesScanned());
+        assertEquals(2, status.getFilesDeleted());
+        verify(checkpointRepository).savePosition(PhotoGarbageCollectionService.FILES_CHECKPOINT, null);
+    }
+
+    @Test
+    void keepsFilesOlderThanTheArchiveAgeWhileTheArchiveHoldsInspections() throws IOException {
+        when(archiveStore.hasArchivedInspections()).thenReturn(true);
+        Path recent = photo("recent.jpg", Duration.ofDays(179));
+        Path archivable = photo("archivable.jpg", Duration.ofDays(181));
+        when(photoJdbcRepository.findReferencedUrls(anyCollection())).thenReturn(Set.of());
+
+        service.collectGarbage();
+
+        assertFalse(Files.exists(recent));
+        assertTrue(Files.exists(archivable));
+    }
+
+    @Test
+    void keepsFilesOfDetachedPartitions() throws IOException {
+        ReflectionTestUtils.setField(service, "partitionRetentionMonths", 2);
+        Path recent = photo("recent.jpg", Duration.ofDays(40));
+        Path detached = photo("detached.jpg", Duration.ofDays(70));
+        when(photoJdbcRepository.findReferencedUrls(anyCollection())).thenReturn(Set.of());
+
+        service.collectGarbage();
+
+        assertFalse(Files.exists(recent));
+        assertTrue(Files.exists(detached));
+    }
+
+    private Path photo(String relativePath, Duration age) throws IOException {
+        Path file = directory.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[]{1});
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(age)));
+        return file;
+    }
+}
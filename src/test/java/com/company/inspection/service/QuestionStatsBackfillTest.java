@@ -0,0 +1,111 @@
+package com.company.inspection.service;
+
+import com.company.inspection.datasource.ShardTemplate;
+import com.company.inspection.repository.DailyQuestionStatsJdbcRepository;
+import com.company.inspection.repository.DailyQuestionStatsRepository;
+import com.company.inspection.repository.InspectionArchiveStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Backfill never deletes the counters of days whose inspections are no longer in the source
+ * tables: it starts after the archive cutoff and the partition retention window, and skips days
+ * without inspections left.
+ */
+@ExtendWith(MockitoExtension.class)
+public class QuestionStatsBackfillTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Mock
+    private DailyQuestionStatsRepository statsRepository;
+
+    @Mock
+    private DailyQuestionStatsJdbcRepository statsJdbcRepository;
+
+    @Mock
+    private QuestionStatsAccumulator statsAccumulator;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ShardTemplate shardTemplate;
+
+    @Mock
+    private InspectionArchiveStore archiveStore;
+
+    @InjectMocks
+    private QuestionStatsService questionStatsService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(questionStatsService, "maxRangeDays", 1830L);
+        ReflectionTestUtils.setField(questionStatsService, "archiveMinAgeDays", 180L);
+        ReflectionTestUtils.setField(questionStatsService, "partitioningEnabled", true);
+    }
+
+    @Test
+    void backfillShouldStartAfterTheArchiveCutoff() {
+        when(archiveStore.hasArchivedInspections()).thenReturn(true);
+        runOnOneShard();
+        when(statsJdbcRepository.hasInspections(any())).thenReturn(true);
+
+        int days = questionStatsService.backfill(TODAY.minusDays(200), TODAY.minusDays(170));
+
+        assertEquals(10, days);
+        verify(statsJdbcRepository, never()).rebuildDay(TODAY.minusDays(180));
+        verify(statsJdbcRepository).rebuildDay(TODAY.minusDays(179));
+        verify(statsJdbcRepository, times(10)).rebuildDay(any());
+    }
+
+    @Test
+    void backfillShouldKeepTheCountersOfADayWithoutInspectionsLeft() {
+        LocalDate emptyDay = TODAY.minusDays(3);
+        runOnOneShard();
+        when(statsJdbcRepository.hasInspections(any())).thenReturn(true);
+        when(statsJdbcRepository.hasInspections(emptyDay)).thenReturn(false);
+
+        int days = questionStatsService.backfill(TODAY.minusDays(4), TODAY.minusDays(2));
+
+        assertEquals(2, days);
+        verify(statsJdbcRepository, never()).rebuildDay(emptyDay);
+        verify(statsJdbcRepository).rebuildDay(TODAY.minusDays(4));
+        verify(statsJdbcRepository).rebuildDay(TODAY.minusDays(2));
+    }
+
+    @Test
+    void backfillOfDetachedMonthsShouldTouchNothing() {
+        ReflectionTestUtils.setField(questionStatsService, "retentionMonths", 2);
+        LocalDate lastDetachedDay = YearMonth.now().minusMonths(2).atDay(1).minusDays(1);
+
+        int days = questionStatsService.backfill(lastDetachedDay.minusDays(10), lastDetachedDay);
+
+        assertEquals(0, days);
+        verifyNoInteractions(statsJdbcRepository, statsAccumulator, shardTemplate);
+    }
+
+    private void runOnOneShard() {
+        doAnswer(invocation -> {
+            invocation.<IntConsumer>getArgument(0).accept(0);
+            return null;
+        }).when(shardTemplate).forEachShard(any());
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+}
@@ -0,0 +1,102 @@
+package com.company.inspection.tracing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveSampleRateTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void keepsEverythingBelowTheTarget() {
+        AdaptiveSampleRate rate = new AdaptiveSampleRate(10, 0.01, SECOND, clock::get, () -> 0.99);
+
+        for (int second = 0; second < 5; second++) {
+            for (int i = 0; i < 8; i++) {
+                assertTrue(rate.sample());
+            }
+            clock.addAndGet(SECOND);
+        }
+        assertEquals(1.0, rate.getProbability());
+    }
+
+    @Test
+    void lowersTheProbabilityUnderLoad() {
+        AdaptiveSampleRate rate = new AdaptiveSampleRate(10, 0.001, SECOND, clock::get, () -> 0.5);
+
+        offer(rate, 1000);
+        clock.addAndGet(SECOND);
+        rate.sample();
+
+        assertEquals(0.01, rate.getProbability(), 1e-3);
+    }
+
+    @Test
+    void keptVolumeStaysNearTheTarget() {
+        AdaptiveSampleRate rate = new AdaptiveSampleRate(10, 0.001, SECOND, clock::get, new StepRandom());
+
+        offer(rate, 1000);
+        clock.addAndGet(SECOND);
+        int kept = offer(rate, 1000);
+
+        assertTrue(kept >= 5 && kept <= 15, "kept " + kept);
+    }
+
+    @Test
+    void neverDropsBelowTheMinimum() {
+        AdaptiveSampleRate rate = new AdaptiveSampleRate(1, 0.05, SECOND, clock::get, () -> 0.5);
+
+        offer(rate, 100_000);
+        clock.addAndGet(SECOND);
+        rate.sample();
+
+        assertEquals(0.05, rate.getProbability());
+    }
+
+    @Test
+    void recoversWhenTheLoadFalls() {
+        AdaptiveSampleRate rate = new AdaptiveSampleRate(10, 0.001, SECOND, clock::get, () -> 0.5);
+
+        offer(rate, 1000);
+        clock.addAndGet(SECOND);
+        for (int second = 0; second < 10; second++) {
+            offer(rate, 2);
+            clock.addAndGet(SECOND);
+        }
+        rate.sample();
+
+        assertEquals(1.0, rate.getProbability());
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveSampleRate(-1, 0.1, SECOND));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveSampleRate(10, 1.5, SECOND));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveSampleRate(10, 0.1, 0));
+    }
+
+    private static int offer(AdaptiveSampleRate rate, int count) {
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            if (rate.sample()) {
+                kept++;
+            }
+        }
+        return kept;
+    }
+
+    // Evenly spread values in [0, 1) so the kept fraction is deterministic
+    private static class StepRandom implements java.util.function.DoubleSupplier {
+        private int next;
+
+        @Override
+        public double getAsDouble() {
+            return (next++ % 1000) / 1000.0;
+        }
+    }
+}
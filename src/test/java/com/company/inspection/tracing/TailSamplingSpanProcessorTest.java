@@ -0,0 +1,82 @@
+package com.company.inspection.tracing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * The sampler decides on the error attribute and the latency of a span, so it never snapshots
+ * a span; only the delegate does that, for kept spans.
+ */
+@ExtendWith(MockitoExtension.class)
+public class TailSamplingSpanProcessorTest {
+
+    private static final long SECOND = 1_000_000_000L;
+    private static final String TRACE_ID = "0af7651916cd43dd8448eb211c80319c";
+
+    @Mock
+    private SpanProcessor delegate;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void keepsAnErrorTraceWithoutSnapshottingItsSpans() {
+        TailSamplingSpanProcessor processor = newProcessor(new AdaptiveSampleRate(1, 0.001, SECOND, clock::get, () -> 0.99));
+        ReadableSpan child = span("b7ad6b7169203331", SpanContext.create(TRACE_ID, "00f067aa0ba902b7",
+                TraceFlags.getSampled(), TraceState.getDefault()), true);
+        ReadableSpan root = span("00f067aa0ba902b7", SpanContext.getInvalid(), false);
+
+        processor.onEnd(child);
+        assertEquals(1, processor.getBufferedTraceCount());
+        processor.onEnd(root);
+
+        assertEquals(0, processor.getBufferedTraceCount());
+        verify(delegate).onEnd(child);
+        verify(delegate).onEnd(root);
+        verify(child, never()).toSpanData();
+        verify(root, never()).toSpanData();
+    }
+
+    @Test
+    void dropsAHealthyTraceWithoutSnapshottingIt() {
+        // Lower the healthy rate below 1 first, then draw above it
+        AdaptiveSampleRate rate = new AdaptiveSampleRate(1, 0.001, SECOND, clock::get, () -> 0.99);
+        for (int i = 0; i < 1000; i++) {
+            rate.sample();
+        }
+        clock.addAndGet(SECOND);
+        TailSamplingSpanProcessor processor = newProcessor(rate);
+        ReadableSpan root = span("00f067aa0ba902b7", SpanContext.getInvalid(), false);
+
+        processor.onEnd(root);
+
+        verify(delegate, never()).onEnd(any());
+        verify(root, never()).toSpanData();
+    }
+
+    private TailSamplingSpanProcessor newProcessor(AdaptiveSampleRate healthyRate) {
+        return new TailSamplingSpanProcessor(delegate, SECOND, 10, 30 * SECOND, healthyRate, new SimpleMeterRegistry(), clock::get);
+    }
+
+    private static ReadableSpan span(String spanId, SpanContext parent, boolean error) {
+        ReadableSpan span = mock(ReadableSpan.class);
+        when(span.getSpanContext()).thenReturn(
+                SpanContext.create(TRACE_ID, spanId, TraceFlags.getSampled(), TraceState.getDefault()));
+        when(span.getParentSpanContext()).thenReturn(parent);
+        when(span.getAttribute(InspectionSpanAttributes.ERROR)).thenReturn(error ? Boolean.TRUE : null);
+        when(span.getLatencyNanos()).thenReturn(1_000L);
+        return span;
+    }
+}
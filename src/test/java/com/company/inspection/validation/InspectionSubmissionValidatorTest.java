@@ -0,0 +1,130 @@
+package com.company.inspection.validation;
+
+import com.company.inspection.dto.request.CreateInspectionRequest;
+import com.company.inspection.entity.InspectionAnswer;
+import com.company.inspection.entity.Question;
+import com.company.inspection.exception.ResourceNotFoundException;
+import com.company.inspection.repository.QuestionnaireVersionJdbcRepository.QuestionnaireVersion;
+import com.company.inspection.service.QuestionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * One pass over the answers reports every violation and resolves the valid answers.
+ */
+@ExtendWith(MockitoExtension.class)
+public class InspectionSubmissionValidatorTest {
+
+    @Mock
+    private QuestionService questionService;
+
+    @InjectMocks
+    private InspectionSubmissionValidator validator;
+
+    private List<Question> catalog;
+
+    @BeforeEach
+    void setUp() {
+        catalog = List.of(question(1L), question(2L), question(3L));
+        lenient().when(questionService.getCurrentQuestionnaire())
+                .thenAnswer(invocation -> new QuestionnaireVersion(2L, null, catalog));
+    }
+
+    @Test
+    void validSubmissionShouldResolveQuestionsAndAnswerTypes() {
+        ValidationResult result = validator.validate(request(
+                answer(1L, "no", null, null),
+                answer(2L, "Yes", "Scratch on rear bumper", List.of("/photos/a.jpg"))));
+
+        assertTrue(result.isValid());
+        assertEquals(2, result.answers().size());
+        assertSame(catalog.get(0), result.answers().get(0).question());
+        assertEquals(InspectionAnswer.AnswerType.NO, result.answers().get(0).answerType());
+        assertEquals(InspectionAnswer.AnswerType.YES, result.answers().get(1).answerType());
+        assertEquals(2L, result.questionnaireVersionId());
+    }
+
+    @Test
+    void shouldValidateAgainstTheRequestedQuestionnaireVersion() {
+        when(questionService.getQuestionnaire(1L)).thenReturn(new QuestionnaireVersion(1L, null, List.of(question(7L))));
+        when(questionService.getQuestionnaire(5L)).thenThrow(new ResourceNotFoundException("Questionnaire version not found with id: 5"));
+
+        CreateInspectionRequest oldVersion = request(answer(7L, "NO", null, null));
+        oldVersion.setQuestionnaireVersionId(1L);
+        ValidationResult result = validator.validate(oldVersion);
+
+        assertTrue(result.isValid());
+        assertEquals(1L, result.questionnaireVersionId());
+
+        CreateInspectionRequest unknownVersion = request(answer(1L, "NO", null, null));
+        unknownVersion.setQuestionnaireVersionId(5L);
+
+        assertEquals(List.of(new Violation("questionnaireVersionId", "Questionnaire version not found with id: 5")),
+                validator.validate(unknownVersion).violations());
+    }
+
+    @Test
+    void shouldCollectAllViolationsOfASubmission() {
+        ValidationResult result = validator.validate(request(
+                answer(1L, "YES", " ", null),
+                answer(1L, "NO", null, null),
+                answer(99L, "NO", null, null),
+                answer(2L, "MAYBE", null, null),
+                answer(3L, "YES", "Dent", List.of("/1.jpg", "/2.jpg", "/3.jpg", "/4.jpg"))));
+
+        assertFalse(result.isValid());
+        assertEquals(List.of(
+                new Violation("answers[0].description", "Description required for YES answers"),
+                new Violation("answers[0].photoUrls", "Photos required for YES answers"),
+                new Violation("answers[1].questionId", "Question 1 is answered more than once"),
+                new Violation("answers[2].questionId", "Question 99 does not exist or is not active"),
+                new Violation("answers[3].answer", "Answer must be YES or NO"),
+                new Violation("answers[4].photoUrls", "Maximum 3 photos allowed")), result.violations());
+    }
+
+    @Test
+    void shouldRejectSubmissionWithoutAnswers() {
+        CreateInspectionRequest request = CreateInspectionRequest.builder().carId("CAR123").answers(List.of()).build();
+
+        ValidationResult result = validator.validate(request);
+
+        assertEquals(List.of(new Violation("answers", "Answers cannot be empty")), result.violations());
+    }
+
+    @Test
+    void shouldRecompileRulesWhenCatalogChanges() {
+        assertFalse(validator.validate(request(answer(4L, "NO", null, null))).isValid());
+
+        catalog = List.of(question(1L), question(4L));
+
+        assertTrue(validator.validate(request(answer(4L, "NO", null, null))).isValid());
+        assertFalse(validator.validate(request(answer(2L, "NO", null, null))).isValid());
+    }
+
+    private static Question question(Long id) {
+        return Question.builder().id(id).questionText("Question " + id).orderIndex(id.intValue()).isActive(true).build();
+    }
+
+    private static CreateInspectionRequest request(CreateInspectionRequest.AnswerRequest... answers) {
+        return CreateInspectionRequest.builder().carId("CAR123").answers(List.of(answers)).build();
+    }
+
+    private static CreateInspectionRequest.AnswerRequest answer(Long questionId, String answer, String description,
+                                                                List<String> photoUrls) {
+        return CreateInspectionRequest.AnswerRequest.builder()
+                .questionId(questionId)
+                .answer(answer)
+                .description(description)
+                .photoUrls(photoUrls)
+                .build();
+    }
+}